@@ -0,0 +1,304 @@
+package com.hcltech.car_purcharse_service.config;
+
+import com.hcltech.car_purcharse_service.dao.service.IdempotencyStore;
+import com.hcltech.car_purcharse_service.exception.IdempotencyKeyInProgressException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Makes POSTs carrying an {@code Idempotency-Key} header safe to retry. The first request under a
+ * key runs and its response is stored; a retry gets the stored response, marked with
+ * {@value #REPLAYED_HEADER}, without running again, and a duplicate arriving while the first is
+ * still running waits for it. A key reused with a different body is rejected with 422.
+ *
+ * <p>Keys are scoped to the caller and the endpoint. Server errors are not stored, so a request
+ * that failed with a 5xx can be retried under the same key. Requests without the header pass
+ * through untouched.
+ *
+ * <p>The body has to be hashed before the request runs, so it is read once up front through a
+ * digest. Up to {@value #IN_MEMORY_BODY_LIMIT} bytes are kept in memory; a larger body, such as a
+ * purchase batch, is spooled to a temporary file while it is hashed and streamed back from there,
+ * so a keyed request holds no more of its body on the heap than an unkeyed one.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    static final int IN_MEMORY_BODY_LIMIT = 64 * 1024;
+
+    private final IdempotencyStore idempotencyStore;
+
+    public IdempotencyFilter(IdempotencyStore idempotencyStore) {
+        this.idempotencyStore = idempotencyStore;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        try (SpooledBody body = SpooledBody.read(request.getInputStream())) {
+            handle(request, response, filterChain, key, body);
+        }
+    }
+
+    private void handle(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                        String key, SpooledBody body) throws ServletException, IOException {
+        String requestHash = body.hash;
+        String id = sha256((caller() + '\n' + request.getRequestURI() + '\n' + key).getBytes(StandardCharsets.UTF_8));
+
+        Optional<IdempotencyStore.StoredResponse> stored;
+        try {
+            stored = idempotencyStore.begin(id, requestHash);
+        } catch (IdempotencyKeyInProgressException e) {
+            writeError(response, HttpStatus.CONFLICT, e.getMessage());
+            return;
+        }
+        if (stored.isPresent()) {
+            replay(stored.get(), requestHash, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(new SpooledBodyRequest(request, body), cachingResponse);
+            if (cachingResponse.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                idempotencyStore.complete(id, new IdempotencyStore.StoredResponse(requestHash,
+                        cachingResponse.getStatus(), cachingResponse.getContentType(),
+                        cachingResponse.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                idempotencyStore.release(id);
+            }
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(IdempotencyStore.StoredResponse stored, String requestHash, HttpServletResponse response)
+            throws IOException {
+        if (!stored.requestHash().equals(requestHash)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    IDEMPOTENCY_KEY_HEADER + " was already used with a different request body");
+            return;
+        }
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(message);
+    }
+
+    // Runs after Spring Security, so an authenticated caller is already known here
+    private static String caller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return "anonymous";
+        }
+        return "user:" + authentication.getName();
+    }
+
+    private static String sha256(byte[] bytes) {
+        return HexFormat.of().formatHex(sha256Digest().digest(bytes));
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /** The request body, hashed while it was read and kept in memory or in a temporary file. */
+    static final class SpooledBody implements Closeable {
+
+        final String hash;
+
+        final long length;
+
+        private final byte[] memory;
+
+        private final Path file;
+
+        private SpooledBody(String hash, long length, byte[] memory, Path file) {
+            this.hash = hash;
+            this.length = length;
+            this.memory = memory;
+            this.file = file;
+        }
+
+        static SpooledBody read(InputStream input) throws IOException {
+            MessageDigest digest = sha256Digest();
+            DigestInputStream digesting = new DigestInputStream(input, digest);
+            byte[] head = digesting.readNBytes(IN_MEMORY_BODY_LIMIT + 1);
+            if (head.length <= IN_MEMORY_BODY_LIMIT) {
+                return new SpooledBody(HexFormat.of().formatHex(digest.digest()), head.length, head, null);
+            }
+            Path file = Files.createTempFile("idempotent-body-", ".tmp");
+            try (OutputStream output = Files.newOutputStream(file)) {
+                output.write(head);
+                long length = head.length + digesting.transferTo(output);
+                return new SpooledBody(HexFormat.of().formatHex(digest.digest()), length, null, file);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+        }
+
+        boolean isSpooled() {
+            return file != null;
+        }
+
+        InputStream open() throws IOException {
+            return file == null ? new ByteArrayInputStream(memory) : new BufferedInputStream(Files.newInputStream(file));
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /** Hands the controller the spooled body in place of the consumed request stream. */
+    private static final class SpooledBodyRequest extends HttpServletRequestWrapper {
+
+        private final SpooledBody body;
+
+        SpooledBodyRequest(HttpServletRequest request, SpooledBody body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            InputStream input = body.open();
+            return new ServletInputStream() {
+
+                private boolean finished;
+
+                @Override
+                public int read() throws IOException {
+                    int read = input.read();
+                    finished = read == -1;
+                    return read;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int read = input.read(buffer, offset, length);
+                    finished = read == -1;
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    input.close();
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                private boolean listening;
+
+                // The whole body is already here, so the listener is told so at once
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    if (listening) {
+                        throw new IllegalStateException("A read listener is already set");
+                    }
+                    listening = true;
+                    try {
+                        if (body.length > 0) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException | RuntimeException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length > Integer.MAX_VALUE ? -1 : (int) body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -1,10 +1,30 @@
 package com.hcltech.car_purcharse_service.controller;
 
+import com.hcltech.car_purcharse_service.dto.CacheStatsDto;
+import com.hcltech.car_purcharse_service.dto.CarBulkUpdateDto;
+import com.hcltech.car_purcharse_service.dto.CarBulkUpdateResultDto;
+import com.hcltech.car_purcharse_service.dto.CarDetailDto;
 import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.dto.CarFacetSearchDto;
+import com.hcltech.car_purcharse_service.dto.CarImportResultDto;
+import com.hcltech.car_purcharse_service.dto.CarPageDto;
+import com.hcltech.car_purcharse_service.service.CarDetailService;
+import com.hcltech.car_purcharse_service.service.CarImportService;
 import com.hcltech.car_purcharse_service.service.CarService;
+import com.hcltech.car_purcharse_service.service.ExportFormat;
+import com.hcltech.car_purcharse_service.service.ExportService;
+import com.hcltech.car_purcharse_service.utils.AggregateVersions;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -13,18 +33,112 @@ public class CarController {
 
     CarService carService;
 
-    public CarController(CarService carService) {
+    AggregateVersions aggregateVersions;
+
+    ExportService exportService;
+
+    CarImportService carImportService;
+
+    CarDetailService carDetailService;
+
+    public CarController(CarService carService, AggregateVersions aggregateVersions, ExportService exportService,
+                         CarImportService carImportService, CarDetailService carDetailService) {
         this.carService = carService;
+        this.aggregateVersions = aggregateVersions;
+        this.exportService = exportService;
+        this.carImportService = carImportService;
+        this.carDetailService = carDetailService;
+    }
+
+    @GetMapping
+    public ResponseEntity<CarPageDto> getPage(@RequestParam(value = "sort", defaultValue = "id") String sort,
+                                              @RequestParam(value = "direction", defaultValue = "asc") String direction,
+                                              @RequestParam(value = "cursor", required = false) String cursor,
+                                              @RequestParam(value = "size", required = false) Integer size,
+                                              @RequestParam(value = "available", defaultValue = "false") boolean available) {
+        return ResponseEntity.ok(carService.getPage(sort, direction, cursor, size, available));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<CarFacetSearchDto> facetSearch(@RequestParam(value = "make", required = false) String make,
+                                                         @RequestParam(value = "model", required = false) String model,
+                                                         @RequestParam(value = "yearBand", required = false) String yearBand,
+                                                         @RequestParam(value = "priceBand", required = false) String priceBand,
+                                                         @RequestParam(value = "available", required = false) Boolean available,
+                                                         @RequestParam(value = "size", required = false) Integer size) {
+        return ResponseEntity.ok(carService.facetSearch(make, model, yearBand, priceBand, available, size));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<CarDto>> search(@RequestParam(value = "minPrice", required = false) Double minPrice,
+                                               @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+                                               @RequestParam(value = "minYear", required = false) Integer minYear,
+                                               @RequestParam(value = "maxYear", required = false) Integer maxYear,
+                                               @RequestParam(value = "sort", defaultValue = "price_asc") String sort,
+                                               @RequestParam(value = "size", required = false) Integer size) {
+        return ResponseEntity.ok(carService.search(minPrice, maxPrice, minYear, maxYear, sort, size));
+    }
+
+    @GetMapping("/text-search")
+    public ResponseEntity<List<CarDto>> textSearch(@RequestParam("q") String query,
+                                                   @RequestParam(value = "available", defaultValue = "false") boolean available,
+                                                   @RequestParam(value = "size", required = false) Integer size) {
+        return ResponseEntity.ok(carService.textSearch(query, available, size));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggest(@RequestParam("q") String query,
+                                                @RequestParam(value = "size", required = false) Integer size) {
+        return ResponseEntity.ok(carService.suggest(query, size));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("cars." + exportFormat.getExtension()).build().toString())
+                .body(exportService.exportCars(exportFormat));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CarImportResultDto> importCars(@RequestParam("file") MultipartFile file,
+                                                         @RequestParam(value = "format", required = false) String format) throws IOException {
+        ExportFormat importFormat = format != null ? ExportFormat.from(format) : ExportFormat.fromFilename(file.getOriginalFilename());
+        try (InputStream upload = file.getInputStream()) {
+            return ResponseEntity.ok(carImportService.importCars(upload, importFormat));
+        }
     }
 
     @GetMapping("/getAll")
-    public ResponseEntity<List<CarDto>> getAll(){
-        return ResponseEntity.ok(carService.getAll());
+    public ResponseEntity<List<CarDto>> getAll(WebRequest webRequest){
+        String etag = aggregateVersions.etag(AggregateVersions.Aggregate.CAR);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(carService.getAll());
     }
 
     @GetMapping("/getOneById/{id}")
-    public ResponseEntity<CarDto> getOneById(@PathVariable("id") Integer id){
-        return ResponseEntity.ok(carService.getOneById(id));
+    public ResponseEntity<CarDto> getOneById(@PathVariable("id") Integer id, WebRequest webRequest){
+        String etag = aggregateVersions.etag(AggregateVersions.Aggregate.CAR);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(carService.getOneById(id));
+    }
+
+    // Not ETag-cached: the page spans cars, sellers, reviews and images and may be partial
+    @GetMapping("/{id}/detail")
+    public ResponseEntity<CarDetailDto> getDetail(@PathVariable("id") Integer id) {
+        return ResponseEntity.ok(carDetailService.getDetail(id));
+    }
+
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<CarDto>> similar(@PathVariable("id") Integer id,
+                                                @RequestParam(value = "k", required = false) Integer k) {
+        return ResponseEntity.ok(carService.similar(id, k));
     }
 
     @PostMapping("/create")
@@ -43,14 +157,33 @@ public class CarController {
     }
 
     @GetMapping("/getAvailableCars")
-    public ResponseEntity<List<CarDto>> getAvailableCars(){
-        return ResponseEntity.ok(carService.getAvailableCars());
+    public ResponseEntity<List<CarDto>> getAvailableCars(WebRequest webRequest){
+        String etag = aggregateVersions.etag(AggregateVersions.Aggregate.CAR);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(carService.getAvailableCars());
     }
 
     @GetMapping(value = "/seller/{sellerId}")
-    public ResponseEntity<List<CarDto>> getCarsBySeller(@PathVariable Integer sellerId) {
+    public ResponseEntity<List<CarDto>> getCarsBySeller(@PathVariable Integer sellerId, WebRequest webRequest) {
+        String etag = aggregateVersions.etag(AggregateVersions.Aggregate.CAR);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<CarDto> cars = carService.getCarsBySeller(sellerId);
-        return ResponseEntity.ok(cars);
+        return ResponseEntity.ok().eTag(etag).body(cars);
+    }
+
+    @PatchMapping("/seller/{sellerId}/bulk")
+    public ResponseEntity<CarBulkUpdateResultDto> bulkUpdate(@PathVariable Integer sellerId,
+                                                             @RequestBody CarBulkUpdateDto change) {
+        return ResponseEntity.ok(carService.bulkUpdate(sellerId, change));
+    }
+
+    @GetMapping("/cache/seller-inventory/stats")
+    public ResponseEntity<CacheStatsDto> getSellerInventoryCacheStats() {
+        return ResponseEntity.ok(carService.getSellerInventoryCacheStats());
     }
 
 }
@@ -0,0 +1,33 @@
+package com.hcltech.car_purcharse_service.controller;
+
+import com.hcltech.car_purcharse_service.dto.CarHoldDto;
+import com.hcltech.car_purcharse_service.service.CarHoldService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/v1/api/cars")
+public class CarHoldController {
+
+    private final CarHoldService carHoldService;
+
+    public CarHoldController(CarHoldService carHoldService) {
+        this.carHoldService = carHoldService;
+    }
+
+    @PostMapping("/{id}/hold")
+    public ResponseEntity<CarHoldDto> placeHold(@PathVariable("id") Integer id, @RequestBody CarHoldDto request) {
+        return ResponseEntity.status(201).body(carHoldService.placeHold(id, request));
+    }
+
+    @GetMapping("/{id}/hold")
+    public ResponseEntity<CarHoldDto> getHold(@PathVariable("id") Integer id) {
+        return ResponseEntity.ok(carHoldService.getHold(id));
+    }
+
+    @DeleteMapping("/{id}/hold")
+    public ResponseEntity<Void> releaseHold(@PathVariable("id") Integer id, @RequestParam("buyerId") Integer buyerId) {
+        carHoldService.releaseHold(id, buyerId);
+        return ResponseEntity.noContent().build();
+    }
+}
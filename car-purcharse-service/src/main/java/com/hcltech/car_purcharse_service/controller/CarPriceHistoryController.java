@@ -0,0 +1,46 @@
+package com.hcltech.car_purcharse_service.controller;
+
+import com.hcltech.car_purcharse_service.dto.PricePointDto;
+import com.hcltech.car_purcharse_service.service.CarPriceHistoryService;
+import com.hcltech.car_purcharse_service.service.ExportFormat;
+import com.hcltech.car_purcharse_service.service.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/api/cars")
+public class CarPriceHistoryController {
+
+    private final CarPriceHistoryService carPriceHistoryService;
+
+    private final ExportService exportService;
+
+    public CarPriceHistoryController(CarPriceHistoryService carPriceHistoryService, ExportService exportService) {
+        this.carPriceHistoryService = carPriceHistoryService;
+        this.exportService = exportService;
+    }
+
+    // from and to are ISO-8601 instants, e.g. 2025-01-31T00:00:00Z
+    @GetMapping("/{id}/price-history")
+    public ResponseEntity<List<PricePointDto>> getHistory(@PathVariable("id") Integer id,
+                                                          @RequestParam(value = "from", required = false) Instant from,
+                                                          @RequestParam(value = "to", required = false) Instant to) {
+        return ResponseEntity.ok(carPriceHistoryService.getHistory(id, from, to));
+    }
+
+    @GetMapping("/price-history/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("car-price-history." + exportFormat.getExtension()).build().toString())
+                .body(exportService.exportPriceHistory(exportFormat));
+    }
+}
@@ -0,0 +1,25 @@
+package com.hcltech.car_purcharse_service.controller;
+
+import com.hcltech.car_purcharse_service.dto.PurchaseReconciliationDto;
+import com.hcltech.car_purcharse_service.service.PurchaseReconciliationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/v1/api/purchase-journal")
+public class PurchaseJournalController {
+
+    private final PurchaseReconciliationService purchaseReconciliationService;
+
+    public PurchaseJournalController(PurchaseReconciliationService purchaseReconciliationService) {
+        this.purchaseReconciliationService = purchaseReconciliationService;
+    }
+
+    // Replays the whole journal and reads the whole table; meant for audits, not for polling
+    @GetMapping("/reconciliation")
+    public ResponseEntity<PurchaseReconciliationDto> getReconciliation() {
+        return ResponseEntity.ok(purchaseReconciliationService.reconcile());
+    }
+}
@@ -1,13 +1,27 @@
 package com.hcltech.car_purcharse_service.controller;
 
+import com.hcltech.car_purcharse_service.dto.PurchasedCarBatchResultDto;
 import com.hcltech.car_purcharse_service.dto.PurchasedCarDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarPageDto;
 import com.hcltech.car_purcharse_service.dto.PurchasedCarResponseDto;
 import com.hcltech.car_purcharse_service.dao.service.PurchasedCarDaoService;
+import com.hcltech.car_purcharse_service.service.ExportFormat;
+import com.hcltech.car_purcharse_service.service.ExportService;
+import com.hcltech.car_purcharse_service.service.PurchaseExpansion;
+import com.hcltech.car_purcharse_service.service.PurchasedCarBatchService;
+import com.hcltech.car_purcharse_service.service.PurchasedCarExpansionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 
@@ -16,9 +30,17 @@ import java.util.List;
 public class PurchasedCarController {
     private static final Logger logger = LoggerFactory.getLogger(PurchasedCarController.class);
     private final PurchasedCarDaoService purchasedCarDaoService;
+    private final ExportService exportService;
+    private final PurchasedCarBatchService purchasedCarBatchService;
+    private final PurchasedCarExpansionService purchasedCarExpansionService;
 
-    public PurchasedCarController(PurchasedCarDaoService purchasedCarDaoService) {
+    public PurchasedCarController(PurchasedCarDaoService purchasedCarDaoService, ExportService exportService,
+                                  PurchasedCarBatchService purchasedCarBatchService,
+                                  PurchasedCarExpansionService purchasedCarExpansionService) {
         this.purchasedCarDaoService = purchasedCarDaoService;
+        this.exportService = exportService;
+        this.purchasedCarBatchService = purchasedCarBatchService;
+        this.purchasedCarExpansionService = purchasedCarExpansionService;
     }
 
 
@@ -30,14 +52,47 @@ public class PurchasedCarController {
         return ResponseEntity.ok(created);
     }
 
+    // Body is a JSON array of purchases, or newline-delimited JSON; each purchase gets its own result
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<PurchasedCarBatchResultDto> createPurchasedCars(InputStream body) {
+        PurchasedCarBatchResultDto result = purchasedCarBatchService.createPurchasedCars(body);
+        logger.info("Batch of {} purchases: {} created, {} rejected", result.getTotal(), result.getCreated(), result.getRejected());
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        logger.info("Streaming purchased car export as {}", exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("purchased-cars." + exportFormat.getExtension()).build().toString())
+                .body(exportService.exportPurchasedCars(exportFormat));
+    }
 
     @GetMapping("/all")
-    public ResponseEntity<List<PurchasedCarResponseDto>> getAllPurchasedCars() {
-        List<PurchasedCarResponseDto> list = purchasedCarDaoService.getAllPurchasedCars();
+    public ResponseEntity<List<PurchasedCarResponseDto>> getAllPurchasedCars(
+            @RequestParam(value = "expand", required = false) List<String> expand) {
+        List<PurchasedCarResponseDto> list = expand(purchasedCarDaoService.getAllPurchasedCars(), expand);
         return ResponseEntity.ok(list);
     }
 
 
+    // Purchases dated within from..to (inclusive), paged with the cursor returned by the previous page
+    @GetMapping("/range")
+    public ResponseEntity<PurchasedCarPageDto> getPurchasedCarsBetween(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "expand", required = false) List<String> expand) {
+        PurchasedCarPageDto page = purchasedCarDaoService.getPurchasedCarsBetween(from, to, cursor, size);
+        page.setContent(expand(page.getContent(), expand));
+        return ResponseEntity.ok(page);
+    }
+
+
     @GetMapping("/{id}")
     public ResponseEntity<PurchasedCarResponseDto> getPurchasedCarById(@PathVariable Integer id) {
         PurchasedCarResponseDto result = purchasedCarDaoService.getPurchasedCarById(id);
@@ -61,22 +116,33 @@ public class PurchasedCarController {
     }
 
     @GetMapping("/buyer/{buyerId}")
-    public ResponseEntity<List<PurchasedCarResponseDto>> getPurchasedCarsByBuyerId(@PathVariable Integer buyerId) {
-        List<PurchasedCarResponseDto> list = purchasedCarDaoService.getPurchasedCarsByBuyerId(buyerId);
+    public ResponseEntity<List<PurchasedCarResponseDto>> getPurchasedCarsByBuyerId(
+            @PathVariable Integer buyerId,
+            @RequestParam(value = "expand", required = false) List<String> expand) {
+        List<PurchasedCarResponseDto> list = expand(purchasedCarDaoService.getPurchasedCarsByBuyerId(buyerId), expand);
         return ResponseEntity.ok(list);
     }
 
 
     @GetMapping("/seller/{sellerId}")
-    public ResponseEntity<List<PurchasedCarResponseDto>> getPurchasedCarsBySellerId(@PathVariable Integer sellerId) {
-        List<PurchasedCarResponseDto> list = purchasedCarDaoService.getPurchasedCarsBySellerId(sellerId);
+    public ResponseEntity<List<PurchasedCarResponseDto>> getPurchasedCarsBySellerId(
+            @PathVariable Integer sellerId,
+            @RequestParam(value = "expand", required = false) List<String> expand) {
+        List<PurchasedCarResponseDto> list = expand(purchasedCarDaoService.getPurchasedCarsBySellerId(sellerId), expand);
         return ResponseEntity.ok(list);
     }
 
 
     @GetMapping("/car/{carId}")
-    public ResponseEntity<List<PurchasedCarResponseDto>> getPurchasedCarsByCarId(@PathVariable Integer carId) {
-        List<PurchasedCarResponseDto> list = purchasedCarDaoService.getPurchasedCarsByCarId(carId);
+    public ResponseEntity<List<PurchasedCarResponseDto>> getPurchasedCarsByCarId(
+            @PathVariable Integer carId,
+            @RequestParam(value = "expand", required = false) List<String> expand) {
+        List<PurchasedCarResponseDto> list = expand(purchasedCarDaoService.getPurchasedCarsByCarId(carId), expand);
         return ResponseEntity.ok(list);
     }
+
+    // An unknown ?expand value is rejected with 400
+    private List<PurchasedCarResponseDto> expand(List<PurchasedCarResponseDto> purchases, List<String> expand) {
+        return purchasedCarExpansionService.expand(purchases, PurchaseExpansion.parse(expand));
+    }
 }
@@ -3,8 +3,10 @@ package com.hcltech.car_purcharse_service.controller;
 
 import com.hcltech.car_purcharse_service.dto.ReviewDto;
 import com.hcltech.car_purcharse_service.dao.service.ReviewDaoService;
+import com.hcltech.car_purcharse_service.utils.AggregateVersions;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -14,8 +16,11 @@ public class ReviewController {
 
     private final ReviewDaoService reviewDaoService;
 
-    public ReviewController(ReviewDaoService reviewDaoService) {
+    private final AggregateVersions aggregateVersions;
+
+    public ReviewController(ReviewDaoService reviewDaoService, AggregateVersions aggregateVersions) {
         this.reviewDaoService = reviewDaoService;
+        this.aggregateVersions = aggregateVersions;
     }
 
     @PostMapping
@@ -24,13 +29,21 @@ public class ReviewController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ReviewDto>> getAllReviews() {
-        return ResponseEntity.ok(reviewDaoService.getAllReviews());
+    public ResponseEntity<List<ReviewDto>> getAllReviews(WebRequest webRequest) {
+        String etag = aggregateVersions.etag(AggregateVersions.Aggregate.REVIEW);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(reviewDaoService.getAllReviews());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ReviewDto> getReviewById(@PathVariable Integer id) {
-        return ResponseEntity.ok(reviewDaoService.getReviewById(id));
+    public ResponseEntity<ReviewDto> getReviewById(@PathVariable Integer id, WebRequest webRequest) {
+        String etag = aggregateVersions.etag(AggregateVersions.Aggregate.REVIEW);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(reviewDaoService.getReviewById(id));
     }
 
     @PutMapping("/{id}")
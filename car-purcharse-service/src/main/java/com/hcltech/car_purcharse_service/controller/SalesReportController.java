@@ -0,0 +1,38 @@
+package com.hcltech.car_purcharse_service.controller;
+
+import com.hcltech.car_purcharse_service.dto.MakeSalesDto;
+import com.hcltech.car_purcharse_service.dto.SellerSalesDto;
+import com.hcltech.car_purcharse_service.service.SalesReportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/api/sales")
+public class SalesReportController {
+
+    private final SalesReportService salesReportService;
+
+    public SalesReportController(SalesReportService salesReportService) {
+        this.salesReportService = salesReportService;
+    }
+
+    // from and to are ISO dates, both inclusive; the default is the last 30 days
+    @GetMapping("/sellers/{sellerId}")
+    public ResponseEntity<SellerSalesDto> getSellerSales(
+            @PathVariable("sellerId") Integer sellerId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesReportService.getSellerSales(sellerId, from, to));
+    }
+
+    @GetMapping("/makes")
+    public ResponseEntity<List<MakeSalesDto>> getMakeSales(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesReportService.getMakeSales(from, to));
+    }
+}
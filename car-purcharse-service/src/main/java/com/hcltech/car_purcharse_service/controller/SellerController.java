@@ -2,11 +2,13 @@ package com.hcltech.car_purcharse_service.controller;
 
 import com.hcltech.car_purcharse_service.dto.SellerDto;
 import com.hcltech.car_purcharse_service.service.SellerService;
+import com.hcltech.car_purcharse_service.utils.AggregateVersions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,10 +18,13 @@ public class SellerController {
 
     private final SellerService sellerService;
 
+    private final AggregateVersions aggregateVersions;
+
     private static final Logger log = LoggerFactory.getLogger(SellerController.class);
 
-    public SellerController(SellerService sellerService) {
+    public SellerController(SellerService sellerService, AggregateVersions aggregateVersions) {
         this.sellerService = sellerService;
+        this.aggregateVersions = aggregateVersions;
     }
 
     @PostMapping("/create")
@@ -29,16 +34,24 @@ public class SellerController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<SellerDto> findSellerById(@PathVariable int id) {
+    public ResponseEntity<SellerDto> findSellerById(@PathVariable int id, WebRequest webRequest) {
+        String etag = aggregateVersions.etag(AggregateVersions.Aggregate.SELLER);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         log.info("Seller found by id");
-        return new ResponseEntity<>( sellerService.findSellerById(id), HttpStatus.OK);
+        return ResponseEntity.ok().eTag(etag).body(sellerService.findSellerById(id));
 
     }
 
     @GetMapping
-    public ResponseEntity<List<SellerDto>> findAllSeller() {
+    public ResponseEntity<List<SellerDto>> findAllSeller(WebRequest webRequest) {
+        String etag = aggregateVersions.etag(AggregateVersions.Aggregate.SELLER);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         log.info("All seller found");
-        return new ResponseEntity<>(sellerService.findAllSeller(),HttpStatus.OK);
+        return ResponseEntity.ok().eTag(etag).body(sellerService.findAllSeller());
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,102 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable, versioned snapshot of the available cars, ordered by id. Readers take the current
+ * snapshot with a single volatile read and never lock or touch the database; writers copy the
+ * snapshot, apply their change and publish the copy, bumping the version.
+ *
+ * <p>The {@link CarDto}s inside a snapshot are shared by every reader and must not be modified.
+ */
+@Component
+public class AvailableCarsSnapshot implements CarIndex {
+
+    public static final class Snapshot {
+
+        @Getter
+        private final long version;
+
+        @Getter
+        private final List<CarDto> cars;
+
+        // id -> car, the base the next copy is made from
+        private final Map<Integer, CarDto> byId;
+
+        private Snapshot(long version, Map<Integer, CarDto> byId) {
+            this.version = version;
+            this.byId = byId;
+            this.cars = List.copyOf(byId.values());
+        }
+    }
+
+    // version 0 means the catalog has not been loaded yet
+    private volatile Snapshot current = new Snapshot(0, new TreeMap<>());
+
+    public Snapshot get() {
+        return current;
+    }
+
+    public boolean isLoaded() {
+        return current.getVersion() > 0;
+    }
+
+    @Override
+    public synchronized void rebuild(List<CarDto> cars) {
+        Map<Integer, CarDto> byId = new TreeMap<>();
+        cars.stream().filter(AvailableCarsSnapshot::isAvailable).forEach(car -> byId.put(car.getId(), car));
+        current = new Snapshot(current.getVersion() + 1, byId);
+    }
+
+    @Override
+    public synchronized void onCarSaved(CarDto car) {
+        Snapshot snapshot = current;
+        boolean wasListed = snapshot.byId.containsKey(car.getId());
+        if (!wasListed && !isAvailable(car)) {
+            return;
+        }
+        Map<Integer, CarDto> byId = new TreeMap<>(snapshot.byId);
+        if (isAvailable(car)) {
+            byId.put(car.getId(), car);
+        } else {
+            byId.remove(car.getId());
+        }
+        current = new Snapshot(snapshot.getVersion() + 1, byId);
+    }
+
+    // one copy for the whole batch instead of one per car
+    @Override
+    public synchronized void onCarsSaved(List<CarDto> cars) {
+        Snapshot snapshot = current;
+        Map<Integer, CarDto> byId = new TreeMap<>(snapshot.byId);
+        for (CarDto car : cars) {
+            if (isAvailable(car)) {
+                byId.put(car.getId(), car);
+            } else if (car.getId() != null) {
+                byId.remove(car.getId());
+            }
+        }
+        current = new Snapshot(snapshot.getVersion() + 1, byId);
+    }
+
+    @Override
+    public synchronized void onCarDeleted(Integer carId) {
+        Snapshot snapshot = current;
+        if (!snapshot.byId.containsKey(carId)) {
+            return;
+        }
+        Map<Integer, CarDto> byId = new TreeMap<>(snapshot.byId);
+        byId.remove(carId);
+        current = new Snapshot(snapshot.getVersion() + 1, byId);
+    }
+
+    private static boolean isAvailable(CarDto car) {
+        return car.getId() != null && Boolean.TRUE.equals(car.getIsAvailable());
+    }
+}
@@ -0,0 +1,213 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Faceted filter index over the whole car catalog. Every facet value (make, model, year band,
+ * price band, availability) owns a compressed Roaring bitmap of car ids, so a combined filter is
+ * a handful of bitmap intersections and a facet count is a single {@code andCardinality}.
+ */
+@Component
+public class CarFacetIndex implements CarIndex {
+
+    public static final String MAKE = "make";
+    public static final String MODEL = "model";
+    public static final String YEAR_BAND = "yearBand";
+    public static final String PRICE_BAND = "priceBand";
+    public static final String AVAILABLE = "available";
+
+    private static final List<String> FACETS = List.of(MAKE, MODEL, YEAR_BAND, PRICE_BAND, AVAILABLE);
+
+    private static final int YEAR_BAND_WIDTH = 5;
+
+    private static final int[] PRICE_BAND_BOUNDS = {5_000, 10_000, 15_000, 20_000, 30_000, 50_000, 75_000, 100_000};
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // facet -> normalized value -> bitmap of car ids
+    private final Map<String, Map<String, FacetValue>> facets = new HashMap<>();
+
+    // car id -> facet -> normalized value, needed to unindex the old values on update/delete
+    private final Map<Integer, Map<String, String>> valuesByCar = new HashMap<>();
+
+    private final RoaringBitmap allCars = new RoaringBitmap();
+
+    @Override
+    public void rebuild(List<CarDto> cars) {
+        lock.writeLock().lock();
+        try {
+            facets.clear();
+            valuesByCar.clear();
+            allCars.clear();
+            cars.forEach(this::add);
+            facets.values().forEach(values -> values.values().forEach(value -> value.getIds().runOptimize()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onCarSaved(CarDto car) {
+        lock.writeLock().lock();
+        try {
+            remove(car.getId());
+            add(car);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onCarDeleted(Integer carId) {
+        lock.writeLock().lock();
+        try {
+            remove(carId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Intersects the bitmaps of the requested facet values and counts every facet value within the
+     * matching set.
+     *
+     * @param filters facet name to requested value, e.g. {@code make -> "Toyota"}
+     * @param limit   maximum number of matching car ids to return (lowest ids first)
+     */
+    public FacetResult search(Map<String, String> filters, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = allCars;
+            for (Map.Entry<String, String> filter : filters.entrySet()) {
+                FacetValue value = facets.getOrDefault(filter.getKey(), Map.of()).get(normalize(filter.getValue()));
+                if (value == null) {
+                    matches = new RoaringBitmap();
+                    break;
+                }
+                matches = RoaringBitmap.and(matches, value.getIds());
+            }
+
+            List<Integer> carIds = new ArrayList<>(Math.min(limit, matches.getCardinality()));
+            IntIterator iterator = matches.getIntIterator();
+            while (iterator.hasNext() && carIds.size() < limit) {
+                carIds.add(iterator.next());
+            }
+
+            Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+            for (String facet : FACETS) {
+                counts.put(facet, countValues(facets.getOrDefault(facet, Map.of()), matches));
+            }
+            return new FacetResult(matches.getCardinality(), carIds, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static String yearBand(int year) {
+        int start = Math.floorDiv(year, YEAR_BAND_WIDTH) * YEAR_BAND_WIDTH;
+        return start + "-" + (start + YEAR_BAND_WIDTH - 1);
+    }
+
+    // Bands are lower-inclusive: "10000-15000" holds prices from 10000 up to, but not including, 15000
+    public static String priceBand(double price) {
+        int lower = 0;
+        for (int bound : PRICE_BAND_BOUNDS) {
+            if (price < bound) {
+                return lower + "-" + bound;
+            }
+            lower = bound;
+        }
+        return lower + "+";
+    }
+
+    private Map<String, Integer> countValues(Map<String, FacetValue> values, RoaringBitmap matches) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        values.values().stream()
+                .map(value -> Map.entry(value.getLabel(), RoaringBitmap.andCardinality(matches, value.getIds())))
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> counts.put(entry.getKey(), entry.getValue()));
+        return counts;
+    }
+
+    private void add(CarDto car) {
+        Map<String, String> labels = labelsOf(car);
+        Map<String, String> normalized = new HashMap<>();
+        labels.forEach((facet, label) -> {
+            String key = normalize(label);
+            normalized.put(facet, key);
+            facets.computeIfAbsent(facet, f -> new HashMap<>())
+                    .computeIfAbsent(key, k -> new FacetValue(label, new RoaringBitmap()))
+                    .getIds().add(car.getId());
+        });
+        valuesByCar.put(car.getId(), normalized);
+        allCars.add(car.getId());
+    }
+
+    private void remove(Integer carId) {
+        Map<String, String> previous = valuesByCar.remove(carId);
+        if (previous == null) {
+            return;
+        }
+        previous.forEach((facet, key) -> {
+            Map<String, FacetValue> values = facets.get(facet);
+            FacetValue value = values.get(key);
+            value.getIds().remove(carId);
+            if (value.getIds().isEmpty()) {
+                values.remove(key);
+            }
+        });
+        allCars.remove(carId);
+    }
+
+    private Map<String, String> labelsOf(CarDto car) {
+        Map<String, String> labels = new HashMap<>();
+        if (car.getMake() != null && !car.getMake().isBlank()) {
+            labels.put(MAKE, car.getMake().trim());
+        }
+        if (car.getModel() != null && !car.getModel().isBlank()) {
+            labels.put(MODEL, car.getModel().trim());
+        }
+        labels.put(YEAR_BAND, yearBand(car.getYear()));
+        if (car.getPrice() != null) {
+            labels.put(PRICE_BAND, priceBand(car.getPrice()));
+        }
+        labels.put(AVAILABLE, String.valueOf(Boolean.TRUE.equals(car.getIsAvailable())));
+        return labels;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class FacetValue {
+        // first spelling seen, shown in facet counts
+        private String label;
+        private RoaringBitmap ids;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class FacetResult {
+        private int total;
+        private List<Integer> carIds;
+        private Map<String, Map<String, Integer>> counts;
+    }
+}
@@ -0,0 +1,24 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+
+import java.util.List;
+
+/**
+ * An in-memory view over the car table. Implementations are loaded once on startup and then kept
+ * current by {@link CarIndexUpdater} from {@link com.hcltech.car_purcharse_service.event.CarChangedEvent}s
+ * and {@link com.hcltech.car_purcharse_service.event.CarPurchasedEvent}s.
+ */
+public interface CarIndex {
+
+    void rebuild(List<CarDto> cars);
+
+    void onCarSaved(CarDto car);
+
+    // Batch form used for multi-car events; override where one pass is much cheaper than n single updates
+    default void onCarsSaved(List<CarDto> cars) {
+        cars.forEach(this::onCarSaved);
+    }
+
+    void onCarDeleted(Integer carId);
+}
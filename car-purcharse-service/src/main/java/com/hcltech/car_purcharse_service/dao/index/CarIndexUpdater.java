@@ -0,0 +1,77 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.hcltech.car_purcharse_service.dao.service.CarDaoService;
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.event.CarChangedEvent;
+import com.hcltech.car_purcharse_service.event.CarPurchasedEvent;
+import com.hcltech.car_purcharse_service.event.CarsImportedEvent;
+import com.hcltech.car_purcharse_service.event.CarsPurchasedEvent;
+import com.hcltech.car_purcharse_service.model.Car;
+import com.hcltech.car_purcharse_service.service.CarService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+@Component
+public class CarIndexUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(CarIndexUpdater.class);
+
+    private final List<CarIndex> carIndexes;
+    private final CarDaoService carDaoService;
+    private final CarService carService;
+
+    public CarIndexUpdater(List<CarIndex> carIndexes, CarDaoService carDaoService, CarService carService) {
+        this.carIndexes = carIndexes;
+        this.carDaoService = carDaoService;
+        this.carService = carService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAll() {
+        List<CarDto> cars = carDaoService.getAllAsDto();
+        carIndexes.forEach(index -> index.rebuild(cars));
+        logger.info("Rebuilt {} car indexes from {} cars", carIndexes.size(), cars.size());
+    }
+
+    // Runs after commit when published inside a transaction, so indexes never see rolled-back writes
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        for (CarIndex index : carIndexes) {
+            if (event.getSavedCars().size() == 1) {
+                index.onCarSaved(event.getSavedCars().get(0));
+            } else if (!event.getSavedCars().isEmpty()) {
+                index.onCarsSaved(event.getSavedCars());
+            }
+            event.getDeletedCarIds().forEach(index::onCarDeleted);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarPurchased(CarPurchasedEvent event) {
+        Car car = carDaoService.getOneById(event.getCarId());
+        if (car == null) {
+            return;
+        }
+        CarDto purchased = carService.toDto(car);
+        carIndexes.forEach(index -> index.onCarSaved(purchased));
+    }
+
+    // One query for the whole batch instead of a reload per sold car
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarsPurchased(CarsPurchasedEvent event) {
+        List<CarDto> purchased = carDaoService.getByIdsAsDto(event.getCarIds());
+        carIndexes.forEach(index -> index.onCarsSaved(purchased));
+    }
+
+    // A bulk import touches too many cars for incremental updates; reload the catalog once instead
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarsImported(CarsImportedEvent event) {
+        rebuildAll();
+    }
+}
@@ -0,0 +1,257 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Secondary range index over the available cars, kept as two sets of parallel primitive arrays:
+ * one sorted by (price, id) and one sorted by (year, id). A range query is a binary search for the
+ * first key in range followed by a forward or backward scan, so "cheapest first" and "newest first"
+ * queries cost O(log n + k) without boxing a single price or year.
+ */
+@Component
+public class CarRangeIndex implements CarIndex {
+
+    public enum SortOrder {
+        PRICE_ASC, PRICE_DESC, YEAR_ASC, YEAR_DESC;
+
+        public static SortOrder from(String value) {
+            try {
+                return SortOrder.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported sort: " + value
+                        + " (expected price_asc, price_desc, year_asc or year_desc)");
+            }
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // keys = price, secondary = year
+    private final SortedColumns byPrice = new SortedColumns();
+
+    // keys = year, secondary = price
+    private final SortedColumns byYear = new SortedColumns();
+
+    // what is currently indexed per car, so an update can find and remove the old entries
+    private final Map<Integer, CarDto> indexed = new HashMap<>();
+
+    @Override
+    public void rebuild(List<CarDto> cars) {
+        lock.writeLock().lock();
+        try {
+            indexed.clear();
+            List<CarDto> indexable = cars.stream().filter(CarRangeIndex::isIndexable).toList();
+            indexable.forEach(car -> indexed.put(car.getId(), car));
+            byPrice.load(indexable, true);
+            byYear.load(indexable, false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onCarSaved(CarDto car) {
+        lock.writeLock().lock();
+        try {
+            remove(car.getId());
+            if (isIndexable(car)) {
+                indexed.put(car.getId(), car);
+                byPrice.insert(car.getPrice(), car.getYear(), car.getId());
+                byYear.insert(car.getYear(), car.getPrice(), car.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onCarDeleted(Integer carId) {
+        lock.writeLock().lock();
+        try {
+            remove(carId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of up to {@code limit} available cars with a price in [minPrice, maxPrice] and
+     * a year in [minYear, maxYear], in the requested order. Price orders scan the price column and
+     * filter on year; year orders do the opposite.
+     */
+    public int[] search(double minPrice, double maxPrice, int minYear, int maxYear, SortOrder order, int limit) {
+        lock.readLock().lock();
+        try {
+            return switch (order) {
+                case PRICE_ASC -> byPrice.scan(minPrice, maxPrice, minYear, maxYear, true, limit);
+                case PRICE_DESC -> byPrice.scan(minPrice, maxPrice, minYear, maxYear, false, limit);
+                case YEAR_ASC -> byYear.scan(minYear, maxYear, minPrice, maxPrice, true, limit);
+                case YEAR_DESC -> byYear.scan(minYear, maxYear, minPrice, maxPrice, false, limit);
+            };
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byPrice.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void remove(Integer carId) {
+        CarDto previous = indexed.remove(carId);
+        if (previous != null) {
+            byPrice.delete(previous.getPrice(), carId);
+            byYear.delete(previous.getYear(), carId);
+        }
+    }
+
+    private static boolean isIndexable(CarDto car) {
+        return car.getId() != null && car.getPrice() != null && Boolean.TRUE.equals(car.getIsAvailable());
+    }
+
+    /**
+     * Three parallel arrays ordered by (key, id). Years are stored as doubles, which represent every
+     * int exactly, so one implementation serves both orders.
+     */
+    private static final class SortedColumns {
+
+        private double[] keys = new double[0];
+        private double[] secondary = new double[0];
+        private int[] ids = new int[0];
+        private int size;
+
+        void load(List<CarDto> cars, boolean priceKeyed) {
+            Integer[] order = new Integer[cars.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            double[] rawKeys = new double[cars.size()];
+            for (int i = 0; i < rawKeys.length; i++) {
+                rawKeys[i] = priceKeyed ? cars.get(i).getPrice() : cars.get(i).getYear();
+            }
+            Arrays.sort(order, (a, b) -> {
+                int byKey = Double.compare(rawKeys[a], rawKeys[b]);
+                return byKey != 0 ? byKey : Integer.compare(cars.get(a).getId(), cars.get(b).getId());
+            });
+
+            size = cars.size();
+            keys = new double[Math.max(size, 16)];
+            secondary = new double[keys.length];
+            ids = new int[keys.length];
+            for (int i = 0; i < size; i++) {
+                CarDto car = cars.get(order[i]);
+                keys[i] = rawKeys[order[i]];
+                secondary[i] = priceKeyed ? car.getYear() : car.getPrice();
+                ids[i] = car.getId();
+            }
+        }
+
+        void insert(double key, double secondaryValue, int id) {
+            if (size == keys.length) {
+                int capacity = Math.max(16, keys.length * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                secondary = Arrays.copyOf(secondary, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+            int position = insertionPoint(key, id);
+            int tail = size - position;
+            System.arraycopy(keys, position, keys, position + 1, tail);
+            System.arraycopy(secondary, position, secondary, position + 1, tail);
+            System.arraycopy(ids, position, ids, position + 1, tail);
+            keys[position] = key;
+            secondary[position] = secondaryValue;
+            ids[position] = id;
+            size++;
+        }
+
+        void delete(double key, int id) {
+            int position = insertionPoint(key, id);
+            if (position < size && keys[position] == key && ids[position] == id) {
+                int tail = size - position - 1;
+                System.arraycopy(keys, position + 1, keys, position, tail);
+                System.arraycopy(secondary, position + 1, secondary, position, tail);
+                System.arraycopy(ids, position + 1, ids, position, tail);
+                size--;
+            }
+        }
+
+        int[] scan(double minKey, double maxKey, double minSecondary, double maxSecondary, boolean ascending, int limit) {
+            int[] result = new int[Math.min(limit, size)];
+            int found = 0;
+            if (ascending) {
+                for (int i = lowerBound(minKey); i < size && keys[i] <= maxKey && found < result.length; i++) {
+                    if (secondary[i] >= minSecondary && secondary[i] <= maxSecondary) {
+                        result[found++] = ids[i];
+                    }
+                }
+            } else {
+                for (int i = upperBound(maxKey) - 1; i >= 0 && keys[i] >= minKey && found < result.length; i--) {
+                    if (secondary[i] >= minSecondary && secondary[i] <= maxSecondary) {
+                        result[found++] = ids[i];
+                    }
+                }
+            }
+            return found == result.length ? result : Arrays.copyOf(result, found);
+        }
+
+        // first position whose (key, id) is >= (key, id)
+        private int insertionPoint(double key, int id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = Double.compare(keys[mid], key);
+                if (cmp < 0 || (cmp == 0 && ids[mid] < id)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // first position whose key is >= key
+        private int lowerBound(double key) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // first position whose key is > key
+        private int upperBound(double key) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] <= key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
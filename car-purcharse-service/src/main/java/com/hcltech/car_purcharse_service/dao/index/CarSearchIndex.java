@@ -0,0 +1,284 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.event.ReviewChangedEvent;
+import com.hcltech.car_purcharse_service.model.Review;
+import com.hcltech.car_purcharse_service.repository.ReviewRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Embedded Lucene full-text index over car make, model and year plus the feedback text of the
+ * car's reviews. Writes go through a single {@link IndexWriter} and are made visible to searches
+ * straight away through a near-real-time {@link SearcherManager}; ranking is Lucene's default BM25
+ * and every query term also matches within a small edit distance, so "Volkswagon" finds Volkswagen.
+ */
+@Component
+public class CarSearchIndex implements CarIndex {
+
+    static final String ID = "id";
+    static final String CAR_ID = "carId";
+    static final String MAKE = "make";
+    static final String MODEL = "model";
+    static final String YEAR = "year";
+    static final String FEEDBACK = "feedback";
+    static final String AVAILABLE = "available";
+
+    // make and model hits outrank a word that only appears in a review
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(MAKE, 3f, MODEL, 3f, FEEDBACK, 1f);
+
+    // a fuzzy hit scores below an exact hit on the same field
+    private static final float FUZZY_BOOST = 0.5f;
+
+    private final ReviewRepository reviewRepository;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    // what is currently indexed per car, so a review change can rebuild the car's document
+    private final Map<Integer, CarDto> indexed = new ConcurrentHashMap<>();
+
+    public CarSearchIndex(ReviewRepository reviewRepository,
+                          @Value("${spring.app.search.index-dir}") String indexDir) {
+        this.reviewRepository = reviewRepository;
+        try {
+            Path path = Files.createDirectories(Path.of(indexDir));
+            this.directory = FSDirectory.open(path);
+            this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open search index at " + indexDir, e);
+        }
+    }
+
+    @Override
+    public void rebuild(List<CarDto> cars) {
+        Map<Integer, List<String>> feedbackByCar = groupFeedback(reviewRepository.findAllCarFeedback());
+        try {
+            writer.deleteAll();
+            indexed.clear();
+            for (CarDto car : cars) {
+                if (car.getId() != null) {
+                    writer.addDocument(toDocument(car, feedbackByCar.getOrDefault(car.getId(), List.of())));
+                    indexed.put(car.getId(), car);
+                }
+            }
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rebuild search index", e);
+        }
+    }
+
+    @Override
+    public void onCarSaved(CarDto car) {
+        if (car.getId() == null) {
+            return;
+        }
+        List<String> feedback = reviewRepository.findByCarId(car.getId()).stream()
+                .map(Review::getFeedback)
+                .filter(Objects::nonNull)
+                .toList();
+        try {
+            writer.updateDocument(new Term(ID, car.getId().toString()), toDocument(car, feedback));
+            indexed.put(car.getId(), car);
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not index car " + car.getId(), e);
+        }
+    }
+
+    // one review query and one refresh for the whole batch
+    @Override
+    public void onCarsSaved(List<CarDto> cars) {
+        List<CarDto> indexable = cars.stream().filter(car -> car.getId() != null).toList();
+        if (indexable.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<String>> feedbackByCar =
+                groupFeedback(reviewRepository.findCarFeedbackByCarIds(indexable.stream().map(CarDto::getId).toList()));
+        try {
+            for (CarDto car : indexable) {
+                writer.updateDocument(new Term(ID, car.getId().toString()),
+                        toDocument(car, feedbackByCar.getOrDefault(car.getId(), List.of())));
+                indexed.put(car.getId(), car);
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not index " + indexable.size() + " cars", e);
+        }
+    }
+
+    @Override
+    public void onCarDeleted(Integer carId) {
+        try {
+            writer.deleteDocuments(new Term(ID, carId.toString()));
+            indexed.remove(carId);
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not remove car " + carId + " from search index", e);
+        }
+    }
+
+    // Runs after commit when published inside a transaction, so the index never sees rolled-back reviews
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        CarDto car = indexed.get(event.getCarId());
+        if (car != null) {
+            onCarSaved(car);
+        }
+    }
+
+    /**
+     * Returns the ids of up to {@code limit} cars matching the free-text query, best BM25 score
+     * first. Each analyzed query term matches make, model and review feedback exactly or within an
+     * edit distance that grows with the term length; a four-digit term also matches the year.
+     */
+    public List<Integer> search(String text, boolean availableOnly, int limit) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        terms.forEach(term -> query.add(termQuery(term), BooleanClause.Occur.SHOULD));
+        query.setMinimumNumberShouldMatch(1);
+        if (availableOnly) {
+            query.add(new TermQuery(new Term(AVAILABLE, "true")), BooleanClause.Occur.FILTER);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                StoredFields storedFields = searcher.storedFields();
+                List<Integer> carIds = new ArrayList<>();
+                for (ScoreDoc hit : searcher.search(query.build(), limit).scoreDocs) {
+                    carIds.add(storedFields.document(hit.doc).getField(CAR_ID).numericValue().intValue());
+                }
+                return carIds;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed for query: " + text, e);
+        }
+    }
+
+    public int size() {
+        return writer.getDocStats().numDocs;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private Query termQuery(String term) {
+        BooleanQuery.Builder perField = new BooleanQuery.Builder();
+        int maxEdits = maxEdits(term);
+        FIELD_BOOSTS.forEach((field, boost) -> {
+            perField.add(new BoostQuery(new TermQuery(new Term(field, term)), boost), BooleanClause.Occur.SHOULD);
+            if (maxEdits > 0) {
+                perField.add(new BoostQuery(new FuzzyQuery(new Term(field, term), maxEdits, 1), boost * FUZZY_BOOST),
+                        BooleanClause.Occur.SHOULD);
+            }
+        });
+        if (term.length() == 4 && term.chars().allMatch(Character::isDigit)) {
+            perField.add(new TermQuery(new Term(YEAR, term)), BooleanClause.Occur.SHOULD);
+        }
+        return perField.build();
+    }
+
+    // one edit on a three-letter term matches too many unrelated words, so short terms must match exactly
+    private static int maxEdits(String term) {
+        if (term.length() <= 3) {
+            return 0;
+        }
+        return term.length() <= 6 ? 1 : 2;
+    }
+
+    // [carId, feedback] rows -> feedback texts per car
+    private static Map<Integer, List<String>> groupFeedback(List<Object[]> rows) {
+        Map<Integer, List<String>> feedbackByCar = new HashMap<>();
+        for (Object[] row : rows) {
+            feedbackByCar.computeIfAbsent((Integer) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        return feedbackByCar;
+    }
+
+    private Document toDocument(CarDto car, List<String> feedback) {
+        Document document = new Document();
+        document.add(new StringField(ID, car.getId().toString(), Field.Store.NO));
+        document.add(new StoredField(CAR_ID, car.getId()));
+        if (car.getMake() != null) {
+            document.add(new TextField(MAKE, car.getMake(), Field.Store.NO));
+        }
+        if (car.getModel() != null) {
+            document.add(new TextField(MODEL, car.getModel(), Field.Store.NO));
+        }
+        document.add(new StringField(YEAR, String.valueOf(car.getYear()), Field.Store.NO));
+        document.add(new StringField(AVAILABLE, String.valueOf(Boolean.TRUE.equals(car.getIsAvailable())), Field.Store.NO));
+        feedback.forEach(text -> document.add(new TextField(FEEDBACK, text, Field.Store.NO)));
+        return document;
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        try (TokenStream stream = analyzer.tokenStream(MAKE, text)) {
+            CharTermAttribute attribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                String term = attribute.toString();
+                if (!terms.contains(term)) {
+                    terms.add(term);
+                }
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+}
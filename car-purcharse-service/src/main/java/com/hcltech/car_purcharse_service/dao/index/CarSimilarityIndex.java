@@ -0,0 +1,314 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Nearest-neighbour index over the available cars for "similar cars" recommendations. Each car is
+ * a point of normalized features: its year in units of {@link #YEAR_SCALE} years and the log of its
+ * price in units of a {@link #PRICE_STEP} price ratio, so two years newer weighs about as much as a
+ * quarter more expensive. A different model adds {@link #MODEL_PENALTY} to the squared distance.
+ *
+ * <p>The points are partitioned by make into parallel primitive arrays, and a query scans only the
+ * partition of the reference car's make with a bounded max-heap of the best k. Cars of other makes
+ * are scanned, and ranked after every same-make car, only when the make has fewer than k other
+ * listings. The scan touches no objects, which keeps even a million-listing catalog in the low
+ * milliseconds.
+ */
+@Component
+public class CarSimilarityIndex implements CarIndex {
+
+    static final double YEAR_SCALE = 2.0;
+
+    static final double PRICE_STEP = 1.25;
+
+    static final double MODEL_PENALTY = 1.0;
+
+    private static final double LOG_PRICE_STEP = Math.log(PRICE_STEP);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Partition> partitions = new HashMap<>();
+
+    // small ints for model names, so comparing models is an int comparison inside the scan
+    private final Map<String, Integer> modelCodes = new HashMap<>();
+
+    // what is currently indexed per car, so an update can find and remove the old point
+    private final Map<Integer, CarDto> indexed = new HashMap<>();
+
+    @Override
+    public void rebuild(List<CarDto> cars) {
+        lock.writeLock().lock();
+        try {
+            partitions.clear();
+            modelCodes.clear();
+            indexed.clear();
+            cars.stream().filter(CarSimilarityIndex::isIndexable).forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onCarSaved(CarDto car) {
+        lock.writeLock().lock();
+        try {
+            remove(car.getId());
+            if (isIndexable(car)) {
+                add(car);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onCarDeleted(Integer carId) {
+        lock.writeLock().lock();
+        try {
+            remove(carId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of up to {@code k} available cars closest to {@code reference}, nearest first,
+     * never including the reference car itself. The reference does not need to be available, so a
+     * sold car still gets recommendations. A missing price is left out of the distance.
+     */
+    public int[] similar(CarDto reference, int k) {
+        if (k <= 0 || reference.getMake() == null) {
+            return new int[0];
+        }
+        double year = reference.getYear() / YEAR_SCALE;
+        double logPrice = reference.getPrice() == null || reference.getPrice() <= 0
+                ? Double.NaN : Math.log(reference.getPrice()) / LOG_PRICE_STEP;
+        int exclude = reference.getId() == null ? Integer.MIN_VALUE : reference.getId();
+
+        lock.readLock().lock();
+        try {
+            Integer code = reference.getModel() == null ? null : modelCodes.get(key(reference.getModel()));
+            int model = code == null ? -1 : code;
+            String make = key(reference.getMake());
+
+            TopK sameMake = new TopK(k);
+            Partition partition = partitions.get(make);
+            if (partition != null) {
+                partition.scan(year, logPrice, model, exclude, sameMake);
+            }
+            if (sameMake.size == k) {
+                return sameMake.sortedIds();
+            }
+            TopK otherMakes = new TopK(k - sameMake.size);
+            for (Map.Entry<String, Partition> other : partitions.entrySet()) {
+                if (!other.getKey().equals(make)) {
+                    other.getValue().scan(year, logPrice, model, exclude, otherMakes);
+                }
+            }
+            int[] near = sameMake.sortedIds();
+            int[] far = otherMakes.sortedIds();
+            int[] result = Arrays.copyOf(near, near.length + far.length);
+            System.arraycopy(far, 0, result, near.length, far.length);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return indexed.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(CarDto car) {
+        indexed.put(car.getId(), car);
+        int model = modelCodes.computeIfAbsent(key(car.getModel()), name -> modelCodes.size());
+        partitions.computeIfAbsent(key(car.getMake()), make -> new Partition())
+                .add(car.getId(), model, (float) (car.getYear() / YEAR_SCALE),
+                        (float) (Math.log(car.getPrice()) / LOG_PRICE_STEP));
+    }
+
+    private void remove(Integer carId) {
+        CarDto previous = indexed.remove(carId);
+        if (previous != null) {
+            String make = key(previous.getMake());
+            Partition partition = partitions.get(make);
+            partition.remove(carId);
+            if (partition.size == 0) {
+                partitions.remove(make);
+            }
+        }
+    }
+
+    private static boolean isIndexable(CarDto car) {
+        return car.getId() != null && Boolean.TRUE.equals(car.getIsAvailable()) && car.getMake() != null
+                && car.getPrice() != null && car.getPrice() > 0;
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parallel arrays of the cars of one make. Removal moves the last car into the freed slot, so
+     * the arrays stay dense and slots are not stable.
+     */
+    private static final class Partition {
+
+        private int[] ids = new int[16];
+        private int[] models = new int[16];
+        private float[] years = new float[16];
+        private float[] logPrices = new float[16];
+        private int size;
+
+        // id -> slot
+        private final Map<Integer, Integer> slots = new HashMap<>();
+
+        void add(int id, int model, float year, float logPrice) {
+            if (size == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                models = Arrays.copyOf(models, capacity);
+                years = Arrays.copyOf(years, capacity);
+                logPrices = Arrays.copyOf(logPrices, capacity);
+            }
+            ids[size] = id;
+            models[size] = model;
+            years[size] = year;
+            logPrices[size] = logPrice;
+            slots.put(id, size);
+            size++;
+        }
+
+        void remove(int id) {
+            Integer slot = slots.remove(id);
+            if (slot == null) {
+                return;
+            }
+            int last = --size;
+            if (slot != last) {
+                ids[slot] = ids[last];
+                models[slot] = models[last];
+                years[slot] = years[last];
+                logPrices[slot] = logPrices[last];
+                slots.put(ids[slot], slot);
+            }
+        }
+
+        void scan(double year, double logPrice, int model, int exclude, TopK best) {
+            boolean usePrice = !Double.isNaN(logPrice);
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == exclude) {
+                    continue;
+                }
+                double distance = models[i] == model ? 0 : MODEL_PENALTY;
+                double dy = years[i] - year;
+                distance += dy * dy;
+                if (usePrice) {
+                    double dp = logPrices[i] - logPrice;
+                    distance += dp * dp;
+                }
+                best.offer(distance, ids[i]);
+            }
+        }
+    }
+
+    /**
+     * The k smallest distances seen so far, kept as a binary max-heap so a candidate that cannot
+     * make the cut is rejected with one comparison. Ties go to the lower id.
+     */
+    private static final class TopK {
+
+        private final double[] distances;
+        private final int[] ids;
+        private int size;
+
+        TopK(int k) {
+            distances = new double[k];
+            ids = new int[k];
+        }
+
+        void offer(double distance, int id) {
+            if (size < distances.length) {
+                distances[size] = distance;
+                ids[size] = id;
+                siftUp(size++);
+            } else if (size > 0 && worse(distances[0], ids[0], distance, id)) {
+                distances[0] = distance;
+                ids[0] = id;
+                siftDown(0);
+            }
+        }
+
+        int[] sortedIds() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> worse(distances[a], ids[a], distances[b], ids[b]) ? 1
+                    : worse(distances[b], ids[b], distances[a], ids[a]) ? -1 : 0);
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = ids[order[i]];
+            }
+            return result;
+        }
+
+        // whether (d1, id1) ranks after (d2, id2)
+        private static boolean worse(double d1, int id1, double d2, int id2) {
+            return d1 > d2 || (d1 == d2 && id1 > id2);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!worse(distances[i], ids[i], distances[parent], ids[parent])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                int right = left + 1;
+                int largest = i;
+                if (left < size && worse(distances[left], ids[left], distances[largest], ids[largest])) {
+                    largest = left;
+                }
+                if (right < size && worse(distances[right], ids[right], distances[largest], ids[largest])) {
+                    largest = right;
+                }
+                if (largest == i) {
+                    return;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            double distance = distances[a];
+            distances[a] = distances[b];
+            distances[b] = distance;
+            int id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+        }
+    }
+}
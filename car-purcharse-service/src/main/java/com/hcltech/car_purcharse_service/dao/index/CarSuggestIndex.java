@@ -0,0 +1,360 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Search-box autocomplete over makes and "make model" phrases, weighted by how many cars are
+ * listed under them. Every word of a phrase starts a key, so "cor" and "toy" both suggest
+ * "Toyota Corolla". The keys live in an immutable radix trie whose nodes carry their precomputed
+ * top-k suggestions, so a lookup is a walk down the trie that returns a ready-made list without
+ * allocating. Writers change one suggestion weight at a time by copying only the nodes on the
+ * paths of its keys and then publish the new root with a single volatile write.
+ */
+@Component
+public class CarSuggestIndex implements CarIndex {
+
+    private static final Comparator<Entry> BEST_FIRST =
+            Comparator.comparingInt(Entry::weight).reversed().thenComparing(Entry::text);
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private final int topK;
+
+    private volatile Node root;
+
+    // the state the trie is derived from, guarded by this
+    private final Map<Integer, List<String>> phrasesByCar = new HashMap<>();
+    private final Map<String, Integer> weights = new HashMap<>();
+    private final Map<String, String> displayText = new HashMap<>();
+
+    public CarSuggestIndex(@Value("${spring.app.suggest.top-k}") int topK) {
+        this.topK = topK;
+        this.root = emptyRoot();
+    }
+
+    /**
+     * Returns up to {@code limit} suggestions for the typed prefix, most listed first. Matching
+     * ignores case and leading whitespace and treats any run of whitespace as one space.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        if (prefix == null || limit <= 0) {
+            return List.of();
+        }
+        int end = prefix.length();
+        int i = 0;
+        while (i < end && Character.isWhitespace(prefix.charAt(i))) {
+            i++;
+        }
+        if (i == end) {
+            return List.of();
+        }
+        Node node = root;
+        // characters of node.edge matched so far
+        int matched = 0;
+        while (i < end) {
+            char c = prefix.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < end && Character.isWhitespace(prefix.charAt(i))) {
+                    i++;
+                }
+                c = ' ';
+            } else {
+                c = Character.toLowerCase(c);
+                i++;
+            }
+            if (matched < node.edge.length()) {
+                if (node.edge.charAt(matched) != c) {
+                    return List.of();
+                }
+                matched++;
+            } else {
+                int index = Arrays.binarySearch(node.labels, c);
+                if (index < 0) {
+                    return List.of();
+                }
+                node = node.children[index];
+                matched = 1;
+            }
+        }
+        List<String> suggestions = node.suggestions;
+        return suggestions.size() <= limit ? suggestions : suggestions.subList(0, limit);
+    }
+
+    @Override
+    public synchronized void rebuild(List<CarDto> cars) {
+        phrasesByCar.clear();
+        weights.clear();
+        displayText.clear();
+        for (CarDto car : cars) {
+            if (car.getId() != null) {
+                List<String> phrases = phrases(car);
+                phrasesByCar.put(car.getId(), phrases);
+                phrases.forEach(phrase -> weights.merge(normalize(phrase), 1, Integer::sum));
+                phrases.forEach(phrase -> displayText.putIfAbsent(normalize(phrase), phrase));
+            }
+        }
+        Node rebuilt = emptyRoot();
+        for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+            rebuilt = putEntry(rebuilt, weight.getKey(), new Entry(weight.getKey(), displayText.get(weight.getKey()), weight.getValue()));
+        }
+        root = rebuilt;
+    }
+
+    @Override
+    public synchronized void onCarSaved(CarDto car) {
+        if (car.getId() == null) {
+            return;
+        }
+        List<String> previous = phrasesByCar.getOrDefault(car.getId(), List.of());
+        List<String> current = phrases(car);
+        if (previous.equals(current)) {
+            return;
+        }
+        phrasesByCar.put(car.getId(), current);
+        Node updated = root;
+        for (String phrase : previous) {
+            updated = adjust(updated, phrase, -1);
+        }
+        for (String phrase : current) {
+            updated = adjust(updated, phrase, 1);
+        }
+        root = updated;
+    }
+
+    @Override
+    public synchronized void onCarDeleted(Integer carId) {
+        List<String> previous = phrasesByCar.remove(carId);
+        if (previous == null) {
+            return;
+        }
+        Node updated = root;
+        for (String phrase : previous) {
+            updated = adjust(updated, phrase, -1);
+        }
+        root = updated;
+    }
+
+    // "Toyota" and "Toyota Corolla" for a Toyota Corolla
+    private static List<String> phrases(CarDto car) {
+        String make = collapse(car.getMake());
+        String model = collapse(car.getModel());
+        List<String> phrases = new ArrayList<>(2);
+        if (!make.isEmpty()) {
+            phrases.add(make);
+        }
+        if (!model.isEmpty()) {
+            phrases.add(make.isEmpty() ? model : make + " " + model);
+        }
+        return phrases;
+    }
+
+    private Node adjust(Node node, String phrase, int delta) {
+        String id = normalize(phrase);
+        int weight = weights.getOrDefault(id, 0) + delta;
+        if (weight <= 0) {
+            weights.remove(id);
+            displayText.remove(id);
+            return putEntry(node, id, new Entry(id, phrase, 0));
+        }
+        weights.put(id, weight);
+        displayText.putIfAbsent(id, phrase);
+        return putEntry(node, id, new Entry(id, displayText.get(id), weight));
+    }
+
+    // Sets the entry under every key of the suggestion; a weight of zero removes it
+    private Node putEntry(Node node, String id, Entry entry) {
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < id.length(); i++) {
+            if (i == 0 || id.charAt(i - 1) == ' ') {
+                keys.add(id.substring(i));
+            }
+        }
+        for (String key : keys) {
+            node = put(node, key, 0, entry);
+        }
+        return node;
+    }
+
+    /**
+     * Path-copying update of the subtree under {@code node}, whose edge is already matched and whose
+     * key continues at {@code pos}. Returns the replacement node, or null when it became empty.
+     */
+    private Node put(Node node, String key, int pos, Entry entry) {
+        boolean remove = entry.weight() == 0;
+        if (pos == key.length()) {
+            return node.with(node.edge, node.labels, node.children, replace(node.entries, entry), topK);
+        }
+        char label = key.charAt(pos);
+        int index = Arrays.binarySearch(node.labels, label);
+        if (index < 0) {
+            if (remove) {
+                return node;
+            }
+            Node leaf = Node.of(key.substring(pos), NO_LABELS, NO_CHILDREN, new Entry[]{entry}, topK);
+            return node.withChild(-index - 1, label, leaf, true, topK);
+        }
+
+        Node child = node.children[index];
+        int common = commonPrefix(child.edge, key, pos);
+        Node replacement;
+        if (common == child.edge.length()) {
+            replacement = put(child, key, pos + common, entry);
+        } else if (remove) {
+            return node;
+        } else {
+            // split the child's edge where the key leaves it
+            Node tail = child.withEdge(child.edge.substring(common));
+            Node middle = Node.of(child.edge.substring(0, common), new char[]{tail.edge.charAt(0)}, new Node[]{tail},
+                    NO_ENTRIES, topK);
+            replacement = put(middle, key, pos + common, entry);
+        }
+        if (replacement == null) {
+            return node.withoutChild(index, topK);
+        }
+        return node.withChild(index, label, replacement, false, topK);
+    }
+
+    private static Entry[] replace(Entry[] entries, Entry entry) {
+        List<Entry> result = new ArrayList<>(entries.length + 1);
+        for (Entry existing : entries) {
+            if (!existing.id().equals(entry.id())) {
+                result.add(existing);
+            }
+        }
+        if (entry.weight() > 0) {
+            result.add(entry);
+        }
+        return result.toArray(NO_ENTRIES);
+    }
+
+    private static int commonPrefix(String edge, String key, int pos) {
+        int length = Math.min(edge.length(), key.length() - pos);
+        int i = 0;
+        while (i < length && edge.charAt(i) == key.charAt(pos + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static String collapse(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ");
+    }
+
+    // Same folding as suggest() applies to the typed prefix
+    static String normalize(String phrase) {
+        StringBuilder normalized = new StringBuilder(phrase.length());
+        for (int i = 0; i < phrase.length(); i++) {
+            normalized.append(Character.toLowerCase(phrase.charAt(i)));
+        }
+        return normalized.toString();
+    }
+
+    private Node emptyRoot() {
+        return Node.of("", NO_LABELS, NO_CHILDREN, NO_ENTRIES, topK);
+    }
+
+    private record Entry(String id, String text, int weight) {
+    }
+
+    private static final class Node {
+
+        final String edge;
+        // first character of each child's edge, ascending, parallel to children
+        final char[] labels;
+        final Node[] children;
+        // suggestions whose key ends exactly here
+        final Entry[] entries;
+        // best entries of this subtree and the response handed out for it
+        final Entry[] top;
+        final List<String> suggestions;
+
+        private Node(String edge, char[] labels, Node[] children, Entry[] entries, Entry[] top) {
+            this.edge = edge;
+            this.labels = labels;
+            this.children = children;
+            this.entries = entries;
+            this.top = top;
+            this.suggestions = Arrays.stream(top).map(Entry::text).toList();
+        }
+
+        static Node of(String edge, char[] labels, Node[] children, Entry[] entries, int topK) {
+            List<Entry> candidates = new ArrayList<>(Arrays.asList(entries));
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(BEST_FIRST);
+            List<Entry> top = new ArrayList<>(Math.min(topK, candidates.size()));
+            Set<String> seen = new HashSet<>();
+            for (Entry candidate : candidates) {
+                if (top.size() == topK) {
+                    break;
+                }
+                // a suggestion reachable through two of its keys is listed once
+                if (seen.add(candidate.id())) {
+                    top.add(candidate);
+                }
+            }
+            return new Node(edge, labels, children, entries, top.toArray(NO_ENTRIES));
+        }
+
+        Node withEdge(String newEdge) {
+            return new Node(newEdge, labels, children, entries, top);
+        }
+
+        // Rebuilds this node around the new state; a non-root node left with no entries and one
+        // child is merged into that child to keep the trie compressed
+        Node with(String newEdge, char[] newLabels, Node[] newChildren, Entry[] newEntries, int topK) {
+            if (!newEdge.isEmpty() && newEntries.length == 0) {
+                if (newChildren.length == 0) {
+                    return null;
+                }
+                if (newChildren.length == 1) {
+                    return newChildren[0].withEdge(newEdge + newChildren[0].edge);
+                }
+            }
+            return of(newEdge, newLabels, newChildren, newEntries, topK);
+        }
+
+        Node withChild(int index, char label, Node child, boolean insert, int topK) {
+            char[] newLabels;
+            Node[] newChildren;
+            if (insert) {
+                newLabels = new char[labels.length + 1];
+                newChildren = new Node[children.length + 1];
+                System.arraycopy(labels, 0, newLabels, 0, index);
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+                System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            } else {
+                newLabels = labels.clone();
+                newChildren = children.clone();
+            }
+            newLabels[index] = label;
+            newChildren[index] = child;
+            return with(edge, newLabels, newChildren, entries, topK);
+        }
+
+        Node withoutChild(int index, int topK) {
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            return with(edge, newLabels, newChildren, entries, topK);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.hcltech.car_purcharse_service.dto.CacheStatsDto;
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of each seller's mapped inventory, evicted by size and by age. A car write only
+ * invalidates the sellers the car belongs to before and after the write; the previous owner is
+ * found through a car id to seller id map kept alongside the cache.
+ */
+@Component
+public class SellerInventoryCache implements CarIndex {
+
+    private final Cache<Integer, List<CarDto>> inventories;
+
+    // car id -> seller id, so a reassigned or deleted car also invalidates its old seller
+    private final Map<Integer, Integer> sellerByCar = new ConcurrentHashMap<>();
+
+    public SellerInventoryCache(@Value("${spring.app.cache.seller-inventory.maximum-size}") long maximumSize,
+                                @Value("${spring.app.cache.seller-inventory.expire-after-write}") Duration expireAfterWrite) {
+        this.inventories = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the seller's cars, calling {@code loader} on a miss. Concurrent misses for the same
+     * seller share one load, and an invalidation racing a load waits for it and then removes it.
+     */
+    public List<CarDto> get(Integer sellerId, Function<Integer, List<CarDto>> loader) {
+        return inventories.get(sellerId, id -> {
+            List<CarDto> cars = List.copyOf(loader.apply(id));
+            cars.forEach(car -> sellerByCar.put(car.getId(), id));
+            return cars;
+        });
+    }
+
+    public CacheStatsDto stats() {
+        CacheStats stats = inventories.stats();
+        return new CacheStatsDto(inventories.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    @Override
+    public void rebuild(List<CarDto> cars) {
+        sellerByCar.clear();
+        cars.stream()
+                .filter(car -> car.getId() != null && car.getSellerId() != null)
+                .forEach(car -> sellerByCar.put(car.getId(), car.getSellerId()));
+        inventories.invalidateAll();
+    }
+
+    @Override
+    public void onCarSaved(CarDto car) {
+        Integer previousSeller = car.getSellerId() == null
+                ? sellerByCar.remove(car.getId())
+                : sellerByCar.put(car.getId(), car.getSellerId());
+        invalidate(previousSeller);
+        if (!Objects.equals(previousSeller, car.getSellerId())) {
+            invalidate(car.getSellerId());
+        }
+    }
+
+    @Override
+    public void onCarDeleted(Integer carId) {
+        invalidate(sellerByCar.remove(carId));
+    }
+
+    private void invalidate(Integer sellerId) {
+        if (sellerId != null) {
+            inventories.invalidate(sellerId);
+        }
+    }
+}
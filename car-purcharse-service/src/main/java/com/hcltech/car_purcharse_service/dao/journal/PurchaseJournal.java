@@ -0,0 +1,404 @@
+package com.hcltech.car_purcharse_service.dao.journal;
+
+import com.hcltech.car_purcharse_service.event.PurchaseChange;
+import com.hcltech.car_purcharse_service.event.PurchasesChangedEvent;
+import com.hcltech.car_purcharse_service.utils.PriceSeriesCodec;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only audit journal of every change to a purchase. Entries are written into
+ * memory-mapped segment files of a fixed size; when one is full the next is started, named after
+ * the sequence number of its first entry. An entry is never rewritten.
+ *
+ * <p>Each entry is a fixed-size record: its body length, a CRC32C of the body, then the body with
+ * the sequence number, the time, the change type and the purchase's values. The length is written
+ * last, so a slot whose length is still zero was never completed. Because every record has the
+ * same size, a damaged record is skipped by checksum and reading carries on with the next one.
+ *
+ * <p>Changes are appended just before the purchase's transaction commits, and a failed append
+ * fails the commit, so no purchase is committed without its entry. The reverse can happen: a
+ * transaction that fails in the commit itself, after its entry was appended, leaves an entry
+ * without a row, which the reconciliation report lists as missing from the database.
+ *
+ * <p>Appending copies the record into the mapped page and returns. From then on the kernel owns the
+ * page, so the entry survives the process crashing, but not the machine going down before the page
+ * reaches the disk. A background thread forces the written range to disk every sync interval for
+ * all the entries appended meanwhile (group commit), which bounds what a power loss or kernel crash
+ * can take to that interval without a purchase ever waiting for an fsync.
+ *
+ * <p>The directory should be on persistent storage. When {@code spring.app.journal.dir} is not set,
+ * {@value #DEFAULT_DIR} under the working directory is used and a warning logged. The journal only
+ * matches a database that outlives restarts: when Hibernate recreates the schema on startup
+ * ({@code ddl-auto} of {@code create} or {@code create-drop}), the purchase ids start over, so the
+ * segments of the earlier schema are moved into a {@code superseded-} subdirectory, kept for audit
+ * but out of replay and reconciliation, and the journal starts empty.
+ */
+@Component
+public class PurchaseJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurchaseJournal.class);
+
+    static final int MAGIC = 0x504A4E31;
+
+    // segment header: magic and body size, so a reader can tell the format
+    static final int HEADER_SIZE = 8;
+
+    // sequence, time, type, purchase, buyer, seller and car ids, date, price
+    static final int BODY_SIZE = 8 + 8 + 1 + 4 + 4 + 4 + 4 + 4 + 8;
+
+    static final int RECORD_SIZE = 4 + 4 + BODY_SIZE;
+
+    private static final int NULL_INT = Integer.MIN_VALUE;
+
+    private static final long NULL_CENTS = Long.MIN_VALUE;
+
+    private static final String SEGMENT_PREFIX = "purchases-";
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    static final String DEFAULT_DIR = "data/purchase-journal";
+
+    static final String SUPERSEDED_PREFIX = "superseded-";
+
+    private static final PurchaseChange.Type[] TYPES = PurchaseChange.Type.values();
+
+    /** One journal entry: a change and when, in sequence order, it was recorded. */
+    public record Entry(long sequence, long timestampMillis, PurchaseChange change) {
+    }
+
+    /** What a replay read: the valid entries, the records skipped as damaged, and the segments read. */
+    public record ReplayStats(long entries, long corruptRecords, int segments) {
+    }
+
+    private final Path dir;
+
+    private final int segmentSize;
+
+    private final Duration syncInterval;
+
+    private final Clock clock;
+
+    private final List<Path> segments = new ArrayList<>();
+
+    private final CRC32C writeCrc = new CRC32C();
+
+    private MappedByteBuffer active;
+
+    private int position;
+
+    // everything in the active segment before this offset has been forced to disk
+    private int syncedPosition;
+
+    private long nextSequence;
+
+    private final ScheduledExecutorService syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "purchase-journal-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public PurchaseJournal(@Value("${spring.app.journal.dir}") String dir,
+                           @Value("${spring.app.journal.segment-size}") DataSize segmentSize,
+                           @Value("${spring.app.journal.sync-interval}") Duration syncInterval,
+                           @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        this(prepareDir(dir, ddlAuto, Clock.systemUTC()), Math.toIntExact(segmentSize.toBytes()), syncInterval,
+                Clock.systemUTC());
+    }
+
+    PurchaseJournal(Path dir, int segmentSize, Duration syncInterval, Clock clock) {
+        if (segmentSize < HEADER_SIZE + RECORD_SIZE) {
+            throw new IllegalArgumentException("A journal segment must hold at least one entry");
+        }
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.syncInterval = syncInterval;
+        this.clock = clock;
+        try {
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open purchase journal at " + dir, e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        syncer.scheduleWithFixedDelay(this::sync, syncInterval.toMillis(), syncInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Runs inside the purchase's transaction; a failed append is rethrown and rolls the purchase back
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onPurchasesChanged(PurchasesChangedEvent event) {
+        append(event.getChanges());
+    }
+
+    /** Appends one entry per change, in order, and returns the sequence number of the last one. */
+    public synchronized long append(List<PurchaseChange> changes) {
+        long now = clock.millis();
+        for (PurchaseChange change : changes) {
+            if (position + RECORD_SIZE > segmentSize) {
+                roll();
+            }
+            write(active, position, nextSequence++, now, change);
+            position += RECORD_SIZE;
+        }
+        return nextSequence - 1;
+    }
+
+    /**
+     * Forces what was appended since the last sync to disk. Runs on the sync thread; a failure is
+     * logged and the range is forced again on the next run.
+     */
+    void sync() {
+        MappedByteBuffer buffer;
+        int from;
+        int to;
+        synchronized (this) {
+            if (position == syncedPosition) {
+                return;
+            }
+            buffer = active;
+            from = syncedPosition;
+            to = position;
+        }
+        try {
+            buffer.force(from, to - from);
+            synchronized (this) {
+                if (buffer == active) {
+                    syncedPosition = Math.max(syncedPosition, to);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            logger.warn("Syncing the purchase journal failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads every entry written so far, oldest first, and passes it to {@code visitor}. Reading
+     * maps each segment read-only and never blocks appends; entries appended after the replay
+     * started are not included.
+     */
+    public ReplayStats replay(Consumer<Entry> visitor) {
+        List<Path> files;
+        int activeEnd;
+        synchronized (this) {
+            files = List.copyOf(segments);
+            activeEnd = position;
+        }
+        CRC32C crc = new CRC32C();
+        long entries = 0;
+        long corrupt = 0;
+        for (int i = 0; i < files.size(); i++) {
+            try (FileChannel channel = FileChannel.open(files.get(i), StandardOpenOption.READ)) {
+                int end = i == files.size() - 1 ? activeEnd : (int) Math.min(channel.size(), segmentSize);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, end);
+                if (end < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != BODY_SIZE) {
+                    logger.warn("Skipping purchase journal segment {} with an unknown header", files.get(i));
+                    corrupt++;
+                    continue;
+                }
+                for (int offset = HEADER_SIZE; offset + RECORD_SIZE <= end; offset += RECORD_SIZE) {
+                    int length = buffer.getInt(offset);
+                    if (length == 0) {
+                        break;
+                    }
+                    if (!isValid(buffer, offset, crc)) {
+                        corrupt++;
+                        continue;
+                    }
+                    visitor.accept(read(buffer, offset));
+                    entries++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read purchase journal segment " + files.get(i), e);
+            }
+        }
+        return new ReplayStats(entries, corrupt, files.size());
+    }
+
+    public synchronized long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Resolves the configured directory, falling back to {@link #DEFAULT_DIR}, and sets aside the
+     * segments of an earlier schema when Hibernate recreates it on this startup.
+     */
+    static Path prepareDir(String configured, String ddlAuto, Clock clock) {
+        Path dir;
+        if (configured == null || configured.isBlank()) {
+            dir = Path.of(DEFAULT_DIR).toAbsolutePath();
+            logger.warn("spring.app.journal.dir is not set; journaling purchases to {}. Point it, or PURCHASE_JOURNAL_DIR, "
+                    + "at a directory on persistent storage", dir);
+        } else {
+            dir = Path.of(configured);
+        }
+        if (!"create".equals(ddlAuto) && !"create-drop".equals(ddlAuto) || !Files.isDirectory(dir)) {
+            return dir;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> earlier = files.filter(PurchaseJournal::isSegment).toList();
+            if (!earlier.isEmpty()) {
+                Path superseded = Files.createDirectories(dir.resolve(SUPERSEDED_PREFIX + clock.millis()));
+                for (Path segment : earlier) {
+                    Files.move(segment, superseded.resolve(segment.getFileName()));
+                }
+                logger.warn("The schema is recreated on startup (ddl-auto={}); moved {} purchase journal segments of the "
+                        + "earlier schema to {}", ddlAuto, earlier.size(), superseded);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not set aside the purchase journal at " + dir, e);
+        }
+        return dir;
+    }
+
+    /**
+     * Resumes after the last completed slot of the newest segment, or starts the first segment.
+     * Slots whose checksum fails are left as they are, for a replay to report, and never reused.
+     */
+    private void open() throws IOException {
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(PurchaseJournal::isSegment).sorted().forEach(segments::add);
+        }
+        if (segments.isEmpty()) {
+            nextSequence = 1;
+            roll();
+            return;
+        }
+        Path last = segments.get(segments.size() - 1);
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            active = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        if (active.getInt(0) != MAGIC || active.getInt(4) != BODY_SIZE) {
+            throw new IOException("Journal segment " + last + " has an unknown header");
+        }
+        nextSequence = firstSequence(last);
+        position = HEADER_SIZE;
+        while (position + RECORD_SIZE <= segmentSize && active.getInt(position) != 0) {
+            if (isValid(active, position, writeCrc)) {
+                nextSequence = active.getLong(position + 8) + 1;
+            }
+            position += RECORD_SIZE;
+        }
+        // the first free slot may still hold part of a body torn by a crash
+        for (int i = position; i < Math.min(position + RECORD_SIZE, segmentSize); i++) {
+            active.put(i, (byte) 0);
+        }
+        syncedPosition = 0;
+        logger.info("Opened purchase journal at {} with {} segments, next entry {}", dir, segments.size(), nextSequence);
+    }
+
+    // Forces the full segment before moving on, so only the active segment is ever unsynced
+    private void roll() {
+        if (active != null) {
+            active.force();
+        }
+        Path next = dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(next, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            active = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start purchase journal segment " + next, e);
+        }
+        active.putInt(0, MAGIC);
+        active.putInt(4, BODY_SIZE);
+        segments.add(next);
+        position = HEADER_SIZE;
+        syncedPosition = 0;
+    }
+
+    private void write(MappedByteBuffer buffer, int offset, long sequence, long timestampMillis, PurchaseChange change) {
+        int body = offset + 8;
+        buffer.putLong(body, sequence);
+        buffer.putLong(body + 8, timestampMillis);
+        buffer.put(body + 16, (byte) change.type().ordinal());
+        buffer.putInt(body + 17, orNull(change.purchaseId()));
+        buffer.putInt(body + 21, orNull(change.buyerId()));
+        buffer.putInt(body + 25, orNull(change.sellerId()));
+        buffer.putInt(body + 29, orNull(change.carId()));
+        buffer.putInt(body + 33, change.purchaseDate() == null ? NULL_INT : Math.toIntExact(change.purchaseDate().toEpochDay()));
+        buffer.putLong(body + 37, change.salePrice() == null ? NULL_CENTS : PriceSeriesCodec.toCents(change.salePrice()));
+        writeCrc.reset();
+        writeCrc.update(buffer.slice(body, BODY_SIZE));
+        buffer.putInt(offset + 4, (int) writeCrc.getValue());
+        buffer.putInt(offset, BODY_SIZE);
+    }
+
+    private static Entry read(MappedByteBuffer buffer, int offset) {
+        int body = offset + 8;
+        int epochDay = buffer.getInt(body + 33);
+        long cents = buffer.getLong(body + 37);
+        PurchaseChange change = new PurchaseChange(TYPES[buffer.get(body + 16)],
+                nullable(buffer.getInt(body + 17)), nullable(buffer.getInt(body + 21)),
+                nullable(buffer.getInt(body + 25)), nullable(buffer.getInt(body + 29)),
+                epochDay == NULL_INT ? null : LocalDate.ofEpochDay(epochDay),
+                cents == NULL_CENTS ? null : PriceSeriesCodec.fromCents(cents));
+        return new Entry(buffer.getLong(body), buffer.getLong(body + 8), change);
+    }
+
+    private static boolean isValid(MappedByteBuffer buffer, int offset, CRC32C crc) {
+        if (buffer.getInt(offset) != BODY_SIZE) {
+            return false;
+        }
+        crc.reset();
+        crc.update(buffer.slice(offset + 8, BODY_SIZE));
+        return (int) crc.getValue() == buffer.getInt(offset + 4)
+                && Byte.toUnsignedInt(buffer.get(offset + 8 + 16)) < TYPES.length;
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int orNull(Integer value) {
+        return value == null ? NULL_INT : value;
+    }
+
+    private static Integer nullable(int value) {
+        return value == NULL_INT ? null : value;
+    }
+
+    @PreDestroy
+    public void close() {
+        syncer.shutdownNow();
+        synchronized (this) {
+            active.force();
+        }
+    }
+}
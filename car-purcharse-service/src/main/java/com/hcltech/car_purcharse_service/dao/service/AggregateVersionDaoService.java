@@ -0,0 +1,42 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.List;
+
+@Service
+public class AggregateVersionDaoService {
+
+    private static final String CURRENT = "select version from aggregate_version where aggregate = :aggregate";
+
+    // A new row starts at the current time, so versions never repeat after the table is recreated
+    private static final String BUMP = "insert into aggregate_version (aggregate, version) values (:aggregate, :initial) "
+            + "on conflict (aggregate) do update set version = aggregate_version.version + 1";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final Clock clock;
+
+    public AggregateVersionDaoService(NamedParameterJdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, Clock.systemUTC());
+    }
+
+    AggregateVersionDaoService(NamedParameterJdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    // 0 until the aggregate is first written
+    public long current(String aggregate) {
+        List<Long> versions = jdbcTemplate.queryForList(CURRENT, new MapSqlParameterSource("aggregate", aggregate), Long.class);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    // Joins the caller's transaction, if any: the new version becomes visible when the write does
+    public void bump(String aggregate) {
+        jdbcTemplate.update(BUMP, new MapSqlParameterSource("aggregate", aggregate).addValue("initial", clock.millis()));
+    }
+}
@@ -1,24 +1,67 @@
 package com.hcltech.car_purcharse_service.dao.service;
 
+import com.hcltech.car_purcharse_service.dto.CarBulkUpdateDto;
+import com.hcltech.car_purcharse_service.dto.CarDto;
 import com.hcltech.car_purcharse_service.model.Car;
 import com.hcltech.car_purcharse_service.repository.CarRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class CarDaoService {
+    // One set-based UPDATE for a seller's promotion: price becomes price * factor + delta and availability is
+    // set when newAvailable is not null. Null filters match everything; cars whose new price would not be
+    // positive are left untouched. When cars are made available, sold cars and cars on a live hold are left
+    // out, so a bulk change can never put a sold car back on sale. Returns the ids of the cars it changed.
+    static final String BULK_UPDATE_BY_SELLER = "update car c set price = c.price * :factor + :delta, "
+            + "is_available = coalesce(cast(:newAvailable as boolean), c.is_available) "
+            + "where c.seller_id = :sellerId "
+            + "and (cast(:make as varchar) is null or lower(c.make) = lower(cast(:make as varchar))) "
+            + "and (cast(:model as varchar) is null or lower(c.model) = lower(cast(:model as varchar))) "
+            + "and (cast(:minYear as integer) is null or c.year >= cast(:minYear as integer)) "
+            + "and (cast(:maxYear as integer) is null or c.year <= cast(:maxYear as integer)) "
+            + "and (cast(:minPrice as double precision) is null or c.price >= cast(:minPrice as double precision)) "
+            + "and (cast(:maxPrice as double precision) is null or c.price <= cast(:maxPrice as double precision)) "
+            + "and (cast(:available as boolean) is null or c.is_available = cast(:available as boolean)) "
+            + "and (c.price is null or c.price * :factor + :delta > 0) "
+            + "and (cast(:newAvailable as boolean) is null or not cast(:newAvailable as boolean) or ("
+            + "not exists (select 1 from car_sale s where s.car_id = c.id) "
+            + "and not exists (select 1 from car_hold h where h.car_id = c.id and h.expires_at > :now))) "
+            + "returning c.id";
+
     private final CarRepository carRepository;
 
-    public CarDaoService(CarRepository carRepository) {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public CarDaoService(CarRepository carRepository, NamedParameterJdbcTemplate jdbcTemplate) {
         this.carRepository = carRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     public List<Car> getAll() {
         return carRepository.findAll();
     }
 
+    public List<CarDto> getAllAsDto() {
+        return carRepository.findAllAsDto();
+    }
+
+    // Caller must close the stream and hold a transaction open while reading it
+    public Stream<CarDto> streamAll() {
+        return carRepository.streamAllAsDto();
+    }
+
     public Car getOneById(Integer id) {
         return carRepository.findById(id).orElse(null);
     }
@@ -40,8 +83,52 @@ public class CarDaoService {
         return carRepository.findByIsAvailableTrue();
     }
 
+    public List<CarDto> getAvailableCarsAsDto() {
+        return carRepository.findAvailableAsDto();
+    }
+
     public List<Car> getCarsBySeller(Integer sellerId) {
         return carRepository.findAllBySellerId(sellerId);
     }
 
+    public List<CarDto> getCarsBySellerAsDto(Integer sellerId) {
+        return carRepository.findAsDtoBySellerId(sellerId);
+    }
+
+    public List<Integer> bulkUpdateBySeller(Integer sellerId, CarBulkUpdateDto change, double factor, double delta) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("sellerId", sellerId)
+                .addValue("make", blankToNull(change.getMake()))
+                .addValue("model", blankToNull(change.getModel()))
+                .addValue("minYear", change.getMinYear())
+                .addValue("maxYear", change.getMaxYear())
+                .addValue("minPrice", change.getMinPrice())
+                .addValue("maxPrice", change.getMaxPrice())
+                .addValue("available", change.getAvailable())
+                .addValue("factor", factor)
+                .addValue("delta", delta)
+                .addValue("newAvailable", change.getSetAvailable())
+                .addValue("now", Timestamp.from(Instant.now()));
+        return jdbcTemplate.queryForList(BULK_UPDATE_BY_SELLER, params, Integer.class);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    public List<Car> getByIds(List<Integer> ids) {
+        return carRepository.findAllById(ids);
+    }
+
+    public List<CarDto> getByIdsAsDto(List<Integer> ids) {
+        return carRepository.findAsDtoByIdIn(ids);
+    }
+
+    public Window<Car> getPage(ScrollPosition position, Sort sort, Limit limit, boolean availableOnly) {
+        if (availableOnly) {
+            return carRepository.findByIsAvailableTrue(position, sort, limit);
+        }
+        return carRepository.findAllBy(position, sort, limit);
+    }
+
 }
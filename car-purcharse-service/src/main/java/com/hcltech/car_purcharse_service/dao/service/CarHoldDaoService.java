@@ -0,0 +1,85 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.exception.CarAlreadySoldException;
+import com.hcltech.car_purcharse_service.exception.CarOnHoldException;
+import com.hcltech.car_purcharse_service.exception.ResourceNotFoundException;
+import com.hcltech.car_purcharse_service.model.CarHold;
+import com.hcltech.car_purcharse_service.repository.BuyerRepository;
+import com.hcltech.car_purcharse_service.repository.CarHoldRepository;
+import com.hcltech.car_purcharse_service.repository.CarRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class CarHoldDaoService {
+
+    private final CarHoldRepository carHoldRepository;
+
+    private final CarRepository carRepository;
+
+    private final BuyerRepository buyerRepository;
+
+    public CarHoldDaoService(CarHoldRepository carHoldRepository, CarRepository carRepository,
+                             BuyerRepository buyerRepository) {
+        this.carHoldRepository = carHoldRepository;
+        this.carRepository = carRepository;
+        this.buyerRepository = buyerRepository;
+    }
+
+    /**
+     * Inserts a hold on an available car. A hold whose time is up but that has not been swept yet is
+     * removed first; a live one makes this fail with {@link CarOnHoldException}, and so does losing
+     * an insert race on the unique car id.
+     */
+    @Transactional
+    public CarHold create(Integer carId, Integer buyerId, Instant now, Instant expiresAt) {
+        if (!buyerRepository.existsById(buyerId)) {
+            throw new ResourceNotFoundException("Buyer not found with ID: " + buyerId);
+        }
+        CarDto car = carRepository.findAsDtoByIdIn(List.of(carId)).stream().findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Car not found with ID: " + carId));
+        if (!Boolean.TRUE.equals(car.getIsAvailable())) {
+            throw new CarAlreadySoldException("Car with ID " + carId + " is no longer available");
+        }
+        carHoldRepository.deleteExpiredByCarId(carId, now);
+        if (carHoldRepository.findByCarId(carId).isPresent()) {
+            throw new CarOnHoldException("Car with ID " + carId + " is already on hold");
+        }
+        try {
+            return carHoldRepository.saveAndFlush(new CarHold(null, carId, buyerId, now, expiresAt));
+        } catch (DataIntegrityViolationException e) {
+            throw new CarOnHoldException("Car with ID " + carId + " is already on hold");
+        }
+    }
+
+    public List<CarHold> findAll() {
+        return carHoldRepository.findAll();
+    }
+
+    public Optional<CarHold> findByCarId(Integer carId) {
+        return carHoldRepository.findByCarId(carId);
+    }
+
+    // A hold whose time is up counts as gone, whether or not it has been swept yet
+    public Optional<CarHold> findLive(Integer carId, Instant now) {
+        return carHoldRepository.findByCarId(carId).filter(hold -> hold.getExpiresAt().isAfter(now));
+    }
+
+    public List<CarHold> findLiveHolds(Instant now) {
+        return carHoldRepository.findByExpiresAtAfter(now);
+    }
+
+    public boolean deleteExpired(Integer holdId, Instant now) {
+        return carHoldRepository.deleteExpired(holdId, now) > 0;
+    }
+
+    public void deleteByCarId(Integer carId) {
+        carHoldRepository.deleteByCarId(carId);
+    }
+}
@@ -0,0 +1,156 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.dto.CarImportErrorDto;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Loads cars in bulk through PostgreSQL {@code COPY}. Rows are streamed into a temporary staging
+ * table and merged into {@code car} with one {@code INSERT ... SELECT}, all in one transaction, so
+ * an import is applied completely or not at all and never pays a round trip per row.
+ *
+ * <p>Sellers are checked by the merge, which joins the staged rows to {@code seller}; the rows it
+ * leaves out are reported afterwards by their line number. No other statement may run on the
+ * connection while the COPY is open, so the rows cannot be checked one by one as they stream.
+ */
+@Service
+public class CarImportDaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CarImportDaoService.class);
+
+    // rows are sent to the server in chunks of this many bytes
+    private static final int COPY_CHUNK_SIZE = 64 * 1024;
+
+    /** One valid row of the upload and the line it was read from. */
+    public record ImportRow(long line, CarDto car) {
+    }
+
+    /** The cars inserted, and the rows left out because their seller does not exist. */
+    public record ImportResult(int inserted, long unknownSellerRows, List<CarImportErrorDto> unknownSellers) {
+    }
+
+    private static final String CREATE_STAGING_TABLE = "CREATE TEMP TABLE car_import_staging ("
+            + "line bigint, make text, model text, year integer, price double precision, is_available boolean, seller_id integer"
+            + ") ON COMMIT DROP";
+
+    private static final String COPY_INTO_STAGING =
+            "COPY car_import_staging (line, make, model, year, price, is_available, seller_id) FROM STDIN WITH (FORMAT csv)";
+
+    // Also writes a CAR_LISTED outbox event per inserted car, with the car in CarDto's JSON shape. The
+    // count returned is that of the outbox rows, which is the number of cars inserted.
+    private static final String MERGE_STAGING = "WITH merged AS ("
+            + "INSERT INTO car (make, model, year, price, is_available, seller_id) "
+            + "SELECT s.make, s.model, s.year, s.price, s.is_available, s.seller_id "
+            + "FROM car_import_staging s JOIN seller ON seller.id = s.seller_id "
+            + "RETURNING id, make, model, year, price, is_available, seller_id) "
+            + "INSERT INTO outbox_event (event_type, aggregate_id, payload, created_at) "
+            + "SELECT 'CAR_LISTED', id, json_build_object('id', id, 'make', make, 'model', model, 'year', year, "
+            + "'price', price, 'isAvailable', is_available, 'sellerId', seller_id)::text, now() FROM merged";
+
+    private static final String UNKNOWN_SELLERS = "FROM car_import_staging s "
+            + "WHERE NOT EXISTS (SELECT 1 FROM seller WHERE seller.id = s.seller_id)";
+
+    private static final String COUNT_UNKNOWN_SELLERS = "SELECT count(*) " + UNKNOWN_SELLERS;
+
+    private static final String FIRST_UNKNOWN_SELLERS = "SELECT s.line, s.seller_id " + UNKNOWN_SELLERS + " ORDER BY s.line LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public CarImportDaoService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Copies every row the iterator yields, inserts those whose seller exists and reports the first
+     * {@code maxReported} of the others. The iterator is consumed lazily while the COPY is open, so
+     * the caller can parse and validate the upload as it streams, but it must not touch the
+     * database while doing so.
+     */
+    public ImportResult copyCars(Iterator<ImportRow> rows, int maxReported) {
+        return transactionTemplate.execute(status -> {
+            Integer merged = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_STAGING_TABLE);
+                }
+                long copied = copy(connection.unwrap(PGConnection.class), rows);
+                try (Statement statement = connection.createStatement()) {
+                    int inserted = statement.executeUpdate(MERGE_STAGING);
+                    logger.info("Bulk import copied {} rows and merged {} cars", copied, inserted);
+                    return inserted;
+                }
+            });
+            // the COPY has ended, so the staging table can be queried on the same connection
+            Long unknown = jdbcTemplate.queryForObject(COUNT_UNKNOWN_SELLERS, Long.class);
+            List<CarImportErrorDto> reported = unknown == null || unknown == 0 ? List.of()
+                    : jdbcTemplate.query(FIRST_UNKNOWN_SELLERS, (resultSet, rowNum) -> new CarImportErrorDto(
+                            resultSet.getLong("line"), "Seller not found with ID: " + resultSet.getInt("seller_id")), maxReported);
+            return new ImportResult(merged == null ? 0 : merged, unknown == null ? 0 : unknown, reported);
+        });
+    }
+
+    private long copy(PGConnection connection, Iterator<ImportRow> rows) throws SQLException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn(COPY_INTO_STAGING);
+        try {
+            StringBuilder chunk = new StringBuilder(COPY_CHUNK_SIZE + 256);
+            while (rows.hasNext()) {
+                appendCsvRow(chunk, rows.next());
+                if (chunk.length() >= COPY_CHUNK_SIZE) {
+                    write(copyIn, chunk);
+                }
+            }
+            write(copyIn, chunk);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void write(CopyIn copyIn, StringBuilder chunk) throws SQLException {
+        if (!chunk.isEmpty()) {
+            byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            chunk.setLength(0);
+        }
+    }
+
+    static void appendCsvRow(StringBuilder out, ImportRow row) {
+        CarDto car = row.car();
+        out.append(row.line()).append(',');
+        appendCsvValue(out, car.getMake()).append(',');
+        appendCsvValue(out, car.getModel()).append(',');
+        out.append(car.getYear()).append(',');
+        appendCsvValue(out, car.getPrice()).append(',');
+        appendCsvValue(out, car.getIsAvailable()).append(',');
+        appendCsvValue(out, car.getSellerId()).append('\n');
+    }
+
+    // COPY csv treats an unquoted empty field as NULL, and a quoted one as an empty string
+    private static StringBuilder appendCsvValue(StringBuilder out, Object value) {
+        if (value == null) {
+            return out;
+        }
+        if (!(value instanceof String text)) {
+            return out.append(value);
+        }
+        return out.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,154 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.dto.PricePointDto;
+import com.hcltech.car_purcharse_service.model.CarPriceHistoryChunk;
+import com.hcltech.car_purcharse_service.repository.CarPriceHistoryRepository;
+import com.hcltech.car_purcharse_service.utils.PriceSeriesCodec;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only price history. The points of a car are packed into chunks of at most
+ * {@link #CHUNK_POINTS} changes; recording a change rewrites only the small latest chunk, and a
+ * full chunk is sealed and never written again. A range read decodes just the chunks that overlap
+ * the range, and an analytics scan streams the encoded chunks without touching {@code car}.
+ */
+@Service
+public class CarPriceHistoryDaoService {
+
+    static final int CHUNK_POINTS = 128;
+
+    private final CarPriceHistoryRepository carPriceHistoryRepository;
+
+    public CarPriceHistoryDaoService(CarPriceHistoryRepository carPriceHistoryRepository) {
+        this.carPriceHistoryRepository = carPriceHistoryRepository;
+    }
+
+    /**
+     * Records the price of every car whose price differs from its last recorded one, with one
+     * select for the latest chunks of all of them and one batch of writes. A change stamped before
+     * the last recorded point, because its transaction committed after a later one, is put in its
+     * place in the series rather than appended. A concurrent write to the same car's latest chunk
+     * fails the commit with an optimistic locking or integrity violation, and the caller is
+     * expected to run it again.
+     */
+    public void recordPrices(List<CarDto> cars, Instant changedAt) {
+        Map<Integer, CarDto> priced = new LinkedHashMap<>();
+        for (CarDto car : cars) {
+            if (car.getId() != null && car.getPrice() != null) {
+                priced.put(car.getId(), car);
+            }
+        }
+        if (priced.isEmpty()) {
+            return;
+        }
+        Map<Integer, CarPriceHistoryChunk> latest = carPriceHistoryRepository.findByCarIdInAndLatestTrue(priced.keySet())
+                .stream()
+                .collect(Collectors.toMap(CarPriceHistoryChunk::getCarId, Function.identity()));
+
+        List<CarPriceHistoryChunk> changed = new ArrayList<>();
+        for (CarDto car : priced.values()) {
+            long cents = PriceSeriesCodec.toCents(car.getPrice());
+            CarPriceHistoryChunk chunk = latest.get(car.getId());
+            if (chunk != null && changedAt.isBefore(chunk.getLastAt())) {
+                if (insert(chunk, changedAt, cents)) {
+                    changed.add(chunk);
+                }
+                continue;
+            }
+            if (chunk != null && chunk.getLastPriceCents() == cents) {
+                continue;
+            }
+            if (chunk == null || chunk.getPointCount() >= CHUNK_POINTS) {
+                if (chunk != null) {
+                    chunk.setLatest(false);
+                    changed.add(chunk);
+                }
+                chunk = new CarPriceHistoryChunk(null, car.getId(), changedAt, changedAt, 0, 0, true, new byte[0], null);
+            }
+            append(chunk, changedAt, cents);
+            changed.add(chunk);
+        }
+        if (!changed.isEmpty()) {
+            carPriceHistoryRepository.saveAll(changed);
+        }
+    }
+
+    // Points of the car changed within [from, to], oldest first
+    public List<PricePointDto> getHistory(Integer carId, Instant from, Instant to) {
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        List<PricePointDto> points = new ArrayList<>();
+        for (CarPriceHistoryChunk chunk : carPriceHistoryRepository.findOverlapping(carId, from, to)) {
+            PriceSeriesCodec.decode(chunk.getData(), (millis, cents) -> {
+                if (millis >= fromMillis && millis <= toMillis) {
+                    points.add(toDto(carId, millis, cents));
+                }
+            });
+        }
+        return points;
+    }
+
+    // Every recorded point ordered by car and time; must be consumed inside a transaction and closed
+    public Stream<PricePointDto> streamAll() {
+        return carPriceHistoryRepository.streamAllSeries().flatMap(row -> {
+            Integer carId = (Integer) row[0];
+            List<PricePointDto> points = new ArrayList<>();
+            PriceSeriesCodec.decode((byte[]) row[1], (millis, cents) -> points.add(toDto(carId, millis, cents)));
+            return points.stream();
+        });
+    }
+
+    private static void append(CarPriceHistoryChunk chunk, Instant changedAt, long cents) {
+        boolean empty = chunk.getPointCount() == 0;
+        long previousMillis = empty ? 0 : chunk.getLastAt().toEpochMilli();
+        long previousCents = empty ? 0 : chunk.getLastPriceCents();
+        chunk.setData(PriceSeriesCodec.append(chunk.getData(), previousMillis, previousCents, changedAt.toEpochMilli(), cents));
+        chunk.setLastAt(changedAt);
+        chunk.setLastPriceCents(cents);
+        chunk.setPointCount(chunk.getPointCount() + 1);
+    }
+
+    // Re-encodes the chunk with the point in time order; false when it repeats the price before it
+    private static boolean insert(CarPriceHistoryChunk chunk, Instant changedAt, long cents) {
+        long millis = changedAt.toEpochMilli();
+        List<long[]> points = new ArrayList<>(chunk.getPointCount() + 1);
+        PriceSeriesCodec.decode(chunk.getData(), (pointMillis, pointCents) -> points.add(new long[]{pointMillis, pointCents}));
+        int index = 0;
+        while (index < points.size() && points.get(index)[0] <= millis) {
+            index++;
+        }
+        if (index > 0 && points.get(index - 1)[1] == cents) {
+            return false;
+        }
+        points.add(index, new long[]{millis, cents});
+
+        byte[] data = new byte[0];
+        long previousMillis = 0;
+        long previousCents = 0;
+        for (long[] point : points) {
+            data = PriceSeriesCodec.append(data, previousMillis, previousCents, point[0], point[1]);
+            previousMillis = point[0];
+            previousCents = point[1];
+        }
+        chunk.setData(data);
+        chunk.setPointCount(points.size());
+        if (changedAt.isBefore(chunk.getFirstAt())) {
+            chunk.setFirstAt(changedAt);
+        }
+        return true;
+    }
+
+    private static PricePointDto toDto(Integer carId, long millis, long cents) {
+        return new PricePointDto(carId, Instant.ofEpochMilli(millis), PriceSeriesCodec.fromCents(cents));
+    }
+}
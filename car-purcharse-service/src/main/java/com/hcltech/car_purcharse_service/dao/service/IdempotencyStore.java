@@ -0,0 +1,245 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hcltech.car_purcharse_service.exception.IdempotencyKeyInProgressException;
+import com.hcltech.car_purcharse_service.model.IdempotencyRecord;
+import com.hcltech.car_purcharse_service.repository.IdempotencyRecordRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Responses of requests made under an {@code Idempotency-Key}. The idempotency_record table is the
+ * record and lets instances share keys; recent responses are also kept in a bounded in-memory
+ * cache so a replay usually never reaches the database.
+ *
+ * <p>A duplicate arriving while the first request still runs on this instance waits on that
+ * request's future instead of polling. One running on another instance is seen as an unfinished
+ * row and polled. While a request runs, its instance renews the row's lease every third of the
+ * lease, however long the request takes; only a row whose lease lapsed, because the instance that
+ * claimed it died, is taken over.
+ */
+@Service
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private static final long POLL_MILLIS = 50;
+
+    /** The stored outcome of a request, with the hash of the request body it answered. */
+    public record StoredResponse(String requestHash, int status, String contentType, byte[] body) {
+    }
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final Duration ttl;
+
+    private final Duration lease;
+
+    private final Duration waitTimeout;
+
+    private final Clock clock;
+
+    private final Cache<String, StoredResponse> responses;
+
+    // keys whose request is running on this instance; the future completes with its response, or null if released
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "idempotency-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                            @Value("${spring.app.idempotency.cache.maximum-size}") long maximumSize,
+                            @Value("${spring.app.idempotency.ttl}") Duration ttl,
+                            @Value("${spring.app.idempotency.lease}") Duration lease,
+                            @Value("${spring.app.idempotency.wait-timeout}") Duration waitTimeout) {
+        this(idempotencyRecordRepository, maximumSize, ttl, lease, waitTimeout, Clock.systemUTC());
+    }
+
+    IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository, long maximumSize, Duration ttl,
+                     Duration lease, Duration waitTimeout, Clock clock) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.waitTimeout = waitTimeout;
+        this.clock = clock;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long hours = Math.max(1, ttl.toHours());
+        maintenance.scheduleAtFixedRate(this::purgeExpired, hours, hours, TimeUnit.HOURS);
+        long heartbeat = Math.max(1, lease.toMillis() / 3);
+        maintenance.scheduleAtFixedRate(this::renewLeases, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts a request under {@code id}. Returns the stored response when the key has already been
+     * answered, waiting up to the wait timeout for a duplicate still in flight. Returns empty when
+     * the caller now owns the key; it must then run the request and call {@link #complete} or
+     * {@link #release}.
+     *
+     * @throws IdempotencyKeyInProgressException if the first request is still running after the wait timeout
+     */
+    public Optional<StoredResponse> begin(String id, String requestHash) {
+        long deadline = clock.millis() + waitTimeout.toMillis();
+        while (true) {
+            StoredResponse cached = responses.getIfPresent(id);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(id, mine);
+            if (running != null) {
+                StoredResponse response = await(running, deadline);
+                if (response != null) {
+                    return Optional.of(response);
+                }
+                continue; // the first request was released, so this one may run
+            }
+
+            // the key is ours on this instance; the table decides across instances
+            Instant now = clock.instant();
+            if (idempotencyRecordRepository.claim(id, requestHash, now) == 1) {
+                return Optional.empty();
+            }
+            inFlight.remove(id, mine);
+            Optional<IdempotencyRecord> record = idempotencyRecordRepository.findById(id);
+            StoredResponse response = record.filter(this::isReplayable).map(IdempotencyStore::toResponse).orElse(null);
+            mine.complete(response);
+            if (response != null) {
+                responses.put(id, response);
+                return Optional.of(response);
+            }
+            if (record.isPresent() && isStale(record.get(), now)) {
+                idempotencyRecordRepository.deleteStale(id, record.get().getCreatedAt());
+                continue;
+            }
+            // running on another instance, or finished in between; look again shortly
+            if (clock.millis() >= deadline) {
+                throw inProgress();
+            }
+            sleep(Math.min(POLL_MILLIS, deadline - clock.millis()));
+        }
+    }
+
+    /** Stores the response of the request that owns {@code id} and hands it to any waiting duplicate. */
+    public void complete(String id, StoredResponse response) {
+        try {
+            idempotencyRecordRepository.complete(id, response.status(), response.contentType(), response.body());
+            responses.put(id, response);
+        } finally {
+            CompletableFuture<StoredResponse> running = inFlight.remove(id);
+            if (running != null) {
+                running.complete(response);
+            }
+        }
+    }
+
+    /** Gives up {@code id} without a response, so a retry under the same key runs the request again. */
+    public void release(String id) {
+        try {
+            idempotencyRecordRepository.deleteInProgress(id);
+        } finally {
+            CompletableFuture<StoredResponse> running = inFlight.remove(id);
+            if (running != null) {
+                running.complete(null);
+            }
+        }
+    }
+
+    // Runs on the maintenance thread; a failure is logged and the next heartbeat, well inside the lease, tries again
+    void renewLeases() {
+        if (inFlight.isEmpty()) {
+            return;
+        }
+        try {
+            idempotencyRecordRepository.renew(List.copyOf(inFlight.keySet()), clock.instant());
+        } catch (RuntimeException e) {
+            logger.warn("Renewing idempotency leases failed: {}", e.getMessage());
+        }
+    }
+
+    // Runs on the maintenance thread; a failure is logged so the next run tries again
+    void purgeExpired() {
+        try {
+            int purged = idempotencyRecordRepository.deleteCreatedBefore(clock.instant().minus(ttl));
+            logger.debug("Purged {} expired idempotency records", purged);
+        } catch (RuntimeException e) {
+            logger.warn("Purging idempotency records failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean isReplayable(IdempotencyRecord record) {
+        return record.isCompleted() && record.getCreatedAt().plus(ttl).isAfter(clock.instant());
+    }
+
+    private boolean isStale(IdempotencyRecord record, Instant now) {
+        Duration limit = record.isCompleted() ? ttl : lease;
+        return !record.getCreatedAt().plus(limit).isAfter(now);
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running, long deadline) {
+        try {
+            return running.get(Math.max(0, deadline - clock.millis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw inProgress();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(Math.max(1, millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress();
+        }
+    }
+
+    private static IdempotencyKeyInProgressException inProgress() {
+        return new IdempotencyKeyInProgressException("A request with this Idempotency-Key is still in progress");
+    }
+
+    private static StoredResponse toResponse(IdempotencyRecord record) {
+        return new StoredResponse(record.getRequestHash(), record.getResponseStatus(), record.getContentType(),
+                record.getResponseBody() == null ? new byte[0] : record.getResponseBody());
+    }
+
+    @PreDestroy
+    public void close() {
+        maintenance.shutdownNow();
+    }
+}
@@ -0,0 +1,95 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hcltech.car_purcharse_service.event.OutboxEventType;
+import com.hcltech.car_purcharse_service.model.OutboxEvent;
+import com.hcltech.car_purcharse_service.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The outbox_event table. Writers append events inside the transaction of the change they
+ * describe, which is enforced: appending outside a transaction fails instead of silently
+ * publishing an event whose change may still roll back. The relay claims and deletes them.
+ */
+@Service
+public class OutboxDaoService {
+
+    static final String INSERT_EVENT = "insert into outbox_event (event_type, aggregate_id, payload, created_at) "
+            + "values (:eventType, :aggregateId, :payload, :createdAt)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final Clock clock;
+
+    @Autowired
+    public OutboxDaoService(NamedParameterJdbcTemplate jdbcTemplate, OutboxEventRepository outboxEventRepository,
+                            ObjectMapper objectMapper) {
+        this(jdbcTemplate, outboxEventRepository, objectMapper, Clock.systemUTC());
+    }
+
+    OutboxDaoService(NamedParameterJdbcTemplate jdbcTemplate, OutboxEventRepository outboxEventRepository,
+                     ObjectMapper objectMapper, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEventType type, Integer aggregateId, Object payload) {
+        jdbcTemplate.update(INSERT_EVENT, row(type, aggregateId, payload, new Timestamp(clock.millis())));
+    }
+
+    // One event per payload, inserted as a single JDBC batch
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void appendAll(OutboxEventType type, Collection<T> payloads, Function<T, Integer> aggregateId) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        Timestamp now = new Timestamp(clock.millis());
+        jdbcTemplate.batchUpdate(INSERT_EVENT, payloads.stream()
+                .map(payload -> row(type, aggregateId.apply(payload), payload, now))
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    /** Locks and returns up to {@code limit} of the oldest undelivered events, skipping those locked elsewhere. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<OutboxEvent> claimOldest(int limit) {
+        return outboxEventRepository.lockOldest(limit);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void delete(Collection<Long> ids) {
+        outboxEventRepository.deleteByIdIn(ids);
+    }
+
+    private SqlParameterSource row(OutboxEventType type, Integer aggregateId, Object payload, Timestamp createdAt) {
+        try {
+            return new MapSqlParameterSource()
+                    .addValue("eventType", type.name())
+                    .addValue("aggregateId", aggregateId)
+                    .addValue("payload", objectMapper.writeValueAsString(payload))
+                    .addValue("createdAt", createdAt);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Could not serialize " + type + " event", e);
+        }
+    }
+}
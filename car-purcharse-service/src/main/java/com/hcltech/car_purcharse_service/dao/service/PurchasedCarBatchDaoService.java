@@ -0,0 +1,210 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import com.hcltech.car_purcharse_service.dto.PurchasedCarBatchItemDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarResponseDto;
+import com.hcltech.car_purcharse_service.event.CarsPurchasedEvent;
+import com.hcltech.car_purcharse_service.event.OutboxEventType;
+import com.hcltech.car_purcharse_service.event.PurchaseChange;
+import com.hcltech.car_purcharse_service.event.PurchasesChangedEvent;
+import com.hcltech.car_purcharse_service.model.Buyer;
+import com.hcltech.car_purcharse_service.model.Car;
+import com.hcltech.car_purcharse_service.model.CarHold;
+import com.hcltech.car_purcharse_service.repository.BuyerRepository;
+import com.hcltech.car_purcharse_service.repository.CarHoldRepository;
+import com.hcltech.car_purcharse_service.repository.CarRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Records a batch of purchases in a fixed number of statements however large the batch is: one
+ * {@code findAllById} each for the buyers, sellers and cars referenced, one query for the holds
+ * on those cars, one conditional UPDATE that claims every still available car and records its
+ * car_sale row, one JDBC batch insert, one batch of sales rollup upserts and one batch of outbox
+ * events. Each purchase is accepted or rejected on its own; the accepted ones are committed together.
+ */
+@Service
+public class PurchasedCarBatchDaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurchasedCarBatchDaoService.class);
+
+    // Same claim as CarRepository.claimAvailable and CarSaleRepository.claim, for many cars at once;
+    // a car that already has a sale is left untouched. Returns the cars it marked sold
+    static final String CLAIM_AVAILABLE = "with claimed as (update car set is_available = false where id in "
+            + "(select id from car c where c.id in (:ids) and c.is_available "
+            + "and not exists (select 1 from car_sale s where s.car_id = c.id) for update of c skip locked) returning id) "
+            + "insert into car_sale (car_id) select id from claimed on conflict (car_id) do nothing returning car_id";
+
+    private static final String INSERT_PURCHASE = "insert into purchased_cars (buyer_id, seller_id, car_id, purchase_date, sale_price, sale_make) "
+            + "values (:buyerId, :sellerId, :carId, :purchaseDate, :salePrice, :saleMake)";
+
+    private final BuyerRepository buyerRepository;
+
+    private final SellerReferenceResolver sellerReferenceResolver;
+
+    private final CarRepository carRepository;
+
+    private final CarHoldRepository carHoldRepository;
+
+    private final SalesRollupDaoService salesRollupDaoService;
+
+    private final OutboxDaoService outboxDaoService;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PurchasedCarBatchDaoService(BuyerRepository buyerRepository, SellerReferenceResolver sellerReferenceResolver,
+                                       CarRepository carRepository, CarHoldRepository carHoldRepository,
+                                       SalesRollupDaoService salesRollupDaoService, OutboxDaoService outboxDaoService,
+                                       NamedParameterJdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.buyerRepository = buyerRepository;
+        this.sellerReferenceResolver = sellerReferenceResolver;
+        this.carRepository = carRepository;
+        this.carHoldRepository = carHoldRepository;
+        this.salesRollupDaoService = salesRollupDaoService;
+        this.outboxDaoService = outboxDaoService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Returns one result per purchase, in the order given. A purchase is rejected when a reference
+     * is missing or unknown, its car appears earlier in the batch, is on hold for another buyer, or
+     * is already sold or being claimed by a concurrent checkout.
+     */
+    @Transactional
+    public List<PurchasedCarBatchItemDto> createPurchasedCars(List<PurchasedCarDto> purchases) {
+        Set<Integer> buyers = ids(buyerRepository.findAllById(referenced(purchases, PurchasedCarDto::getBuyerId)), Buyer::getId);
+        // sellers known to exist cost no query; the rest are loaded with one findAllById
+        Set<Integer> sellers = sellerReferenceResolver.resolveAll(referenced(purchases, PurchasedCarDto::getSellerId)).keySet();
+        Set<Integer> carIds = referenced(purchases, PurchasedCarDto::getCarId);
+        Map<Integer, Car> cars = carRepository.findAllById(carIds).stream()
+                .collect(Collectors.toMap(Car::getId, Function.identity()));
+        Instant now = Instant.now();
+        Map<Integer, Integer> holders = carIds.isEmpty() ? Map.of() : carHoldRepository.findByCarIdIn(carIds).stream()
+                .filter(hold -> hold.getExpiresAt().isAfter(now))
+                .collect(Collectors.toMap(CarHold::getCarId, CarHold::getBuyerId));
+
+        List<PurchasedCarBatchItemDto> results = new ArrayList<>(purchases.size());
+        List<PurchasedCarBatchItemDto> accepted = new ArrayList<>();
+        Set<Integer> seenCars = new HashSet<>();
+        for (int i = 0; i < purchases.size(); i++) {
+            PurchasedCarDto purchase = purchases.get(i);
+            PurchasedCarBatchItemDto result = new PurchasedCarBatchItemDto(i, purchase.getCarId(), null, null);
+            result.setError(rejection(purchase, buyers, sellers, cars.keySet(), holders, seenCars));
+            if (result.getError() == null) {
+                accepted.add(result);
+            }
+            results.add(result);
+        }
+
+        Set<Integer> claimed = accepted.isEmpty() ? Set.of() : new HashSet<>(jdbcTemplate.queryForList(CLAIM_AVAILABLE,
+                new MapSqlParameterSource("ids", accepted.stream().map(PurchasedCarBatchItemDto::getCarId).toList()),
+                Integer.class));
+        List<PurchasedCarBatchItemDto> inserts = new ArrayList<>(claimed.size());
+        for (PurchasedCarBatchItemDto result : accepted) {
+            if (claimed.contains(result.getCarId())) {
+                inserts.add(result);
+            } else {
+                result.setError("Car with ID " + result.getCarId() + " is no longer available");
+            }
+        }
+        if (inserts.isEmpty()) {
+            return results;
+        }
+
+        carHoldRepository.deleteByCarIdIn(claimed);
+        List<SalesRollupDaoService.Sale> sales = insert(purchases, inserts, cars);
+        salesRollupDaoService.apply(sales, List.of());
+        List<PurchasedCarResponseDto> sold = inserts.stream().map(result -> {
+            PurchasedCarDto purchase = purchases.get(result.getIndex());
+            return new PurchasedCarResponseDto(result.getPurchasedCarId(), purchase.getBuyerId(), purchase.getSellerId(),
+                    purchase.getCarId(), purchase.getPurchaseDate());
+        }).toList();
+        outboxDaoService.appendAll(OutboxEventType.CAR_SOLD, sold, PurchasedCarResponseDto::getCarId);
+        logger.info("Recorded {} of {} batched purchases", inserts.size(), purchases.size());
+        eventPublisher.publishEvent(new CarsPurchasedEvent(inserts.stream().map(PurchasedCarBatchItemDto::getCarId).toList()));
+        eventPublisher.publishEvent(new PurchasesChangedEvent(sold.stream().map(purchase -> new PurchaseChange(
+                PurchaseChange.Type.CREATED, purchase.getId(), purchase.getBuyerId(), purchase.getSellerId(),
+                purchase.getCarId(), purchase.getPurchaseDate(), cars.get(purchase.getCarId()).getPrice())).toList()));
+        return results;
+    }
+
+    // Inserts the purchases and returns them as sales for the rollups
+    private List<SalesRollupDaoService.Sale> insert(List<PurchasedCarDto> purchases, List<PurchasedCarBatchItemDto> inserts,
+                                                    Map<Integer, Car> cars) {
+        SqlParameterSource[] rows = new SqlParameterSource[inserts.size()];
+        List<SalesRollupDaoService.Sale> sales = new ArrayList<>(inserts.size());
+        for (int i = 0; i < rows.length; i++) {
+            PurchasedCarDto purchase = purchases.get(inserts.get(i).getIndex());
+            Car car = cars.get(purchase.getCarId());
+            rows[i] = new MapSqlParameterSource()
+                    .addValue("buyerId", purchase.getBuyerId())
+                    .addValue("sellerId", purchase.getSellerId())
+                    .addValue("carId", purchase.getCarId())
+                    .addValue("purchaseDate", purchase.getPurchaseDate() == null ? null : Date.valueOf(purchase.getPurchaseDate()))
+                    .addValue("salePrice", car.getPrice())
+                    .addValue("saleMake", car.getMake());
+            sales.add(new SalesRollupDaoService.Sale(purchase.getSellerId(), car.getMake(), purchase.getPurchaseDate(), car.getPrice()));
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_PURCHASE, rows, keys, new String[]{"id"});
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < inserts.size(); i++) {
+            inserts.get(i).setPurchasedCarId(((Number) generated.get(i).get("id")).intValue());
+        }
+        return sales;
+    }
+
+    private static String rejection(PurchasedCarDto purchase, Set<Integer> buyers, Set<Integer> sellers,
+                                    Set<Integer> cars, Map<Integer, Integer> holders, Set<Integer> seenCars) {
+        if (purchase.getBuyerId() == null || purchase.getSellerId() == null || purchase.getCarId() == null) {
+            return "buyerId, sellerId and carId are required";
+        }
+        if (!buyers.contains(purchase.getBuyerId())) {
+            return "Buyer not found with ID: " + purchase.getBuyerId();
+        }
+        if (!sellers.contains(purchase.getSellerId())) {
+            return "Seller not found with ID: " + purchase.getSellerId();
+        }
+        if (!cars.contains(purchase.getCarId())) {
+            return "Car not found with ID: " + purchase.getCarId();
+        }
+        if (!seenCars.add(purchase.getCarId())) {
+            return "Car with ID " + purchase.getCarId() + " appears earlier in the batch";
+        }
+        Integer holder = holders.get(purchase.getCarId());
+        if (holder != null && !holder.equals(purchase.getBuyerId())) {
+            return "Car with ID " + purchase.getCarId() + " is on hold for another buyer";
+        }
+        return null;
+    }
+
+    private static Set<Integer> referenced(List<PurchasedCarDto> purchases, Function<PurchasedCarDto, Integer> id) {
+        return purchases.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private static <T> Set<Integer> ids(List<T> entities, Function<T, Integer> id) {
+        return entities.stream().map(id).collect(Collectors.toSet());
+    }
+}
@@ -1,28 +1,50 @@
 package com.hcltech.car_purcharse_service.dao.service;
 
 import com.hcltech.car_purcharse_service.controller.PurchasedCarController;
+import com.hcltech.car_purcharse_service.dto.CarDto;
 import com.hcltech.car_purcharse_service.dto.PurchasedCarDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarPageDto;
 import com.hcltech.car_purcharse_service.dto.PurchasedCarResponseDto;
+import com.hcltech.car_purcharse_service.event.CarChangedEvent;
+import com.hcltech.car_purcharse_service.event.CarPurchasedEvent;
+import com.hcltech.car_purcharse_service.event.OutboxEventType;
+import com.hcltech.car_purcharse_service.event.PurchaseChange;
+import com.hcltech.car_purcharse_service.event.PurchasesChangedEvent;
+import com.hcltech.car_purcharse_service.exception.CarAlreadySoldException;
+import com.hcltech.car_purcharse_service.exception.CarOnHoldException;
 import com.hcltech.car_purcharse_service.exception.ResourceNotFoundException;
 import com.hcltech.car_purcharse_service.model.Buyer;
 import com.hcltech.car_purcharse_service.model.Car;
 import com.hcltech.car_purcharse_service.model.PurchasedCar;
 import com.hcltech.car_purcharse_service.model.Seller;
 import com.hcltech.car_purcharse_service.repository.BuyerRepository;
+import com.hcltech.car_purcharse_service.repository.CarHoldRepository;
 import com.hcltech.car_purcharse_service.repository.CarRepository;
+import com.hcltech.car_purcharse_service.repository.CarSaleRepository;
 import com.hcltech.car_purcharse_service.repository.PurchasedCarRepository;
 import com.hcltech.car_purcharse_service.repository.SellerRepository;
+import com.hcltech.car_purcharse_service.utils.CursorUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PurchasedCarDaoService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     PurchasedCarRepository purchasedCarRepository;
 
@@ -35,8 +57,33 @@ public class PurchasedCarDaoService {
     @Autowired
     CarRepository carRepository;
 
+    @Autowired
+    CarHoldRepository carHoldRepository;
+
+    @Autowired
+    CarSaleRepository carSaleRepository;
+
+    @Autowired
+    SalesRollupDaoService salesRollupDaoService;
+
+    @Autowired
+    OutboxDaoService outboxDaoService;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
     private static final Logger logger = LoggerFactory.getLogger(PurchasedCarController.class);
 
+    /**
+     * Sells the car exactly once. The buyer and seller are checked first, then the car is claimed
+     * with one conditional UPDATE and the purchase inserted in the same transaction, so the car's row
+     * lock is held only for the insert. A car that is already sold, or that another checkout is
+     * claiming at this moment, fails fast with {@link CarAlreadySoldException} without waiting. A car
+     * on hold can only be bought by the buyer holding it, and the purchase ends the hold. The car's
+     * car_sale row is inserted in the same transaction and is what guarantees one sale per car. The sales
+     * rollups and the {@code CAR_SOLD} outbox event are written in the same transaction.
+     */
+    @Transactional
     public PurchasedCarResponseDto createPurchasedCar(PurchasedCarDto dto) {
         logger.info("Received request to save purchased car details : {}", dto);
 
@@ -44,56 +91,62 @@ public class PurchasedCarDaoService {
                 .orElseThrow(() -> new ResourceNotFoundException("Buyer not found with ID: " + dto.getBuyerId()));
         Seller seller = sellerRepository.findById(dto.getSellerId())
                 .orElseThrow(() -> new ResourceNotFoundException("Seller not found with ID: " + dto.getSellerId()));
-        Car car = carRepository.findById(dto.getCarId())
-                .orElseThrow(() -> new ResourceNotFoundException("Car not found with ID: " + dto.getCarId()));
 
+        sell(dto.getCarId(), dto.getBuyerId());
+
+        Car car = carRepository.getReferenceById(dto.getCarId());
         PurchasedCar entity = new PurchasedCar();
         entity.setBuyer(buyer);
         entity.setSeller(seller);
         entity.setCar(car);
         entity.setPurchaseDate(dto.getPurchaseDate());
+        entity.setSalePrice(car.getPrice());
+        entity.setSaleMake(car.getMake());
 
         PurchasedCar saved = purchasedCarRepository.save(entity);
         logger.info("Saved successfully: {}", saved.getId());
+        salesRollupDaoService.apply(List.of(sale(saved)), List.of());
 
-        return new PurchasedCarResponseDto(
+        PurchasedCarResponseDto response = new PurchasedCarResponseDto(
                 saved.getId(),
                 saved.getBuyer().getId(),
                 saved.getSeller().getId(),
                 saved.getCar().getId(),
                 saved.getPurchaseDate()
         );
+        outboxDaoService.append(OutboxEventType.CAR_SOLD, response.getCarId(), response);
+
+        eventPublisher.publishEvent(new CarPurchasedEvent(dto.getCarId()));
+        eventPublisher.publishEvent(PurchasesChangedEvent.of(PurchaseChange.of(PurchaseChange.Type.CREATED, saved)));
+
+        return response;
     }
 
     public List<PurchasedCarResponseDto> getAllPurchasedCars() {
-        return purchasedCarRepository.findAll()
-                .stream()
-                .map(pc -> new PurchasedCarResponseDto(
-                        pc.getId(),
-                        pc.getBuyer().getId(),
-                        pc.getSeller().getId(),
-                        pc.getCar().getId(),
-                        pc.getPurchaseDate()
-                ))
-                .collect(Collectors.toList());
+        return purchasedCarRepository.findAllAsDto();
+    }
+
+    // Caller must close the stream and hold a transaction open while reading it
+    public Stream<PurchasedCarResponseDto> streamAllPurchasedCars() {
+        return purchasedCarRepository.streamAllAsDto();
     }
 
     public PurchasedCarResponseDto getPurchasedCarById(Integer id) {
-        PurchasedCar pc = purchasedCarRepository.findById(id)
+        return purchasedCarRepository.findAsDtoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("PurchasedCar not found with ID: " + id));
-
-        return new PurchasedCarResponseDto(
-                pc.getId(),
-                pc.getBuyer().getId(),
-                pc.getSeller().getId(),
-                pc.getCar().getId(),
-                pc.getPurchaseDate()
-        );
     }
 
+    /**
+     * Moves the sale between rollup rows when its seller, car or date changes. Another car is sold to
+     * the buyer exactly as a checkout sells it, with the same hold check, claim, {@code CAR_SOLD}
+     * outbox event and purchase event, and the car the purchase pointed at before is put back on the
+     * market.
+     */
+    @Transactional
     public PurchasedCarResponseDto updatePurchasedCar(Integer id, PurchasedCarDto dto) {
         PurchasedCar existing = purchasedCarRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("PurchasedCar not found with ID: " + id));
+        SalesRollupDaoService.Sale before = sale(existing);
 
         Buyer buyer = buyerRepository.findById(dto.getBuyerId())
                 .orElseThrow(() -> new ResourceNotFoundException("Buyer not found with ID: " + dto.getBuyerId()));
@@ -102,64 +155,134 @@ public class PurchasedCarDaoService {
         Car car = carRepository.findById(dto.getCarId())
                 .orElseThrow(() -> new ResourceNotFoundException("Car not found with ID: " + dto.getCarId()));
 
+        boolean carChanged = !car.getId().equals(existing.getCar().getId());
+        if (carChanged) {
+            sell(car.getId(), buyer.getId());
+            relist(existing.getCar());
+            existing.setSalePrice(car.getPrice());
+            existing.setSaleMake(car.getMake());
+        }
         existing.setBuyer(buyer);
         existing.setSeller(seller);
         existing.setCar(car);
         existing.setPurchaseDate(dto.getPurchaseDate());
 
         PurchasedCar updated = purchasedCarRepository.save(existing);
+        salesRollupDaoService.apply(List.of(sale(updated)), List.of(before));
 
-        return new PurchasedCarResponseDto(
+        PurchasedCarResponseDto response = new PurchasedCarResponseDto(
                 updated.getId(),
                 updated.getBuyer().getId(),
                 updated.getSeller().getId(),
                 updated.getCar().getId(),
                 updated.getPurchaseDate()
         );
+        if (carChanged) {
+            outboxDaoService.append(OutboxEventType.CAR_SOLD, response.getCarId(), response);
+            eventPublisher.publishEvent(new CarPurchasedEvent(response.getCarId()));
+        }
+        eventPublisher.publishEvent(PurchasesChangedEvent.of(PurchaseChange.of(PurchaseChange.Type.UPDATED, updated)));
+        return response;
     }
 
+    // Undoing a sale puts its car back on the market
+    @Transactional
     public void deletePurchasedCar(Integer id) {
         PurchasedCar pc = purchasedCarRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("PurchasedCar not found with ID: " + id));
         purchasedCarRepository.delete(pc);
+        relist(pc.getCar());
+        salesRollupDaoService.apply(List.of(), List.of(sale(pc)));
+        eventPublisher.publishEvent(PurchasesChangedEvent.of(PurchaseChange.of(PurchaseChange.Type.DELETED, pc)));
+    }
+
+    /**
+     * Purchases dated from {@code from} to {@code to} inclusive, ordered by date and id, one keyset
+     * page at a time. Purchases without a date are never in a range.
+     */
+    public PurchasedCarPageDto getPurchasedCarsBetween(LocalDate from, LocalDate to, String cursor, Integer size) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+
+        // the first page starts before every id of the first day
+        LocalDate afterDate = from;
+        Integer afterId = Integer.MIN_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorUtils.decode(cursor, 2);
+            try {
+                afterDate = LocalDate.parse(parts[0]);
+                afterId = Integer.valueOf(parts[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+
+        // one row more than the page tells whether another page follows
+        List<PurchasedCarResponseDto> rows = purchasedCarRepository.findAsDtoByPurchaseDateBetween(
+                from, to, afterDate, afterId, PageRequest.ofSize(pageSize + 1));
+        List<PurchasedCarResponseDto> content = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            PurchasedCarResponseDto last = content.get(content.size() - 1);
+            nextCursor = CursorUtils.encode(last.getPurchaseDate().toString(), String.valueOf(last.getId()));
+        }
+        return new PurchasedCarPageDto(content, content.size(), nextCursor, nextCursor != null);
     }
 
     public List<PurchasedCarResponseDto> getPurchasedCarsByBuyerId(Integer buyerId) {
-        return purchasedCarRepository.findByBuyerId(buyerId)
-                .stream()
-                .map(pc -> new PurchasedCarResponseDto(
-                        pc.getId(),
-                        pc.getBuyer().getId(),
-                        pc.getSeller().getId(),
-                        pc.getCar().getId(),
-                        pc.getPurchaseDate()
-                ))
-                .collect(Collectors.toList());
+        return purchasedCarRepository.findAsDtoByBuyerId(buyerId);
     }
 
     public List<PurchasedCarResponseDto> getPurchasedCarsBySellerId(Integer sellerId) {
-        return purchasedCarRepository.findBySellerId(sellerId)
-                .stream()
-                .map(pc -> new PurchasedCarResponseDto(
-                        pc.getId(),
-                        pc.getBuyer().getId(),
-                        pc.getSeller().getId(),
-                        pc.getCar().getId(),
-                        pc.getPurchaseDate()
-                ))
-                .collect(Collectors.toList());
+        return purchasedCarRepository.findAsDtoBySellerId(sellerId);
     }
 
     public List<PurchasedCarResponseDto> getPurchasedCarsByCarId(Integer carId) {
-        return purchasedCarRepository.findByCarId(carId)
-                .stream()
-                .map(pc -> new PurchasedCarResponseDto(
-                        pc.getId(),
-                        pc.getBuyer().getId(),
-                        pc.getSeller().getId(),
-                        pc.getCar().getId(),
-                        pc.getPurchaseDate()
-                ))
-                .collect(Collectors.toList());
+        return purchasedCarRepository.findAsDtoByCarId(carId);
+    }
+
+    // A car on hold can only be sold to the buyer holding it; the sale ends the hold
+    private void sell(Integer carId, Integer buyerId) {
+        carHoldRepository.findByCarId(carId)
+                .filter(hold -> hold.getExpiresAt().isAfter(Instant.now()) && !hold.getBuyerId().equals(buyerId))
+                .ifPresent(hold -> {
+                    throw new CarOnHoldException("Car with ID " + carId + " is on hold for another buyer");
+                });
+        claimForSale(carId);
+        carHoldRepository.deleteByCarId(carId);
+    }
+
+    // Releases the car's sale and lists it again, with the outbox event and change event of a car update
+    private void relist(Car car) {
+        carSaleRepository.release(car.getId());
+        car.setIsAvailable(true);
+        CarDto listed = new CarDto(car.getId(), car.getMake(), car.getModel(), car.getYear(), car.getPrice(), true,
+                car.getSeller() == null ? null : car.getSeller().getId());
+        outboxDaoService.append(OutboxEventType.CAR_UPDATED, listed.getId(), listed);
+        eventPublisher.publishEvent(CarChangedEvent.saved(listed));
+    }
+
+    // The conditional UPDATE fails fast on a car being sold right now; the car_sale key is the guarantee
+    private void claimForSale(Integer carId) {
+        if (carRepository.claimAvailable(carId) == 0) {
+            if (!carRepository.existsById(carId)) {
+                throw new ResourceNotFoundException("Car not found with ID: " + carId);
+            }
+            throw new CarAlreadySoldException("Car with ID " + carId + " is no longer available");
+        }
+        if (carSaleRepository.claim(carId) == 0) {
+            throw new CarAlreadySoldException("Car with ID " + carId + " is no longer available");
+        }
+    }
+
+    private static SalesRollupDaoService.Sale sale(PurchasedCar purchase) {
+        return new SalesRollupDaoService.Sale(purchase.getSeller().getId(), purchase.getSaleMake(),
+                purchase.getPurchaseDate(), purchase.getSalePrice());
     }
-}
\ No newline at end of file
+}
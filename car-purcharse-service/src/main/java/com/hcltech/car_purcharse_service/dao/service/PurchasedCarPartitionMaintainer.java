@@ -0,0 +1,165 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps monthly partitions of purchased_cars created ahead of time once the table has been
+ * converted with {@code db/partition-purchased-cars.sql}. Every run makes sure the current month
+ * and the next few have a partition of their own. Purchases dated beyond that window, or in a
+ * month whose partition could not be created, land in the default partition, and Postgres refuses
+ * to create a partition for a month the default partition holds rows of. So when a month comes
+ * into the window and the default partition has purchases in it, the partition is built as a
+ * plain table, those purchases are moved into it and it is attached, all in one transaction with
+ * the default partition locked against writes. While the table is still the plain one Hibernate
+ * creates, a run does nothing.
+ *
+ * <p>Disabled by default; enable it with {@code spring.app.purchases.partitions.enabled}.
+ */
+@Service
+public class PurchasedCarPartitionMaintainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurchasedCarPartitionMaintainer.class);
+
+    static final String IS_PARTITIONED = "select exists (select 1 from pg_partitioned_table "
+            + "where partrelid = to_regclass('purchased_cars'))";
+
+    static final String DEFAULT_PARTITION = "purchased_cars_default";
+
+    static final String DEFAULT_HOLDS_MONTH = "select exists (select 1 from " + DEFAULT_PARTITION
+            + " where purchase_date >= ? and purchase_date < ?)";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final int monthsAhead;
+
+    private final Duration interval;
+
+    private final Clock clock;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "purchase-partitions");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public PurchasedCarPartitionMaintainer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                           @Value("${spring.app.purchases.partitions.enabled}") boolean enabled,
+                                           @Value("${spring.app.purchases.partitions.months-ahead}") int monthsAhead,
+                                           @Value("${spring.app.purchases.partitions.interval}") Duration interval) {
+        this(jdbcTemplate, transactionManager, enabled, monthsAhead, interval, Clock.systemUTC());
+    }
+
+    PurchasedCarPartitionMaintainer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                    boolean enabled, int monthsAhead, Duration interval, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.interval = interval;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::ensurePartitions, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Creates the missing partitions from the current month through {@code monthsAhead} months
+     * later and returns how many it created. Runs on the scheduler thread; a month that fails is
+     * logged and retried on the next run, and does not stop the months after it.
+     */
+    int ensurePartitions() {
+        try {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED, Boolean.class))) {
+                logger.debug("purchased_cars is not partitioned, no partitions to create");
+                return 0;
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Checking the purchased_cars partitions failed: {}", e.getMessage());
+            return 0;
+        }
+
+        LocalDate month = LocalDate.now(clock).withDayOfMonth(1);
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++, month = month.plusMonths(1)) {
+            String partition = partitionName(month);
+            try {
+                if (jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, partition)) {
+                    continue;
+                }
+                if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(DEFAULT_HOLDS_MONTH, Boolean.class,
+                        month, month.plusMonths(1)))) {
+                    List<String> statements = createPartitionFromDefault(month);
+                    transactionTemplate.executeWithoutResult(status -> statements.forEach(jdbcTemplate::execute));
+                    logger.info("Created partition {} of purchased_cars and moved its purchases out of the default partition",
+                            partition);
+                } else {
+                    jdbcTemplate.execute(createPartition(month));
+                    logger.info("Created partition {} of purchased_cars", partition);
+                }
+                created++;
+            } catch (DataAccessException e) {
+                logger.warn("Creating partition {} of purchased_cars failed: {}", partition, e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    static String partitionName(LocalDate month) {
+        return "purchased_cars_" + PARTITION_SUFFIX.format(month);
+    }
+
+    // DDL takes no bind parameters; here and below the bounds are formatted dates, never client input
+    static String createPartition(LocalDate month) {
+        return "create table if not exists " + partitionName(month) + " partition of purchased_cars "
+                + "for values from ('" + month + "') to ('" + month.plusMonths(1) + "')";
+    }
+
+    // Run in one transaction: the default partition stays locked from the move until the attach checks it
+    static List<String> createPartitionFromDefault(LocalDate month) {
+        String partition = partitionName(month);
+        LocalDate next = month.plusMonths(1);
+        return List.of(
+                "lock table " + DEFAULT_PARTITION + " in exclusive mode",
+                "create table " + partition + " (like purchased_cars)",
+                "with moved as (delete from " + DEFAULT_PARTITION + " where purchase_date >= '" + month
+                        + "' and purchase_date < '" + next + "' returning *) insert into " + partition + " select * from moved",
+                "alter table purchased_cars attach partition " + partition
+                        + " for values from ('" + month + "') to ('" + next + "')");
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -2,6 +2,8 @@ package com.hcltech.car_purcharse_service.dao.service;
 
 
 import com.hcltech.car_purcharse_service.dto.ReviewDto;
+import com.hcltech.car_purcharse_service.event.OutboxEventType;
+import com.hcltech.car_purcharse_service.event.ReviewChangedEvent;
 import com.hcltech.car_purcharse_service.model.Buyer;
 import com.hcltech.car_purcharse_service.model.Car;
 import com.hcltech.car_purcharse_service.model.Review;
@@ -9,7 +11,9 @@ import com.hcltech.car_purcharse_service.repository.BuyerRepository;
 import com.hcltech.car_purcharse_service.repository.CarRepository;
 import com.hcltech.car_purcharse_service.repository.ReviewRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,14 +27,24 @@ public class ReviewDaoService {
     @Autowired
     private final CarRepository carRepository;
 
+    private final OutboxDaoService outboxDaoService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
     public ReviewDaoService(ReviewRepository reviewRepository,
                             BuyerRepository buyerRepository,
-                            CarRepository carRepository) {
+                            CarRepository carRepository,
+                            OutboxDaoService outboxDaoService,
+                            ApplicationEventPublisher eventPublisher) {
         this.reviewRepository = reviewRepository;
         this.buyerRepository = buyerRepository;
         this.carRepository = carRepository;
+        this.outboxDaoService = outboxDaoService;
+        this.eventPublisher = eventPublisher;
     }
 
+    // The review and its outbox event are written in one transaction
+    @Transactional
     public ReviewDto createReview(ReviewDto dto) {
         Buyer buyer = buyerRepository.findById(dto.getBuyerId())
                 .orElseThrow(() -> new RuntimeException("Buyer not found with ID: " + dto.getBuyerId()));
@@ -44,7 +58,10 @@ public class ReviewDaoService {
         review.setCar(car);
 
         Review savedReview = reviewRepository.save(review);
-        return mapToResponseDto(savedReview);
+        ReviewDto result = mapToResponseDto(savedReview);
+        outboxDaoService.append(OutboxEventType.REVIEW_POSTED, result.getId(), result);
+        eventPublisher.publishEvent(new ReviewChangedEvent(car.getId()));
+        return result;
     }
 
     public List<ReviewDto> getAllReviews() {
@@ -53,12 +70,17 @@ public class ReviewDaoService {
                 .collect(Collectors.toList());
     }
 
+    public List<ReviewDto> getReviewsByCarId(Integer carId) {
+        return reviewRepository.findAsDtoByCarId(carId);
+    }
+
     public ReviewDto getReviewById(Integer id) {
         Review review = reviewRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Review not found with ID: " + id));
         return mapToResponseDto(review);
     }
 
+    @Transactional
     public ReviewDto updateReview(Integer id, ReviewDto dto) {
         Review review = reviewRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Review not found with ID: " + id));
@@ -67,14 +89,19 @@ public class ReviewDaoService {
         review.setFeedback(dto.getFeedback());
 
         Review updatedReview = reviewRepository.save(review);
-        return mapToResponseDto(updatedReview);
+        ReviewDto result = mapToResponseDto(updatedReview);
+        outboxDaoService.append(OutboxEventType.REVIEW_UPDATED, result.getId(), result);
+        eventPublisher.publishEvent(new ReviewChangedEvent(updatedReview.getCar().getId()));
+        return result;
     }
 
+    @Transactional
     public void deleteReview(Integer id) {
-        if (!reviewRepository.existsById(id)) {
-            throw new RuntimeException("Review not found with ID: " + id);
-        }
-        reviewRepository.deleteById(id);
+        Review review = reviewRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Review not found with ID: " + id));
+        reviewRepository.delete(review);
+        outboxDaoService.append(OutboxEventType.REVIEW_DELETED, review.getId(), mapToResponseDto(review));
+        eventPublisher.publishEvent(new ReviewChangedEvent(review.getCar().getId()));
     }
 
     private ReviewDto mapToResponseDto(Review review) {
@@ -0,0 +1,138 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import com.hcltech.car_purcharse_service.model.MakeMonthlySales;
+import com.hcltech.car_purcharse_service.model.SellerDailySales;
+import com.hcltech.car_purcharse_service.repository.MakeMonthlySalesRepository;
+import com.hcltech.car_purcharse_service.repository.SellerDailySalesRepository;
+import com.hcltech.car_purcharse_service.utils.PriceSeriesCodec;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sales rollups per seller and day and per make and month. Every purchase write passes the sales
+ * it adds and removes here, inside its own transaction, and each affected rollup row receives one
+ * {@code INSERT ... ON CONFLICT DO UPDATE} adding the signed count and revenue delta. A dashboard
+ * query then reads a handful of rows instead of scanning {@code purchased_cars}.
+ *
+ * <p>Deltas are merged per row and applied in key order, so concurrent purchases touching the same
+ * rows lock them in the same order and cannot deadlock. Purchases without a date are not counted.
+ */
+@Service
+public class SalesRollupDaoService {
+
+    /** One sale as the rollups see it; {@code price} is the sale price and may be null. */
+    public record Sale(Integer sellerId, String make, LocalDate date, Double price) {
+    }
+
+    private static final String UPSERT_SELLER_DAY = "insert into seller_daily_sales (seller_id, day, sales_count, revenue_cents) "
+            + "values (:sellerId, :day, :count, :revenue) on conflict (seller_id, day) do update set "
+            + "sales_count = seller_daily_sales.sales_count + excluded.sales_count, "
+            + "revenue_cents = seller_daily_sales.revenue_cents + excluded.revenue_cents";
+
+    private static final String UPSERT_MAKE_MONTH = "insert into make_monthly_sales (make, month, sales_count, revenue_cents) "
+            + "values (:make, :month, :count, :revenue) on conflict (make, month) do update set "
+            + "sales_count = make_monthly_sales.sales_count + excluded.sales_count, "
+            + "revenue_cents = make_monthly_sales.revenue_cents + excluded.revenue_cents";
+
+    private record SellerDay(Integer sellerId, LocalDate day) {
+    }
+
+    private record MakeMonth(String make, LocalDate month) {
+    }
+
+    private static final Comparator<SellerDay> SELLER_DAY_ORDER =
+            Comparator.comparing(SellerDay::sellerId).thenComparing(SellerDay::day);
+
+    private static final Comparator<MakeMonth> MAKE_MONTH_ORDER =
+            Comparator.comparing(MakeMonth::make).thenComparing(MakeMonth::month);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final SellerDailySalesRepository sellerDailySalesRepository;
+
+    private final MakeMonthlySalesRepository makeMonthlySalesRepository;
+
+    public SalesRollupDaoService(NamedParameterJdbcTemplate jdbcTemplate,
+                                 SellerDailySalesRepository sellerDailySalesRepository,
+                                 MakeMonthlySalesRepository makeMonthlySalesRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sellerDailySalesRepository = sellerDailySalesRepository;
+        this.makeMonthlySalesRepository = makeMonthlySalesRepository;
+    }
+
+    /** Applies the sales in {@code added} and takes back those in {@code removed}. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Collection<Sale> added, Collection<Sale> removed) {
+        Map<SellerDay, long[]> sellerDays = new TreeMap<>(SELLER_DAY_ORDER);
+        Map<MakeMonth, long[]> makeMonths = new TreeMap<>(MAKE_MONTH_ORDER);
+        added.forEach(sale -> accumulate(sale, 1, sellerDays, makeMonths));
+        removed.forEach(sale -> accumulate(sale, -1, sellerDays, makeMonths));
+        sellerDays.values().removeIf(SalesRollupDaoService::isZero);
+        makeMonths.values().removeIf(SalesRollupDaoService::isZero);
+
+        if (!sellerDays.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SELLER_DAY, sellerDays.entrySet().stream()
+                    .map(entry -> delta(entry.getValue())
+                            .addValue("sellerId", entry.getKey().sellerId())
+                            .addValue("day", Date.valueOf(entry.getKey().day())))
+                    .toArray(SqlParameterSource[]::new));
+        }
+        if (!makeMonths.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_MAKE_MONTH, makeMonths.entrySet().stream()
+                    .map(entry -> delta(entry.getValue())
+                            .addValue("make", entry.getKey().make())
+                            .addValue("month", Date.valueOf(entry.getKey().month())))
+                    .toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    public List<SellerDailySales> getSellerDays(Integer sellerId, LocalDate from, LocalDate to) {
+        return sellerDailySalesRepository.findBySellerIdAndDayBetweenOrderByDay(sellerId, from, to);
+    }
+
+    // from and to are first days of months
+    public List<MakeMonthlySales> getMakeMonths(LocalDate from, LocalDate to) {
+        return makeMonthlySalesRepository.findByMonthBetween(from, to);
+    }
+
+    private static void accumulate(Sale sale, int sign, Map<SellerDay, long[]> sellerDays, Map<MakeMonth, long[]> makeMonths) {
+        if (sale.date() == null) {
+            return;
+        }
+        long revenue = sale.price() == null ? 0 : PriceSeriesCodec.toCents(sale.price());
+        if (sale.sellerId() != null) {
+            add(sellerDays.computeIfAbsent(new SellerDay(sale.sellerId(), sale.date()), key -> new long[2]), sign, revenue);
+        }
+        if (sale.make() != null && !sale.make().isBlank()) {
+            add(makeMonths.computeIfAbsent(new MakeMonth(sale.make().trim(), sale.date().withDayOfMonth(1)),
+                    key -> new long[2]), sign, revenue);
+        }
+    }
+
+    private static void add(long[] delta, int sign, long revenue) {
+        delta[0] += sign;
+        delta[1] += sign * revenue;
+    }
+
+    private static boolean isZero(long[] delta) {
+        return delta[0] == 0 && delta[1] == 0;
+    }
+
+    private static MapSqlParameterSource delta(long[] delta) {
+        return new MapSqlParameterSource()
+                .addValue("count", delta[0])
+                .addValue("revenue", delta[1]);
+    }
+}
@@ -0,0 +1,93 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hcltech.car_purcharse_service.event.SellerChangedEvent;
+import com.hcltech.car_purcharse_service.model.Seller;
+import com.hcltech.car_purcharse_service.repository.SellerRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Resolves seller ids to {@link Seller} instances for entities that only need the foreign key.
+ * Ids already known to exist are answered with a {@code getReferenceById} proxy and cost no query;
+ * unknown ids are loaded once and remembered in a bounded cache. A seller change drops its id, and
+ * the cache entries also expire, so a seller deleted elsewhere is not trusted for long.
+ */
+@Service
+public class SellerReferenceResolver {
+
+    private final SellerRepository sellerRepository;
+
+    private final Cache<Integer, Boolean> knownSellerIds;
+
+    public SellerReferenceResolver(SellerRepository sellerRepository,
+                                   @Value("${spring.app.cache.seller-ids.maximum-size}") long maximumSize,
+                                   @Value("${spring.app.cache.seller-ids.expire-after-write}") Duration expireAfterWrite) {
+        this.sellerRepository = sellerRepository;
+        this.knownSellerIds = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * Returns the seller with the given id, or {@code null} when the id is null or no such seller
+     * exists.
+     */
+    public Seller resolve(Integer sellerId) {
+        if (sellerId == null) {
+            return null;
+        }
+        if (knownSellerIds.getIfPresent(sellerId) != null) {
+            return sellerRepository.getReferenceById(sellerId);
+        }
+        Seller seller = sellerRepository.findById(sellerId).orElse(null);
+        if (seller != null) {
+            knownSellerIds.put(sellerId, Boolean.TRUE);
+        }
+        return seller;
+    }
+
+    /**
+     * Resolves every distinct non-null id of the batch with at most one {@code findAllById} call.
+     * Ids without a seller are absent from the returned map.
+     */
+    public Map<Integer, Seller> resolveAll(Collection<Integer> sellerIds) {
+        Map<Integer, Seller> sellers = new HashMap<>();
+        List<Integer> unknown = sellerIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .filter(id -> {
+                    if (knownSellerIds.getIfPresent(id) == null) {
+                        return true;
+                    }
+                    sellers.put(id, sellerRepository.getReferenceById(id));
+                    return false;
+                })
+                .toList();
+        if (!unknown.isEmpty()) {
+            for (Seller seller : sellerRepository.findAllById(unknown)) {
+                sellers.put(seller.getId(), seller);
+                knownSellerIds.put(seller.getId(), Boolean.TRUE);
+            }
+        }
+        return sellers;
+    }
+
+    // Runs after commit when published inside a transaction, so a rolled-back delete keeps the id
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSellerChanged(SellerChangedEvent event) {
+        if (event.getSellerId() != null) {
+            knownSellerIds.invalidate(event.getSellerId());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Read-only view of a buyer embedded in other responses; carries no credentials
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuyerSummaryDto {
+    private Integer id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phoneNumber;
+}
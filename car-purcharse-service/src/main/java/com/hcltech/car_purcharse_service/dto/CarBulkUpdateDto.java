@@ -0,0 +1,40 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A set-based change to one seller's inventory: the filter fields select the cars (null means
+ * "any"), the operation fields say what to change. Exactly one kind of price change may be given.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarBulkUpdateDto {
+
+    // --- filter ---
+    private String make;
+
+    private String model;
+
+    private Integer minYear;
+
+    private Integer maxYear;
+
+    private Double minPrice;
+
+    private Double maxPrice;
+
+    private Boolean available;
+
+    // --- operation ---
+    // e.g. -10 for "10% off"
+    private Double priceChangePercent;
+
+    // e.g. -500 for "500 off"
+    private Double priceChangeAmount;
+
+    // true never re-lists a sold car or one on hold; those are left out of the whole change
+    private Boolean setAvailable;
+}
@@ -0,0 +1,13 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarBulkUpdateResultDto {
+
+    private int updatedCount;
+}
@@ -0,0 +1,23 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Everything a car detail page shows, loaded in one call. A part that could not be loaded in time
+ * is left null and named in {@code unavailable}, so the page can render the rest.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarDetailDto {
+    private CarDto car;
+    private SellerSummaryDto seller;
+    private List<CarImageDto> images;
+    private List<ReviewDto> reviews;
+    private ReviewSummaryDto reviewSummary;
+    private List<String> unavailable;
+}
@@ -0,0 +1,22 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data // Generates getters, setters, equals, hashCode, and toString
+@NoArgsConstructor // Generates a no-argument constructor
+@AllArgsConstructor // Generates a constructor with all arguments
+public class CarFacetSearchDto {
+
+    // Number of cars matching every filter
+    private int total;
+
+    private List<CarDto> cars;
+
+    // Facet name -> value label -> number of matching cars, e.g. make -> {"Toyota": 1204}
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,17 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarHoldDto {
+    private Integer id;
+    private Integer carId;
+    private Integer buyerId;        // the only field read when placing a hold
+    private Instant expiresAt;
+}
@@ -0,0 +1,16 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarImportErrorDto {
+
+    // 1-based line number in the uploaded file
+    private long line;
+
+    private String message;
+}
@@ -0,0 +1,22 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarImportResultDto {
+
+    private long totalRows;
+
+    private long importedRows;
+
+    private long rejectedRows;
+
+    // first rejected rows only, see CarImportService.MAX_REPORTED_ERRORS
+    private List<CarImportErrorDto> errors;
+}
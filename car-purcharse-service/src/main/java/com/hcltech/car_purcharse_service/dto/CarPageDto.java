@@ -0,0 +1,22 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data // Generates getters, setters, equals, hashCode, and toString
+@NoArgsConstructor // Generates a no-argument constructor
+@AllArgsConstructor // Generates a constructor with all arguments
+public class CarPageDto {
+
+    private List<CarDto> content;
+
+    private int size;
+
+    // Opaque continuation token; pass it back as "cursor" to fetch the next page, null on the last page
+    private String nextCursor;
+
+    private boolean hasNext;
+}
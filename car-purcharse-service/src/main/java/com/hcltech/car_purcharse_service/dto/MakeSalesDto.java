@@ -0,0 +1,17 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MakeSalesDto {
+
+    private String make;
+
+    private long salesCount;
+
+    private double revenue;
+}
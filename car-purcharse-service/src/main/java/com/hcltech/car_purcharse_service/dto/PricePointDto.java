@@ -0,0 +1,16 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricePointDto {
+    private Integer carId;
+    private Instant changedAt;
+    private Double price;           // the price the car was set to at changedAt
+}
@@ -0,0 +1,38 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchaseReconciliationDto {
+
+    private long journalEntries;
+
+    // journal records skipped because their checksum failed
+    private long corruptEntries;
+
+    private long databasePurchases;
+
+    private long replayMillis;
+
+    // in the database but never journaled, or journaled as deleted
+    private long missingFromJournalCount;
+
+    // live in the journal but gone from the database
+    private long missingFromDatabaseCount;
+
+    // buyer, seller, car or date differ between the journal and the database
+    private long mismatchedCount;
+
+    // the purchase ids of each kind, at most MAX_IDS of them, lowest first
+    private List<Integer> missingFromJournal;
+
+    private List<Integer> missingFromDatabase;
+
+    private List<Integer> mismatched;
+}
@@ -0,0 +1,21 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchasedCarBatchItemDto {
+
+    // 0-based position of the purchase in the submitted batch
+    private int index;
+
+    private Integer carId;
+
+    // null when the purchase was rejected
+    private Integer purchasedCarId;
+
+    private String error;
+}
@@ -0,0 +1,22 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchasedCarBatchResultDto {
+
+    private int total;
+
+    private int created;
+
+    private int rejected;
+
+    // one entry per submitted purchase, in submission order
+    private List<PurchasedCarBatchItemDto> items;
+}
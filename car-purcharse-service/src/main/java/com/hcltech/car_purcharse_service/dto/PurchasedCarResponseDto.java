@@ -1,5 +1,6 @@
 package com.hcltech.car_purcharse_service.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,4 +16,17 @@ public class PurchasedCarResponseDto {
     private Integer sellerId;
     private Integer carId;
     private LocalDate purchaseDate;
-}
\ No newline at end of file
+
+    // Filled in only when requested with ?expand=buyer,seller,car
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BuyerSummaryDto buyer;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private SellerSummaryDto seller;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CarDto car;
+
+    // Used by the JPQL constructor projections, which select the ids only
+    public PurchasedCarResponseDto(Integer id, Integer buyerId, Integer sellerId, Integer carId, LocalDate purchaseDate) {
+        this(id, buyerId, sellerId, carId, purchaseDate, null, null, null);
+    }
+}
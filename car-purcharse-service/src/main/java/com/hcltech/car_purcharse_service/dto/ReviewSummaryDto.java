@@ -0,0 +1,14 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewSummaryDto {
+    private long reviewCount;
+    private long ratedCount;        // reviews whose rate is a number
+    private Double averageRating;   // null when no review has a numeric rate
+}
@@ -0,0 +1,20 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesPeriodDto {
+
+    // the day, or the first day of the month, the figures cover
+    private LocalDate period;
+
+    private long salesCount;
+
+    private double revenue;
+}
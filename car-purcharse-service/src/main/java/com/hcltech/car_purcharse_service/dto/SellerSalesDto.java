@@ -0,0 +1,27 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerSalesDto {
+
+    private Integer sellerId;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private long salesCount;
+
+    private double revenue;
+
+    // days with at least one sale, oldest first
+    private List<SalesPeriodDto> days;
+}
@@ -0,0 +1,16 @@
+package com.hcltech.car_purcharse_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Read-only view of a seller embedded in other responses; carries no credentials
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerSummaryDto {
+    private Integer id;
+    private String name;
+    private String email;
+    private String contact;
+}
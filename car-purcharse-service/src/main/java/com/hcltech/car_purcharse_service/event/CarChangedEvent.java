@@ -0,0 +1,40 @@
+package com.hcltech.car_purcharse_service.event;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Published after cars are written so the in-memory catalog indexes can follow the table
+ * without re-reading it. Saved cars carry their new state; deleted cars only their id. The event is
+ * created inside the writing transaction, so {@code changedAt} is the time of the write rather than
+ * of whichever listener handles it after commit.
+ */
+@Data
+@AllArgsConstructor
+public class CarChangedEvent {
+
+    private final List<CarDto> savedCars;
+
+    private final List<Integer> deletedCarIds;
+
+    @EqualsAndHashCode.Exclude
+    private final Instant changedAt;
+
+    public CarChangedEvent(List<CarDto> savedCars, List<Integer> deletedCarIds) {
+        this(savedCars, deletedCarIds, Instant.now().truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    public static CarChangedEvent saved(CarDto car) {
+        return new CarChangedEvent(List.of(car), List.of());
+    }
+
+    public static CarChangedEvent deleted(Integer carId) {
+        return new CarChangedEvent(List.of(), List.of(carId));
+    }
+}
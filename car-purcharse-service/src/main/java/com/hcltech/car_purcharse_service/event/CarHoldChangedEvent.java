@@ -0,0 +1,15 @@
+package com.hcltech.car_purcharse_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after a hold on a car is placed, released or expires, since that changes whether the
+ * car is listed as available.
+ */
+@Data
+@AllArgsConstructor
+public class CarHoldChangedEvent {
+
+    private final Integer carId;
+}
@@ -0,0 +1,15 @@
+package com.hcltech.car_purcharse_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after a purchase is recorded and the car has been marked unavailable. Only the id is
+ * carried; listeners reload the car's committed state.
+ */
+@Data
+@AllArgsConstructor
+public class CarPurchasedEvent {
+
+    private final Integer carId;
+}
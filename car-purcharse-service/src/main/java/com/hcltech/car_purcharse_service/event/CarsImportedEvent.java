@@ -0,0 +1,15 @@
+package com.hcltech.car_purcharse_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after a bulk import has inserted cars. The rows are not carried; listeners reload
+ * the catalog instead of applying tens of thousands of single-car updates.
+ */
+@Data
+@AllArgsConstructor
+public class CarsImportedEvent {
+
+    private final int importedCount;
+}
@@ -0,0 +1,17 @@
+package com.hcltech.car_purcharse_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Published after a batch of purchases is recorded, once for the whole batch, so listeners can
+ * reload every sold car in one query instead of one per {@link CarPurchasedEvent}.
+ */
+@Data
+@AllArgsConstructor
+public class CarsPurchasedEvent {
+
+    private final List<Integer> carIds;
+}
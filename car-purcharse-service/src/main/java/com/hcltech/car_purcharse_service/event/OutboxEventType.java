@@ -0,0 +1,23 @@
+package com.hcltech.car_purcharse_service.event;
+
+/**
+ * Domain events published to downstream consumers through the outbox. The aggregate id of a
+ * {@code CAR_*} event is the car's id, that of a {@code REVIEW_*} event the review's id.
+ */
+public enum OutboxEventType {
+
+    // payload: the car as CarDto
+    CAR_LISTED,
+    CAR_UPDATED,
+
+    // payload: {"id": carId}
+    CAR_DELETED,
+
+    // payload: the purchase as PurchasedCarResponseDto
+    CAR_SOLD,
+
+    // payload: the review as ReviewDto
+    REVIEW_POSTED,
+    REVIEW_UPDATED,
+    REVIEW_DELETED
+}
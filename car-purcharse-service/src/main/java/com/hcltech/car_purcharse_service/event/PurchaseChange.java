@@ -0,0 +1,25 @@
+package com.hcltech.car_purcharse_service.event;
+
+import com.hcltech.car_purcharse_service.model.PurchasedCar;
+
+import java.time.LocalDate;
+
+/**
+ * One committed change to a purchase, with the purchase as it is afterwards, or as it was for a
+ * deletion. Any value but the type and purchase id may be null.
+ */
+public record PurchaseChange(Type type, Integer purchaseId, Integer buyerId, Integer sellerId, Integer carId,
+                             LocalDate purchaseDate, Double salePrice) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static PurchaseChange of(Type type, PurchasedCar purchase) {
+        return new PurchaseChange(type, purchase.getId(),
+                purchase.getBuyer() == null ? null : purchase.getBuyer().getId(),
+                purchase.getSeller() == null ? null : purchase.getSeller().getId(),
+                purchase.getCar() == null ? null : purchase.getCar().getId(),
+                purchase.getPurchaseDate(), purchase.getSalePrice());
+    }
+}
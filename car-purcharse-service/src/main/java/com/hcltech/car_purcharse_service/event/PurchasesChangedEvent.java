@@ -0,0 +1,21 @@
+package com.hcltech.car_purcharse_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Published by every write to purchased_cars, once per transaction, with each purchase it
+ * created, updated or deleted. Listeners that run after commit see only changes that happened.
+ */
+@Data
+@AllArgsConstructor
+public class PurchasesChangedEvent {
+
+    private final List<PurchaseChange> changes;
+
+    public static PurchasesChangedEvent of(PurchaseChange change) {
+        return new PurchasesChangedEvent(List.of(change));
+    }
+}
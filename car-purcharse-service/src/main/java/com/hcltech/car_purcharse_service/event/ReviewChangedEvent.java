@@ -0,0 +1,15 @@
+package com.hcltech.car_purcharse_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after a review is created, updated or deleted, identifying the car whose
+ * review text changed.
+ */
+@Data
+@AllArgsConstructor
+public class ReviewChangedEvent {
+
+    private final Integer carId;
+}
@@ -0,0 +1,14 @@
+package com.hcltech.car_purcharse_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after a seller is created, updated or deleted.
+ */
+@Data
+@AllArgsConstructor
+public class SellerChangedEvent {
+
+    private final Integer sellerId;
+}
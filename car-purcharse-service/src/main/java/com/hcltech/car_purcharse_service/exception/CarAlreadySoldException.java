@@ -0,0 +1,7 @@
+package com.hcltech.car_purcharse_service.exception;
+
+public class CarAlreadySoldException extends RuntimeException {
+    public CarAlreadySoldException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hcltech.car_purcharse_service.exception;
+
+public class CarOnHoldException extends RuntimeException {
+    public CarOnHoldException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hcltech.car_purcharse_service.exception;
+
+public class HoldNotOwnedException extends RuntimeException {
+    public HoldNotOwnedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hcltech.car_purcharse_service.exception;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+    public IdempotencyKeyInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.hcltech.car_purcharse_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Version of one aggregate, raised in the transaction of every write to it so that all instances
+ * tag their responses alike; see {@link com.hcltech.car_purcharse_service.utils.AggregateVersions}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "aggregate_version")
+public class AggregateVersion {
+
+    @Id
+    @Column(length = 32)
+    private String aggregate;
+
+    @Column(nullable = false)
+    private long version;
+}
@@ -12,7 +12,14 @@ import java.time.LocalDate;
 @AllArgsConstructor // Generates a constructor with all arguments
 
 @Entity
-@Table(name = "car")
+@Table(name = "car", indexes = {
+        // Keyset pagination indexes: every sort key is paired with id so the (key, id) seek stays a range scan
+        @Index(name = "idx_car_price_id", columnList = "price, id"),
+        @Index(name = "idx_car_year_id", columnList = "year, id"),
+        @Index(name = "idx_car_available_id", columnList = "isAvailable, id"),
+        @Index(name = "idx_car_available_price_id", columnList = "isAvailable, price, id"),
+        @Index(name = "idx_car_available_year_id", columnList = "isAvailable, year, id")
+})
 public class Car {
 
     @Id
@@ -0,0 +1,36 @@
+package com.hcltech.car_purcharse_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A buyer's time-limited reservation of a car. The unique car id allows one hold per car; the row
+ * is deleted when the hold is released, expires or the car is purchased.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "car_hold", uniqueConstraints = @UniqueConstraint(name = "uk_car_hold_car", columnNames = "car_id"))
+public class CarHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "car_id", nullable = false)
+    private Integer carId;
+
+    @Column(name = "buyer_id", nullable = false)
+    private Integer buyerId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,60 @@
+package com.hcltech.car_purcharse_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A run of up to {@code CarPriceHistoryDaoService.CHUNK_POINTS} price changes of one car, stored
+ * as delta-encoded (timestamp, price) pairs in {@code data}; see
+ * {@link com.hcltech.car_purcharse_service.utils.PriceSeriesCodec}. Only the latest chunk of a car
+ * is ever appended to. The history lives in its own table, so price changes never widen or
+ * multiply rows of {@code car}.
+ *
+ * <p>Two writers appending to the same car are caught by the version, and two writers starting a
+ * car's first chunk by the partial unique index on {@code (car_id) where latest} created from
+ * {@code import.sql}; the loser retries, see
+ * {@link com.hcltech.car_purcharse_service.service.CarPriceHistoryService}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "car_price_history", indexes = {
+        @Index(name = "idx_price_history_car_first_at", columnList = "car_id, first_at")
+})
+public class CarPriceHistoryChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    // no foreign key: history outlives the car for analytics
+    @Column(name = "car_id", nullable = false)
+    private Integer carId;
+
+    @Column(name = "first_at", nullable = false)
+    private Instant firstAt;
+
+    @Column(name = "last_at", nullable = false)
+    private Instant lastAt;
+
+    // price of the last point in cents, the base the next delta is taken from
+    @Column(name = "last_price_cents", nullable = false)
+    private long lastPriceCents;
+
+    @Column(name = "point_count", nullable = false)
+    private int pointCount;
+
+    @Column(nullable = false)
+    private boolean latest;
+
+    @Column(nullable = false)
+    private byte[] data;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,24 @@
+package com.hcltech.car_purcharse_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Marks a car as sold. Keyed by the car id, so a car can have one sale only, even once
+ * purchased_cars is partitioned and its car_id can no longer be unique there. The row is written
+ * in the transaction of the purchase and removed with it, or moved when the purchase is repointed
+ * at another car.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "car_sale")
+public class CarSale {
+
+    @Id
+    @Column(name = "car_id")
+    private Integer carId;
+}
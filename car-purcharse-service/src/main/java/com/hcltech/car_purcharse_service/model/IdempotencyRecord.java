@@ -0,0 +1,44 @@
+package com.hcltech.car_purcharse_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A POST request made under an {@code Idempotency-Key}. The row is inserted before the request
+ * runs, which claims the key across instances, and completed with the response once it has run.
+ * The id is a hash of the key together with the caller and the endpoint, so two callers choosing
+ * the same key never see each other's responses.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_record")
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "response_body")
+    private byte[] responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
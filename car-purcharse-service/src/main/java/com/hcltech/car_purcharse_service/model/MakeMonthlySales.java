@@ -0,0 +1,37 @@
+package com.hcltech.car_purcharse_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Number and value of the sales of one make in one calendar month, identified by the month's
+ * first day. Maintained like {@link SellerDailySales}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "make_monthly_sales",
+        uniqueConstraints = @UniqueConstraint(name = "uk_make_monthly_sales", columnNames = {"make", "month"}))
+public class MakeMonthlySales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String make;
+
+    @Column(nullable = false)
+    private LocalDate month;
+
+    @Column(name = "sales_count", nullable = false)
+    private long salesCount;
+
+    @Column(name = "revenue_cents", nullable = false)
+    private long revenueCents;
+}
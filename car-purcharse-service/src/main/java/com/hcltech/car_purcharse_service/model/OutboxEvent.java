@@ -0,0 +1,40 @@
+package com.hcltech.car_purcharse_service.model;
+
+import com.hcltech.car_purcharse_service.event.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A domain event waiting to be delivered to the outbox sinks. The row is inserted in the same
+ * transaction as the change it describes, so an event exists exactly when its change committed,
+ * and it is deleted once every sink has accepted it. The payload is the JSON of the changed
+ * entity's DTO.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "outbox_event")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private OutboxEventType eventType;
+
+    @Column(name = "aggregate_id")
+    private Integer aggregateId;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
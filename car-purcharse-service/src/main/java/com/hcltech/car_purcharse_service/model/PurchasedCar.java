@@ -10,7 +10,10 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "purchased_cars")
+@Table(name = "purchased_cars", indexes = {
+        // Date-range queries seek on (purchase_date, id); see db/partition-purchased-cars.sql for the partitioned layout
+        @Index(name = "idx_purchased_cars_purchase_date_id", columnList = "purchase_date, id")
+})
 public class PurchasedCar {
 
     @Id
@@ -31,4 +34,12 @@ public class PurchasedCar {
 
     @Column(name = "purchase_date")
     private LocalDate purchaseDate;
+
+    // the car's price when it was sold, so revenue does not move when the listing is edited later
+    @Column(name = "sale_price")
+    private Double salePrice;
+
+    // the car's make when it was sold, so the make rollups stay put when the listing is renamed later
+    @Column(name = "sale_make")
+    private String saleMake;
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.hcltech.car_purcharse_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Number and value of one seller's sales on one day, kept current by signed deltas applied in the
+ * same transaction as every purchase write; see
+ * {@link com.hcltech.car_purcharse_service.dao.service.SalesRollupDaoService}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "seller_daily_sales",
+        uniqueConstraints = @UniqueConstraint(name = "uk_seller_daily_sales", columnNames = {"seller_id", "day"}))
+public class SellerDailySales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "seller_id", nullable = false)
+    private Integer sellerId;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(name = "sales_count", nullable = false)
+    private long salesCount;
+
+    @Column(name = "revenue_cents", nullable = false)
+    private long revenueCents;
+}
@@ -0,0 +1,43 @@
+package com.hcltech.car_purcharse_service.repository;
+
+import com.hcltech.car_purcharse_service.model.CarHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface CarHoldRepository extends JpaRepository<CarHold, Integer> {
+
+    Optional<CarHold> findByCarId(Integer carId);
+
+    List<CarHold> findByCarIdIn(Collection<Integer> carIds);
+
+    List<CarHold> findByExpiresAtAfter(Instant now);
+
+    // Conditional on the expiry, so a hold that was replaced in the meantime is left alone
+    @Transactional
+    @Modifying
+    @Query("delete from CarHold h where h.id = :id and h.expiresAt <= :now")
+    int deleteExpired(@Param("id") Integer id, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from CarHold h where h.carId = :carId and h.expiresAt <= :now")
+    int deleteExpiredByCarId(@Param("carId") Integer carId, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from CarHold h where h.carId = :carId")
+    int deleteByCarId(@Param("carId") Integer carId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from CarHold h where h.carId in :carIds")
+    int deleteByCarIdIn(@Param("carIds") Collection<Integer> carIds);
+}
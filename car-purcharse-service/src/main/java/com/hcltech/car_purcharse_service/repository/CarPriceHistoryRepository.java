@@ -0,0 +1,33 @@
+package com.hcltech.car_purcharse_service.repository;
+
+import com.hcltech.car_purcharse_service.model.CarPriceHistoryChunk;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface CarPriceHistoryRepository extends JpaRepository<CarPriceHistoryChunk, Integer> {
+
+    // The chunks new points are appended to, one per car at most
+    List<CarPriceHistoryChunk> findByCarIdInAndLatestTrue(Collection<Integer> carIds);
+
+    // Chunks that may hold points in [from, to]; served by the (car_id, first_at) index
+    @Query("select c from CarPriceHistoryChunk c where c.carId = :carId and c.lastAt >= :from and c.firstAt <= :to "
+            + "order by c.firstAt")
+    List<CarPriceHistoryChunk> findOverlapping(@Param("carId") Integer carId, @Param("from") Instant from,
+                                               @Param("to") Instant to);
+
+    // Forward-only cursor over the encoded series only, see CarRepository#streamAllAsDto
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select c.carId, c.data from CarPriceHistoryChunk c order by c.carId, c.firstAt")
+    Stream<Object[]> streamAllSeries();
+}
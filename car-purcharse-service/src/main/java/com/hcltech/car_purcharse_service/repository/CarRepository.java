@@ -1,17 +1,68 @@
 package com.hcltech.car_purcharse_service.repository;
 
+import com.hcltech.car_purcharse_service.dto.CarDto;
 import com.hcltech.car_purcharse_service.model.Car;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface CarRepository extends JpaRepository<Car,Integer> {
 
+    // left join, so cars without a seller are kept with a null sellerId
+    String SELECT_CAR_DTO = "select new com.hcltech.car_purcharse_service.dto.CarDto("
+            + "c.id, c.make, c.model, c.year, c.price, c.isAvailable, s.id) from Car c left join c.seller s ";
 
     List<Car>  findByIsAvailableTrue();
 
     List<Car> findAllBySellerId(Integer sellerId);
+
+    // Keyset (seek) pagination: Spring Data turns the position into "key > ? OR (key = ? AND id > ?)"
+    Window<Car> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Car> findByIsAvailableTrue(ScrollPosition position, Sort sort, Limit limit);
+
+    // Forward-only cursor for exports: rows are projected straight into DTOs, so nothing accumulates in
+    // the persistence context. Must be consumed inside a read-only transaction, or Postgres ignores the fetch size.
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query(SELECT_CAR_DTO + "order by c.id")
+    Stream<CarDto> streamAllAsDto();
+
+    // Projection reads: one select straight into CarDto, where the entity finders above also issue a
+    // select per distinct eager seller and keep every car and seller managed until the session ends
+    @Query(SELECT_CAR_DTO + "order by c.id")
+    List<CarDto> findAllAsDto();
+
+    @Query(SELECT_CAR_DTO + "where c.isAvailable = true order by c.id")
+    List<CarDto> findAvailableAsDto();
+
+    @Query(SELECT_CAR_DTO + "where s.id = :sellerId order by c.id")
+    List<CarDto> findAsDtoBySellerId(@Param("sellerId") Integer sellerId);
+
+    @Query(SELECT_CAR_DTO + "where c.id in :ids")
+    List<CarDto> findAsDtoByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Marks an available car as sold and returns 1, or returns 0 when it is unavailable, already has a
+    // car_sale row, is missing or is being claimed by another checkout right now. SKIP LOCKED makes
+    // that last case return at once instead of queueing behind the other checkout's row lock.
+    @Modifying
+    @Query(value = "update car set is_available = false where id = "
+            + "(select id from car c where c.id = :id and c.is_available "
+            + "and not exists (select 1 from car_sale s where s.car_id = c.id) for update of c skip locked)", nativeQuery = true)
+    int claimAvailable(@Param("id") Integer id);
 }
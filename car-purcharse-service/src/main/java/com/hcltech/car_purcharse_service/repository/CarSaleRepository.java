@@ -0,0 +1,22 @@
+package com.hcltech.car_purcharse_service.repository;
+
+import com.hcltech.car_purcharse_service.model.CarSale;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface CarSaleRepository extends JpaRepository<CarSale, Integer> {
+
+    // Returns 0 when the car is already sold, without failing the surrounding transaction
+    @Transactional
+    @Modifying
+    @Query(value = "insert into car_sale (car_id) values (:carId) on conflict (car_id) do nothing", nativeQuery = true)
+    int claim(@Param("carId") Integer carId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from CarSale s where s.carId = :carId")
+    int release(@Param("carId") Integer carId);
+}
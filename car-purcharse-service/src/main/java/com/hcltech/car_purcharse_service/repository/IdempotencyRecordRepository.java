@@ -0,0 +1,50 @@
+package com.hcltech.car_purcharse_service.repository;
+
+import com.hcltech.car_purcharse_service.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Returns 0 when the key is already taken, without failing the surrounding transaction
+    @Transactional
+    @Modifying
+    @Query(value = "insert into idempotency_record (id, request_hash, completed, created_at) "
+            + "values (:id, :requestHash, false, :createdAt) on conflict (id) do nothing", nativeQuery = true)
+    int claim(@Param("id") String id, @Param("requestHash") String requestHash, @Param("createdAt") Instant createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.completed = true, r.responseStatus = :status, "
+            + "r.contentType = :contentType, r.responseBody = :body where r.id = :id")
+    int complete(@Param("id") String id, @Param("status") int status, @Param("contentType") String contentType,
+                 @Param("body") byte[] body);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.completed = false")
+    int deleteInProgress(@Param("id") String id);
+
+    // Heartbeat for keys still running on this instance, so no other instance treats them as abandoned
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.createdAt = :now where r.id in :ids and r.completed = false")
+    int renew(@Param("ids") Collection<String> ids, @Param("now") Instant now);
+
+    // Conditional on the creation time, so a row that was replaced in the meantime is left alone
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.createdAt = :createdAt")
+    int deleteStale(@Param("id") String id, @Param("createdAt") Instant createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,12 @@
+package com.hcltech.car_purcharse_service.repository;
+
+import com.hcltech.car_purcharse_service.model.MakeMonthlySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface MakeMonthlySalesRepository extends JpaRepository<MakeMonthlySales, Integer> {
+
+    List<MakeMonthlySales> findByMonthBetween(LocalDate from, LocalDate to);
+}
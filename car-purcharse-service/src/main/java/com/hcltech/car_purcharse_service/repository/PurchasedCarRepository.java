@@ -1,14 +1,66 @@
 package com.hcltech.car_purcharse_service.repository;
 
+import com.hcltech.car_purcharse_service.dto.PurchasedCarResponseDto;
 import com.hcltech.car_purcharse_service.model.PurchasedCar;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Besides the derived entity finders, every read has a projection twin that selects the five
+ * columns of {@link PurchasedCarResponseDto} in one statement. The entity finders hydrate the
+ * eager buyer, seller and car associations (and the car's seller) with further selects and keep
+ * all of them in the persistence context, only for the response to copy out their ids.
+ */
 public interface PurchasedCarRepository extends JpaRepository<PurchasedCar, Integer> {
+
+    // p.buyer.id and friends read the foreign key columns, they do not join the referenced tables
+    String SELECT_RESPONSE_DTO = "select new com.hcltech.car_purcharse_service.dto.PurchasedCarResponseDto("
+            + "p.id, p.buyer.id, p.seller.id, p.car.id, p.purchaseDate) from PurchasedCar p ";
+
     List<PurchasedCar> findByBuyerId(Integer buyerId);
 
     List<PurchasedCar> findBySellerId(Integer sellerId);
 
     List<PurchasedCar> findByCarId(Integer carId);
+
+    @Query(SELECT_RESPONSE_DTO + "order by p.id")
+    List<PurchasedCarResponseDto> findAllAsDto();
+
+    @Query(SELECT_RESPONSE_DTO + "where p.id = :id")
+    Optional<PurchasedCarResponseDto> findAsDtoById(@Param("id") Integer id);
+
+    @Query(SELECT_RESPONSE_DTO + "where p.buyer.id = :buyerId order by p.id")
+    List<PurchasedCarResponseDto> findAsDtoByBuyerId(@Param("buyerId") Integer buyerId);
+
+    @Query(SELECT_RESPONSE_DTO + "where p.seller.id = :sellerId order by p.id")
+    List<PurchasedCarResponseDto> findAsDtoBySellerId(@Param("sellerId") Integer sellerId);
+
+    @Query(SELECT_RESPONSE_DTO + "where p.car.id = :carId order by p.id")
+    List<PurchasedCarResponseDto> findAsDtoByCarId(@Param("carId") Integer carId);
+
+    // One keyset page of a purchase date range, resuming after (afterDate, afterId). The range bounds
+    // let Postgres skip every monthly partition outside it; the page size comes from the Pageable only.
+    @Query(SELECT_RESPONSE_DTO + "where p.purchaseDate between :from and :to "
+            + "and (p.purchaseDate > :afterDate or (p.purchaseDate = :afterDate and p.id > :afterId)) "
+            + "order by p.purchaseDate, p.id")
+    List<PurchasedCarResponseDto> findAsDtoByPurchaseDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                                 @Param("afterDate") LocalDate afterDate,
+                                                                 @Param("afterId") Integer afterId, Pageable page);
+
+    // Forward-only cursor for exports, see CarRepository#streamAllAsDto
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query(SELECT_RESPONSE_DTO + "order by p.id")
+    Stream<PurchasedCarResponseDto> streamAllAsDto();
 }
@@ -1,7 +1,26 @@
 package com.hcltech.car_purcharse_service.repository;
 
+import com.hcltech.car_purcharse_service.dto.ReviewDto;
 import com.hcltech.car_purcharse_service.model.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ReviewRepository extends JpaRepository<Review, Integer> {
+
+    List<Review> findByCarId(Integer carId);
+
+    @Query("select new com.hcltech.car_purcharse_service.dto.ReviewDto(r.id, r.rate, r.feedback, r.buyer.id, r.car.id) "
+            + "from Review r where r.car.id = :carId order by r.id")
+    List<ReviewDto> findAsDtoByCarId(@Param("carId") Integer carId);
+
+    @Query("select r.car.id, r.feedback from Review r where r.car.id in :carIds and r.feedback is not null")
+    List<Object[]> findCarFeedbackByCarIds(@Param("carIds") Collection<Integer> carIds);
+
+    // [carId, feedback] pairs, so a full search index rebuild does not load buyers and cars
+    @Query("select r.car.id, r.feedback from Review r where r.feedback is not null")
+    List<Object[]> findAllCarFeedback();
 }
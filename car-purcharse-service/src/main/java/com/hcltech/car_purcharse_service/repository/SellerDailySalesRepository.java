@@ -0,0 +1,13 @@
+package com.hcltech.car_purcharse_service.repository;
+
+import com.hcltech.car_purcharse_service.model.SellerDailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SellerDailySalesRepository extends JpaRepository<SellerDailySales, Integer> {
+
+    // Served by the unique (seller_id, day) index
+    List<SellerDailySales> findBySellerIdAndDayBetweenOrderByDay(Integer sellerId, LocalDate from, LocalDate to);
+}
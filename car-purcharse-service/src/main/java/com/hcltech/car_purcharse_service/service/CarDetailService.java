@@ -0,0 +1,140 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.hcltech.car_purcharse_service.dao.service.ReviewDaoService;
+import com.hcltech.car_purcharse_service.dto.CarDetailDto;
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.dto.CarImageDto;
+import com.hcltech.car_purcharse_service.dto.ReviewDto;
+import com.hcltech.car_purcharse_service.dto.ReviewSummaryDto;
+import com.hcltech.car_purcharse_service.dto.SellerDto;
+import com.hcltech.car_purcharse_service.dto.SellerSummaryDto;
+import com.hcltech.car_purcharse_service.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Assembles a car detail page from the car, its images, its reviews and its seller. The branches
+ * run concurrently on virtual threads, so the call takes as long as the slowest branch rather than
+ * the sum of them; only the seller waits for the car, because the car names the seller. Every
+ * branch must finish within the branch timeout of the fan-out start. A branch that is late or
+ * fails is cancelled and reported as unavailable, and the rest of the page is still returned.
+ */
+@Service
+public class CarDetailService {
+
+    static final String CAR = "car";
+    static final String SELLER = "seller";
+    static final String IMAGES = "images";
+    static final String REVIEWS = "reviews";
+
+    private static final Logger logger = LoggerFactory.getLogger(CarDetailService.class);
+
+    private final CarService carService;
+
+    private final CarImageService carImageService;
+
+    private final ReviewDaoService reviewDaoService;
+
+    private final SellerService sellerService;
+
+    private final Duration branchTimeout;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public CarDetailService(CarService carService, CarImageService carImageService, ReviewDaoService reviewDaoService,
+                            SellerService sellerService,
+                            @Value("${spring.app.car-detail.branch-timeout}") Duration branchTimeout) {
+        this.carService = carService;
+        this.carImageService = carImageService;
+        this.reviewDaoService = reviewDaoService;
+        this.sellerService = sellerService;
+        this.branchTimeout = branchTimeout;
+    }
+
+    public CarDetailDto getDetail(Integer carId) {
+        long deadline = System.nanoTime() + branchTimeout.toNanos();
+
+        Future<CarDto> car = executor.submit(() -> carService.getOneById(carId));
+        Future<List<CarImageDto>> images = executor.submit(() -> carImageService.getAllImageByCar(carId));
+        Future<List<ReviewDto>> reviews = executor.submit(() -> reviewDaoService.getReviewsByCarId(carId));
+        Future<SellerSummaryDto> seller = executor.submit(() -> {
+            CarDto loaded = car.get();
+            return loaded == null || loaded.getSellerId() == null ? null : summary(sellerService.findSellerById(loaded.getSellerId()));
+        });
+
+        List<String> unavailable = new ArrayList<>();
+        CarDto carDto = await(car, CAR, deadline, unavailable);
+        if (carDto == null && unavailable.isEmpty()) {
+            images.cancel(true);
+            reviews.cancel(true);
+            seller.cancel(true);
+            throw new ResourceNotFoundException("Car not found with ID: " + carId);
+        }
+        SellerSummaryDto sellerDto = await(seller, SELLER, deadline, unavailable);
+        List<CarImageDto> imageDtos = await(images, IMAGES, deadline, unavailable);
+        List<ReviewDto> reviewDtos = await(reviews, REVIEWS, deadline, unavailable);
+
+        return new CarDetailDto(carDto, sellerDto, imageDtos, reviewDtos,
+                reviewDtos == null ? null : summarize(reviewDtos), unavailable);
+    }
+
+    // The page is public, so the seller goes out as a summary without the registration fields
+    private static SellerSummaryDto summary(SellerDto seller) {
+        return seller == null ? null
+                : new SellerSummaryDto(seller.getId(), seller.getName(), seller.getEmail(), seller.getContact());
+    }
+
+    // Cancelling interrupts the branch's virtual thread, so a late branch does not keep running
+    private <T> T await(Future<T> branch, String name, long deadline, List<String> unavailable) {
+        try {
+            return branch.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            branch.cancel(true);
+            logger.warn("Car detail branch '{}' timed out after {}", name, branchTimeout);
+        } catch (ExecutionException e) {
+            logger.warn("Car detail branch '{}' failed: {}", name, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            branch.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        unavailable.add(name);
+        return null;
+    }
+
+    // Rates are free text; only the ones that parse as numbers count towards the average
+    static ReviewSummaryDto summarize(List<ReviewDto> reviews) {
+        long rated = 0;
+        double total = 0;
+        for (ReviewDto review : reviews) {
+            if (review.getRate() == null) {
+                continue;
+            }
+            try {
+                total += Double.parseDouble(review.getRate().trim());
+                rated++;
+            } catch (NumberFormatException e) {
+                // not a numeric rating
+            }
+        }
+        Double average = rated == 0 ? null : Math.round(total / rated * 100) / 100.0;
+        return new ReviewSummaryDto(reviews.size(), rated, average);
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,243 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.hcltech.car_purcharse_service.dao.service.CarHoldDaoService;
+import com.hcltech.car_purcharse_service.dto.CarHoldDto;
+import com.hcltech.car_purcharse_service.event.CarChangedEvent;
+import com.hcltech.car_purcharse_service.event.CarHoldChangedEvent;
+import com.hcltech.car_purcharse_service.event.CarPurchasedEvent;
+import com.hcltech.car_purcharse_service.event.CarsPurchasedEvent;
+import com.hcltech.car_purcharse_service.exception.HoldNotOwnedException;
+import com.hcltech.car_purcharse_service.exception.ResourceNotFoundException;
+import com.hcltech.car_purcharse_service.model.CarHold;
+import com.hcltech.car_purcharse_service.utils.HierarchicalTimingWheel;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time-limited holds that keep a car out of the available listing while a buyer arranges finance.
+ * The holds table is the record: placing a hold, and looking up or releasing one, go to it, so all
+ * instances agree on who holds a car. The available listing is read far more often, so it filters
+ * against the held car ids kept in memory instead. Those follow the holds this instance places,
+ * releases and expires as they happen, and are reloaded from the table every refresh interval, so
+ * a hold placed or ended on another instance shows up within that interval.
+ *
+ * <p>The expiry of the holds this instance placed or restored is scheduled on a
+ * {@link HierarchicalTimingWheel} that one thread advances every tick. Expiring a hold therefore
+ * never scans the table, however many holds are open. On startup the wheel is refilled from the
+ * table, and holds that ran out while the service was down expire on the first tick. Until a hold
+ * is swept, readers treat it as gone once its time is up.
+ */
+@Service
+public class CarHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CarHoldService.class);
+
+    private final CarHoldDaoService carHoldDaoService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Duration holdDuration;
+
+    private final Duration tick;
+
+    private final Duration refreshInterval;
+
+    private final Clock clock;
+
+    private final HierarchicalTimingWheel<CarHold> wheel;
+
+    private final Map<Integer, HierarchicalTimingWheel.Timeout<CarHold>> holdsByCar = new ConcurrentHashMap<>();
+
+    // Expiry of every known hold by car, including those placed on other instances
+    private final Map<Integer, Instant> heldUntil = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "car-hold-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public CarHoldService(CarHoldDaoService carHoldDaoService, ApplicationEventPublisher eventPublisher,
+                          @Value("${spring.app.holds.duration}") Duration holdDuration,
+                          @Value("${spring.app.holds.tick}") Duration tick,
+                          @Value("${spring.app.holds.refresh-interval}") Duration refreshInterval) {
+        this(carHoldDaoService, eventPublisher, holdDuration, tick, refreshInterval, Clock.systemUTC());
+    }
+
+    CarHoldService(CarHoldDaoService carHoldDaoService, ApplicationEventPublisher eventPublisher,
+                   Duration holdDuration, Duration tick, Duration refreshInterval, Clock clock) {
+        this.carHoldDaoService = carHoldDaoService;
+        this.eventPublisher = eventPublisher;
+        this.holdDuration = holdDuration;
+        this.tick = tick;
+        this.refreshInterval = refreshInterval;
+        this.clock = clock;
+        this.wheel = new HierarchicalTimingWheel<>(tick.toMillis(), clock.millis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<CarHold> holds = carHoldDaoService.findAll();
+        holds.forEach(this::track);
+        logger.info("Restored {} car holds", holds.size());
+        ticker.scheduleAtFixedRate(this::expireDue, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+        ticker.scheduleWithFixedDelay(this::refreshHeld, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public CarHoldDto placeHold(Integer carId, CarHoldDto request) {
+        if (request == null || request.getBuyerId() == null) {
+            throw new IllegalArgumentException("buyerId is required");
+        }
+        Instant now = clock.instant();
+        CarHold hold = carHoldDaoService.create(carId, request.getBuyerId(), now, now.plus(holdDuration));
+        track(hold);
+        eventPublisher.publishEvent(new CarHoldChangedEvent(carId));
+        return toDto(hold);
+    }
+
+    public CarHoldDto getHold(Integer carId) {
+        return toDto(liveHold(carId));
+    }
+
+    // Only the buyer holding the car may release it
+    public void releaseHold(Integer carId, Integer buyerId) {
+        CarHold hold = liveHold(carId);
+        if (!hold.getBuyerId().equals(buyerId)) {
+            throw new HoldNotOwnedException("The hold on car " + carId + " belongs to another buyer");
+        }
+        carHoldDaoService.deleteByCarId(carId);
+        untrack(carId);
+        eventPublisher.publishEvent(new CarHoldChangedEvent(carId));
+    }
+
+    // Cars with an unexpired hold, from memory; a hold on another instance may be up to a refresh late
+    public Set<Integer> heldCarIds() {
+        if (heldUntil.isEmpty()) {
+            return Set.of();
+        }
+        Instant now = clock.instant();
+        Set<Integer> held = new HashSet<>();
+        heldUntil.forEach((carId, expiresAt) -> {
+            if (expiresAt.isAfter(now)) {
+                held.add(carId);
+            }
+        });
+        return held;
+    }
+
+    boolean isScheduled(Integer carId) {
+        return holdsByCar.containsKey(carId);
+    }
+
+    // The purchase deleted the hold row in its own transaction; only the timer is left
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarPurchased(CarPurchasedEvent event) {
+        untrack(event.getCarId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarsPurchased(CarsPurchasedEvent event) {
+        event.getCarIds().forEach(this::untrack);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        for (Integer carId : event.getDeletedCarIds()) {
+            if (untrack(carId)) {
+                carHoldDaoService.deleteByCarId(carId);
+            }
+        }
+    }
+
+    /**
+     * Runs on the ticker thread. A failure is logged and swallowed so the ticker keeps running; a
+     * row left behind is removed by the next hold placed on the car.
+     */
+    void expireDue() {
+        try {
+            Instant now = clock.instant();
+            for (CarHold hold : wheel.advance(now.toEpochMilli())) {
+                holdsByCar.computeIfPresent(hold.getCarId(), (carId, timeout) -> timeout.item() == hold ? null : timeout);
+                heldUntil.remove(hold.getCarId(), hold.getExpiresAt());
+                carHoldDaoService.deleteExpired(hold.getId(), now);
+                eventPublisher.publishEvent(new CarHoldChangedEvent(hold.getCarId()));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Expiring car holds failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs on the ticker thread and replaces the known holds with the live ones in the table. Holds
+     * this instance is timing are kept even when the read missed them, since they were placed after
+     * it started. A failure is logged and the current holds are kept until the next refresh.
+     */
+    void refreshHeld() {
+        try {
+            Map<Integer, Instant> live = new HashMap<>();
+            for (CarHold hold : carHoldDaoService.findLiveHolds(clock.instant())) {
+                live.put(hold.getCarId(), hold.getExpiresAt());
+            }
+            heldUntil.putAll(live);
+            heldUntil.keySet().removeIf(carId -> !live.containsKey(carId) && !holdsByCar.containsKey(carId));
+        } catch (RuntimeException e) {
+            logger.warn("Refreshing car holds failed: {}", e.getMessage());
+        }
+    }
+
+    private CarHold liveHold(Integer carId) {
+        return carHoldDaoService.findLive(carId, clock.instant())
+                .orElseThrow(() -> new ResourceNotFoundException("No hold on car with ID: " + carId));
+    }
+
+    private void track(CarHold hold) {
+        HierarchicalTimingWheel.Timeout<CarHold> timeout = wheel.schedule(hold, hold.getExpiresAt().toEpochMilli());
+        HierarchicalTimingWheel.Timeout<CarHold> previous = holdsByCar.put(hold.getCarId(), timeout);
+        heldUntil.put(hold.getCarId(), hold.getExpiresAt());
+        if (previous != null) {
+            wheel.cancel(previous);
+        }
+    }
+
+    private boolean untrack(Integer carId) {
+        heldUntil.remove(carId);
+        HierarchicalTimingWheel.Timeout<CarHold> timeout = holdsByCar.remove(carId);
+        if (timeout == null) {
+            return false;
+        }
+        wheel.cancel(timeout);
+        return true;
+    }
+
+    private static CarHoldDto toDto(CarHold hold) {
+        return new CarHoldDto(hold.getId(), hold.getCarId(), hold.getBuyerId(), hold.getExpiresAt());
+    }
+
+    @PreDestroy
+    public void close() {
+        ticker.shutdownNow();
+    }
+}
@@ -0,0 +1,250 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.hcltech.car_purcharse_service.dao.service.CarImportDaoService;
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.dto.CarImportErrorDto;
+import com.hcltech.car_purcharse_service.dto.CarImportResultDto;
+import com.hcltech.car_purcharse_service.event.CarsImportedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Bulk car import. The upload is parsed and validated line by line while the rows are already
+ * being copied into the database, so neither the file nor the cars are ever held in memory. Sellers
+ * are checked by the database when the copied rows are merged, since nothing else may run on the
+ * connection while they stream. Rejected rows are skipped and reported; the valid rows are
+ * inserted in one transaction.
+ */
+@Service
+public class CarImportService {
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final int FIRST_CAR_YEAR = 1886;
+
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("make", "model", "year", "price", "sellerid");
+
+    private final CarImportDaoService carImportDaoService;
+
+    private final ObjectReader carReader;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CarImportService(CarImportDaoService carImportDaoService, ObjectMapper objectMapper,
+                            ApplicationEventPublisher eventPublisher) {
+        this.carImportDaoService = carImportDaoService;
+        this.carReader = objectMapper.readerFor(CarDto.class);
+        this.eventPublisher = eventPublisher;
+    }
+
+    public CarImportResultDto importCars(InputStream upload, ExportFormat format) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(upload, StandardCharsets.UTF_8));
+        ValidatingRowIterator rows = new ValidatingRowIterator(reader, format);
+        CarImportDaoService.ImportResult result = carImportDaoService.copyCars(rows, MAX_REPORTED_ERRORS);
+        if (result.inserted() > 0) {
+            eventPublisher.publishEvent(new CarsImportedEvent(result.inserted()));
+        }
+        List<CarImportErrorDto> errors = new ArrayList<>(rows.errors);
+        errors.addAll(result.unknownSellers());
+        errors.sort(Comparator.comparingLong(CarImportErrorDto::getLine));
+        return new CarImportResultDto(rows.total, result.inserted(), rows.rejected + result.unknownSellerRows(),
+                errors.subList(0, Math.min(errors.size(), MAX_REPORTED_ERRORS)));
+    }
+
+    /**
+     * Yields only the valid cars of the upload, recording every rejected line on the way. Runs
+     * while the COPY is open, so it must not touch the database.
+     */
+    private class ValidatingRowIterator implements Iterator<CarImportDaoService.ImportRow> {
+
+        private final BufferedReader reader;
+        private final ExportFormat format;
+        private final List<CarImportErrorDto> errors = new ArrayList<>();
+
+        // lower-cased CSV header name -> column index
+        private Map<String, Integer> columns;
+        private long lineNumber;
+        private long total;
+        private long rejected;
+        private CarImportDaoService.ImportRow next;
+
+        ValidatingRowIterator(BufferedReader reader, ExportFormat format) {
+            this.reader = reader;
+            this.format = format;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null) {
+                    String line = reader.readLine();
+                    if (line == null) {
+                        return false;
+                    }
+                    lineNumber++;
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    if (format == ExportFormat.CSV && columns == null) {
+                        columns = readHeader(line);
+                        continue;
+                    }
+                    total++;
+                    try {
+                        CarDto car = format == ExportFormat.CSV ? parseCsv(line) : parseJson(line);
+                        validate(car);
+                        next = new CarImportDaoService.ImportRow(lineNumber, car);
+                    } catch (IllegalArgumentException e) {
+                        reject(e.getMessage());
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public CarImportDaoService.ImportRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            CarImportDaoService.ImportRow row = next;
+            next = null;
+            return row;
+        }
+
+        private Map<String, Integer> readHeader(String line) {
+            List<String> names = splitCsv(line);
+            Map<String, Integer> header = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                header.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : REQUIRED_CSV_COLUMNS) {
+                if (!header.containsKey(required)) {
+                    throw new IllegalArgumentException("CSV header is missing column: " + required);
+                }
+            }
+            return header;
+        }
+
+        private CarDto parseCsv(String line) {
+            List<String> values = splitCsv(line);
+            CarDto car = new CarDto();
+            car.setMake(value(values, "make"));
+            car.setModel(value(values, "model"));
+            car.setYear(parseNumber(value(values, "year"), "year").intValue());
+            car.setPrice(parseNumber(value(values, "price"), "price").doubleValue());
+            String available = value(values, "isavailable");
+            car.setIsAvailable(available == null || Boolean.parseBoolean(available));
+            car.setSellerId(parseNumber(value(values, "sellerid"), "sellerId").intValue());
+            return car;
+        }
+
+        private CarDto parseJson(String line) {
+            try {
+                CarDto car = carReader.readValue(line);
+                if (car.getIsAvailable() == null) {
+                    car.setIsAvailable(true);
+                }
+                return car;
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        private void validate(CarDto car) {
+            if (car.getMake() == null || car.getMake().isBlank()) {
+                throw new IllegalArgumentException("make is required");
+            }
+            if (car.getModel() == null || car.getModel().isBlank()) {
+                throw new IllegalArgumentException("model is required");
+            }
+            int maxYear = Year.now().getValue() + 1;
+            if (car.getYear() < FIRST_CAR_YEAR || car.getYear() > maxYear) {
+                throw new IllegalArgumentException("year must be between " + FIRST_CAR_YEAR + " and " + maxYear);
+            }
+            if (car.getPrice() == null || car.getPrice() <= 0) {
+                throw new IllegalArgumentException("price must be positive");
+            }
+            if (car.getSellerId() == null) {
+                throw new IllegalArgumentException("sellerId is required");
+            }
+        }
+
+        private void reject(String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new CarImportErrorDto(lineNumber, message));
+            }
+        }
+
+        private String value(List<String> values, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private Number parseNumber(String value, String column) {
+            if (value == null) {
+                throw new IllegalArgumentException(column + " is required");
+            }
+            try {
+                return value.contains(".") ? (Number) Double.valueOf(value) : (Number) Long.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + " is not a number: " + value);
+            }
+        }
+    }
+
+    // Splits one CSV line, honouring double-quoted fields with "" escapes
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
@@ -0,0 +1,83 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.hcltech.car_purcharse_service.dao.service.CarPriceHistoryDaoService;
+import com.hcltech.car_purcharse_service.dto.PricePointDto;
+import com.hcltech.car_purcharse_service.event.CarChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+
+@Service
+public class CarPriceHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CarPriceHistoryService.class);
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private final CarPriceHistoryDaoService carPriceHistoryDaoService;
+
+    private final TransactionTemplate newTransaction;
+
+    private final Clock clock;
+
+    @Autowired
+    public CarPriceHistoryService(CarPriceHistoryDaoService carPriceHistoryDaoService,
+                                  PlatformTransactionManager transactionManager) {
+        this(carPriceHistoryDaoService, transactionManager, Clock.systemUTC());
+    }
+
+    CarPriceHistoryService(CarPriceHistoryDaoService carPriceHistoryDaoService,
+                           PlatformTransactionManager transactionManager, Clock clock) {
+        this.carPriceHistoryDaoService = carPriceHistoryDaoService;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clock = clock;
+    }
+
+    /**
+     * Runs after the car write commits, in a transaction of its own, so history never records a
+     * rolled-back price and a failed history write cannot undo the car write. The prices and the
+     * time recorded are the ones the event took inside the car write, so neither the commit order
+     * nor a retry shifts a point. When a concurrent change to the same car wins the race for its
+     * latest chunk, the whole write is run again on the chunk as that change left it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        if (event.getSavedCars().isEmpty()) {
+            return;
+        }
+        Instant changedAt = event.getChangedAt();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                newTransaction.executeWithoutResult(status -> carPriceHistoryDaoService.recordPrices(event.getSavedCars(), changedAt));
+                return;
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Price history write collided with a concurrent one, retrying: {}", e.getMessage());
+            }
+        }
+    }
+
+    // An open end of the range defaults to the start of the history or to now
+    public List<PricePointDto> getHistory(Integer carId, Instant from, Instant to) {
+        Instant start = from != null ? from : Instant.EPOCH;
+        Instant end = to != null ? to : clock.instant();
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        return carPriceHistoryDaoService.getHistory(carId, start, end);
+    }
+}
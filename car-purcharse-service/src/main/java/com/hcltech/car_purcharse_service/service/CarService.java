@@ -1,36 +1,105 @@
 package com.hcltech.car_purcharse_service.service;
 
 
+import com.hcltech.car_purcharse_service.dao.index.AvailableCarsSnapshot;
+import com.hcltech.car_purcharse_service.dao.index.CarFacetIndex;
+import com.hcltech.car_purcharse_service.dao.index.CarRangeIndex;
+import com.hcltech.car_purcharse_service.dao.index.CarSearchIndex;
+import com.hcltech.car_purcharse_service.dao.index.CarSimilarityIndex;
+import com.hcltech.car_purcharse_service.dao.index.CarSuggestIndex;
+import com.hcltech.car_purcharse_service.dao.index.SellerInventoryCache;
+import com.hcltech.car_purcharse_service.dto.CacheStatsDto;
+import com.hcltech.car_purcharse_service.dto.CarBulkUpdateDto;
+import com.hcltech.car_purcharse_service.dto.CarBulkUpdateResultDto;
 import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.dto.CarFacetSearchDto;
+import com.hcltech.car_purcharse_service.dto.CarPageDto;
+import com.hcltech.car_purcharse_service.event.CarChangedEvent;
+import com.hcltech.car_purcharse_service.event.OutboxEventType;
+import com.hcltech.car_purcharse_service.exception.ResourceNotFoundException;
 import com.hcltech.car_purcharse_service.model.Car;
 import com.hcltech.car_purcharse_service.model.Seller;
-import com.hcltech.car_purcharse_service.repository.SellerRepository;
 import com.hcltech.car_purcharse_service.dao.service.CarDaoService;
+import com.hcltech.car_purcharse_service.dao.service.OutboxDaoService;
+import com.hcltech.car_purcharse_service.dao.service.SellerReferenceResolver;
+import com.hcltech.car_purcharse_service.utils.CursorUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class CarService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public static final int DEFAULT_SIMILAR_COUNT = 10;
 
     private CarDaoService carDaoService;
 
-    private SellerRepository sellerRepository;
+    private SellerReferenceResolver sellerReferenceResolver;
 
     private CarImageService carImageService;
 
-    public CarService(CarDaoService carDaoService, SellerRepository sellerRepository, CarImageService carImageService) {
+    private CarFacetIndex carFacetIndex;
+
+    private CarRangeIndex carRangeIndex;
+
+    private CarSearchIndex carSearchIndex;
+
+    private CarSuggestIndex carSuggestIndex;
+
+    private CarSimilarityIndex carSimilarityIndex;
+
+    private AvailableCarsSnapshot availableCarsSnapshot;
+
+    private CarHoldService carHoldService;
+
+    private SellerInventoryCache sellerInventoryCache;
+
+    private OutboxDaoService outboxDaoService;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    public CarService(CarDaoService carDaoService, SellerReferenceResolver sellerReferenceResolver,
+                      CarImageService carImageService,
+                      CarFacetIndex carFacetIndex, CarRangeIndex carRangeIndex, CarSearchIndex carSearchIndex,
+                      CarSuggestIndex carSuggestIndex, CarSimilarityIndex carSimilarityIndex,
+                      AvailableCarsSnapshot availableCarsSnapshot, CarHoldService carHoldService,
+                      SellerInventoryCache sellerInventoryCache, OutboxDaoService outboxDaoService,
+                      ApplicationEventPublisher eventPublisher) {
         this.carDaoService = carDaoService;
-        this.sellerRepository = sellerRepository;
+        this.sellerReferenceResolver = sellerReferenceResolver;
         this.carImageService = carImageService;
+        this.carFacetIndex = carFacetIndex;
+        this.carRangeIndex = carRangeIndex;
+        this.carSearchIndex = carSearchIndex;
+        this.carSuggestIndex = carSuggestIndex;
+        this.carSimilarityIndex = carSimilarityIndex;
+        this.availableCarsSnapshot = availableCarsSnapshot;
+        this.carHoldService = carHoldService;
+        this.sellerInventoryCache = sellerInventoryCache;
+        this.outboxDaoService = outboxDaoService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<CarDto> getAll() {
-        List<Car> allCars = carDaoService.getAll();
-        List<CarDto> result = toDto(allCars);
-        return result;
+        return carDaoService.getAllAsDto();
     }
 
     public CarDto getOneById(Integer id) {
@@ -39,37 +108,217 @@ public class CarService {
         return result;
     }
 
+    // Writes, together with their outbox events, run in one transaction
+    @Transactional
     public CarDto create(CarDto carDto) {
 
         Car car = toEntity(carDto);
         Car savedCar = carDaoService.create(car);
 
         CarDto result = toDto(savedCar);
+        publishSaved(OutboxEventType.CAR_LISTED, result);
         return result;
     }
 
+    @Transactional
     public CarDto update(CarDto carDto) {
         Car car = toEntity(carDto);
         Car savedCar = carDaoService.update(car);
         CarDto result = toDto(savedCar);
+        publishSaved(OutboxEventType.CAR_UPDATED, result);
         return result;
     }
 
+    @Transactional
     public String delete(Integer id) {
         carDaoService.delete(id);
+        outboxDaoService.append(OutboxEventType.CAR_DELETED, id, Map.of("id", id));
+        eventPublisher.publishEvent(CarChangedEvent.deleted(id));
         return "Delete Successful";
     }
 
+    /**
+     * Applies one price and/or availability change to every matching car of the seller with a
+     * single UPDATE, then publishes the cars it changed, reloaded, as one change event so the caches
+     * and indexes are refreshed together after commit. The outbox gets a {@code CAR_UPDATED} event for
+     * each changed car; the seller's other cars are left alone.
+     */
+    @Transactional
+    public CarBulkUpdateResultDto bulkUpdate(Integer sellerId, CarBulkUpdateDto change) {
+        boolean percent = change.getPriceChangePercent() != null;
+        boolean amount = change.getPriceChangeAmount() != null;
+        if (percent && amount) {
+            throw new IllegalArgumentException("Give either priceChangePercent or priceChangeAmount, not both");
+        }
+        if (!percent && !amount && change.getSetAvailable() == null) {
+            throw new IllegalArgumentException("No change given: set priceChangePercent, priceChangeAmount or setAvailable");
+        }
+        if (percent && change.getPriceChangePercent() <= -100) {
+            throw new IllegalArgumentException("priceChangePercent must be greater than -100");
+        }
+        double factor = percent ? 1 + change.getPriceChangePercent() / 100 : 1;
+        double delta = amount ? change.getPriceChangeAmount() : 0;
+
+        List<Integer> updated = carDaoService.bulkUpdateBySeller(sellerId, change, factor, delta);
+        if (!updated.isEmpty()) {
+            List<CarDto> cars = carDaoService.getByIdsAsDto(updated);
+            outboxDaoService.appendAll(OutboxEventType.CAR_UPDATED, cars, CarDto::getId);
+            eventPublisher.publishEvent(new CarChangedEvent(cars, List.of()));
+        }
+        return new CarBulkUpdateResultDto(updated.size());
+    }
+
+    // Cars on hold are left out until the hold is released, expires or the car is purchased
     public List<CarDto> getAvailableCars() {
-        List<Car> allAvailableCars = carDaoService.getAvailableCars();
-        List<CarDto> result = toDto(allAvailableCars);
-        return result;
+        List<CarDto> available = availableCarsSnapshot.isLoaded()
+                ? availableCarsSnapshot.get().getCars()
+                // only until the snapshot is built on startup
+                : carDaoService.getAvailableCarsAsDto();
+        Set<Integer> held = carHoldService.heldCarIds();
+        if (held.isEmpty()) {
+            return available;
+        }
+        return available.stream().filter(car -> !held.contains(car.getId())).toList();
     }
 
     public List<CarDto> getCarsBySeller(Integer sellerId) {
-        List<Car> sellerCars = carDaoService.getCarsBySeller(sellerId);
-        List<CarDto> result = toDto(sellerCars);
-        return result;
+        return sellerInventoryCache.get(sellerId, carDaoService::getCarsBySellerAsDto);
+    }
+
+    public CacheStatsDto getSellerInventoryCacheStats() {
+        return sellerInventoryCache.stats();
+    }
+
+    public CarFacetSearchDto facetSearch(String make, String model, String yearBand, String priceBand,
+                                         Boolean available, Integer size) {
+        Map<String, String> filters = new LinkedHashMap<>();
+        putFilter(filters, CarFacetIndex.MAKE, make);
+        putFilter(filters, CarFacetIndex.MODEL, model);
+        putFilter(filters, CarFacetIndex.YEAR_BAND, yearBand);
+        putFilter(filters, CarFacetIndex.PRICE_BAND, priceBand);
+        if (available != null) {
+            filters.put(CarFacetIndex.AVAILABLE, available.toString());
+        }
+        int limit = size == null ? DEFAULT_PAGE_SIZE : Math.max(0, Math.min(size, MAX_PAGE_SIZE));
+
+        CarFacetIndex.FacetResult result = carFacetIndex.search(filters, limit);
+        List<CarDto> cars = result.getCarIds().isEmpty()
+                ? List.of()
+                : carDaoService.getByIdsAsDto(result.getCarIds()).stream()
+                        .sorted(Comparator.comparing(CarDto::getId))
+                        .toList();
+        return new CarFacetSearchDto(result.getTotal(), cars, result.getCounts());
+    }
+
+    public List<CarDto> search(Double minPrice, Double maxPrice, Integer minYear, Integer maxYear, String sort, Integer size) {
+        CarRangeIndex.SortOrder order = CarRangeIndex.SortOrder.from(sort);
+        int limit = size == null ? DEFAULT_PAGE_SIZE : Math.max(0, Math.min(size, MAX_PAGE_SIZE));
+
+        int[] carIds = carRangeIndex.search(
+                minPrice == null ? Double.NEGATIVE_INFINITY : minPrice,
+                maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice,
+                minYear == null ? Integer.MIN_VALUE : minYear,
+                maxYear == null ? Integer.MAX_VALUE : maxYear,
+                order, limit);
+        return hydrateInOrder(carIds);
+    }
+
+    public List<CarDto> textSearch(String query, boolean availableOnly, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        int limit = size == null ? DEFAULT_PAGE_SIZE : Math.max(0, Math.min(size, MAX_PAGE_SIZE));
+
+        List<Integer> carIds = carSearchIndex.search(query, availableOnly, limit);
+        return hydrateInOrder(carIds.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    // The index keeps only its top-k per prefix, so size can narrow the list but not extend it
+    public List<String> suggest(String query, Integer size) {
+        return carSuggestIndex.suggest(query, size == null ? Integer.MAX_VALUE : size);
+    }
+
+    public List<CarDto> similar(Integer id, Integer k) {
+        CarDto reference = carDaoService.getByIdsAsDto(List.of(id)).stream().findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Car not found with ID: " + id));
+        int limit = k == null ? DEFAULT_SIMILAR_COUNT : Math.max(0, Math.min(k, MAX_PAGE_SIZE));
+        return hydrateInOrder(carSimilarityIndex.similar(reference, limit));
+    }
+
+    // Loads the cars by primary key and returns them in the order the index ranked them
+    private List<CarDto> hydrateInOrder(int[] carIds) {
+        if (carIds.length == 0) {
+            return List.of();
+        }
+        List<Integer> ids = Arrays.stream(carIds).boxed().toList();
+        Map<Integer, CarDto> byId = carDaoService.getByIdsAsDto(ids).stream()
+                .collect(Collectors.toMap(CarDto::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private void putFilter(Map<String, String> filters, String facet, String value) {
+        if (value != null && !value.isBlank()) {
+            filters.put(facet, value);
+        }
+    }
+
+    public CarPageDto getPage(String sortBy, String direction, String cursor, Integer size, boolean availableOnly) {
+        CarSortField sortField = CarSortField.from(sortBy);
+        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+
+        ScrollPosition position = (cursor == null || cursor.isBlank())
+                ? ScrollPosition.keyset()
+                : decodeCursor(cursor, sortField, sortDirection);
+
+        Window<Car> window = carDaoService.getPage(position, sortField.sort(sortDirection), Limit.of(pageSize), availableOnly);
+        List<CarDto> content = toDto(window.getContent());
+
+        String nextCursor = null;
+        if (window.hasNext() && !content.isEmpty()) {
+            nextCursor = encodeCursor(content.get(content.size() - 1), sortField, sortDirection);
+        }
+        return new CarPageDto(content, content.size(), nextCursor, nextCursor != null);
+    }
+
+    private String encodeCursor(CarDto last, CarSortField sortField, Sort.Direction direction) {
+        Object sortValue = switch (sortField) {
+            case ID -> last.getId();
+            case PRICE -> last.getPrice();
+            case YEAR -> last.getYear();
+        };
+        return CursorUtils.encode(sortField.getProperty(), direction.name(), String.valueOf(sortValue), String.valueOf(last.getId()));
+    }
+
+    private ScrollPosition decodeCursor(String cursor, CarSortField sortField, Sort.Direction direction) {
+        String[] parts = CursorUtils.decode(cursor, 4);
+        if (!sortField.getProperty().equals(parts[0]) || !direction.name().equals(parts[1])) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort order");
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            switch (sortField) {
+                case PRICE -> keys.put("price", Double.valueOf(parts[2]));
+                case YEAR -> keys.put("year", Integer.valueOf(parts[2]));
+                case ID -> {
+                    // the id is the only key
+                }
+            }
+            keys.put("id", Integer.valueOf(parts[3]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    private void publishSaved(OutboxEventType type, CarDto car) {
+        if (car != null) {
+            outboxDaoService.append(type, car.getId(), car);
+            eventPublisher.publishEvent(CarChangedEvent.saved(car));
+        }
     }
 
     public List<CarDto> toDto(List<Car> cars) {
@@ -101,6 +350,10 @@ public class CarService {
         if (carDto == null) {
             return null;
         }
+        return toEntity(carDto, sellerReferenceResolver.resolve(carDto.getSellerId()));
+    }
+
+    private Car toEntity(CarDto carDto, Seller seller) {
         Car result = new Car();
         result.setId(carDto.getId());
         result.setMake(carDto.getMake());
@@ -108,13 +361,7 @@ public class CarService {
         result.setPrice(carDto.getPrice());
         result.setYear(carDto.getYear());
         result.setIsAvailable(carDto.getIsAvailable());
-        if (carDto.getSellerId() != null) {
-            Seller seller = sellerRepository.findById(carDto.getSellerId()).orElse(null);
-            result.setSeller(seller);
-        } else {
-            result.setSeller(null);
-        }
+        result.setSeller(seller);
         return result;
-
     }
 }
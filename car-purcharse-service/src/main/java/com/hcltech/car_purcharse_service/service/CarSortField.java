@@ -0,0 +1,39 @@
+package com.hcltech.car_purcharse_service.service;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Sort keys supported by the keyset-paginated car listing. Every key is paired with the car id
+ * as a tie-breaker so the ordering is total and a cursor always points at exactly one row.
+ */
+public enum CarSortField {
+    ID("id"),
+    PRICE("price"),
+    YEAR("year");
+
+    private final String property;
+
+    CarSortField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort sort(Sort.Direction direction) {
+        if (this == ID) {
+            return Sort.by(direction, "id");
+        }
+        return Sort.by(direction, property).and(Sort.by(direction, "id"));
+    }
+
+    public static CarSortField from(String value) {
+        for (CarSortField field : values()) {
+            if (field.property.equalsIgnoreCase(value)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort field: " + value + " (expected id, price or year)");
+    }
+}
@@ -0,0 +1,45 @@
+package com.hcltech.car_purcharse_service.service;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Line-oriented file formats for the streaming exports and the bulk import: one JSON object per
+ * line, or CSV with a header row.
+ */
+public enum ExportFormat {
+    NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),
+    CSV("csv", MediaType.parseMediaType("text/csv"));
+
+    private final String extension;
+
+    private final MediaType mediaType;
+
+    ExportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static ExportFormat from(String value) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + value + " (expected ndjson or csv)");
+    }
+
+    // Uploads without an explicit format: ".csv" files are CSV, anything else is read as NDJSON
+    public static ExportFormat fromFilename(String filename) {
+        return filename != null && filename.toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,127 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hcltech.car_purcharse_service.dao.service.CarDaoService;
+import com.hcltech.car_purcharse_service.dao.service.CarPriceHistoryDaoService;
+import com.hcltech.car_purcharse_service.dao.service.PurchasedCarDaoService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables to the client row by row. Each export holds one read-only transaction open
+ * on the response thread, reads a forward-only cursor in fetch-size batches and writes every row
+ * as soon as it arrives, so memory use does not depend on the table size.
+ */
+@Service
+public class ExportService {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final List<String> CAR_COLUMNS =
+            List.of("id", "make", "model", "year", "price", "isAvailable", "sellerId");
+
+    private static final List<String> PURCHASED_CAR_COLUMNS =
+            List.of("id", "buyerId", "sellerId", "carId", "purchaseDate");
+
+    private static final List<String> PRICE_HISTORY_COLUMNS = List.of("carId", "changedAt", "price");
+
+    private final CarDaoService carDaoService;
+
+    private final PurchasedCarDaoService purchasedCarDaoService;
+
+    private final CarPriceHistoryDaoService carPriceHistoryDaoService;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ObjectWriter jsonWriter;
+
+    public ExportService(CarDaoService carDaoService, PurchasedCarDaoService purchasedCarDaoService,
+                         CarPriceHistoryDaoService carPriceHistoryDaoService,
+                         PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.carDaoService = carDaoService;
+        this.purchasedCarDaoService = purchasedCarDaoService;
+        this.carPriceHistoryDaoService = carPriceHistoryDaoService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonWriter = objectMapper.writer();
+    }
+
+    public StreamingResponseBody exportCars(ExportFormat format) {
+        return out -> export(out, format, CAR_COLUMNS, carDaoService::streamAll,
+                car -> Arrays.asList(car.getId(), car.getMake(), car.getModel(), car.getYear(), car.getPrice(),
+                        car.getIsAvailable(), car.getSellerId()));
+    }
+
+    public StreamingResponseBody exportPurchasedCars(ExportFormat format) {
+        return out -> export(out, format, PURCHASED_CAR_COLUMNS, purchasedCarDaoService::streamAllPurchasedCars,
+                purchase -> Arrays.asList(purchase.getId(), purchase.getBuyerId(), purchase.getSellerId(),
+                        purchase.getCarId(), purchase.getPurchaseDate()));
+    }
+
+    public StreamingResponseBody exportPriceHistory(ExportFormat format) {
+        return out -> export(out, format, PRICE_HISTORY_COLUMNS, carPriceHistoryDaoService::streamAll,
+                point -> Arrays.asList(point.getCarId(), point.getChangedAt(), point.getPrice()));
+    }
+
+    private <T> void export(OutputStream out, ExportFormat format, List<String> columns,
+                            Supplier<Stream<T>> rows, Function<T, List<?>> csvValues) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> stream = rows.get()) {
+                if (format == ExportFormat.CSV) {
+                    writeCsvLine(writer, columns);
+                }
+                Iterator<T> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    T row = iterator.next();
+                    if (format == ExportFormat.CSV) {
+                        writeCsvLine(writer, csvValues.apply(row));
+                    } else {
+                        writer.write(jsonWriter.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private static void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                writer.write(csvEscape(value.toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,28 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.hcltech.car_purcharse_service.model.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Logs every event at debug level; stands in for a broker until one is configured
+@Component
+public class LoggingOutboxSink implements OutboxSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingOutboxSink.class);
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        if (logger.isDebugEnabled()) {
+            events.forEach(event -> logger.debug("Outbox event {} {} {}: {}",
+                    event.getId(), event.getEventType(), event.getAggregateId(), event.getPayload()));
+        }
+    }
+}
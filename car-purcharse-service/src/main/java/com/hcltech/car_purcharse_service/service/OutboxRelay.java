@@ -0,0 +1,104 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.hcltech.car_purcharse_service.dao.service.OutboxDaoService;
+import com.hcltech.car_purcharse_service.model.OutboxEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox to the {@link OutboxSink}s on a background thread, so publishing an event
+ * costs the request only the insert of its outbox row. Each batch is claimed, delivered to every
+ * sink and deleted in one transaction: a failure rolls the claim back and the batch is delivered
+ * again on the next poll, and a crash mid-batch releases its row locks the same way. Several
+ * instances can relay at once, as each skips the rows another has claimed.
+ *
+ * <p>Events of one batch reach the sinks in id order; across batches and instances they may
+ * arrive out of order.
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxDaoService outboxDaoService;
+
+    private final List<OutboxSink> sinks;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final Duration pollInterval;
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OutboxRelay(OutboxDaoService outboxDaoService, List<OutboxSink> sinks,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${spring.app.outbox.batch-size}") int batchSize,
+                       @Value("${spring.app.outbox.poll-interval}") Duration pollInterval) {
+        this.outboxDaoService = outboxDaoService;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        logger.info("Relaying outbox events to sinks {}", sinks.stream().map(OutboxSink::name).toList());
+        poller.scheduleWithFixedDelay(this::drain, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Relays batches until the outbox is empty. Runs on the poller thread; a failure is logged and
+     * the rest waits for the next poll.
+     */
+    void drain() {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            logger.warn("Relaying outbox events failed, retrying on the next poll: {}", e.getMessage());
+        }
+    }
+
+    // Returns the number of events relayed
+    int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxDaoService.claimOldest(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            for (OutboxSink sink : sinks) {
+                sink.deliver(batch);
+            }
+            outboxDaoService.delete(batch.stream().map(OutboxEvent::getId).toList());
+            return batch.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    @PreDestroy
+    public void close() {
+        poller.shutdownNow();
+    }
+}
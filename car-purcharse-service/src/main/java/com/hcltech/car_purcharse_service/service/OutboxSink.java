@@ -0,0 +1,21 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.hcltech.car_purcharse_service.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * A downstream consumer of the outbox, such as a message broker, a remote cache or an analytics
+ * pipeline. Every {@code OutboxSink} bean receives every event, oldest first within a batch.
+ *
+ * <p>Delivery is at least once: a batch is delivered again when this or another sink fails on it,
+ * or when the instance dies before deleting it, so sinks must tolerate duplicates, for example by
+ * remembering the event ids they have seen.
+ */
+public interface OutboxSink {
+
+    String name();
+
+    // Throwing makes the relay retry the whole batch later
+    void deliver(List<OutboxEvent> events);
+}
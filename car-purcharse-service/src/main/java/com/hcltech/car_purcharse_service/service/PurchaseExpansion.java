@@ -0,0 +1,37 @@
+package com.hcltech.car_purcharse_service.service;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Related records a purchase read can embed, requested as {@code ?expand=buyer,seller,car}.
+ */
+public enum PurchaseExpansion {
+    BUYER,
+    SELLER,
+    CAR;
+
+    // Accepts repeated parameters as well as comma-separated values; null or empty means no expansion
+    public static Set<PurchaseExpansion> parse(List<String> values) {
+        Set<PurchaseExpansion> expansions = EnumSet.noneOf(PurchaseExpansion.class);
+        if (values == null) {
+            return expansions;
+        }
+        for (String value : values) {
+            for (String name : value.split(",")) {
+                if (name.isBlank()) {
+                    continue;
+                }
+                try {
+                    expansions.add(valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unsupported expand value: " + name.trim()
+                            + " (expected buyer, seller or car)");
+                }
+            }
+        }
+        return expansions;
+    }
+}
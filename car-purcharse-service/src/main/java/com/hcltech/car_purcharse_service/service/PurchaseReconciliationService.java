@@ -0,0 +1,100 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.hcltech.car_purcharse_service.dao.journal.PurchaseJournal;
+import com.hcltech.car_purcharse_service.dao.service.PurchasedCarDaoService;
+import com.hcltech.car_purcharse_service.dto.PurchaseReconciliationDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarResponseDto;
+import com.hcltech.car_purcharse_service.event.PurchaseChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Checks the purchase journal against purchased_cars. Replaying the journal rebuilds every purchase
+ * as of its last entry, without touching the database; the table is then streamed once and each
+ * row compared with its rebuilt state. Purchases made before journaling started are reported as
+ * missing from the journal.
+ */
+@Service
+public class PurchaseReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurchaseReconciliationService.class);
+
+    static final int MAX_IDS = 1000;
+
+    private final PurchaseJournal purchaseJournal;
+
+    private final PurchasedCarDaoService purchasedCarDaoService;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public PurchaseReconciliationService(PurchaseJournal purchaseJournal, PurchasedCarDaoService purchasedCarDaoService,
+                                         PlatformTransactionManager transactionManager) {
+        this.purchaseJournal = purchaseJournal;
+        this.purchasedCarDaoService = purchasedCarDaoService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public PurchaseReconciliationDto reconcile() {
+        long started = System.nanoTime();
+        Map<Integer, PurchaseChange> journaled = new HashMap<>();
+        PurchaseJournal.ReplayStats stats = purchaseJournal.replay(entry -> {
+            PurchaseChange change = entry.change();
+            if (change.type() == PurchaseChange.Type.DELETED) {
+                journaled.remove(change.purchaseId());
+            } else {
+                journaled.put(change.purchaseId(), change);
+            }
+        });
+        long replayMillis = (System.nanoTime() - started) / 1_000_000;
+
+        List<Integer> missingFromJournal = new ArrayList<>();
+        List<Integer> mismatched = new ArrayList<>();
+        long databasePurchases = readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<PurchasedCarResponseDto> purchases = purchasedCarDaoService.streamAllPurchasedCars()) {
+                for (PurchasedCarResponseDto purchase : (Iterable<PurchasedCarResponseDto>) purchases::iterator) {
+                    count++;
+                    PurchaseChange change = journaled.remove(purchase.getId());
+                    if (change == null) {
+                        missingFromJournal.add(purchase.getId());
+                    } else if (!matches(change, purchase)) {
+                        mismatched.add(purchase.getId());
+                    }
+                }
+            }
+            return count;
+        });
+        // whatever the table did not claim is live in the journal only
+        List<Integer> missingFromDatabase = new ArrayList<>(journaled.keySet());
+
+        PurchaseReconciliationDto result = new PurchaseReconciliationDto(stats.entries(), stats.corruptRecords(),
+                databasePurchases, replayMillis, missingFromJournal.size(), missingFromDatabase.size(), mismatched.size(),
+                firstIds(missingFromJournal), firstIds(missingFromDatabase), firstIds(mismatched));
+        logger.info("Reconciled {} journal entries with {} purchases: {} missing from journal, {} missing from database, {} mismatched",
+                stats.entries(), databasePurchases, result.getMissingFromJournalCount(),
+                result.getMissingFromDatabaseCount(), result.getMismatchedCount());
+        return result;
+    }
+
+    private static boolean matches(PurchaseChange change, PurchasedCarResponseDto purchase) {
+        return Objects.equals(change.buyerId(), purchase.getBuyerId())
+                && Objects.equals(change.sellerId(), purchase.getSellerId())
+                && Objects.equals(change.carId(), purchase.getCarId())
+                && Objects.equals(change.purchaseDate(), purchase.getPurchaseDate());
+    }
+
+    private static List<Integer> firstIds(List<Integer> ids) {
+        return ids.stream().sorted().limit(MAX_IDS).toList();
+    }
+}
@@ -0,0 +1,71 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.hcltech.car_purcharse_service.dao.service.PurchasedCarBatchDaoService;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarBatchItemDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarBatchResultDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch purchase ingestion for dealer back-office systems. The body, a JSON array of purchases or
+ * one purchase per line, is read with a streaming parser one purchase at a time, so only the
+ * purchases themselves are held in memory, never the document.
+ */
+@Service
+public class PurchasedCarBatchService {
+
+    private final PurchasedCarBatchDaoService purchasedCarBatchDaoService;
+
+    private final ObjectReader purchaseReader;
+
+    private final int maxItems;
+
+    public PurchasedCarBatchService(PurchasedCarBatchDaoService purchasedCarBatchDaoService, ObjectMapper objectMapper,
+                                    @Value("${spring.app.purchases.batch.max-items}") int maxItems) {
+        this.purchasedCarBatchDaoService = purchasedCarBatchDaoService;
+        this.purchaseReader = objectMapper.readerFor(PurchasedCarDto.class);
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Records every purchase in the body that can be made. A body that is not valid JSON, or holds
+     * more than the configured maximum, is rejected as a whole before anything is written.
+     */
+    public PurchasedCarBatchResultDto createPurchasedCars(InputStream body) {
+        List<PurchasedCarDto> purchases = read(body);
+        if (purchases.isEmpty()) {
+            return new PurchasedCarBatchResultDto(0, 0, 0, List.of());
+        }
+        List<PurchasedCarBatchItemDto> items = purchasedCarBatchDaoService.createPurchasedCars(purchases);
+        int created = (int) items.stream().filter(item -> item.getError() == null).count();
+        return new PurchasedCarBatchResultDto(items.size(), created, items.size() - created, items);
+    }
+
+    private List<PurchasedCarDto> read(InputStream body) {
+        List<PurchasedCarDto> purchases = new ArrayList<>();
+        try (MappingIterator<PurchasedCarDto> iterator = purchaseReader.readValues(body)) {
+            while (iterator.hasNextValue()) {
+                if (purchases.size() == maxItems) {
+                    throw new IllegalArgumentException("A batch may hold at most " + maxItems + " purchases");
+                }
+                purchases.add(iterator.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return purchases;
+    }
+}
@@ -0,0 +1,76 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.hcltech.car_purcharse_service.dao.service.CarDaoService;
+import com.hcltech.car_purcharse_service.dto.BuyerSummaryDto;
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarResponseDto;
+import com.hcltech.car_purcharse_service.dto.SellerSummaryDto;
+import com.hcltech.car_purcharse_service.repository.BuyerRepository;
+import com.hcltech.car_purcharse_service.repository.SellerRepository;
+import org.modelmapper.ModelMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Embeds buyer, seller and car details in a page of purchases. The distinct ids of each requested
+ * kind are gathered across the whole page and loaded with one {@code IN (...)} query per kind, so
+ * expanding a page costs at most three queries however many rows it has, rather than one lookup
+ * per row. Buyers and sellers are embedded as read-only summaries, never as their registration DTOs.
+ */
+@Service
+public class PurchasedCarExpansionService {
+
+    private final BuyerRepository buyerRepository;
+
+    private final SellerRepository sellerRepository;
+
+    private final CarDaoService carDaoService;
+
+    private final ModelMapper modelMapper;
+
+    public PurchasedCarExpansionService(BuyerRepository buyerRepository, SellerRepository sellerRepository,
+                                        CarDaoService carDaoService, ModelMapper modelMapper) {
+        this.buyerRepository = buyerRepository;
+        this.sellerRepository = sellerRepository;
+        this.carDaoService = carDaoService;
+        this.modelMapper = modelMapper;
+    }
+
+    // Fills in the requested details on the given purchases and returns them
+    public List<PurchasedCarResponseDto> expand(List<PurchasedCarResponseDto> purchases, Set<PurchaseExpansion> expansions) {
+        if (purchases.isEmpty() || expansions.isEmpty()) {
+            return purchases;
+        }
+        if (expansions.contains(PurchaseExpansion.BUYER)) {
+            Map<Integer, BuyerSummaryDto> buyers = buyerRepository.findAllById(distinct(purchases, PurchasedCarResponseDto::getBuyerId))
+                    .stream()
+                    .map(buyer -> modelMapper.map(buyer, BuyerSummaryDto.class))
+                    .collect(Collectors.toMap(BuyerSummaryDto::getId, Function.identity()));
+            purchases.forEach(purchase -> purchase.setBuyer(buyers.get(purchase.getBuyerId())));
+        }
+        if (expansions.contains(PurchaseExpansion.SELLER)) {
+            Map<Integer, SellerSummaryDto> sellers = sellerRepository.findAllById(distinct(purchases, PurchasedCarResponseDto::getSellerId))
+                    .stream()
+                    .map(seller -> modelMapper.map(seller, SellerSummaryDto.class))
+                    .collect(Collectors.toMap(SellerSummaryDto::getId, Function.identity()));
+            purchases.forEach(purchase -> purchase.setSeller(sellers.get(purchase.getSellerId())));
+        }
+        if (expansions.contains(PurchaseExpansion.CAR)) {
+            Map<Integer, CarDto> cars = carDaoService.getByIdsAsDto(distinct(purchases, PurchasedCarResponseDto::getCarId))
+                    .stream()
+                    .collect(Collectors.toMap(CarDto::getId, Function.identity()));
+            purchases.forEach(purchase -> purchase.setCar(cars.get(purchase.getCarId())));
+        }
+        return purchases;
+    }
+
+    private static List<Integer> distinct(List<PurchasedCarResponseDto> purchases, Function<PurchasedCarResponseDto, Integer> id) {
+        return purchases.stream().map(id).filter(Objects::nonNull).distinct().toList();
+    }
+}
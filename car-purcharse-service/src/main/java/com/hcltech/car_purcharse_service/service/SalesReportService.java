@@ -0,0 +1,89 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.hcltech.car_purcharse_service.dao.service.SalesRollupDaoService;
+import com.hcltech.car_purcharse_service.dto.MakeSalesDto;
+import com.hcltech.car_purcharse_service.dto.SalesPeriodDto;
+import com.hcltech.car_purcharse_service.dto.SellerSalesDto;
+import com.hcltech.car_purcharse_service.model.MakeMonthlySales;
+import com.hcltech.car_purcharse_service.model.SellerDailySales;
+import com.hcltech.car_purcharse_service.utils.PriceSeriesCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sales dashboards answered from the rollup tables. A seller's figures for any date range are the
+ * sum of at most one row per day; per-make figures are the sum of one row per make and month, so
+ * their ranges are widened to whole months.
+ */
+@Service
+public class SalesReportService {
+
+    // default range when none is given: the last 30 days
+    static final int DEFAULT_RANGE_DAYS = 30;
+
+    private final SalesRollupDaoService salesRollupDaoService;
+
+    private final Clock clock;
+
+    @Autowired
+    public SalesReportService(SalesRollupDaoService salesRollupDaoService) {
+        this(salesRollupDaoService, Clock.systemUTC());
+    }
+
+    SalesReportService(SalesRollupDaoService salesRollupDaoService, Clock clock) {
+        this.salesRollupDaoService = salesRollupDaoService;
+        this.clock = clock;
+    }
+
+    public SellerSalesDto getSellerSales(Integer sellerId, LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now(clock);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        validate(start, end);
+
+        long count = 0;
+        long revenueCents = 0;
+        List<SalesPeriodDto> days = new ArrayList<>();
+        for (SellerDailySales day : salesRollupDaoService.getSellerDays(sellerId, start, end)) {
+            if (day.getSalesCount() == 0) {
+                continue;
+            }
+            count += day.getSalesCount();
+            revenueCents += day.getRevenueCents();
+            days.add(new SalesPeriodDto(day.getDay(), day.getSalesCount(), PriceSeriesCodec.fromCents(day.getRevenueCents())));
+        }
+        return new SellerSalesDto(sellerId, start, end, count, PriceSeriesCodec.fromCents(revenueCents), days);
+    }
+
+    // Makes by revenue, highest first, over the whole months from the month of 'from' to the month of 'to'
+    public List<MakeSalesDto> getMakeSales(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now(clock);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        validate(start, end);
+
+        Map<String, long[]> totals = new LinkedHashMap<>();
+        for (MakeMonthlySales month : salesRollupDaoService.getMakeMonths(start.withDayOfMonth(1), end.withDayOfMonth(1))) {
+            long[] total = totals.computeIfAbsent(month.getMake(), make -> new long[2]);
+            total[0] += month.getSalesCount();
+            total[1] += month.getRevenueCents();
+        }
+        return totals.entrySet().stream()
+                .filter(entry -> entry.getValue()[0] != 0)
+                .map(entry -> new MakeSalesDto(entry.getKey(), entry.getValue()[0], PriceSeriesCodec.fromCents(entry.getValue()[1])))
+                .sorted(Comparator.comparingDouble(MakeSalesDto::getRevenue).reversed().thenComparing(MakeSalesDto::getMake))
+                .toList();
+    }
+
+    private static void validate(LocalDate start, LocalDate end) {
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.hcltech.car_purcharse_service.service;
 import com.hcltech.car_purcharse_service.dao.service.SellerDaoService;
 import com.hcltech.car_purcharse_service.dao.service.UserDaoService;
 import com.hcltech.car_purcharse_service.dto.SellerDto;
+import com.hcltech.car_purcharse_service.event.SellerChangedEvent;
 import com.hcltech.car_purcharse_service.model.Seller;
 import com.hcltech.car_purcharse_service.model.User;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
@@ -17,11 +19,14 @@ public class SellerService {
     private final SellerDaoService sellerDaoService;
     private final ModelMapper modelMapper;
     private final UserDaoService userDaoService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public SellerService(SellerDaoService sellerDaoService, ModelMapper modelMapper, UserDaoService userDaoService) {
+    public SellerService(SellerDaoService sellerDaoService, ModelMapper modelMapper, UserDaoService userDaoService,
+                         ApplicationEventPublisher eventPublisher) {
         this.sellerDaoService = sellerDaoService;
         this.modelMapper = modelMapper;
         this.userDaoService = userDaoService;
+        this.eventPublisher = eventPublisher;
     }
 
     public SellerDto saveSeller(SellerDto sellerDto) {
@@ -29,6 +34,7 @@ public class SellerService {
         userDaoService.createUser(sellerDto.getEmail(), sellerDto.getPassword(), "SELLER");
 
         Seller seller = sellerDaoService.saveSeller(modelMapper.map(sellerDto, Seller.class));
+        eventPublisher.publishEvent(new SellerChangedEvent(seller.getId()));
 
         SellerDto savedSellerDto = modelMapper.map(seller, SellerDto.class);
 
@@ -54,6 +60,7 @@ public class SellerService {
 
 
         Seller seller = sellerDaoService.updateSeller(modelMapper.map(sellerDto, Seller.class));
+        eventPublisher.publishEvent(new SellerChangedEvent(id));
 
 
         return modelMapper.map(seller, SellerDto.class);
@@ -63,5 +70,6 @@ public class SellerService {
 
         userDaoService.deleteByUserName(sellerDaoService.findSellerById(id).orElseThrow(() -> new UsernameNotFoundException("User now fount")).getEmail());
         sellerDaoService.deleteSellerById(id);
+        eventPublisher.publishEvent(new SellerChangedEvent(id));
     }
 }
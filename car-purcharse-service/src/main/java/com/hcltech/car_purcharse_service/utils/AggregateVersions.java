@@ -0,0 +1,90 @@
+package com.hcltech.car_purcharse_service.utils;
+
+import com.hcltech.car_purcharse_service.dao.service.AggregateVersionDaoService;
+import com.hcltech.car_purcharse_service.event.CarChangedEvent;
+import com.hcltech.car_purcharse_service.event.CarHoldChangedEvent;
+import com.hcltech.car_purcharse_service.event.CarPurchasedEvent;
+import com.hcltech.car_purcharse_service.event.CarsImportedEvent;
+import com.hcltech.car_purcharse_service.event.CarsPurchasedEvent;
+import com.hcltech.car_purcharse_service.event.ReviewChangedEvent;
+import com.hcltech.car_purcharse_service.event.SellerChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Locale;
+
+/**
+ * One version per aggregate, kept in the aggregate_version table and raised inside the transaction
+ * of every write to it. Read endpoints derive a strong ETag from the version, so a matching
+ * {@code If-None-Match} is answered with 304 after a single primary-key lookup, without loading,
+ * serializing or hashing the body. Because the version lives in the database, a write on one
+ * instance changes the tag every instance hands out.
+ *
+ * <p>The version is raised just before the write commits and becomes visible together with it.
+ * Endpoints must read the ETag before loading their data: a write landing in between then produces
+ * a response tagged with the old version, which only costs the client one extra download on its
+ * next poll, never a stale 304. Writes to one aggregate queue on its version row only for the
+ * moment between the raise and their commit.
+ */
+@Component
+public class AggregateVersions {
+
+    public enum Aggregate {
+        CAR, SELLER, REVIEW
+    }
+
+    private final AggregateVersionDaoService aggregateVersionDaoService;
+
+    public AggregateVersions(AggregateVersionDaoService aggregateVersionDaoService) {
+        this.aggregateVersionDaoService = aggregateVersionDaoService;
+    }
+
+    public String etag(Aggregate aggregate) {
+        return "\"" + key(aggregate) + "-" + aggregateVersionDaoService.current(key(aggregate)) + "\"";
+    }
+
+    public void bump(Aggregate aggregate) {
+        aggregateVersionDaoService.bump(key(aggregate));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        bump(Aggregate.CAR);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCarPurchased(CarPurchasedEvent event) {
+        bump(Aggregate.CAR);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCarsPurchased(CarsPurchasedEvent event) {
+        bump(Aggregate.CAR);
+    }
+
+    // A hold changes the available listing without changing the car
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCarHoldChanged(CarHoldChangedEvent event) {
+        bump(Aggregate.CAR);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCarsImported(CarsImportedEvent event) {
+        bump(Aggregate.CAR);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onSellerChanged(SellerChangedEvent event) {
+        bump(Aggregate.SELLER);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        bump(Aggregate.REVIEW);
+    }
+
+    private static String key(Aggregate aggregate) {
+        return aggregate.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,176 @@
+package com.hcltech.car_purcharse_service.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: {@value #LEVELS} wheels of {@value #WHEEL_SIZE} slots each, where a
+ * slot of level L spans 64^L ticks. A timer sits in the lowest level whose span still separates its
+ * deadline from the current tick; when time enters that slot the timer cascades one or more levels
+ * down until it lands in level 0 and fires on its exact tick. Scheduling and cancelling are O(1)
+ * list operations, and advancing costs O(1) per tick plus at most {@value #LEVELS} moves per timer
+ * over its lifetime, no matter how many timers are pending.
+ *
+ * <p>With a one-second tick the wheels cover about 194 days; later deadlines wait in the top level
+ * and are re-placed each time it comes round. All methods are synchronized.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    static final int WHEEL_SIZE = 1 << SLOT_BITS;
+    static final int LEVELS = 4;
+    private static final int SLOT_MASK = WHEEL_SIZE - 1;
+
+    /** Handle of a scheduled item; pass it to {@link #cancel} to remove the item before it fires. */
+    public static final class Timeout<T> {
+
+        private final T item;
+        private final long deadlineTick;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+        private Slot<T> slot;
+
+        private Timeout(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T item() {
+            return item;
+        }
+    }
+
+    // Doubly linked list of the timers in one slot
+    private static final class Slot<T> {
+
+        private Timeout<T> head;
+
+        void add(Timeout<T> timeout) {
+            timeout.slot = this;
+            timeout.previous = null;
+            timeout.next = head;
+            if (head != null) {
+                head.previous = timeout;
+            }
+            head = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.slot = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+
+        // Empties the slot and returns its former head
+        Timeout<T> drain() {
+            Timeout<T> drained = head;
+            head = null;
+            return drained;
+        }
+    }
+
+    private final long tickMillis;
+
+    private final Slot<T>[][] wheels;
+
+    // every deadline up to and including this tick has fired
+    private long currentTick;
+
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.wheels = new Slot[LEVELS][WHEEL_SIZE];
+        for (Slot<T>[] wheel : wheels) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel[i] = new Slot<>();
+            }
+        }
+    }
+
+    /**
+     * Schedules {@code item} to be returned by the first {@link #advance} that reaches
+     * {@code deadlineMillis}. Deadlines are rounded up to whole ticks; one already passed fires on
+     * the next tick.
+     */
+    public synchronized Timeout<T> schedule(T item, long deadlineMillis) {
+        long deadlineTick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        Timeout<T> timeout = new Timeout<>(item, deadlineTick);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    // Returns false when the timeout has already fired or been cancelled
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.slot == null) {
+            return false;
+        }
+        timeout.slot.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /** Moves time forward to {@code nowMillis} and returns the items that fell due, oldest deadline first. */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                currentTick = targetTick;
+                break;
+            }
+            long tick = ++currentTick;
+            // cascade from the top so a timer can drop several levels within this tick
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(wheels[level][(int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK]);
+                }
+            }
+            for (Timeout<T> timeout = wheels[0][(int) tick & SLOT_MASK].drain(); timeout != null; ) {
+                Timeout<T> next = timeout.next;
+                timeout.slot = null;
+                timeout.previous = null;
+                timeout.next = null;
+                expired.add(timeout.item);
+                size--;
+                timeout = next;
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void cascade(Slot<T> slot) {
+        for (Timeout<T> timeout = slot.drain(); timeout != null; ) {
+            Timeout<T> next = timeout.next;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        int level = 0;
+        while (level < LEVELS - 1
+                && (timeout.deadlineTick >>> (SLOT_BITS * (level + 1))) != (currentTick >>> (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        wheels[level][(int) (timeout.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK].add(timeout);
+    }
+}
@@ -0,0 +1,81 @@
+package com.hcltech.car_purcharse_service.utils;
+
+import java.util.Arrays;
+
+/**
+ * Encodes a price series as consecutive (timestamp delta, price delta) pairs. Each delta is taken
+ * from the previous point (the first one from zero), zigzag-mapped so small negative steps stay
+ * small, and written as a base-128 varint. Timestamps are epoch milliseconds and prices whole
+ * cents, so a typical change costs four to six bytes.
+ */
+public final class PriceSeriesCodec {
+
+    @FunctionalInterface
+    public interface PointVisitor {
+        void visit(long epochMillis, long priceCents);
+    }
+
+    private PriceSeriesCodec() {
+    }
+
+    /**
+     * Returns {@code data} with one point appended. {@code previousMillis} and {@code previousCents}
+     * are the values of the last point already in {@code data}, or zero when it is empty.
+     */
+    public static byte[] append(byte[] data, long previousMillis, long previousCents, long epochMillis, long priceCents) {
+        byte[] buffer = new byte[20];
+        int length = writeVarLong(buffer, 0, zigzag(epochMillis - previousMillis));
+        length = writeVarLong(buffer, length, zigzag(priceCents - previousCents));
+        byte[] result = Arrays.copyOf(data, data.length + length);
+        System.arraycopy(buffer, 0, result, data.length, length);
+        return result;
+    }
+
+    public static void decode(byte[] data, PointVisitor visitor) {
+        long millis = 0;
+        long cents = 0;
+        int[] position = {0};
+        while (position[0] < data.length) {
+            millis += unzigzag(readVarLong(data, position));
+            cents += unzigzag(readVarLong(data, position));
+            visitor.visit(millis, cents);
+        }
+    }
+
+    public static long toCents(double price) {
+        return Math.round(price * 100);
+    }
+
+    public static double fromCents(long cents) {
+        return cents / 100.0;
+    }
+
+    private static int writeVarLong(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    private static long readVarLong(byte[] data, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
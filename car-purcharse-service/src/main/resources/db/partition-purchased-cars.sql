@@ -0,0 +1,82 @@
+-- Converts purchased_cars into a table range-partitioned by month of purchase_date, so that
+-- date-range queries only scan the months they ask for.
+--
+-- Run once, with the service stopped, against a database whose schema is no longer created by
+-- Hibernate (spring.jpa.hibernate.ddl-auto=validate or none). Afterwards set
+-- spring.app.purchases.partitions.enabled=true so the service keeps creating the partitions of
+-- the coming months (PurchasedCarPartitionMaintainer).
+--
+-- Postgres only allows unique constraints on a partitioned table that include the partition key:
+--  * id is unique together with purchase_date; ids still come from a single identity sequence.
+--  * car_id can no longer be unique in the table. One sale per car is guaranteed by car_sale,
+--    keyed by car_id, which every checkout, batch and repointing update writes in the purchase's
+--    transaction (model/CarSale). It is created here, and filled from the existing purchases, in
+--    case the database predates it.
+-- Purchases without a date, or dated in a month that has no partition yet, go to the default
+-- partition. When such a month later gets its partition, the maintainer moves its purchases out of
+-- the default partition in the same transaction.
+
+begin;
+
+create table if not exists car_sale (
+    car_id integer primary key
+);
+
+insert into car_sale (car_id)
+select car_id from purchased_cars
+on conflict (car_id) do nothing;
+
+alter table purchased_cars rename to purchased_cars_unpartitioned;
+
+create table purchased_cars (
+    id            integer generated by default as identity,
+    buyer_id      integer not null references buyer (id),
+    seller_id     integer not null references seller (id),
+    car_id        integer not null references car (id),
+    purchase_date date,
+    sale_price    double precision,
+    sale_make     varchar(255)
+) partition by range (purchase_date);
+
+create table purchased_cars_default partition of purchased_cars default;
+
+-- A partition for every month that already has purchases, plus the current month and the next three
+do $$
+declare
+    month date;
+begin
+    for month in
+        select distinct date_trunc('month', purchase_date)::date
+        from purchased_cars_unpartitioned
+        where purchase_date is not null
+        union
+        select (date_trunc('month', current_date) + make_interval(months => n))::date
+        from generate_series(0, 3) n
+    loop
+        execute format('create table %I partition of purchased_cars for values from (%L) to (%L)',
+                       'purchased_cars_' || to_char(month, '"y"YYYY"m"MM'), month, (month + interval '1 month')::date);
+    end loop;
+end $$;
+
+insert into purchased_cars (id, buyer_id, seller_id, car_id, purchase_date, sale_price, sale_make)
+select id, buyer_id, seller_id, car_id, purchase_date, sale_price, sale_make
+from purchased_cars_unpartitioned;
+
+select setval(pg_get_serial_sequence('purchased_cars', 'id'), coalesce(max(id), 0) + 1, false)
+from purchased_cars;
+
+drop table purchased_cars_unpartitioned;
+
+-- Built after the copy, and once the old table has released the index names. Created on the
+-- parent, so every partition, including the ones created later, gets them.
+-- B-tree for the keyset pages of a range; BRIN as a tiny index for wide scans of append-ordered months.
+create unique index uk_purchased_cars_id_purchase_date on purchased_cars (id, purchase_date);
+create index idx_purchased_cars_purchase_date_id on purchased_cars (purchase_date, id);
+create index idx_purchased_cars_purchase_date_brin on purchased_cars using brin (purchase_date);
+create index idx_purchased_cars_buyer on purchased_cars (buyer_id);
+create index idx_purchased_cars_seller on purchased_cars (seller_id);
+create index idx_purchased_cars_car on purchased_cars (car_id);
+
+analyze purchased_cars;
+
+commit;
@@ -0,0 +1,3 @@
+-- Run by Hibernate after it creates the schema. One statement per line.
+-- At most one latest price history chunk per car; also serves the lookup of the latest chunks.
+create unique index uk_price_history_car_latest on car_price_history (car_id) where latest;
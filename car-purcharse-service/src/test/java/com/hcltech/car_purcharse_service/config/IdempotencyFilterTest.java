@@ -0,0 +1,314 @@
+package com.hcltech.car_purcharse_service.config;
+
+import com.hcltech.car_purcharse_service.dao.service.IdempotencyStore;
+import com.hcltech.car_purcharse_service.exception.IdempotencyKeyInProgressException;
+import com.hcltech.car_purcharse_service.repository.IdempotencyRecordRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"buyerId\":1,\"carId\":2,\"sellerId\":3}";
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyFilter idempotencyFilter;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyFilter = new IdempotencyFilter(idempotencyStore);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("requests without the header should pass through untouched")
+    void noKey_passesThrough() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletRequest request = post(null, BODY);
+
+        idempotencyFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        verify(chain).doFilter(eq(request), any());
+        verifyNoInteractions(idempotencyStore);
+    }
+
+    @Test
+    @DisplayName("the first request should run, see the original body and have its response stored")
+    void firstRequest_runsAndStores() throws Exception {
+        when(idempotencyStore.begin(anyString(), anyString())).thenReturn(Optional.empty());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        idempotencyFilter.doFilter(post("key-1", BODY), response, (req, res) -> {
+            assertThat(new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+            ((HttpServletResponse) res).setStatus(201);
+            res.setContentType("application/json");
+            res.getWriter().write("{\"id\":7}");
+        });
+
+        ArgumentCaptor<IdempotencyStore.StoredResponse> stored = ArgumentCaptor.forClass(IdempotencyStore.StoredResponse.class);
+        verify(idempotencyStore).complete(anyString(), stored.capture());
+        assertThat(stored.getValue().status()).isEqualTo(201);
+        assertThat(new String(stored.getValue().body(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":7}");
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":7}");
+        verify(idempotencyStore, never()).release(anyString());
+    }
+
+    @Test
+    @DisplayName("a server error should release the key instead of storing the response")
+    void serverError_releasesKey() throws Exception {
+        when(idempotencyStore.begin(anyString(), anyString())).thenReturn(Optional.empty());
+
+        idempotencyFilter.doFilter(post("key-1", BODY), new MockHttpServletResponse(),
+                (req, res) -> ((HttpServletResponse) res).setStatus(500));
+
+        verify(idempotencyStore).release(anyString());
+        verify(idempotencyStore, never()).complete(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("a replay should get the stored response without running the request")
+    void replay_returnsStoredResponse() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        when(idempotencyStore.begin(anyString(), hash.capture())).thenAnswer(invocation -> Optional.of(
+                new IdempotencyStore.StoredResponse(invocation.getArgument(1), 201, "application/json",
+                        "{\"id\":7}".getBytes(StandardCharsets.UTF_8))));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        idempotencyFilter.doFilter(post("key-1", BODY), response, chain);
+
+        verifyNoInteractions(chain);
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":7}");
+    }
+
+    @Test
+    @DisplayName("a key reused with a different body should be rejected with 422")
+    void replay_differentBody_returns422() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        when(idempotencyStore.begin(anyString(), anyString())).thenReturn(Optional.of(
+                new IdempotencyStore.StoredResponse("other-hash", 201, "application/json", new byte[0])));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        idempotencyFilter.doFilter(post("key-1", BODY), response, chain);
+
+        verifyNoInteractions(chain);
+        assertThat(response.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    @DisplayName("a duplicate that outwaits the first request should get 409, and a blank key 400")
+    void inProgressAndInvalidKey() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        when(idempotencyStore.begin(anyString(), anyString()))
+                .thenThrow(new IdempotencyKeyInProgressException("still running"));
+        MockHttpServletResponse inProgress = new MockHttpServletResponse();
+        MockHttpServletResponse blank = new MockHttpServletResponse();
+
+        idempotencyFilter.doFilter(post("key-1", BODY), inProgress, chain);
+        idempotencyFilter.doFilter(post(" ", BODY), blank, chain);
+
+        assertThat(inProgress.getStatus()).isEqualTo(409);
+        assertThat(blank.getStatus()).isEqualTo(400);
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    @DisplayName("keys should be scoped to the caller and the endpoint")
+    void keys_scopedToCallerAndPath() throws Exception {
+        when(idempotencyStore.begin(anyString(), anyString())).thenReturn(Optional.empty());
+        FilterChain chain = (req, res) -> ((HttpServletResponse) res).setStatus(201);
+
+        idempotencyFilter.doFilter(post("key-1", BODY), new MockHttpServletResponse(), chain);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        idempotencyFilter.doFilter(post("key-1", BODY), new MockHttpServletResponse(), chain);
+        MockHttpServletRequest otherPath = post("key-1", BODY);
+        otherPath.setRequestURI("/v1/api/buyers/create");
+        idempotencyFilter.doFilter(otherPath, new MockHttpServletResponse(), chain);
+
+        ArgumentCaptor<String> ids = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyStore, times(3)).begin(ids.capture(), anyString());
+        assertThat(ids.getAllValues()).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("concurrent duplicates should run the request once and all get its response")
+    void concurrentDuplicates_runOnce() throws Exception {
+        when(idempotencyRecordRepository.claim(anyString(), anyString(), any())).thenReturn(1);
+        IdempotencyFilter filter = new IdempotencyFilter(new IdempotencyStore(idempotencyRecordRepository, 100,
+                Duration.ofHours(24), Duration.ofMinutes(1), Duration.ofSeconds(10)));
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain chain = (req, res) -> {
+            int execution = executions.incrementAndGet();
+            firstRunning.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ((HttpServletResponse) res).setStatus(201);
+            res.getWriter().write("purchase-" + execution);
+        };
+
+        int duplicates = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(duplicates);
+        try {
+            Future<MockHttpServletResponse> first = executor.submit(() -> run(filter, chain));
+            assertThat(firstRunning.await(10, TimeUnit.SECONDS)).isTrue();
+            List<Future<MockHttpServletResponse>> others = new ArrayList<>();
+            for (int i = 1; i < duplicates; i++) {
+                others.add(executor.submit(() -> run(filter, chain)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(first.get(10, TimeUnit.SECONDS).getContentAsString()).isEqualTo("purchase-1");
+            for (Future<MockHttpServletResponse> other : others) {
+                MockHttpServletResponse response = other.get(10, TimeUnit.SECONDS);
+                assertThat(response.getStatus()).isEqualTo(201);
+                assertThat(response.getContentAsString()).isEqualTo("purchase-1");
+                assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(executions).hasValue(1);
+        verify(idempotencyRecordRepository, times(1)).claim(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("a body over the in-memory limit should be hashed while spooled and read back whole")
+    void largeBody_isSpooledAndHashed() throws Exception {
+        String body = "{\"buyerId\":1,\"carId\":2,\"sellerId\":3}\n".repeat(IdempotencyFilter.IN_MEMORY_BODY_LIMIT / 10);
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String expectedHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        when(idempotencyStore.begin(anyString(), eq(expectedHash))).thenReturn(Optional.empty());
+
+        idempotencyFilter.doFilter(post("key-1", body), new MockHttpServletResponse(), (req, res) -> {
+            assertThat(req.getContentLengthLong()).isEqualTo(bytes.length);
+            assertThat(req.getInputStream().readAllBytes()).isEqualTo(bytes);
+            ((HttpServletResponse) res).setStatus(201);
+        });
+
+        verify(idempotencyStore).complete(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("an asynchronous reader should be handed the whole body and then told it is complete")
+    void asyncRead_deliversBody() throws Exception {
+        when(idempotencyStore.begin(anyString(), anyString())).thenReturn(Optional.empty());
+        List<String> calls = new ArrayList<>();
+
+        idempotencyFilter.doFilter(post("key-1", BODY), new MockHttpServletResponse(), (req, res) -> {
+            ServletInputStream input = req.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    calls.add(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    calls.add("done");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    calls.add("error");
+                }
+            });
+            ((HttpServletResponse) res).setStatus(201);
+        });
+
+        assertThat(calls).containsExactly(BODY, "done");
+    }
+
+    @Test
+    @DisplayName("a spooled body should live in a temporary file that is removed on close")
+    void spooledBody_deletesFileOnClose() throws Exception {
+        byte[] small = BODY.getBytes(StandardCharsets.UTF_8);
+        byte[] large = new byte[IdempotencyFilter.IN_MEMORY_BODY_LIMIT + 1];
+
+        try (IdempotencyFilter.SpooledBody body = IdempotencyFilter.SpooledBody.read(new ByteArrayInputStream(small))) {
+            assertThat(body.isSpooled()).isFalse();
+            assertThat(body.open().readAllBytes()).isEqualTo(small);
+        }
+        IdempotencyFilter.SpooledBody body = IdempotencyFilter.SpooledBody.read(new ByteArrayInputStream(large));
+        assertThat(body.isSpooled()).isTrue();
+        assertThat(body.length).isEqualTo(large.length);
+        try (InputStream input = body.open()) {
+            assertThat(input.readAllBytes()).isEqualTo(large);
+        }
+        body.close();
+        assertThatThrownBy(body::open).isInstanceOf(NoSuchFileException.class);
+    }
+
+    private static MockHttpServletResponse run(IdempotencyFilter filter, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(post("key-1", BODY), response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest post(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/v1/api/purchased-cars/");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        return request;
+    }
+}
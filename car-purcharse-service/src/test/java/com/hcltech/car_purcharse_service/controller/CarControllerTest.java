@@ -2,11 +2,27 @@ package com.hcltech.car_purcharse_service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hcltech.car_purcharse_service.config.SecurityConfig;
+import com.hcltech.car_purcharse_service.dao.service.AggregateVersionDaoService;
+import com.hcltech.car_purcharse_service.dto.CacheStatsDto;
+import com.hcltech.car_purcharse_service.dto.CarDetailDto;
 import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.dto.ReviewSummaryDto;
+import com.hcltech.car_purcharse_service.dto.SellerSummaryDto;
+import com.hcltech.car_purcharse_service.dto.CarFacetSearchDto;
+import com.hcltech.car_purcharse_service.dto.CarPageDto;
+import com.hcltech.car_purcharse_service.dto.CarBulkUpdateDto;
+import com.hcltech.car_purcharse_service.dto.CarBulkUpdateResultDto;
+import com.hcltech.car_purcharse_service.dto.CarImportErrorDto;
+import com.hcltech.car_purcharse_service.dto.CarImportResultDto;
+import com.hcltech.car_purcharse_service.service.CarDetailService;
+import com.hcltech.car_purcharse_service.service.CarImportService;
 import com.hcltech.car_purcharse_service.service.CarService;
+import com.hcltech.car_purcharse_service.service.ExportFormat;
+import com.hcltech.car_purcharse_service.service.ExportService;
 import com.hcltech.car_purcharse_service.jwt.JwtFilter;
 import com.hcltech.car_purcharse_service.jwt.JwtUtil;
 import com.hcltech.car_purcharse_service.jwt.MyUserDetailsService; // Import MyUserDetailsService
+import com.hcltech.car_purcharse_service.utils.AggregateVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,13 +32,19 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -30,16 +52,28 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(CarController.class) // <-- Use WebMvcTest here
 @AutoConfigureMockMvc
-@Import({JwtUtil.class, JwtFilter.class, SecurityConfig.class})
+@Import({JwtUtil.class, JwtFilter.class, SecurityConfig.class, AggregateVersions.class})
 @WithMockUser(username = "testuser", roles = {"USER", "ADMIN"})
 class CarControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @MockitoBean
+    private AggregateVersionDaoService aggregateVersionDaoService;
+
     @MockitoBean
     private CarService carService;
 
+    @MockitoBean
+    private ExportService exportService;
+
+    @MockitoBean
+    private CarImportService carImportService;
+
+    @MockitoBean
+    private CarDetailService carDetailService;
+
     // ADD THIS LINE: Mock MyUserDetailsService as it's a dependency for JwtFilter/SecurityConfig
     @MockitoBean
     private MyUserDetailsService myUserDetailsService;
@@ -113,6 +147,34 @@ class CarControllerTest {
     }
 
 
+    @Test
+    void getDetail_returnsPartialPage() throws Exception {
+        CarDetailDto detail = new CarDetailDto(testCarDtoUpdate, null, List.of(), List.of(),
+                new ReviewSummaryDto(0, 0, null), List.of("seller"));
+        when(carDetailService.getDetail(1)).thenReturn(detail);
+
+        mockMvc.perform(get("/v1/api/cars/{id}/detail", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.car.id").value(1))
+                .andExpect(jsonPath("$.seller").doesNotExist())
+                .andExpect(jsonPath("$.reviewSummary.reviewCount").value(0))
+                .andExpect(jsonPath("$.unavailable[0]").value("seller"));
+    }
+
+    @Test
+    void getDetail_embedsSellerSummary() throws Exception {
+        CarDetailDto detail = new CarDetailDto(testCarDtoUpdate, new SellerSummaryDto(7, "Ann", "ann@example.com", "5551234567"),
+                List.of(), List.of(), new ReviewSummaryDto(0, 0, null), List.of());
+        when(carDetailService.getDetail(1)).thenReturn(detail);
+
+        mockMvc.perform(get("/v1/api/cars/{id}/detail", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seller.name").value("Ann"))
+                .andExpect(jsonPath("$.seller.password").doesNotExist());
+    }
+
     @Test
     void updateCar_Success() throws Exception {
         when(carService.update(any(CarDto.class))).thenReturn(testCarDtoUpdate);
@@ -166,4 +228,191 @@ class CarControllerTest {
                 .andExpect(jsonPath("$[1].sellerId").value(sellerId));
         verify(carService, times(1)).getCarsBySeller(sellerId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPage_Success() throws Exception {
+        CarPageDto page = new CarPageDto(testCarDtoList, 2, "next-token", true);
+        when(carService.getPage("price", "asc", null, 2, true)).thenReturn(page);
+
+        mockMvc.perform(get("/v1/api/cars")
+                        .param("sort", "price")
+                        .param("size", "2")
+                        .param("available", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+        verify(carService, times(1)).getPage("price", "asc", null, 2, true);
+    }
+
+    @Test
+    void getPage_InvalidCursor_ReturnsBadRequest() throws Exception {
+        when(carService.getPage(eq("id"), eq("asc"), eq("garbage"), any(), eq(false)))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/v1/api/cars")
+                        .param("cursor", "garbage")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid cursor"));
+    }
+
+    @Test
+    void facetSearch_Success() throws Exception {
+        CarFacetSearchDto result = new CarFacetSearchDto(2, testCarDtoList, Map.of("make", Map.of("Honda", 1, "Ford", 1)));
+        when(carService.facetSearch("Honda", null, "2020-2024", null, true, null)).thenReturn(result);
+
+        mockMvc.perform(get("/v1/api/cars/facets")
+                        .param("make", "Honda")
+                        .param("yearBand", "2020-2024")
+                        .param("available", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.cars", hasSize(2)))
+                .andExpect(jsonPath("$.facets.make.Honda").value(1));
+        verify(carService, times(1)).facetSearch("Honda", null, "2020-2024", null, true, null);
+    }
+
+    @Test
+    void search_Success() throws Exception {
+        when(carService.search(8000.0, 12000.0, 2018, null, "price_asc", null)).thenReturn(testCarDtoList);
+
+        mockMvc.perform(get("/v1/api/cars/search")
+                        .param("minPrice", "8000")
+                        .param("maxPrice", "12000")
+                        .param("minYear", "2018")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+        verify(carService, times(1)).search(8000.0, 12000.0, 2018, null, "price_asc", null);
+    }
+
+    @Test
+    void textSearch_Success() throws Exception {
+        when(carService.textSearch("hybrid suv", false, 10)).thenReturn(testCarDtoList);
+
+        mockMvc.perform(get("/v1/api/cars/text-search")
+                        .param("q", "hybrid suv")
+                        .param("size", "10")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+        verify(carService, times(1)).textSearch("hybrid suv", false, 10);
+    }
+
+    @Test
+    void suggest_Success() throws Exception {
+        when(carService.suggest("toy", null)).thenReturn(List.of("Toyota", "Toyota Corolla"));
+
+        mockMvc.perform(get("/v1/api/cars/suggest")
+                        .param("q", "toy")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("Toyota"))
+                .andExpect(jsonPath("$[1]").value("Toyota Corolla"));
+        verify(carService, times(1)).suggest("toy", null);
+    }
+
+    @Test
+    void similar_Success() throws Exception {
+        when(carService.similar(1, 3)).thenReturn(List.of(new CarDto(2, "Toyota", "Camry", 2020, 16000.0, true, 7)));
+
+        mockMvc.perform(get("/v1/api/cars/1/similar")
+                        .param("k", "3")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2));
+        verify(carService, times(1)).similar(1, 3);
+    }
+
+    @Test
+    void getSellerInventoryCacheStats_Success() throws Exception {
+        when(carService.getSellerInventoryCacheStats()).thenReturn(new CacheStatsDto(3, 95, 5, 0.95, 1));
+
+        mockMvc.perform(get("/v1/api/cars/cache/seller-inventory/stats")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hitCount").value(95))
+                .andExpect(jsonPath("$.hitRate").value(0.95));
+        verify(carService, times(1)).getSellerInventoryCacheStats();
+    }
+
+    @Test
+    void getAvailableCars_MatchingETag_ReturnsNotModifiedWithoutServiceCall() throws Exception {
+        when(carService.getAvailableCars()).thenReturn(testCarDtoList);
+
+        String etag = mockMvc.perform(get("/v1/api/cars/getAvailableCars"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/v1/api/cars/getAvailableCars").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        verify(carService, times(1)).getAvailableCars();
+    }
+
+    @Test
+    void getAll_StaleETag_ReturnsFullBody() throws Exception {
+        when(carService.getAll()).thenReturn(testCarDtoList);
+
+        mockMvc.perform(get("/v1/api/cars/getAll").header("If-None-Match", "\"car-stale-0\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+        verify(carService, times(1)).getAll();
+    }
+
+    @Test
+    void export_Csv_StreamsBodyAsAttachment() throws Exception {
+        StreamingResponseBody body = out -> out.write("id,make\n2,Honda\n".getBytes(StandardCharsets.UTF_8));
+        when(exportService.exportCars(ExportFormat.CSV)).thenReturn(body);
+
+        MvcResult result = mockMvc.perform(get("/v1/api/cars/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"cars.csv\""))
+                .andExpect(content().string("id,make\n2,Honda\n"));
+    }
+
+    @Test
+    void export_UnknownFormat_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/v1/api/cars/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void importCars_CsvUpload_ReturnsReport() throws Exception {
+        CarImportResultDto report = new CarImportResultDto(2, 1, 1, List.of(new CarImportErrorDto(3, "make is required")));
+        when(carImportService.importCars(any(), eq(ExportFormat.CSV))).thenReturn(report);
+        MockMultipartFile file = new MockMultipartFile("file", "cars.csv", "text/csv",
+                "make,model,year,price,sellerId\nFord,Ka,2015,4000,1\n,Rio,2020,9000,1\n".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/v1/api/cars/import").file(file).with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedRows").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+        verify(carImportService, times(1)).importCars(any(), eq(ExportFormat.CSV));
+    }
+
+    @Test
+    void bulkUpdate_Success() throws Exception {
+        CarBulkUpdateDto change = new CarBulkUpdateDto(null, null, 2019, 2019, null, null, null, -10.0, null, null);
+        when(carService.bulkUpdate(1, change)).thenReturn(new CarBulkUpdateResultDto(7));
+
+        mockMvc.perform(patch("/v1/api/cars/seller/{sellerId}/bulk", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(change))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedCount").value(7));
+        verify(carService, times(1)).bulkUpdate(1, change);
+    }
+}
@@ -0,0 +1,93 @@
+package com.hcltech.car_purcharse_service.controller;
+
+import com.hcltech.car_purcharse_service.config.SecurityConfig;
+import com.hcltech.car_purcharse_service.dto.CarHoldDto;
+import com.hcltech.car_purcharse_service.exception.CarOnHoldException;
+import com.hcltech.car_purcharse_service.exception.HoldNotOwnedException;
+import com.hcltech.car_purcharse_service.jwt.JwtFilter;
+import com.hcltech.car_purcharse_service.jwt.JwtUtil;
+import com.hcltech.car_purcharse_service.jwt.MyUserDetailsService;
+import com.hcltech.car_purcharse_service.service.CarHoldService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CarHoldController.class)
+@AutoConfigureMockMvc
+@Import({JwtUtil.class, JwtFilter.class, SecurityConfig.class})
+@WithMockUser(username = "testuser", roles = {"USER", "ADMIN"})
+class CarHoldControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CarHoldService carHoldService;
+
+    @MockitoBean
+    private MyUserDetailsService myUserDetailsService;
+
+    @Test
+    void placeHold_Created() throws Exception {
+        when(carHoldService.placeHold(eq(1), eq(new CarHoldDto(null, null, 7, null))))
+                .thenReturn(new CarHoldDto(10, 1, 7, Instant.parse("2025-03-01T10:15:00Z")));
+
+        mockMvc.perform(post("/v1/api/cars/1/hold").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"buyerId\":7}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(10))
+                .andExpect(jsonPath("$.expiresAt").value("2025-03-01T10:15:00Z"));
+    }
+
+    @Test
+    void placeHold_AlreadyHeld_IsConflict() throws Exception {
+        when(carHoldService.placeHold(eq(1), eq(new CarHoldDto(null, null, 7, null))))
+                .thenThrow(new CarOnHoldException("Car with ID 1 is already on hold"));
+
+        mockMvc.perform(post("/v1/api/cars/1/hold").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"buyerId\":7}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void releaseHold_NoContent() throws Exception {
+        mockMvc.perform(delete("/v1/api/cars/1/hold").with(csrf()).param("buyerId", "7"))
+                .andExpect(status().isNoContent());
+
+        verify(carHoldService).releaseHold(1, 7);
+    }
+
+    @Test
+    void releaseHold_OtherBuyer_IsForbidden() throws Exception {
+        doThrow(new HoldNotOwnedException("The hold on car 1 belongs to another buyer"))
+                .when(carHoldService).releaseHold(1, 8);
+
+        mockMvc.perform(delete("/v1/api/cars/1/hold").with(csrf()).param("buyerId", "8"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getHold_Success() throws Exception {
+        when(carHoldService.getHold(1)).thenReturn(new CarHoldDto(10, 1, 7, Instant.parse("2025-03-01T10:15:00Z")));
+
+        mockMvc.perform(get("/v1/api/cars/1/hold"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buyerId").value(7));
+    }
+}
@@ -0,0 +1,88 @@
+package com.hcltech.car_purcharse_service.controller;
+
+import com.hcltech.car_purcharse_service.config.SecurityConfig;
+import com.hcltech.car_purcharse_service.dto.PricePointDto;
+import com.hcltech.car_purcharse_service.jwt.JwtFilter;
+import com.hcltech.car_purcharse_service.jwt.JwtUtil;
+import com.hcltech.car_purcharse_service.jwt.MyUserDetailsService;
+import com.hcltech.car_purcharse_service.service.CarPriceHistoryService;
+import com.hcltech.car_purcharse_service.service.ExportFormat;
+import com.hcltech.car_purcharse_service.service.ExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CarPriceHistoryController.class)
+@AutoConfigureMockMvc
+@Import({JwtUtil.class, JwtFilter.class, SecurityConfig.class})
+@WithMockUser(username = "testuser", roles = {"USER", "ADMIN"})
+class CarPriceHistoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CarPriceHistoryService carPriceHistoryService;
+
+    @MockitoBean
+    private ExportService exportService;
+
+    @MockitoBean
+    private MyUserDetailsService myUserDetailsService;
+
+    @Test
+    void getHistory_parsesTheRange() throws Exception {
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+        when(carPriceHistoryService.getHistory(eq(1), eq(from), isNull()))
+                .thenReturn(List.of(new PricePointDto(1, Instant.parse("2025-01-02T00:00:00Z"), 14500.0)));
+
+        mockMvc.perform(get("/v1/api/cars/1/price-history").param("from", "2025-01-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].carId").value(1))
+                .andExpect(jsonPath("$[0].price").value(14500.0));
+    }
+
+    @Test
+    void getHistory_invertedRange_isBadRequest() throws Exception {
+        when(carPriceHistoryService.getHistory(eq(1), any(), any()))
+                .thenThrow(new IllegalArgumentException("'from' must not be after 'to'"));
+
+        mockMvc.perform(get("/v1/api/cars/1/price-history")
+                        .param("from", "2025-02-01T00:00:00Z").param("to", "2025-01-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void export_streamsCsv() throws Exception {
+        StreamingResponseBody body = out -> out.write("carId,changedAt,price\n".getBytes(StandardCharsets.UTF_8));
+        when(exportService.exportPriceHistory(ExportFormat.CSV)).thenReturn(body);
+
+        MvcResult result = mockMvc.perform(get("/v1/api/cars/price-history/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"car-price-history.csv\""))
+                .andExpect(content().string("carId,changedAt,price\n"));
+    }
+}
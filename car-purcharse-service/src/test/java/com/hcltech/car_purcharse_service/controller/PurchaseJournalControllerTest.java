@@ -0,0 +1,51 @@
+package com.hcltech.car_purcharse_service.controller;
+
+import com.hcltech.car_purcharse_service.config.SecurityConfig;
+import com.hcltech.car_purcharse_service.dto.PurchaseReconciliationDto;
+import com.hcltech.car_purcharse_service.jwt.JwtFilter;
+import com.hcltech.car_purcharse_service.jwt.JwtUtil;
+import com.hcltech.car_purcharse_service.jwt.MyUserDetailsService;
+import com.hcltech.car_purcharse_service.service.PurchaseReconciliationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(PurchaseJournalController.class)
+@AutoConfigureMockMvc
+@Import({JwtUtil.class, JwtFilter.class, SecurityConfig.class})
+@WithMockUser(username = "testuser", roles = {"USER", "ADMIN"})
+class PurchaseJournalControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PurchaseReconciliationService purchaseReconciliationService;
+
+    @MockitoBean
+    private MyUserDetailsService myUserDetailsService;
+
+    @Test
+    void getReconciliation_returnsTheReport() throws Exception {
+        when(purchaseReconciliationService.reconcile()).thenReturn(new PurchaseReconciliationDto(
+                120, 1, 118, 4, 2, 1, 1, List.of(3, 9), List.of(44), List.of(17)));
+
+        mockMvc.perform(get("/v1/api/purchase-journal/reconciliation"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.journalEntries").value(120))
+                .andExpect(jsonPath("$.corruptEntries").value(1))
+                .andExpect(jsonPath("$.missingFromJournal[1]").value(9))
+                .andExpect(jsonPath("$.mismatched[0]").value(17));
+    }
+}
@@ -2,12 +2,23 @@ package com.hcltech.car_purcharse_service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hcltech.car_purcharse_service.config.SecurityConfig;
+import com.hcltech.car_purcharse_service.dto.BuyerDto;
+import com.hcltech.car_purcharse_service.dto.BuyerSummaryDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarBatchItemDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarBatchResultDto;
 import com.hcltech.car_purcharse_service.dto.PurchasedCarDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarPageDto;
 import com.hcltech.car_purcharse_service.dto.PurchasedCarResponseDto;
+import com.hcltech.car_purcharse_service.exception.CarAlreadySoldException;
 import com.hcltech.car_purcharse_service.jwt.JwtFilter;
 import com.hcltech.car_purcharse_service.jwt.JwtUtil;
 import com.hcltech.car_purcharse_service.jwt.MyUserDetailsService; // Import MyUserDetailsService
 import com.hcltech.car_purcharse_service.dao.service.PurchasedCarDaoService;
+import com.hcltech.car_purcharse_service.service.ExportFormat;
+import com.hcltech.car_purcharse_service.service.ExportService;
+import com.hcltech.car_purcharse_service.service.PurchaseExpansion;
+import com.hcltech.car_purcharse_service.service.PurchasedCarBatchService;
+import com.hcltech.car_purcharse_service.service.PurchasedCarExpansionService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach; // Import BeforeEach
 import org.mockito.Mockito;
@@ -19,15 +30,21 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(PurchasedCarController.class) // <--- Changed from @SpringBootTest
@@ -42,6 +59,15 @@ public class PurchasedCarControllerTest {
     @MockitoBean
     private PurchasedCarDaoService purchasedCarDaoService;
 
+    @MockitoBean
+    private ExportService exportService;
+
+    @MockitoBean
+    private PurchasedCarBatchService purchasedCarBatchService;
+
+    @MockitoBean
+    private PurchasedCarExpansionService purchasedCarExpansionService;
+
     // ADD THIS LINE: Mock MyUserDetailsService as it's a dependency for JwtFilter
     @MockitoBean
     private MyUserDetailsService myUserDetailsService;
@@ -56,6 +82,60 @@ public class PurchasedCarControllerTest {
     void setUp() {
         sampleResponse = new PurchasedCarResponseDto(1, 1, 2, 3, LocalDate.of(2024, 5, 20));
         sampleDto = new PurchasedCarDto(1, 2, 3, LocalDate.of(2024, 5, 20));
+        Mockito.when(purchasedCarExpansionService.expand(any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testCreatePurchasedCar_AlreadySold_IsConflict() throws Exception {
+        Mockito.when(purchasedCarDaoService.createPurchasedCar(any(PurchasedCarDto.class)))
+                .thenThrow(new CarAlreadySoldException("Car with ID 3 is no longer available"));
+
+        mockMvc.perform(post("/v1/api/purchased-cars/")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(sampleDto)))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Car with ID 3 is no longer available"));
+    }
+
+    @Test
+    void testCreatePurchasedCarsBatch() throws Exception {
+        Mockito.when(purchasedCarBatchService.createPurchasedCars(any()))
+                .thenReturn(new PurchasedCarBatchResultDto(2, 1, 1, List.of(
+                        new PurchasedCarBatchItemDto(0, 3, 10, null),
+                        new PurchasedCarBatchItemDto(1, 4, null, "Car with ID 4 is no longer available"))));
+
+        mockMvc.perform(post("/v1/api/purchased-cars/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"buyerId\":1,\"sellerId\":2,\"carId\":3},{\"buyerId\":1,\"sellerId\":2,\"carId\":4}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.items[0].purchasedCarId").value(10))
+                .andExpect(jsonPath("$.items[1].error").value("Car with ID 4 is no longer available"));
+    }
+
+    @Test
+    void testGetPurchasedCarsBetween() throws Exception {
+        LocalDate from = LocalDate.of(2024, 4, 1);
+        LocalDate to = LocalDate.of(2024, 6, 30);
+        Mockito.when(purchasedCarDaoService.getPurchasedCarsBetween(from, to, "abc", 50))
+                .thenReturn(new PurchasedCarPageDto(List.of(sampleResponse), 1, "def", true));
+
+        mockMvc.perform(get("/v1/api/purchased-cars/range")
+                        .param("from", "2024-04-01").param("to", "2024-06-30")
+                        .param("cursor", "abc").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].purchaseDate").value("2024-05-20"))
+                .andExpect(jsonPath("$.nextCursor").value("def"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void testGetPurchasedCarsBetween_ReversedRange_IsBadRequest() throws Exception {
+        Mockito.when(purchasedCarDaoService.getPurchasedCarsBetween(any(), any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("'from' must not be after 'to'"));
+
+        mockMvc.perform(get("/v1/api/purchased-cars/range").param("from", "2024-07-01").param("to", "2024-06-30"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -81,6 +161,31 @@ public class PurchasedCarControllerTest {
                 .andExpect(jsonPath("$[0].id").value(1));
     }
 
+    @Test
+    void testGetAllPurchasedCars_Expanded() throws Exception {
+        Mockito.when(purchasedCarDaoService.getAllPurchasedCars()).thenReturn(List.of(sampleResponse));
+        Mockito.when(purchasedCarExpansionService.expand(any(), eq(EnumSet.of(PurchaseExpansion.BUYER, PurchaseExpansion.CAR))))
+                .thenAnswer(invocation -> {
+                    List<PurchasedCarResponseDto> purchases = invocation.getArgument(0);
+                    purchases.get(0).setBuyer(new BuyerSummaryDto(1, "Jane", "Doe", "jane@example.com", "5550100"));
+                    return purchases;
+                });
+
+        mockMvc.perform(get("/v1/api/purchased-cars/all").param("expand", "buyer,car"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].buyer.firstName").value("Jane"))
+                .andExpect(jsonPath("$[0].buyer.password").doesNotExist())
+                .andExpect(jsonPath("$[0].seller").doesNotExist());
+    }
+
+    @Test
+    void testGetAllPurchasedCars_UnknownExpand_IsBadRequest() throws Exception {
+        Mockito.when(purchasedCarDaoService.getAllPurchasedCars()).thenReturn(List.of(sampleResponse));
+
+        mockMvc.perform(get("/v1/api/purchased-cars/all").param("expand", "reviews"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetPurchasedCarById() throws Exception {
         Mockito.when(purchasedCarDaoService.getPurchasedCarById(1)).thenReturn(sampleResponse);
@@ -142,4 +247,19 @@ public class PurchasedCarControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testExportPurchasedCarsAsNdjson() throws Exception {
+        StreamingResponseBody body = out -> out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+        Mockito.when(exportService.exportPurchasedCars(ExportFormat.NDJSON)).thenReturn(body);
+
+        MvcResult result = mockMvc.perform(get("/v1/api/purchased-cars/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+}
@@ -2,11 +2,13 @@ package com.hcltech.car_purcharse_service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hcltech.car_purcharse_service.config.SecurityConfig;
+import com.hcltech.car_purcharse_service.dao.service.AggregateVersionDaoService;
 import com.hcltech.car_purcharse_service.dto.ReviewDto;
 import com.hcltech.car_purcharse_service.dao.service.ReviewDaoService;
 import com.hcltech.car_purcharse_service.jwt.JwtFilter;
 import com.hcltech.car_purcharse_service.jwt.JwtUtil;
 import com.hcltech.car_purcharse_service.jwt.MyUserDetailsService;
+import com.hcltech.car_purcharse_service.utils.AggregateVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,12 +34,15 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(ReviewController.class)
 @AutoConfigureMockMvc
 @WithMockUser(username = "testuser", roles = {"USER", "ADMIN"})
-@Import({JwtUtil.class, JwtFilter.class, SecurityConfig.class})
+@Import({JwtUtil.class, JwtFilter.class, SecurityConfig.class, AggregateVersions.class})
 class ReviewControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @MockitoBean
+    private AggregateVersionDaoService aggregateVersionDaoService;
+
     @MockitoBean
     private ReviewDaoService reviewDaoService;
 
@@ -188,4 +193,17 @@ class ReviewControllerTest {
 
         verify(reviewDaoService, times(1)).deleteReview(99);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllReviews_MatchingETag_ReturnsNotModifiedWithoutServiceCall() throws Exception {
+        when(reviewDaoService.getAllReviews()).thenReturn(List.of(reviewDto1));
+
+        String etag = mockMvc.perform(get("/v1/api/reviews"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/v1/api/reviews").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(reviewDaoService, times(1)).getAllReviews();
+    }
+}
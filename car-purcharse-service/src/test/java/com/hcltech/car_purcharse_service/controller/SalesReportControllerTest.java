@@ -0,0 +1,77 @@
+package com.hcltech.car_purcharse_service.controller;
+
+import com.hcltech.car_purcharse_service.config.SecurityConfig;
+import com.hcltech.car_purcharse_service.dto.MakeSalesDto;
+import com.hcltech.car_purcharse_service.dto.SalesPeriodDto;
+import com.hcltech.car_purcharse_service.dto.SellerSalesDto;
+import com.hcltech.car_purcharse_service.jwt.JwtFilter;
+import com.hcltech.car_purcharse_service.jwt.JwtUtil;
+import com.hcltech.car_purcharse_service.jwt.MyUserDetailsService;
+import com.hcltech.car_purcharse_service.service.SalesReportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SalesReportController.class)
+@AutoConfigureMockMvc
+@Import({JwtUtil.class, JwtFilter.class, SecurityConfig.class})
+@WithMockUser(username = "testuser", roles = {"USER", "ADMIN"})
+class SalesReportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SalesReportService salesReportService;
+
+    @MockitoBean
+    private MyUserDetailsService myUserDetailsService;
+
+    @Test
+    void getSellerSales_parsesTheRange() throws Exception {
+        LocalDate from = LocalDate.of(2026, 9, 1);
+        LocalDate to = LocalDate.of(2026, 9, 30);
+        when(salesReportService.getSellerSales(2, from, to)).thenReturn(new SellerSalesDto(2, from, to, 3, 45000.0,
+                List.of(new SalesPeriodDto(LocalDate.of(2026, 9, 14), 3, 45000.0))));
+
+        mockMvc.perform(get("/v1/api/sales/sellers/2").param("from", "2026-09-01").param("to", "2026-09-30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.salesCount").value(3))
+                .andExpect(jsonPath("$.revenue").value(45000.0))
+                .andExpect(jsonPath("$.days[0].period").value("2026-09-14"));
+    }
+
+    @Test
+    void getMakeSales_defaultsTheRange() throws Exception {
+        when(salesReportService.getMakeSales(isNull(), isNull()))
+                .thenReturn(List.of(new MakeSalesDto("Kia", 4, 52000.0)));
+
+        mockMvc.perform(get("/v1/api/sales/makes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].make").value("Kia"));
+    }
+
+    @Test
+    void getSellerSales_invalidRange_isBadRequest() throws Exception {
+        when(salesReportService.getSellerSales(eq(2), any(), any()))
+                .thenThrow(new IllegalArgumentException("'from' must not be after 'to'"));
+
+        mockMvc.perform(get("/v1/api/sales/sellers/2").param("from", "2026-10-01").param("to", "2026-09-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
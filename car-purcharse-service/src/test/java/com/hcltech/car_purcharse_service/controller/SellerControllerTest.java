@@ -2,11 +2,13 @@ package com.hcltech.car_purcharse_service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hcltech.car_purcharse_service.config.SecurityConfig;
+import com.hcltech.car_purcharse_service.dao.service.AggregateVersionDaoService;
 import com.hcltech.car_purcharse_service.dto.SellerDto;
 import com.hcltech.car_purcharse_service.jwt.JwtFilter;
 import com.hcltech.car_purcharse_service.jwt.JwtUtil;
 import com.hcltech.car_purcharse_service.jwt.MyUserDetailsService;
 import com.hcltech.car_purcharse_service.service.SellerService;
+import com.hcltech.car_purcharse_service.utils.AggregateVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +26,8 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,12 +40,15 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(SellerController.class)
 @AutoConfigureMockMvc
 @WithMockUser(username = "testuser", roles = {"BUYER"})
-@Import({JwtUtil.class, JwtFilter.class, SecurityConfig.class})
+@Import({JwtUtil.class, JwtFilter.class, SecurityConfig.class, AggregateVersions.class})
 public class SellerControllerTest {
 
     @Autowired
     private MockMvc mockMvc; // Used to perform HTTP requests to the controller
 
+    @MockitoBean
+    private AggregateVersionDaoService aggregateVersionDaoService;
+
     @MockitoBean
     private SellerService sellerService; // Mock the SellerService dependency
 
@@ -178,4 +185,17 @@ public class SellerControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void findSellerById_MatchingETag_ReturnsNotModifiedWithoutServiceCall() throws Exception {
+        when(sellerService.findSellerById(1)).thenReturn(sellerDto);
+
+        String etag = mockMvc.perform(get("/v1/api/sellers/{id}", 1))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/v1/api/sellers/{id}", 1).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        verify(sellerService, times(1)).findSellerById(1);
+    }
 }
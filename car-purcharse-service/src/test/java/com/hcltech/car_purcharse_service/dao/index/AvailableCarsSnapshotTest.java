@@ -0,0 +1,82 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AvailableCarsSnapshotTest {
+
+    private AvailableCarsSnapshot availableCarsSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        availableCarsSnapshot = new AvailableCarsSnapshot();
+    }
+
+    @Test
+    @DisplayName("a fresh snapshot should be empty and not loaded")
+    void initialState() {
+        assertThat(availableCarsSnapshot.isLoaded()).isFalse();
+        assertThat(availableCarsSnapshot.get().getCars()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("rebuild should keep only available cars, ordered by id")
+    void rebuild_keepsAvailableCarsById() {
+        availableCarsSnapshot.rebuild(List.of(
+                new CarDto(3, "Kia", "Rio", 2020, 9000.0, true, 1),
+                new CarDto(1, "Ford", "Focus", 2018, 8000.0, true, 1),
+                new CarDto(2, "Fiat", "Panda", 2019, 7000.0, false, 2)));
+
+        assertThat(availableCarsSnapshot.isLoaded()).isTrue();
+        assertThat(availableCarsSnapshot.get().getCars()).extracting(CarDto::getId).containsExactly(1, 3);
+    }
+
+    @Test
+    @DisplayName("writes should publish a new version and leave earlier snapshots untouched")
+    void writes_copyOnWrite() {
+        availableCarsSnapshot.rebuild(List.of(new CarDto(1, "Ford", "Focus", 2018, 8000.0, true, 1)));
+        AvailableCarsSnapshot.Snapshot before = availableCarsSnapshot.get();
+
+        availableCarsSnapshot.onCarSaved(new CarDto(2, "Kia", "Rio", 2020, 9000.0, true, 1));
+        availableCarsSnapshot.onCarSaved(new CarDto(1, "Ford", "Focus", 2018, 8000.0, false, 1));
+        availableCarsSnapshot.onCarDeleted(5);
+        AvailableCarsSnapshot.Snapshot after = availableCarsSnapshot.get();
+
+        assertThat(before.getCars()).extracting(CarDto::getId).containsExactly(1);
+        assertThat(after.getCars()).extracting(CarDto::getId).containsExactly(2);
+        assertThat(after.getVersion()).isEqualTo(before.getVersion() + 2);
+        assertThatThrownBy(() -> after.getCars().add(new CarDto())).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("saving an unavailable car that was never listed should not bump the version")
+    void onCarSaved_unlistedUnavailableCar_isNoOp() {
+        availableCarsSnapshot.rebuild(List.of());
+        long version = availableCarsSnapshot.get().getVersion();
+
+        availableCarsSnapshot.onCarSaved(new CarDto(7, "Seat", "Leon", 2021, 15000.0, false, 3));
+
+        assertThat(availableCarsSnapshot.get().getVersion()).isEqualTo(version);
+    }
+
+    @Test
+    @DisplayName("onCarsSaved should apply a whole batch as one new version")
+    void onCarsSaved_singleVersion() {
+        availableCarsSnapshot.rebuild(List.of(new CarDto(1, "Ford", "Focus", 2018, 8000.0, true, 1)));
+        long version = availableCarsSnapshot.get().getVersion();
+
+        availableCarsSnapshot.onCarsSaved(List.of(
+                new CarDto(1, "Ford", "Focus", 2018, 7200.0, false, 1),
+                new CarDto(2, "Ford", "Fiesta", 2019, 6300.0, true, 1)));
+
+        assertThat(availableCarsSnapshot.get().getVersion()).isEqualTo(version + 1);
+        assertThat(availableCarsSnapshot.get().getCars()).extracting(CarDto::getId).containsExactly(2);
+    }
+}
@@ -0,0 +1,94 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CarFacetIndexTest {
+
+    private CarFacetIndex carFacetIndex;
+
+    @BeforeEach
+    void setUp() {
+        carFacetIndex = new CarFacetIndex();
+        carFacetIndex.rebuild(List.of(
+                new CarDto(1, "Toyota", "Corolla", 2019, 14000.0, true, 1),
+                new CarDto(2, "Toyota", "Camry", 2021, 24000.0, true, 1),
+                new CarDto(3, "toyota", "Corolla", 2016, 9000.0, false, 2),
+                new CarDto(4, "Honda", "Civic", 2020, 19000.0, true, 2)
+        ));
+    }
+
+    @Test
+    @DisplayName("search should intersect facet bitmaps case-insensitively")
+    void search_combinedFilters_intersects() {
+        CarFacetIndex.FacetResult result = carFacetIndex.search(
+                Map.of(CarFacetIndex.MAKE, "TOYOTA", CarFacetIndex.AVAILABLE, "true"), 10);
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getCarIds()).containsExactly(1, 2);
+    }
+
+    @Test
+    @DisplayName("search should count every facet value within the matching set")
+    void search_countsFacetValues() {
+        CarFacetIndex.FacetResult result = carFacetIndex.search(Map.of(CarFacetIndex.MODEL, "corolla"), 10);
+
+        assertThat(result.getCarIds()).containsExactly(1, 3);
+        assertThat(result.getCounts().get(CarFacetIndex.MAKE)).containsExactly(Map.entry("Toyota", 2));
+        assertThat(result.getCounts().get(CarFacetIndex.YEAR_BAND))
+                .containsOnly(Map.entry("2015-2019", 2));
+        assertThat(result.getCounts().get(CarFacetIndex.PRICE_BAND))
+                .containsOnly(Map.entry("5000-10000", 1), Map.entry("10000-15000", 1));
+        assertThat(result.getCounts().get(CarFacetIndex.AVAILABLE))
+                .containsOnly(Map.entry("true", 1), Map.entry("false", 1));
+    }
+
+    @Test
+    @DisplayName("search with no filters should match the whole catalog and honour the limit")
+    void search_noFilters_matchesAll() {
+        CarFacetIndex.FacetResult result = carFacetIndex.search(Map.of(), 2);
+
+        assertThat(result.getTotal()).isEqualTo(4);
+        assertThat(result.getCarIds()).containsExactly(1, 2);
+        assertThat(result.getCounts().get(CarFacetIndex.MAKE)).containsExactly(Map.entry("Toyota", 3), Map.entry("Honda", 1));
+    }
+
+    @Test
+    @DisplayName("search should return nothing for an unknown facet value")
+    void search_unknownValue_returnsEmpty() {
+        CarFacetIndex.FacetResult result = carFacetIndex.search(Map.of(CarFacetIndex.MAKE, "Lada"), 10);
+
+        assertThat(result.getTotal()).isZero();
+        assertThat(result.getCarIds()).isEmpty();
+        assertThat(result.getCounts().get(CarFacetIndex.MAKE)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("onCarSaved should move a car between facet values and onCarDeleted should drop it")
+    void incrementalUpdates_keepBitmapsCurrent() {
+        carFacetIndex.onCarSaved(new CarDto(4, "Honda", "Civic", 2020, 19000.0, false, 2));
+        carFacetIndex.onCarSaved(new CarDto(5, "Kia", "Rio", 2022, 12000.0, true, 3));
+        carFacetIndex.onCarDeleted(1);
+
+        assertThat(carFacetIndex.search(Map.of(CarFacetIndex.AVAILABLE, "true"), 10).getCarIds()).containsExactly(2, 5);
+        assertThat(carFacetIndex.search(Map.of(CarFacetIndex.MODEL, "Corolla"), 10).getCarIds()).containsExactly(3);
+        assertThat(carFacetIndex.search(Map.of(), 10).getCounts().get(CarFacetIndex.MAKE)).containsKey("Kia");
+    }
+
+    @Test
+    @DisplayName("yearBand and priceBand should bucket values into labelled ranges")
+    void bands() {
+        assertThat(CarFacetIndex.yearBand(2018)).isEqualTo("2015-2019");
+        assertThat(CarFacetIndex.yearBand(2020)).isEqualTo("2020-2024");
+        assertThat(CarFacetIndex.priceBand(4999.99)).isEqualTo("0-5000");
+        assertThat(CarFacetIndex.priceBand(15000)).isEqualTo("15000-20000");
+        assertThat(CarFacetIndex.priceBand(250000)).isEqualTo("100000+");
+    }
+}
@@ -0,0 +1,123 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.hcltech.car_purcharse_service.dao.service.CarDaoService;
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.event.CarChangedEvent;
+import com.hcltech.car_purcharse_service.event.CarPurchasedEvent;
+import com.hcltech.car_purcharse_service.event.CarsImportedEvent;
+import com.hcltech.car_purcharse_service.event.CarsPurchasedEvent;
+import com.hcltech.car_purcharse_service.model.Car;
+import com.hcltech.car_purcharse_service.service.CarService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CarIndexUpdaterTest {
+
+    @Mock
+    private CarIndex firstIndex;
+
+    @Mock
+    private CarIndex secondIndex;
+
+    @Mock
+    private CarDaoService carDaoService;
+
+    @Mock
+    private CarService carService;
+
+    private CarIndexUpdater carIndexUpdater;
+
+    @BeforeEach
+    void setUp() {
+        carIndexUpdater = new CarIndexUpdater(List.of(firstIndex, secondIndex), carDaoService, carService);
+    }
+
+    @Test
+    @DisplayName("rebuildAll should load the catalog once and rebuild every index from it")
+    void rebuildAll_loadsOnceAndRebuildsEveryIndex() {
+        List<CarDto> dtos = List.of(new CarDto(1, "Kia", "Rio", 2020, 9000.0, true, 1));
+        when(carDaoService.getAllAsDto()).thenReturn(dtos);
+
+        carIndexUpdater.rebuildAll();
+
+        verify(carDaoService, times(1)).getAllAsDto();
+        verify(firstIndex).rebuild(dtos);
+        verify(secondIndex).rebuild(dtos);
+    }
+
+    @Test
+    @DisplayName("onCarChanged should forward saved and deleted cars to every index")
+    void onCarChanged_forwardsToEveryIndex() {
+        CarDto saved = new CarDto(2, "Kia", "Ceed", 2021, 15000.0, true, 1);
+
+        carIndexUpdater.onCarChanged(CarChangedEvent.saved(saved));
+        carIndexUpdater.onCarChanged(CarChangedEvent.deleted(3));
+
+        verify(firstIndex).onCarSaved(saved);
+        verify(secondIndex).onCarSaved(saved);
+        verify(firstIndex).onCarDeleted(3);
+        verify(secondIndex).onCarDeleted(3);
+    }
+
+    @Test
+    @DisplayName("onCarPurchased should reload the car and forward its new state to every index")
+    void onCarPurchased_reloadsAndForwards() {
+        Car car = new Car();
+        CarDto sold = new CarDto(4, "Kia", "Rio", 2020, 9000.0, false, 1);
+        when(carDaoService.getOneById(4)).thenReturn(car);
+        when(carService.toDto(car)).thenReturn(sold);
+
+        carIndexUpdater.onCarPurchased(new CarPurchasedEvent(4));
+
+        verify(firstIndex).onCarSaved(sold);
+        verify(secondIndex).onCarSaved(sold);
+    }
+
+    @Test
+    @DisplayName("onCarsPurchased should reload the sold cars in one query and forward them as one batch")
+    void onCarsPurchased_reloadsOnceAndForwardsBatch() {
+        List<CarDto> sold = List.of(new CarDto(4, "Kia", "Rio", 2020, 9000.0, false, 1),
+                new CarDto(6, "Kia", "Ceed", 2021, 15000.0, false, 1));
+        when(carDaoService.getByIdsAsDto(List.of(4, 6))).thenReturn(sold);
+
+        carIndexUpdater.onCarsPurchased(new CarsPurchasedEvent(List.of(4, 6)));
+
+        verify(carDaoService, times(1)).getByIdsAsDto(any());
+        verify(firstIndex).onCarsSaved(sold);
+        verify(secondIndex).onCarsSaved(sold);
+    }
+
+    @Test
+    @DisplayName("onCarsImported should rebuild every index from the reloaded catalog")
+    void onCarsImported_rebuildsEveryIndex() {
+        List<CarDto> dtos = List.of(new CarDto(5, "Seat", "Leon", 2022, 21000.0, true, 2));
+        when(carDaoService.getAllAsDto()).thenReturn(dtos);
+
+        carIndexUpdater.onCarsImported(new CarsImportedEvent(1));
+
+        verify(firstIndex).rebuild(dtos);
+        verify(secondIndex).rebuild(dtos);
+    }
+
+    @Test
+    @DisplayName("multi-car events should reach every index as one batch")
+    void onCarChanged_batch() {
+        List<CarDto> saved = List.of(new CarDto(2, "Kia", "Ceed", 2021, 15000.0, true, 1),
+                new CarDto(3, "Kia", "Rio", 2019, 9000.0, true, 1));
+
+        carIndexUpdater.onCarChanged(new CarChangedEvent(saved, List.of()));
+
+        verify(firstIndex).onCarsSaved(saved);
+        verify(secondIndex).onCarsSaved(saved);
+        verify(firstIndex, never()).onCarSaved(any());
+    }
+}
@@ -0,0 +1,103 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CarRangeIndexTest {
+
+    private static final double ANY_MIN_PRICE = Double.NEGATIVE_INFINITY;
+    private static final double ANY_MAX_PRICE = Double.POSITIVE_INFINITY;
+
+    private CarRangeIndex carRangeIndex;
+
+    @BeforeEach
+    void setUp() {
+        carRangeIndex = new CarRangeIndex();
+        carRangeIndex.rebuild(List.of(
+                new CarDto(1, "Ford", "Fiesta", 2017, 7500.0, true, 1),
+                new CarDto(2, "Seat", "Ibiza", 2020, 11000.0, true, 1),
+                new CarDto(3, "Skoda", "Fabia", 2019, 8500.0, true, 2),
+                new CarDto(4, "VW", "Polo", 2021, 9900.0, false, 2),   // not available
+                new CarDto(5, "Kia", "Rio", 2018, 8500.0, true, 2),
+                new CarDto(6, "Opel", "Corsa", 2022, 13000.0, true, 3),
+                new CarDto(7, "Fiat", "Panda", 2019, null, true, 3)      // no price
+        ));
+    }
+
+    @Test
+    @DisplayName("price range plus minimum year should return cheapest first with id tie-break")
+    void search_priceRangeCheapestFirst() {
+        int[] ids = carRangeIndex.search(8000, 12000, 2018, Integer.MAX_VALUE, CarRangeIndex.SortOrder.PRICE_ASC, 10);
+
+        assertThat(ids).containsExactly(3, 5, 2);
+    }
+
+    @Test
+    @DisplayName("descending orders should scan backwards and honour the limit")
+    void search_descendingWithLimit() {
+        assertThat(carRangeIndex.search(ANY_MIN_PRICE, ANY_MAX_PRICE, Integer.MIN_VALUE, Integer.MAX_VALUE,
+                CarRangeIndex.SortOrder.PRICE_DESC, 2)).containsExactly(6, 2);
+        assertThat(carRangeIndex.search(ANY_MIN_PRICE, 12000, 2018, 2020,
+                CarRangeIndex.SortOrder.YEAR_DESC, 10)).containsExactly(2, 3, 5);
+    }
+
+    @Test
+    @DisplayName("only available cars with a price should be indexed")
+    void rebuild_skipsUnavailableAndUnpriced() {
+        assertThat(carRangeIndex.size()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("onCarSaved should re-position an updated car and drop it when it becomes unavailable")
+    void incrementalUpdates() {
+        carRangeIndex.onCarSaved(new CarDto(6, "Opel", "Corsa", 2022, 6000.0, true, 3));
+        carRangeIndex.onCarSaved(new CarDto(8, "Dacia", "Sandero", 2023, 7000.0, true, 3));
+        carRangeIndex.onCarSaved(new CarDto(3, "Skoda", "Fabia", 2019, 8500.0, false, 2));
+        carRangeIndex.onCarDeleted(1);
+
+        assertThat(carRangeIndex.search(ANY_MIN_PRICE, ANY_MAX_PRICE, Integer.MIN_VALUE, Integer.MAX_VALUE,
+                CarRangeIndex.SortOrder.PRICE_ASC, 10)).containsExactly(6, 8, 5, 2);
+        assertThat(carRangeIndex.search(ANY_MIN_PRICE, ANY_MAX_PRICE, Integer.MIN_VALUE, Integer.MAX_VALUE,
+                CarRangeIndex.SortOrder.YEAR_ASC, 10)).containsExactly(5, 2, 6, 8);
+    }
+
+    @Test
+    @DisplayName("incremental inserts should agree with a brute-force sort over random data")
+    void search_matchesBruteForce() {
+        CarRangeIndex index = new CarRangeIndex();
+        index.rebuild(List.of());
+        Random random = new Random(42);
+        List<CarDto> cars = new ArrayList<>();
+        for (int id = 1; id <= 500; id++) {
+            CarDto car = new CarDto(id, "Make", "Model", 2000 + random.nextInt(25), (double) (1000 + random.nextInt(40) * 500), true, 1);
+            cars.add(car);
+            index.onCarSaved(car);
+        }
+
+        int[] expected = cars.stream()
+                .filter(car -> car.getPrice() >= 8000 && car.getPrice() <= 12000 && car.getYear() >= 2018)
+                .sorted(Comparator.comparing(CarDto::getPrice).thenComparing(CarDto::getId))
+                .limit(25)
+                .mapToInt(CarDto::getId)
+                .toArray();
+        assertThat(index.search(8000, 12000, 2018, Integer.MAX_VALUE, CarRangeIndex.SortOrder.PRICE_ASC, 25))
+                .containsExactly(expected);
+    }
+
+    @Test
+    @DisplayName("SortOrder.from should accept lower case names and reject unknown ones")
+    void sortOrderFrom() {
+        assertThat(CarRangeIndex.SortOrder.from("year_desc")).isEqualTo(CarRangeIndex.SortOrder.YEAR_DESC);
+        assertThrows(IllegalArgumentException.class, () -> CarRangeIndex.SortOrder.from("mileage"));
+    }
+}
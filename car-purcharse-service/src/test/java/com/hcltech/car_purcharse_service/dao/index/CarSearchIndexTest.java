@@ -0,0 +1,112 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.event.ReviewChangedEvent;
+import com.hcltech.car_purcharse_service.model.Review;
+import com.hcltech.car_purcharse_service.repository.ReviewRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CarSearchIndexTest {
+
+    @TempDir
+    Path indexDir;
+
+    private ReviewRepository reviewRepository;
+    private CarSearchIndex carSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        reviewRepository = mock(ReviewRepository.class);
+        when(reviewRepository.findAllCarFeedback()).thenReturn(List.of(
+                new Object[]{2, "Quiet hybrid SUV, great on fuel"},
+                new Object[]{3, "Roomy family SUV"}
+        ));
+        carSearchIndex = new CarSearchIndex(reviewRepository, indexDir.toString());
+        carSearchIndex.rebuild(List.of(
+                new CarDto(1, "Volkswagen", "Golf", 2019, 14000.0, true, 1),
+                new CarDto(2, "Toyota", "RAV4", 2021, 28000.0, true, 1),
+                new CarDto(3, "Kia", "Sorento", 2020, 26000.0, false, 2),
+                new CarDto(4, "Volkswagen", "Polo", 2017, 9000.0, true, 2)
+        ));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        carSearchIndex.close();
+    }
+
+    @Test
+    @DisplayName("a misspelled make should still match within the edit distance")
+    void search_fuzzyMatchesMisspelledMake() {
+        assertThat(carSearchIndex.search("Volkswagon", false, 10)).containsExactlyInAnyOrder(1, 4);
+    }
+
+    @Test
+    @DisplayName("cars matching more query terms should rank first")
+    void search_ranksByRelevance() {
+        assertThat(carSearchIndex.search("hybrid SUV", false, 10)).containsExactly(2, 3);
+        assertThat(carSearchIndex.search("volkswagen golf", false, 10)).first().isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("availableOnly should filter out sold cars and a four-digit term should match the year")
+    void search_availableOnlyAndYear() {
+        assertThat(carSearchIndex.search("suv", true, 10)).containsExactly(2);
+        assertThat(carSearchIndex.search("2017", false, 10)).containsExactly(4);
+    }
+
+    @Test
+    @DisplayName("writes should be visible to the next search without a rebuild")
+    void incrementalUpdates_areNearRealTime() {
+        when(reviewRepository.findByCarId(5)).thenReturn(List.of());
+        when(reviewRepository.findByCarId(4)).thenReturn(List.of(review("Tiny city car, ideal hatchback")));
+
+        carSearchIndex.onCarSaved(new CarDto(5, "Skoda", "Octavia", 2022, 21000.0, true, 3));
+        carSearchIndex.onReviewChanged(new ReviewChangedEvent(4));
+        carSearchIndex.onCarDeleted(1);
+
+        assertThat(carSearchIndex.search("octavia", false, 10)).containsExactly(5);
+        assertThat(carSearchIndex.search("hatchback", false, 10)).containsExactly(4);
+        assertThat(carSearchIndex.search("golf", false, 10)).isEmpty();
+        assertThat(carSearchIndex.size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("a query without searchable terms should return nothing")
+    void search_emptyQuery() {
+        assertThat(carSearchIndex.search("  !! ", false, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("onCarsSaved should load the reviews of the whole batch in one query")
+    void onCarsSaved_batch() {
+        when(reviewRepository.findCarFeedbackByCarIds(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{6, "Seven seats, very practical"}));
+
+        carSearchIndex.onCarsSaved(List.of(
+                new CarDto(6, "Skoda", "Kodiaq", 2022, 32000.0, true, 3),
+                new CarDto(7, "Skoda", "Karoq", 2021, 27000.0, true, 3)));
+
+        assertThat(carSearchIndex.search("practical", false, 10)).containsExactly(6);
+        assertThat(carSearchIndex.search("skoda", false, 10)).containsExactlyInAnyOrder(6, 7);
+    }
+
+    private Review review(String feedback) {
+        Review review = new Review();
+        review.setFeedback(feedback);
+        return review;
+    }
+}
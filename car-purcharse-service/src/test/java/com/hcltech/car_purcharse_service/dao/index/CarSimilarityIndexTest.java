@@ -0,0 +1,103 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CarSimilarityIndexTest {
+
+    private CarSimilarityIndex carSimilarityIndex;
+
+    private final CarDto reference = new CarDto(1, "Toyota", "Corolla", 2020, 15000.0, true, 1);
+
+    @BeforeEach
+    void setUp() {
+        carSimilarityIndex = new CarSimilarityIndex();
+        carSimilarityIndex.rebuild(List.of(
+                reference,
+                new CarDto(2, "Toyota", "Corolla", 2021, 15500.0, true, 1),
+                new CarDto(3, "toyota ", "Camry", 2020, 15000.0, true, 2),
+                new CarDto(4, "Toyota", "Corolla", 2012, 6000.0, true, 2),
+                new CarDto(5, "Toyota", "Corolla", 2020, 15000.0, false, 2),   // sold
+                new CarDto(6, "Honda", "Civic", 2020, 15000.0, true, 3),
+                new CarDto(7, "Honda", "Accord", 2015, 9000.0, true, 3),
+                new CarDto(8, "Toyota", "Yaris", 2020, null, true, 3)           // no price
+        ));
+    }
+
+    @Test
+    @DisplayName("similar should rank same-make cars by distance and leave out the car itself and unlisted cars")
+    void similar_sameMakeNearestFirst() {
+        assertThat(carSimilarityIndex.similar(reference, 3)).containsExactly(2, 3, 4);
+    }
+
+    @Test
+    @DisplayName("other makes should only fill up the result after every car of the same make")
+    void similar_fallsBackToOtherMakes() {
+        assertThat(carSimilarityIndex.similar(reference, 5)).containsExactly(2, 3, 4, 6, 7);
+    }
+
+    @Test
+    @DisplayName("saving and deleting cars should move them in and out of the index")
+    void onCarSavedAndDeleted_updateIndex() {
+        carSimilarityIndex.onCarSaved(new CarDto(5, "Toyota", "Corolla", 2020, 15000.0, true, 2));
+        carSimilarityIndex.onCarSaved(new CarDto(2, "Honda", "Corolla", 2021, 15500.0, true, 1));
+        carSimilarityIndex.onCarDeleted(4);
+
+        assertThat(carSimilarityIndex.similar(reference, 3)).containsExactly(5, 3, 2);
+        assertThat(carSimilarityIndex.size()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("a reference that is not listed, or lacks a price, should still get recommendations")
+    void similar_unlistedReference() {
+        CarDto sold = new CarDto(5, "Honda", "Civic", 2019, null, false, 2);
+
+        assertThat(carSimilarityIndex.similar(sold, 1)).containsExactly(6);
+        assertThat(carSimilarityIndex.similar(new CarDto(null, null, null, 0, null, null, null), 3)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("the partitioned scan should agree with a brute-force ranking over random catalogs")
+    void similar_matchesBruteForce() {
+        Random random = new Random(42);
+        String[] makes = {"Toyota", "Honda", "Ford", "Kia"};
+        String[] models = {"A", "B", "C"};
+        List<CarDto> cars = new ArrayList<>();
+        for (int id = 1; id <= 2_000; id++) {
+            cars.add(new CarDto(id, makes[random.nextInt(makes.length)], models[random.nextInt(models.length)],
+                    2005 + random.nextInt(20), 3000.0 + random.nextInt(60_000), random.nextInt(10) > 0, 1));
+        }
+        CarSimilarityIndex index = new CarSimilarityIndex();
+        index.rebuild(cars);
+
+        for (int probe = 0; probe < 50; probe++) {
+            CarDto query = cars.get(random.nextInt(cars.size()));
+            int[] expected = cars.stream()
+                    .filter(car -> Boolean.TRUE.equals(car.getIsAvailable()) && !car.getId().equals(query.getId())
+                            && car.getMake().equals(query.getMake()))
+                    .sorted(Comparator.comparingDouble((CarDto car) -> distance(query, car)).thenComparing(CarDto::getId))
+                    .limit(10)
+                    .mapToInt(CarDto::getId)
+                    .toArray();
+
+            assertThat(index.similar(query, 10)).containsExactly(expected);
+        }
+    }
+
+    // Same features as the index, computed the slow way
+    private static double distance(CarDto a, CarDto b) {
+        double dy = (float) (b.getYear() / CarSimilarityIndex.YEAR_SCALE) - a.getYear() / CarSimilarityIndex.YEAR_SCALE;
+        double logStep = Math.log(CarSimilarityIndex.PRICE_STEP);
+        double dp = (float) (Math.log(b.getPrice()) / logStep) - Math.log(a.getPrice()) / logStep;
+        return (a.getModel().equals(b.getModel()) ? 0 : CarSimilarityIndex.MODEL_PENALTY) + dy * dy + dp * dp;
+    }
+}
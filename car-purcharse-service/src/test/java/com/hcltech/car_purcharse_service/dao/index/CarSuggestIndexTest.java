@@ -0,0 +1,105 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CarSuggestIndexTest {
+
+    private CarSuggestIndex carSuggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        carSuggestIndex = new CarSuggestIndex(3);
+        carSuggestIndex.rebuild(List.of(
+                new CarDto(1, "Toyota", "Corolla", 2019, 14000.0, true, 1),
+                new CarDto(2, "Toyota", "Corolla", 2020, 16000.0, true, 1),
+                new CarDto(3, "Toyota", "Camry", 2021, 24000.0, true, 2),
+                new CarDto(4, "Tesla", "Model 3", 2022, 38000.0, true, 2),
+                new CarDto(5, "Land Rover", "Defender", 2021, 60000.0, false, 3)
+        ));
+    }
+
+    @Test
+    @DisplayName("suggestions should be ranked by listing count and capped at k")
+    void suggest_ranksByListingCount() {
+        assertThat(carSuggestIndex.suggest("t", 10)).containsExactly("Toyota", "Toyota Corolla", "Tesla");
+        assertThat(carSuggestIndex.suggest("toyota c", 10)).containsExactly("Toyota Corolla", "Toyota Camry");
+        assertThat(carSuggestIndex.suggest("t", 1)).containsExactly("Toyota");
+    }
+
+    @Test
+    @DisplayName("any word of a phrase should match, ignoring case and extra whitespace")
+    void suggest_matchesEveryWordCaseInsensitively() {
+        assertThat(carSuggestIndex.suggest("COR", 10)).containsExactly("Toyota Corolla");
+        assertThat(carSuggestIndex.suggest("  rover ", 10)).containsExactly("Land Rover Defender");
+        assertThat(carSuggestIndex.suggest("rov", 10)).containsExactly("Land Rover", "Land Rover Defender");
+        assertThat(carSuggestIndex.suggest("land   rover d", 10)).containsExactly("Land Rover Defender");
+        assertThat(carSuggestIndex.suggest("model 3", 10)).containsExactly("Tesla Model 3");
+        assertThat(carSuggestIndex.suggest("x", 10)).isEmpty();
+        assertThat(carSuggestIndex.suggest("   ", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("a repeated prefix should be answered with the precomputed list")
+    void suggest_returnsPrecomputedList() {
+        assertThat(carSuggestIndex.suggest("toy", 10)).isSameAs(carSuggestIndex.suggest("TOY", 10));
+    }
+
+    @Test
+    @DisplayName("saves and deletes should update the weights without a rebuild")
+    void incrementalUpdates() {
+        carSuggestIndex.onCarSaved(new CarDto(6, "Tesla", "Model Y", 2023, 45000.0, true, 2));
+        carSuggestIndex.onCarSaved(new CarDto(7, "Tesla", "Model Y", 2023, 46000.0, true, 2));
+        carSuggestIndex.onCarSaved(new CarDto(3, "Toyota", "Corolla", 2021, 24000.0, true, 2));
+        carSuggestIndex.onCarDeleted(4);
+
+        assertThat(carSuggestIndex.suggest("te", 10)).containsExactly("Tesla", "Tesla Model Y");
+        assertThat(carSuggestIndex.suggest("cam", 10)).isEmpty();
+        assertThat(carSuggestIndex.suggest("model", 10)).containsExactly("Tesla Model Y");
+        assertThat(carSuggestIndex.suggest("toyota", 10)).containsExactly("Toyota", "Toyota Corolla");
+    }
+
+    @Test
+    @DisplayName("incremental updates should end in the same trie answers as a full rebuild")
+    void incrementalUpdates_matchRebuild() {
+        String[][] catalog = {{"Kia", "Rio"}, {"Kia", "Ceed"}, {"Kia", "Sportage"}, {"Ford", "Fiesta"},
+                {"Ford", "Focus"}, {"Ford", "Kuga"}, {"Fiat", "500"}, {"Fiat", "Panda"}, {"Skoda", "Fabia"}};
+        Random random = new Random(42);
+        Map<Integer, CarDto> cars = new TreeMap<>();
+        CarSuggestIndex incremental = new CarSuggestIndex(3);
+        incremental.rebuild(List.of());
+        for (int i = 0; i < 500; i++) {
+            int id = random.nextInt(40);
+            if (random.nextInt(4) == 0) {
+                cars.remove(id);
+                incremental.onCarDeleted(id);
+            } else {
+                String[] makeModel = catalog[random.nextInt(catalog.length)];
+                CarDto car = new CarDto(id, makeModel[0], makeModel[1], 2020, 10000.0, true, 1);
+                cars.put(id, car);
+                incremental.onCarSaved(car);
+            }
+        }
+        CarSuggestIndex rebuilt = new CarSuggestIndex(3);
+        rebuilt.rebuild(new ArrayList<>(cars.values()));
+
+        for (String prefix : List.of("k", "ki", "kia ", "f", "fi", "fo", "ford f", "s", "p", "5", "r", "c")) {
+            assertThat(incremental.suggest(prefix, 10)).as(prefix).isEqualTo(rebuilt.suggest(prefix, 10));
+        }
+        Map<String, Long> expectedKia = cars.values().stream()
+                .filter(car -> car.getMake().equals("Kia"))
+                .collect(Collectors.groupingBy(car -> "Kia " + car.getModel(), Collectors.counting()));
+        assertThat(incremental.suggest("kia ", 10)).hasSize(Math.min(3, expectedKia.size()));
+    }
+}
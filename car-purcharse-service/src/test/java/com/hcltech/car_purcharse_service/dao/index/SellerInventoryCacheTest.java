@@ -0,0 +1,81 @@
+package com.hcltech.car_purcharse_service.dao.index;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SellerInventoryCacheTest {
+
+    private SellerInventoryCache sellerInventoryCache;
+
+    // seller id -> number of times the loader ran for it
+    private final List<AtomicInteger> loads = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        sellerInventoryCache = new SellerInventoryCache(100, Duration.ofMinutes(10));
+        sellerInventoryCache.rebuild(List.of(
+                new CarDto(1, "Kia", "Rio", 2020, 9000.0, true, 1),
+                new CarDto(2, "Kia", "Ceed", 2021, 15000.0, true, 2)));
+        for (int i = 0; i < 3; i++) {
+            loads.add(new AtomicInteger());
+        }
+    }
+
+    @Test
+    @DisplayName("a car moving to another seller should invalidate both sellers and nobody else")
+    void onCarSaved_invalidatesOldAndNewSeller() {
+        load(0);
+        load(1);
+        load(2);
+
+        sellerInventoryCache.onCarSaved(new CarDto(1, "Kia", "Rio", 2020, 9000.0, true, 2));
+        load(0);
+        load(1);
+        load(2);
+
+        assertThat(loads).extracting(AtomicInteger::get).containsExactly(1, 2, 2);
+    }
+
+    @Test
+    @DisplayName("deleting a car should invalidate only its seller")
+    void onCarDeleted_invalidatesOwningSeller() {
+        load(1);
+        load(2);
+
+        sellerInventoryCache.onCarDeleted(2);
+        load(1);
+        load(2);
+
+        assertThat(loads).extracting(AtomicInteger::get).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    @DisplayName("stats should report hits and misses and the cached list should be read-only")
+    void stats_andImmutableEntries() {
+        List<CarDto> first = load(1);
+        load(1);
+
+        assertThat(sellerInventoryCache.stats().getHitCount()).isEqualTo(1);
+        assertThat(sellerInventoryCache.stats().getMissCount()).isEqualTo(1);
+        assertThat(sellerInventoryCache.stats().getSize()).isEqualTo(1);
+        assertThat(first).isUnmodifiable();
+    }
+
+    private List<CarDto> load(int sellerId) {
+        Function<Integer, List<CarDto>> loader = id -> {
+            loads.get(id).incrementAndGet();
+            return new ArrayList<>(List.of(new CarDto(10 + id, "Ford", "Ka", 2015, 4000.0, true, id)));
+        };
+        return sellerInventoryCache.get(sellerId, loader);
+    }
+}
@@ -0,0 +1,186 @@
+package com.hcltech.car_purcharse_service.dao.journal;
+
+import com.hcltech.car_purcharse_service.event.PurchaseChange;
+import com.hcltech.car_purcharse_service.event.PurchasesChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PurchaseJournalTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-18T12:00:00Z"), ZoneOffset.UTC);
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    private static final LocalDate DATE = LocalDate.of(2026, 10, 1);
+
+    @TempDir
+    Path dir;
+
+    private PurchaseJournal purchaseJournal;
+
+    @BeforeEach
+    void setUp() {
+        purchaseJournal = open(SEGMENT_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        purchaseJournal.close();
+    }
+
+    @Test
+    @DisplayName("appended changes should replay in order with every value, including nulls")
+    void append_replaysInOrder() {
+        PurchaseChange created = new PurchaseChange(PurchaseChange.Type.CREATED, 7, 1, 2, 3, DATE, 15000.25);
+        PurchaseChange undated = new PurchaseChange(PurchaseChange.Type.UPDATED, 7, 1, 2, 3, null, null);
+        PurchaseChange deleted = new PurchaseChange(PurchaseChange.Type.DELETED, 7, 1, 2, 3, null, 15000.25);
+
+        assertThat(purchaseJournal.append(List.of(created, undated))).isEqualTo(2);
+        purchaseJournal.onPurchasesChanged(PurchasesChangedEvent.of(deleted));
+
+        List<PurchaseJournal.Entry> entries = new ArrayList<>();
+        PurchaseJournal.ReplayStats stats = purchaseJournal.replay(entries::add);
+
+        assertThat(stats).isEqualTo(new PurchaseJournal.ReplayStats(3, 0, 1));
+        assertThat(entries).extracting(PurchaseJournal.Entry::sequence).containsExactly(1L, 2L, 3L);
+        assertThat(entries).extracting(PurchaseJournal.Entry::change).containsExactly(created, undated, deleted);
+        assertThat(entries).allMatch(entry -> entry.timestampMillis() == CLOCK.millis());
+    }
+
+    @Test
+    @DisplayName("reopening the journal should keep its entries and continue the sequence")
+    void reopen_continuesSequence() {
+        purchaseJournal.append(List.of(change(1), change(2)));
+        purchaseJournal.sync();
+        purchaseJournal.close();
+
+        purchaseJournal = open(SEGMENT_SIZE);
+        assertThat(purchaseJournal.lastSequence()).isEqualTo(2);
+        assertThat(purchaseJournal.append(List.of(change(3)))).isEqualTo(3);
+
+        List<Integer> ids = new ArrayList<>();
+        purchaseJournal.replay(entry -> ids.add(entry.change().purchaseId()));
+        assertThat(ids).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    @DisplayName("a full segment should roll over into a new file named after its first entry")
+    void append_rollsSegments() throws IOException {
+        purchaseJournal.close();
+        // room for three records per segment
+        purchaseJournal = open(PurchaseJournal.HEADER_SIZE + 3 * PurchaseJournal.RECORD_SIZE);
+
+        purchaseJournal.append(IntStream.rangeClosed(1, 7).mapToObj(PurchaseJournalTest::change).toList());
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files.map(file -> file.getFileName().toString()).sorted()).containsExactly(
+                    "purchases-00000000000000000001.journal",
+                    "purchases-00000000000000000004.journal",
+                    "purchases-00000000000000000007.journal");
+        }
+        List<Long> sequences = new ArrayList<>();
+        assertThat(purchaseJournal.replay(entry -> sequences.add(entry.sequence())).segments()).isEqualTo(3);
+        assertThat(sequences).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+    }
+
+    @Test
+    @DisplayName("a damaged record should be skipped and counted without hiding the ones after it")
+    void replay_skipsCorruptRecord() throws IOException {
+        purchaseJournal.append(List.of(change(1), change(2), change(3)));
+        purchaseJournal.close();
+
+        Path segment = dir.resolve("purchases-00000000000000000001.journal");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // flip the buyer id of the second record
+            channel.write(ByteBuffer.wrap(new byte[]{0x55}),
+                    PurchaseJournal.HEADER_SIZE + PurchaseJournal.RECORD_SIZE + 8 + 21);
+        }
+
+        purchaseJournal = open(SEGMENT_SIZE);
+        List<Integer> ids = new ArrayList<>();
+        PurchaseJournal.ReplayStats stats = purchaseJournal.replay(entry -> ids.add(entry.change().purchaseId()));
+
+        assertThat(ids).containsExactly(1, 3);
+        assertThat(stats.corruptRecords()).isEqualTo(1);
+        assertThat(purchaseJournal.append(List.of(change(4)))).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("a segment too small for one record should be rejected")
+    void open_rejectsTinySegments() {
+        assertThatThrownBy(() -> open(PurchaseJournal.RECORD_SIZE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("a failed append should reach the purchase's transaction so it rolls back")
+    void onPurchasesChanged_propagatesFailure() throws IOException {
+        purchaseJournal.close();
+        purchaseJournal = open(PurchaseJournal.HEADER_SIZE + PurchaseJournal.RECORD_SIZE);
+        purchaseJournal.append(List.of(change(1)));
+        // the next segment's file name is already taken, so rolling over fails
+        Files.createFile(dir.resolve("purchases-00000000000000000002.journal"));
+
+        assertThatThrownBy(() -> purchaseJournal.onPurchasesChanged(PurchasesChangedEvent.of(change(2))))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    @DisplayName("without a configured directory the journal should fall back to the default one")
+    void prepareDir_defaultsWhenUnset() {
+        assertThat(PurchaseJournal.prepareDir(" ", "update", CLOCK))
+                .isEqualTo(Path.of(PurchaseJournal.DEFAULT_DIR).toAbsolutePath());
+        assertThat(PurchaseJournal.prepareDir(dir.toString(), "update", CLOCK)).isEqualTo(dir);
+    }
+
+    @Test
+    @DisplayName("a schema recreated on startup should set the earlier journal aside and start a new one")
+    void prepareDir_setsAsideJournalOfDroppedSchema() throws IOException {
+        purchaseJournal.append(List.of(change(1), change(2)));
+        purchaseJournal.close();
+
+        assertThat(PurchaseJournal.prepareDir(dir.toString(), "update", CLOCK)).isEqualTo(dir);
+        purchaseJournal = open(SEGMENT_SIZE);
+        assertThat(purchaseJournal.lastSequence()).isEqualTo(2);
+        purchaseJournal.close();
+
+        PurchaseJournal.prepareDir(dir.toString(), "create-drop", CLOCK);
+        purchaseJournal = open(SEGMENT_SIZE);
+
+        assertThat(purchaseJournal.lastSequence()).isZero();
+        assertThat(purchaseJournal.replay(entry -> { }).entries()).isZero();
+        Path superseded = dir.resolve(PurchaseJournal.SUPERSEDED_PREFIX + CLOCK.millis());
+        assertThat(superseded.resolve("purchases-00000000000000000001.journal")).exists();
+    }
+
+    private PurchaseJournal open(int segmentSize) {
+        return new PurchaseJournal(dir, segmentSize, Duration.ofMillis(10), CLOCK);
+    }
+
+    private static PurchaseChange change(int purchaseId) {
+        return new PurchaseChange(PurchaseChange.Type.CREATED, purchaseId, 1, 2, purchaseId, DATE, 9000.0);
+    }
+}
@@ -0,0 +1,59 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AggregateVersionDaoServiceTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-18T12:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private AggregateVersionDaoService aggregateVersionDaoService;
+
+    @BeforeEach
+    void setUp() {
+        aggregateVersionDaoService = new AggregateVersionDaoService(jdbcTemplate, CLOCK);
+    }
+
+    @Test
+    @DisplayName("an aggregate that was never written should be at version 0")
+    void current_defaultsToZero() {
+        when(jdbcTemplate.queryForList(anyString(), any(MapSqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(), List.of(42L));
+
+        assertThat(aggregateVersionDaoService.current("car")).isZero();
+        assertThat(aggregateVersionDaoService.current("car")).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("bump should upsert the row, seeding a new one with the current time")
+    void bump_upserts() {
+        aggregateVersionDaoService.bump("seller");
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate).update(sql.capture(), params.capture());
+        assertThat(sql.getValue()).contains("on conflict (aggregate) do update set version = aggregate_version.version + 1");
+        assertThat(params.getValue().getValue("aggregate")).isEqualTo("seller");
+        assertThat(params.getValue().getValue("initial")).isEqualTo(CLOCK.millis());
+    }
+}
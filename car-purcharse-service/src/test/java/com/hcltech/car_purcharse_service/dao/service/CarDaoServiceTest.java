@@ -1,5 +1,6 @@
 package com.hcltech.car_purcharse_service.dao.service;
 
+import com.hcltech.car_purcharse_service.dto.CarBulkUpdateDto;
 import com.hcltech.car_purcharse_service.model.Car;
 import com.hcltech.car_purcharse_service.model.Seller;
 import com.hcltech.car_purcharse_service.repository.CarRepository;
@@ -7,14 +8,27 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +37,9 @@ class CarDaoServiceTest {
     @Mock
     private CarRepository carRepository;
 
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
     @InjectMocks
     private CarDaoService carDaoService;
 
@@ -151,4 +168,57 @@ class CarDaoServiceTest {
         verify(carRepository, times(1)).findAllBySellerId(testSeller.getId());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Should page through all cars or only available cars by keyset")
+    void getPage() {
+        Sort sort = Sort.by("price").and(Sort.by("id"));
+        Window<Car> all = Window.from(List.of(testCar1, testCar2), index -> ScrollPosition.keyset(), false);
+        Window<Car> available = Window.from(List.of(testCar1), index -> ScrollPosition.keyset(), false);
+        when(carRepository.findAllBy(ScrollPosition.keyset(), sort, Limit.of(10))).thenReturn(all);
+        when(carRepository.findByIsAvailableTrue(ScrollPosition.keyset(), sort, Limit.of(10))).thenReturn(available);
+
+        assertThat(carDaoService.getPage(ScrollPosition.keyset(), sort, Limit.of(10), false).getContent())
+                .containsExactly(testCar1, testCar2);
+        assertThat(carDaoService.getPage(ScrollPosition.keyset(), sort, Limit.of(10), true).getContent())
+                .containsExactly(testCar1);
+    }
+
+    @Test
+    @DisplayName("bulkUpdateBySeller should pass the filter and operation through, treating blank text as no filter")
+    void bulkUpdateBySeller() {
+        CarBulkUpdateDto change = new CarBulkUpdateDto(" ", "Corolla ", 2019, 2019, null, null, true, -10.0, null, null);
+        when(jdbcTemplate.queryForList(eq(CarDaoService.BULK_UPDATE_BY_SELLER), any(MapSqlParameterSource.class), eq(Integer.class)))
+                .thenReturn(List.of(4, 9));
+
+        List<Integer> updated = carDaoService.bulkUpdateBySeller(1, change, 0.9, 0.0);
+
+        assertThat(updated).containsExactly(4, 9);
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate).queryForList(anyString(), params.capture(), eq(Integer.class));
+        assertThat(params.getValue().getValue("sellerId")).isEqualTo(1);
+        assertThat(params.getValue().getValue("make")).isNull();
+        assertThat(params.getValue().getValue("model")).isEqualTo("Corolla");
+        assertThat(params.getValue().getValue("minYear")).isEqualTo(2019);
+        assertThat(params.getValue().getValue("available")).isEqualTo(true);
+        assertThat(params.getValue().getValue("factor")).isEqualTo(0.9);
+        assertThat(params.getValue().getValue("newAvailable")).isNull();
+    }
+
+    @Test
+    @DisplayName("making cars available in bulk should leave out sold cars and cars on a live hold, and return only changed ids")
+    void bulkUpdateBySeller_neverRelistsSoldOrHeldCars() {
+        CarBulkUpdateDto change = new CarBulkUpdateDto(null, null, null, null, null, null, false, null, null, true);
+        Instant before = Instant.now();
+
+        carDaoService.bulkUpdateBySeller(1, change, 1.0, 0.0);
+
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate).queryForList(eq(CarDaoService.BULK_UPDATE_BY_SELLER), params.capture(), eq(Integer.class));
+        assertThat(params.getValue().getValue("newAvailable")).isEqualTo(true);
+        assertThat(((Timestamp) params.getValue().getValue("now")).toInstant()).isBetween(before, Instant.now());
+        assertThat(CarDaoService.BULK_UPDATE_BY_SELLER)
+                .contains("not exists (select 1 from car_sale s where s.car_id = c.id)")
+                .contains("not exists (select 1 from car_hold h where h.car_id = c.id and h.expires_at > :now)")
+                .endsWith("returning c.id");
+    }
+}
@@ -0,0 +1,106 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.exception.CarAlreadySoldException;
+import com.hcltech.car_purcharse_service.exception.CarOnHoldException;
+import com.hcltech.car_purcharse_service.exception.ResourceNotFoundException;
+import com.hcltech.car_purcharse_service.model.CarHold;
+import com.hcltech.car_purcharse_service.repository.BuyerRepository;
+import com.hcltech.car_purcharse_service.repository.CarHoldRepository;
+import com.hcltech.car_purcharse_service.repository.CarRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CarHoldDaoServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T10:00:00Z");
+    private static final Instant EXPIRES = NOW.plusSeconds(900);
+
+    @Mock
+    private CarHoldRepository carHoldRepository;
+
+    @Mock
+    private CarRepository carRepository;
+
+    @Mock
+    private BuyerRepository buyerRepository;
+
+    @InjectMocks
+    private CarHoldDaoService carHoldDaoService;
+
+    @Test
+    @DisplayName("create should sweep an expired hold on the car and insert the new one")
+    void create_insertsHold() {
+        givenBuyerAndCar(true);
+        when(carHoldRepository.findByCarId(1)).thenReturn(Optional.empty());
+        when(carHoldRepository.saveAndFlush(any(CarHold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CarHold hold = carHoldDaoService.create(1, 7, NOW, EXPIRES);
+
+        assertEquals(new CarHold(null, 1, 7, NOW, EXPIRES), hold);
+        verify(carHoldRepository).deleteExpiredByCarId(1, NOW);
+    }
+
+    @Test
+    @DisplayName("create should refuse a car that is held or sold, and an unknown buyer")
+    void create_rejectsUnavailableCar() {
+        givenBuyerAndCar(true);
+        when(carHoldRepository.findByCarId(1)).thenReturn(Optional.of(new CarHold(3, 1, 8, NOW, EXPIRES)));
+        assertThrows(CarOnHoldException.class, () -> carHoldDaoService.create(1, 7, NOW, EXPIRES));
+
+        givenBuyerAndCar(false);
+        assertThrows(CarAlreadySoldException.class, () -> carHoldDaoService.create(1, 7, NOW, EXPIRES));
+
+        when(buyerRepository.existsById(9)).thenReturn(false);
+        assertThrows(ResourceNotFoundException.class, () -> carHoldDaoService.create(1, 9, NOW, EXPIRES));
+        verify(carHoldRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("losing the insert race on the unique car id should be a hold conflict")
+    void create_uniqueViolation_isConflict() {
+        givenBuyerAndCar(true);
+        when(carHoldRepository.findByCarId(1)).thenReturn(Optional.empty());
+        when(carHoldRepository.saveAndFlush(any(CarHold.class))).thenThrow(new DataIntegrityViolationException("uk_car_hold_car"));
+
+        assertThrows(CarOnHoldException.class, () -> carHoldDaoService.create(1, 7, NOW, EXPIRES));
+    }
+
+    @Test
+    @DisplayName("findLive should treat a hold past its expiry as gone even before it is swept")
+    void findLive_ignoresExpiredHold() {
+        when(carHoldRepository.findByCarId(1)).thenReturn(Optional.of(new CarHold(3, 1, 8, NOW, EXPIRES)));
+
+        assertTrue(carHoldDaoService.findLive(1, NOW).isPresent());
+        assertTrue(carHoldDaoService.findLive(1, EXPIRES).isEmpty());
+    }
+
+    @Test
+    @DisplayName("findLiveHolds should return the holds that have not expired")
+    void findLiveHolds_returnsUnexpiredHolds() {
+        CarHold hold = new CarHold(3, 1, 8, NOW, EXPIRES);
+        when(carHoldRepository.findByExpiresAtAfter(NOW)).thenReturn(List.of(hold));
+
+        assertEquals(List.of(hold), carHoldDaoService.findLiveHolds(NOW));
+    }
+
+    private void givenBuyerAndCar(boolean available) {
+        when(buyerRepository.existsById(7)).thenReturn(true);
+        when(carRepository.findAsDtoByIdIn(List.of(1)))
+                .thenReturn(List.of(new CarDto(1, "Toyota", "Corolla", 2020, 15000.0, available, 2)));
+    }
+}
@@ -0,0 +1,81 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.dto.CarImportErrorDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CarImportDaoServiceTest {
+
+    @Test
+    @DisplayName("COPY rows should quote text, escape quotes and leave nulls as unquoted empty fields")
+    void appendCsvRow_formatsForCopy() {
+        StringBuilder out = new StringBuilder();
+
+        CarImportDaoService.appendCsvRow(out, new CarImportDaoService.ImportRow(2,
+                new CarDto(null, "Ford", "Focus \"ST\", 5dr", 2018, 8000.0, true, 1)));
+        CarImportDaoService.appendCsvRow(out, new CarImportDaoService.ImportRow(5,
+                new CarDto(null, "Kia", "", 2020, null, null, 2)));
+
+        assertEquals("2,\"Ford\",\"Focus \"\"ST\"\", 5dr\",2018,8000.0,true,1\n"
+                + "5,\"Kia\",\"\",2020,,,2\n", out.toString());
+    }
+
+    @Test
+    @DisplayName("rows should be read only while the COPY is open, and sellers checked only after it ends")
+    @SuppressWarnings("unchecked")
+    void copyCars_checksSellersAfterCopy() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        Connection connection = mock(Connection.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        CopyManager copyManager = mock(CopyManager.class);
+        CopyIn copyIn = mock(CopyIn.class);
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(anyString())).thenReturn(copyIn);
+        when(copyIn.endCopy()).thenReturn(2L);
+        when(statement.executeUpdate(anyString())).thenReturn(1);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<Integer>>getArgument(0).doInConnection(connection));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT count(*)"), eq(Long.class))).thenReturn(1L);
+        when(jdbcTemplate.query(startsWith("SELECT s.line"), any(RowMapper.class), eq(10)))
+                .thenReturn(List.of(new CarImportErrorDto(3, "Seller not found with ID: 9")));
+        Iterator<CarImportDaoService.ImportRow> rows = mock(Iterator.class);
+        when(rows.hasNext()).thenReturn(true, true, false);
+        when(rows.next()).thenReturn(
+                new CarImportDaoService.ImportRow(2, new CarDto(null, "Ford", "Ka", 2015, 5000.0, true, 1)),
+                new CarImportDaoService.ImportRow(3, new CarDto(null, "Kia", "Rio", 2016, 6000.0, true, 9)));
+
+        CarImportDaoService.ImportResult result = new CarImportDaoService(jdbcTemplate, mock(PlatformTransactionManager.class))
+                .copyCars(rows, 10);
+
+        assertEquals(new CarImportDaoService.ImportResult(1, 1, List.of(new CarImportErrorDto(3, "Seller not found with ID: 9"))),
+                result);
+        InOrder order = inOrder(copyManager, rows, copyIn, statement, jdbcTemplate);
+        order.verify(copyManager).copyIn(startsWith("COPY car_import_staging"));
+        order.verify(rows, times(2)).next();
+        order.verify(copyIn).endCopy();
+        order.verify(statement).executeUpdate(contains("JOIN seller ON seller.id = s.seller_id"));
+        order.verify(jdbcTemplate).queryForObject(startsWith("SELECT count(*)"), eq(Long.class));
+        verify(connection, never()).prepareStatement(anyString());
+    }
+}
@@ -0,0 +1,152 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.dto.PricePointDto;
+import com.hcltech.car_purcharse_service.model.CarPriceHistoryChunk;
+import com.hcltech.car_purcharse_service.repository.CarPriceHistoryRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CarPriceHistoryDaoServiceTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Instant T1 = Instant.parse("2025-01-02T00:00:00Z");
+    private static final Instant T2 = Instant.parse("2025-01-03T00:00:00Z");
+
+    @Mock
+    private CarPriceHistoryRepository carPriceHistoryRepository;
+
+    @InjectMocks
+    private CarPriceHistoryDaoService carPriceHistoryDaoService;
+
+    @Captor
+    private ArgumentCaptor<List<CarPriceHistoryChunk>> saved;
+
+    @Test
+    @DisplayName("recordPrices should start a chunk for a car without history")
+    void recordPrices_firstPoint_createsLatestChunk() {
+        when(carPriceHistoryRepository.findByCarIdInAndLatestTrue(any())).thenReturn(List.of());
+
+        carPriceHistoryDaoService.recordPrices(List.of(car(1, 15000.0)), T0);
+
+        verify(carPriceHistoryRepository).saveAll(saved.capture());
+        CarPriceHistoryChunk chunk = saved.getValue().get(0);
+        assertEquals(1, chunk.getCarId());
+        assertTrue(chunk.isLatest());
+        assertEquals(1, chunk.getPointCount());
+        assertEquals(T0, chunk.getFirstAt());
+        assertEquals(1_500_000, chunk.getLastPriceCents());
+    }
+
+    @Test
+    @DisplayName("recordPrices should skip cars whose price did not change and query the latest chunks once")
+    void recordPrices_unchangedPrice_writesNothing() {
+        CarPriceHistoryChunk chunk = chunkWith(1, T0, 15000.0);
+        when(carPriceHistoryRepository.findByCarIdInAndLatestTrue(any())).thenReturn(List.of(chunk));
+
+        carPriceHistoryDaoService.recordPrices(List.of(car(1, 15000.0), car(2, null)), T1);
+
+        verify(carPriceHistoryRepository, times(1)).findByCarIdInAndLatestTrue(Set.of(1));
+        verify(carPriceHistoryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("recordPrices should append to the latest chunk and seal it once full")
+    void recordPrices_fullChunk_isSealed() {
+        CarPriceHistoryChunk open = chunkWith(1, T0, 15000.0);
+        CarPriceHistoryChunk full = chunkWith(2, T0, 9000.0);
+        full.setPointCount(CarPriceHistoryDaoService.CHUNK_POINTS);
+        when(carPriceHistoryRepository.findByCarIdInAndLatestTrue(any())).thenReturn(List.of(open, full));
+
+        carPriceHistoryDaoService.recordPrices(List.of(car(1, 14500.0), car(2, 8500.0)), T1);
+
+        verify(carPriceHistoryRepository).saveAll(saved.capture());
+        assertEquals(2, open.getPointCount());
+        assertEquals(T1, open.getLastAt());
+        assertFalse(full.isLatest());
+        CarPriceHistoryChunk next = saved.getValue().get(saved.getValue().size() - 1);
+        assertEquals(2, next.getCarId());
+        assertTrue(next.isLatest());
+        assertEquals(1, next.getPointCount());
+        assertEquals(3, saved.getValue().size());
+    }
+
+    @Test
+    @DisplayName("a change stamped before the last point should be placed in time order, not appended")
+    void recordPrices_lateChange_keepsTimeOrder() {
+        CarPriceHistoryChunk chunk = chunkWith(1, T0, 15000.0);
+        when(carPriceHistoryRepository.findByCarIdInAndLatestTrue(any())).thenReturn(List.of(chunk));
+        carPriceHistoryDaoService.recordPrices(List.of(car(1, 13000.0)), T2);
+
+        carPriceHistoryDaoService.recordPrices(List.of(car(1, 14000.0)), T1);
+        // repeating the price of the point before it adds nothing
+        carPriceHistoryDaoService.recordPrices(List.of(car(1, 14000.0)), T1.plusSeconds(1));
+
+        assertEquals(3, chunk.getPointCount());
+        assertEquals(T2, chunk.getLastAt());
+        assertEquals(1_300_000, chunk.getLastPriceCents());
+        when(carPriceHistoryRepository.findOverlapping(1, T0, T2)).thenReturn(List.of(chunk));
+        assertEquals(List.of(new PricePointDto(1, T0, 15000.0), new PricePointDto(1, T1, 14000.0),
+                new PricePointDto(1, T2, 13000.0)), carPriceHistoryDaoService.getHistory(1, T0, T2));
+    }
+
+    @Test
+    @DisplayName("getHistory should decode the overlapping chunks and keep only points inside the range")
+    void getHistory_filtersToRange() {
+        CarPriceHistoryChunk chunk = chunkWith(1, T0, 15000.0);
+        when(carPriceHistoryRepository.findByCarIdInAndLatestTrue(any())).thenReturn(List.of(chunk));
+        carPriceHistoryDaoService.recordPrices(List.of(car(1, 14000.0)), T1);
+        carPriceHistoryDaoService.recordPrices(List.of(car(1, 13000.0)), T2);
+        when(carPriceHistoryRepository.findOverlapping(1, T1, T2)).thenReturn(List.of(chunk));
+
+        List<PricePointDto> history = carPriceHistoryDaoService.getHistory(1, T1, T2);
+
+        assertEquals(List.of(new PricePointDto(1, T1, 14000.0), new PricePointDto(1, T2, 13000.0)), history);
+    }
+
+    @Test
+    @DisplayName("streamAll should flatten every chunk into price points")
+    void streamAll_decodesChunks() {
+        CarPriceHistoryChunk first = chunkWith(1, T0, 15000.0);
+        CarPriceHistoryChunk second = chunkWith(2, T1, 9000.0);
+        when(carPriceHistoryRepository.streamAllSeries()).thenReturn(Stream.of(
+                new Object[]{1, first.getData()}, new Object[]{2, second.getData()}));
+
+        List<PricePointDto> points = carPriceHistoryDaoService.streamAll().toList();
+
+        assertEquals(List.of(new PricePointDto(1, T0, 15000.0), new PricePointDto(2, T1, 9000.0)), points);
+    }
+
+    // A latest chunk holding a single point, built through the service itself
+    private CarPriceHistoryChunk chunkWith(Integer carId, Instant at, Double price) {
+        CarPriceHistoryRepository repository = mock(CarPriceHistoryRepository.class);
+        List<CarPriceHistoryChunk> created = new ArrayList<>();
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            invocation.<List<CarPriceHistoryChunk>>getArgument(0).forEach(created::add);
+            return created;
+        });
+        new CarPriceHistoryDaoService(repository).recordPrices(List.of(car(carId, price)), at);
+        return created.get(0);
+    }
+
+    private static CarDto car(Integer id, Double price) {
+        return new CarDto(id, "Toyota", "Corolla", 2020, price, true, 7);
+    }
+}
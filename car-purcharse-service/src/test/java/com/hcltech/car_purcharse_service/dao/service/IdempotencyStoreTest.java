@@ -0,0 +1,163 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import com.hcltech.car_purcharse_service.exception.IdempotencyKeyInProgressException;
+import com.hcltech.car_purcharse_service.model.IdempotencyRecord;
+import com.hcltech.car_purcharse_service.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T10:00:00Z");
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyStore idempotencyStore;
+
+    private final IdempotencyStore.StoredResponse created =
+            new IdempotencyStore.StoredResponse("hash", 201, "application/json", "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new IdempotencyStore(idempotencyRecordRepository, 100, Duration.ofHours(24),
+                Duration.ofMinutes(1), Duration.ofMillis(200), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("the first request should claim the key, and a replay should be answered from memory")
+    void begin_claimsThenReplaysFromCache() {
+        when(idempotencyRecordRepository.claim("key", "hash", NOW)).thenReturn(1);
+
+        assertThat(idempotencyStore.begin("key", "hash")).isEmpty();
+        idempotencyStore.complete("key", created);
+
+        assertThat(idempotencyStore.begin("key", "hash")).contains(created);
+        verify(idempotencyRecordRepository).complete("key", 201, "application/json", created.body());
+        verify(idempotencyRecordRepository, times(1)).claim(anyString(), anyString(), any());
+        verify(idempotencyRecordRepository, never()).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("a key answered on another instance should be replayed from the table")
+    void begin_replaysCompletedRecord() {
+        when(idempotencyRecordRepository.claim("key", "hash", NOW)).thenReturn(0);
+        when(idempotencyRecordRepository.findById("key")).thenReturn(Optional.of(
+                new IdempotencyRecord("key", "hash", true, 201, "application/json", created.body(), NOW.minusSeconds(60))));
+
+        IdempotencyStore.StoredResponse replayed = idempotencyStore.begin("key", "hash").orElseThrow();
+
+        assertThat(replayed.status()).isEqualTo(201);
+        assertThat(replayed.body()).isEqualTo(created.body());
+        assertThat(idempotencyStore.begin("key", "hash")).isPresent();
+        verify(idempotencyRecordRepository, times(1)).findById("key");
+    }
+
+    @Test
+    @DisplayName("an unfinished row older than the lease should be taken over")
+    void begin_takesOverStaleClaim() {
+        Instant abandonedAt = NOW.minus(Duration.ofMinutes(5));
+        when(idempotencyRecordRepository.claim("key", "hash", NOW)).thenReturn(0, 1);
+        when(idempotencyRecordRepository.findById("key")).thenReturn(Optional.of(
+                new IdempotencyRecord("key", "hash", false, null, null, null, abandonedAt)));
+
+        assertThat(idempotencyStore.begin("key", "hash")).isEmpty();
+        verify(idempotencyRecordRepository).deleteStale("key", abandonedAt);
+    }
+
+    @Test
+    @DisplayName("a request still running on another instance should time out with an in-progress error")
+    void begin_inProgressElsewhere_timesOut() {
+        idempotencyStore = new IdempotencyStore(idempotencyRecordRepository, 100, Duration.ofHours(24),
+                Duration.ofMinutes(1), Duration.ofMillis(120), Clock.systemUTC());
+        when(idempotencyRecordRepository.claim(eq("key"), eq("hash"), any())).thenReturn(0);
+        when(idempotencyRecordRepository.findById("key")).thenReturn(Optional.of(
+                new IdempotencyRecord("key", "hash", false, null, null, null, Instant.now())));
+
+        assertThatThrownBy(() -> idempotencyStore.begin("key", "hash"))
+                .isInstanceOf(IdempotencyKeyInProgressException.class);
+        verify(idempotencyRecordRepository, atLeast(2)).findById("key");
+    }
+
+    @Test
+    @DisplayName("a duplicate on this instance should wait for the first request's response")
+    void begin_duplicateWaitsForFirst() throws Exception {
+        idempotencyStore = new IdempotencyStore(idempotencyRecordRepository, 100, Duration.ofHours(24),
+                Duration.ofMinutes(1), Duration.ofSeconds(5), Clock.systemUTC());
+        when(idempotencyRecordRepository.claim(eq("key"), eq("hash"), any())).thenReturn(1);
+        assertThat(idempotencyStore.begin("key", "hash")).isEmpty();
+
+        CompletableFuture<Optional<IdempotencyStore.StoredResponse>> duplicate =
+                CompletableFuture.supplyAsync(() -> idempotencyStore.begin("key", "hash"));
+        Thread.sleep(50);
+        assertThat(duplicate).isNotDone();
+        idempotencyStore.complete("key", created);
+
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).contains(created);
+        verify(idempotencyRecordRepository, times(1)).claim(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("a released key should let the waiting duplicate run the request itself")
+    void release_letsDuplicateRun() throws Exception {
+        idempotencyStore = new IdempotencyStore(idempotencyRecordRepository, 100, Duration.ofHours(24),
+                Duration.ofMinutes(1), Duration.ofSeconds(5), Clock.systemUTC());
+        when(idempotencyRecordRepository.claim(eq("key"), eq("hash"), any())).thenReturn(1);
+        assertThat(idempotencyStore.begin("key", "hash")).isEmpty();
+
+        CompletableFuture<Optional<IdempotencyStore.StoredResponse>> duplicate =
+                CompletableFuture.supplyAsync(() -> idempotencyStore.begin("key", "hash"));
+        Thread.sleep(50);
+        idempotencyStore.release("key");
+
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEmpty();
+        verify(idempotencyRecordRepository).deleteInProgress("key");
+        verify(idempotencyRecordRepository, times(2)).claim(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("purgeExpired should delete rows older than the time to live")
+    void purgeExpired_deletesOldRows() {
+        idempotencyStore.purgeExpired();
+
+        verify(idempotencyRecordRepository).deleteCreatedBefore(NOW.minus(Duration.ofHours(24)));
+    }
+
+    @Test
+    @DisplayName("renewLeases should move the lease of keys running here forward, and only those")
+    void renewLeases_renewsInFlightKeys() {
+        when(idempotencyRecordRepository.claim("key", "hash", NOW)).thenReturn(1);
+        idempotencyStore.renewLeases();
+        verify(idempotencyRecordRepository, never()).renew(any(), any());
+
+        idempotencyStore.begin("key", "hash");
+        idempotencyStore.renewLeases();
+        verify(idempotencyRecordRepository).renew(List.of("key"), NOW);
+
+        idempotencyStore.complete("key", created);
+        idempotencyStore.renewLeases();
+        verify(idempotencyRecordRepository, times(1)).renew(any(), any());
+    }
+}
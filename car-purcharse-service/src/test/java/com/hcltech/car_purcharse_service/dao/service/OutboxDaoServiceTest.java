@@ -0,0 +1,76 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.event.OutboxEventType;
+import com.hcltech.car_purcharse_service.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDaoServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T09:30:00Z");
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private OutboxDaoService outboxDaoService;
+
+    @BeforeEach
+    void setUp() {
+        outboxDaoService = new OutboxDaoService(jdbcTemplate, outboxEventRepository, new ObjectMapper(),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("an event should be stored with its type, aggregate id and the payload as JSON")
+    void append_serializesPayload() {
+        outboxDaoService.append(OutboxEventType.CAR_LISTED, 7, new CarDto(7, "Kia", "Rio", 2021, 12500.0, true, 3));
+
+        ArgumentCaptor<SqlParameterSource> row = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).update(eq(OutboxDaoService.INSERT_EVENT), row.capture());
+        assertThat(row.getValue().getValue("eventType")).isEqualTo("CAR_LISTED");
+        assertThat(row.getValue().getValue("aggregateId")).isEqualTo(7);
+        assertThat(row.getValue().getValue("payload")).isEqualTo("{\"id\":7,\"make\":\"Kia\",\"model\":\"Rio\","
+                + "\"year\":2021,\"price\":12500.0,\"isAvailable\":true,\"sellerId\":3}");
+        assertThat(row.getValue().getValue("createdAt")).isEqualTo(Timestamp.from(NOW));
+    }
+
+    @Test
+    @DisplayName("many events should be inserted as one batch, and none at all should not touch the database")
+    void appendAll_batches() {
+        outboxDaoService.appendAll(OutboxEventType.CAR_UPDATED, List.of(
+                new CarDto(1, "Kia", "Rio", 2021, 12000.0, true, 3),
+                new CarDto(2, "Kia", "Ceed", 2022, 18000.0, false, 3)), CarDto::getId);
+        outboxDaoService.appendAll(OutboxEventType.CAR_UPDATED, List.<CarDto>of(), CarDto::getId);
+
+        ArgumentCaptor<SqlParameterSource[]> rows = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(OutboxDaoService.INSERT_EVENT), rows.capture());
+        assertThat(Arrays.asList(rows.getValue()))
+                .extracting(row -> row.getValue("eventType"), row -> row.getValue("aggregateId"))
+                .containsExactly(tuple("CAR_UPDATED", 1), tuple("CAR_UPDATED", 2));
+    }
+}
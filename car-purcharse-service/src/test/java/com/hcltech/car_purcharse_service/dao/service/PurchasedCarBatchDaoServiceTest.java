@@ -0,0 +1,201 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import com.hcltech.car_purcharse_service.dto.PurchasedCarBatchItemDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarResponseDto;
+import com.hcltech.car_purcharse_service.event.CarsPurchasedEvent;
+import com.hcltech.car_purcharse_service.event.OutboxEventType;
+import com.hcltech.car_purcharse_service.event.PurchaseChange;
+import com.hcltech.car_purcharse_service.event.PurchasesChangedEvent;
+import com.hcltech.car_purcharse_service.model.Buyer;
+import com.hcltech.car_purcharse_service.model.Car;
+import com.hcltech.car_purcharse_service.model.CarHold;
+import com.hcltech.car_purcharse_service.model.Seller;
+import com.hcltech.car_purcharse_service.repository.BuyerRepository;
+import com.hcltech.car_purcharse_service.repository.CarHoldRepository;
+import com.hcltech.car_purcharse_service.repository.CarRepository;
+import com.hcltech.car_purcharse_service.repository.SellerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PurchasedCarBatchDaoServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 10, 17);
+
+    @Mock
+    private BuyerRepository buyerRepository;
+
+    @Mock
+    private SellerRepository sellerRepository;
+
+    @Mock
+    private CarRepository carRepository;
+
+    @Mock
+    private CarHoldRepository carHoldRepository;
+
+    @Mock
+    private SalesRollupDaoService salesRollupDaoService;
+
+    @Mock
+    private OutboxDaoService outboxDaoService;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private PurchasedCarBatchDaoService purchasedCarBatchDaoService;
+
+    @BeforeEach
+    void setUp() {
+        purchasedCarBatchDaoService = new PurchasedCarBatchDaoService(buyerRepository,
+                new SellerReferenceResolver(sellerRepository, 100, Duration.ofMinutes(10)), carRepository,
+                carHoldRepository, salesRollupDaoService, outboxDaoService, jdbcTemplate, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("a batch should resolve references with three lookups, claim once, insert once and report every item")
+    void createPurchasedCars_perItemResults() {
+        when(buyerRepository.findAllById(any())).thenReturn(List.of(buyer(1), buyer(2)));
+        when(sellerRepository.findAllById(any())).thenReturn(List.of(seller(5)));
+        when(carRepository.findAllById(any())).thenReturn(List.of(car(10), car(11), car(12), car(13), car(14)));
+        when(carHoldRepository.findByCarIdIn(any())).thenReturn(List.of(
+                new CarHold(1, 13, 2, Instant.now(), Instant.now().plusSeconds(600)),
+                new CarHold(2, 14, 1, Instant.now(), Instant.now().plusSeconds(600))));
+        // car 11 was sold by someone else in the meantime
+        when(jdbcTemplate.queryForList(anyString(), any(MapSqlParameterSource.class), eq(Integer.class)))
+                .thenReturn(List.of(10, 14));
+        doAnswer(invocation -> {
+            KeyHolder keys = invocation.getArgument(2);
+            keys.getKeyList().add(Map.of("id", 100));
+            keys.getKeyList().add(Map.of("id", 101));
+            return new int[]{1, 1};
+        }).when(jdbcTemplate).batchUpdate(anyString(), any(SqlParameterSource[].class), any(KeyHolder.class), any(String[].class));
+
+        List<PurchasedCarBatchItemDto> results = purchasedCarBatchDaoService.createPurchasedCars(List.of(
+                new PurchasedCarDto(1, 5, 10, DATE),
+                new PurchasedCarDto(1, 5, 11, DATE),
+                new PurchasedCarDto(9, 5, 12, DATE),     // unknown buyer
+                new PurchasedCarDto(1, 5, 10, DATE),     // same car twice
+                new PurchasedCarDto(1, 5, 13, DATE),     // held by buyer 2
+                new PurchasedCarDto(1, 5, 14, DATE),     // held by this buyer
+                new PurchasedCarDto(1, null, 12, DATE),  // missing seller
+                new PurchasedCarDto(1, 5, 99, DATE)));   // unknown car
+
+        assertThat(results).extracting(PurchasedCarBatchItemDto::getPurchasedCarId)
+                .containsExactly(100, null, null, null, null, 101, null, null);
+        assertThat(results).extracting(PurchasedCarBatchItemDto::getError).containsExactly(
+                null,
+                "Car with ID 11 is no longer available",
+                "Buyer not found with ID: 9",
+                "Car with ID 10 appears earlier in the batch",
+                "Car with ID 13 is on hold for another buyer",
+                null,
+                "buyerId, sellerId and carId are required",
+                "Car not found with ID: 99");
+        assertThat(results).extracting(PurchasedCarBatchItemDto::getIndex).containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+
+        ArgumentCaptor<MapSqlParameterSource> claim = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate).queryForList(eq(PurchasedCarBatchDaoService.CLAIM_AVAILABLE), claim.capture(), eq(Integer.class));
+        assertThat(claim.getValue().getValue("ids")).isEqualTo(List.of(10, 11, 14));
+        // a car that already has a sale must not have its availability flipped
+        assertThat(PurchasedCarBatchDaoService.CLAIM_AVAILABLE)
+                .contains("and not exists (select 1 from car_sale s where s.car_id = c.id)");
+        ArgumentCaptor<SqlParameterSource[]> rows = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), any(KeyHolder.class), any(String[].class));
+        assertThat(rows.getValue()).extracting(row -> row.getValue("carId")).containsExactly(10, 14);
+        verify(carHoldRepository).deleteByCarIdIn(Set.of(10, 14));
+        verify(eventPublisher).publishEvent(new CarsPurchasedEvent(List.of(10, 14)));
+        verify(eventPublisher).publishEvent(new PurchasesChangedEvent(List.of(
+                new PurchaseChange(PurchaseChange.Type.CREATED, 100, 1, 5, 10, DATE, 9000.0),
+                new PurchaseChange(PurchaseChange.Type.CREATED, 101, 1, 5, 14, DATE, 9000.0))));
+        verify(salesRollupDaoService).apply(List.of(
+                new SalesRollupDaoService.Sale(5, "Kia", DATE, 9000.0),
+                new SalesRollupDaoService.Sale(5, "Kia", DATE, 9000.0)), List.of());
+        assertThat(rows.getValue()).extracting(row -> row.getValue("salePrice")).containsExactly(9000.0, 9000.0);
+        assertThat(rows.getValue()).extracting(row -> row.getValue("saleMake")).containsExactly("Kia", "Kia");
+        verify(outboxDaoService).appendAll(eq(OutboxEventType.CAR_SOLD), eq(List.of(
+                new PurchasedCarResponseDto(100, 1, 5, 10, DATE),
+                new PurchasedCarResponseDto(101, 1, 5, 14, DATE))), any());
+        verify(buyerRepository, times(1)).findAllById(Set.of(1, 9));
+    }
+
+    @Test
+    @DisplayName("a batch with nothing to record should not claim, insert or publish")
+    void createPurchasedCars_nothingValid() {
+        when(buyerRepository.findAllById(any())).thenReturn(List.of());
+        when(sellerRepository.findAllById(any())).thenReturn(List.of(seller(5)));
+        when(carRepository.findAllById(any())).thenReturn(List.of(car(10)));
+
+        List<PurchasedCarBatchItemDto> results = purchasedCarBatchDaoService.createPurchasedCars(
+                List.of(new PurchasedCarDto(1, 5, 10, DATE)));
+
+        assertThat(results).singleElement().extracting(PurchasedCarBatchItemDto::getError)
+                .isEqualTo("Buyer not found with ID: 1");
+        verifyNoInteractions(jdbcTemplate, eventPublisher, salesRollupDaoService, outboxDaoService);
+        verify(carHoldRepository, never()).deleteByCarIdIn(any());
+    }
+
+    @Test
+    @DisplayName("sellers found by one batch should not be queried again by the next")
+    void createPurchasedCars_remembersKnownSellers() {
+        when(buyerRepository.findAllById(any())).thenReturn(List.of());
+        when(sellerRepository.findAllById(any())).thenReturn(List.of(seller(5)));
+        when(sellerRepository.getReferenceById(5)).thenReturn(seller(5));
+        when(carRepository.findAllById(any())).thenReturn(List.of(car(10)));
+
+        purchasedCarBatchDaoService.createPurchasedCars(List.of(new PurchasedCarDto(1, 5, 10, DATE)));
+        List<PurchasedCarBatchItemDto> results = purchasedCarBatchDaoService.createPurchasedCars(
+                List.of(new PurchasedCarDto(1, 5, 10, DATE)));
+
+        assertThat(results).singleElement().extracting(PurchasedCarBatchItemDto::getError)
+                .isEqualTo("Buyer not found with ID: 1");
+        verify(sellerRepository, times(1)).findAllById(any());
+    }
+
+    private static Buyer buyer(Integer id) {
+        Buyer buyer = new Buyer();
+        buyer.setId(id);
+        return buyer;
+    }
+
+    private static Seller seller(Integer id) {
+        Seller seller = new Seller();
+        seller.setId(id);
+        return seller;
+    }
+
+    private static Car car(Integer id) {
+        Car car = new Car();
+        car.setId(id);
+        car.setMake("Kia");
+        car.setPrice(9000.0);
+        return car;
+    }
+}
@@ -1,14 +1,26 @@
 package com.hcltech.car_purcharse_service.dao.service;
 
+import com.hcltech.car_purcharse_service.dto.CarDto;
 import com.hcltech.car_purcharse_service.dto.PurchasedCarDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarPageDto;
 import com.hcltech.car_purcharse_service.dto.PurchasedCarResponseDto;
+import com.hcltech.car_purcharse_service.event.CarChangedEvent;
+import com.hcltech.car_purcharse_service.event.CarPurchasedEvent;
+import com.hcltech.car_purcharse_service.event.OutboxEventType;
+import com.hcltech.car_purcharse_service.event.PurchaseChange;
+import com.hcltech.car_purcharse_service.event.PurchasesChangedEvent;
+import com.hcltech.car_purcharse_service.exception.CarAlreadySoldException;
+import com.hcltech.car_purcharse_service.exception.CarOnHoldException;
 import com.hcltech.car_purcharse_service.exception.ResourceNotFoundException;
 import com.hcltech.car_purcharse_service.model.Buyer;
 import com.hcltech.car_purcharse_service.model.Car;
+import com.hcltech.car_purcharse_service.model.CarHold;
 import com.hcltech.car_purcharse_service.model.PurchasedCar;
 import com.hcltech.car_purcharse_service.model.Seller;
 import com.hcltech.car_purcharse_service.repository.BuyerRepository;
+import com.hcltech.car_purcharse_service.repository.CarHoldRepository;
 import com.hcltech.car_purcharse_service.repository.CarRepository;
+import com.hcltech.car_purcharse_service.repository.CarSaleRepository;
 import com.hcltech.car_purcharse_service.repository.PurchasedCarRepository;
 import com.hcltech.car_purcharse_service.repository.SellerRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,10 +30,25 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -40,12 +67,29 @@ public class PurchasedCarDaoServiceTest {
     @Mock
     private CarRepository carRepository;
 
+    @Mock
+    private CarHoldRepository carHoldRepository;
+
+    @Mock
+    private CarSaleRepository carSaleRepository;
+
+    @Mock
+    private SalesRollupDaoService salesRollupDaoService;
+
+    @Mock
+    private OutboxDaoService outboxDaoService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private ModelMapper modelMapper;
 
     @InjectMocks
     private PurchasedCarDaoService purchasedCarDaoService;
     private PurchasedCar purchasedCar;
+    private PurchasedCarResponseDto purchasedCarResponse;
     private PurchasedCarDto purchasedCarDto;
+    private final SalesRollupDaoService.Sale sale = new SalesRollupDaoService.Sale(2, "Kia", LocalDate.of(2024, 5, 20), 15000.0);
     private Buyer buyer;
     private Seller seller;
     private Car car;
@@ -59,6 +103,11 @@ public class PurchasedCarDaoServiceTest {
         purchasedCarDaoService.buyerRepository = buyerRepository;
         purchasedCarDaoService.sellerRepository = sellerRepository;
         purchasedCarDaoService.carRepository = carRepository;
+        purchasedCarDaoService.carHoldRepository = carHoldRepository;
+        purchasedCarDaoService.carSaleRepository = carSaleRepository;
+        purchasedCarDaoService.salesRollupDaoService = salesRollupDaoService;
+        purchasedCarDaoService.outboxDaoService = outboxDaoService;
+        purchasedCarDaoService.eventPublisher = eventPublisher;
 
         buyer = new Buyer();
         buyer.setId(1);
@@ -68,8 +117,12 @@ public class PurchasedCarDaoServiceTest {
 
         car = new Car();
         car.setId(3);
+        car.setMake("Kia");
+        car.setPrice(15000.0);
+
+        purchasedCar = new PurchasedCar(1, buyer, seller, car, LocalDate.of(2024, 5, 20), 15000.0, "Kia");
 
-        purchasedCar = new PurchasedCar(1, buyer, seller, car, LocalDate.of(2024, 5, 20));
+        purchasedCarResponse = new PurchasedCarResponseDto(1, 1, 2, 3, LocalDate.of(2024, 5, 20));
 
         purchasedCarDto = new PurchasedCarDto(1, 2, 3, LocalDate.of(2024, 5, 20));
     }
@@ -78,7 +131,9 @@ public class PurchasedCarDaoServiceTest {
     void testCreatePurchasedCar() {
         when(buyerRepository.findById(1)).thenReturn(Optional.of(buyer));
         when(sellerRepository.findById(2)).thenReturn(Optional.of(seller));
-        when(carRepository.findById(3)).thenReturn(Optional.of(car));
+        when(carRepository.claimAvailable(3)).thenReturn(1);
+        when(carSaleRepository.claim(3)).thenReturn(1);
+        when(carRepository.getReferenceById(3)).thenReturn(car);
         when(purchasedCarRepository.save(any(PurchasedCar.class))).thenReturn(purchasedCar);
 
         PurchasedCarResponseDto response = purchasedCarDaoService.createPurchasedCar(purchasedCarDto);
@@ -87,11 +142,157 @@ public class PurchasedCarDaoServiceTest {
         assertEquals(1, response.getId());
         assertEquals(3, response.getCarId());
         verify(purchasedCarRepository, times(1)).save(any(PurchasedCar.class));
+        verify(carRepository, never()).findById(any());
+        verify(carRepository, never()).save(any());
+        verify(carHoldRepository, times(1)).deleteByCarId(3);
+        verify(eventPublisher, times(1)).publishEvent(new CarPurchasedEvent(3));
+        verify(eventPublisher).publishEvent(PurchasesChangedEvent.of(new PurchaseChange(
+                PurchaseChange.Type.CREATED, 1, 1, 2, 3, LocalDate.of(2024, 5, 20), 15000.0)));
+        verify(salesRollupDaoService).apply(List.of(sale), List.of());
+        verify(outboxDaoService).append(OutboxEventType.CAR_SOLD, 3, response);
+    }
+
+    @Test
+    void testCreatePurchasedCar_RecordsSalePrice() {
+        when(buyerRepository.findById(1)).thenReturn(Optional.of(buyer));
+        when(sellerRepository.findById(2)).thenReturn(Optional.of(seller));
+        when(carRepository.claimAvailable(3)).thenReturn(1);
+        when(carSaleRepository.claim(3)).thenReturn(1);
+        when(carRepository.getReferenceById(3)).thenReturn(car);
+        when(purchasedCarRepository.save(any(PurchasedCar.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        purchasedCarDaoService.createPurchasedCar(purchasedCarDto);
+
+        verify(purchasedCarRepository).save(argThat(purchase -> Double.valueOf(15000.0).equals(purchase.getSalePrice())
+                && "Kia".equals(purchase.getSaleMake())));
+    }
+
+    @Test
+    void testCreatePurchasedCar_HeldByAnotherBuyer() {
+        when(buyerRepository.findById(1)).thenReturn(Optional.of(buyer));
+        when(sellerRepository.findById(2)).thenReturn(Optional.of(seller));
+        when(carHoldRepository.findByCarId(3)).thenReturn(Optional.of(
+                new CarHold(9, 3, 42, Instant.now(), Instant.now().plusSeconds(600))));
+
+        assertThrows(CarOnHoldException.class, () -> purchasedCarDaoService.createPurchasedCar(purchasedCarDto));
+        verify(carRepository, never()).claimAvailable(any());
+    }
+
+    @Test
+    void testCreatePurchasedCar_HeldByTheBuyer() {
+        when(buyerRepository.findById(1)).thenReturn(Optional.of(buyer));
+        when(sellerRepository.findById(2)).thenReturn(Optional.of(seller));
+        when(carHoldRepository.findByCarId(3)).thenReturn(Optional.of(
+                new CarHold(9, 3, 1, Instant.now(), Instant.now().plusSeconds(600))));
+        when(carRepository.claimAvailable(3)).thenReturn(1);
+        when(carSaleRepository.claim(3)).thenReturn(1);
+        when(carRepository.getReferenceById(3)).thenReturn(car);
+        when(purchasedCarRepository.save(any(PurchasedCar.class))).thenReturn(purchasedCar);
+
+        assertEquals(1, purchasedCarDaoService.createPurchasedCar(purchasedCarDto).getId());
+        verify(carHoldRepository, times(1)).deleteByCarId(3);
+    }
+
+    @Test
+    void testCreatePurchasedCar_AlreadySold() {
+        when(buyerRepository.findById(1)).thenReturn(Optional.of(buyer));
+        when(sellerRepository.findById(2)).thenReturn(Optional.of(seller));
+        when(carRepository.claimAvailable(3)).thenReturn(0);
+        when(carRepository.existsById(3)).thenReturn(true);
+
+        assertThrows(CarAlreadySoldException.class, () -> purchasedCarDaoService.createPurchasedCar(purchasedCarDto));
+        verify(purchasedCarRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testCreatePurchasedCar_SaleAlreadyRecorded() {
+        when(buyerRepository.findById(1)).thenReturn(Optional.of(buyer));
+        when(sellerRepository.findById(2)).thenReturn(Optional.of(seller));
+        when(carRepository.claimAvailable(3)).thenReturn(1);
+        when(carSaleRepository.claim(3)).thenReturn(0);
+
+        assertThrows(CarAlreadySoldException.class, () -> purchasedCarDaoService.createPurchasedCar(purchasedCarDto));
+        verify(purchasedCarRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testCreatePurchasedCar_CarNotFound() {
+        when(buyerRepository.findById(1)).thenReturn(Optional.of(buyer));
+        when(sellerRepository.findById(2)).thenReturn(Optional.of(seller));
+        when(carRepository.claimAvailable(3)).thenReturn(0);
+        when(carRepository.existsById(3)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> purchasedCarDaoService.createPurchasedCar(purchasedCarDto));
+        verify(purchasedCarRepository, never()).save(any());
+    }
+
+    @Test
+    void testCreatePurchasedCar_BuyerNotFound_DoesNotClaimCar() {
+        when(buyerRepository.findById(1)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> purchasedCarDaoService.createPurchasedCar(purchasedCarDto));
+        verify(carRepository, never()).claimAvailable(any());
+    }
+
+    // The mocked claim behaves like the conditional UPDATE: it succeeds for the first caller per car
+    @Test
+    void testCreatePurchasedCar_ConcurrentCheckouts_SellEachCarOnce() throws Exception {
+        int cars = 5;
+        int attempts = 4_000;
+        Map<Integer, AtomicBoolean> available = new ConcurrentHashMap<>();
+        for (int id = 1; id <= cars; id++) {
+            available.put(id, new AtomicBoolean(true));
+        }
+        when(buyerRepository.findById(1)).thenReturn(Optional.of(buyer));
+        when(sellerRepository.findById(2)).thenReturn(Optional.of(seller));
+        when(carRepository.claimAvailable(anyInt()))
+                .thenAnswer(invocation -> available.get(invocation.<Integer>getArgument(0)).compareAndSet(true, false) ? 1 : 0);
+        when(carSaleRepository.claim(anyInt())).thenReturn(1);
+        when(carRepository.existsById(anyInt())).thenReturn(true);
+        when(carRepository.getReferenceById(anyInt())).thenAnswer(invocation -> {
+            Car claimed = new Car();
+            claimed.setId(invocation.getArgument(0));
+            return claimed;
+        });
+        List<Integer> soldCarIds = Collections.synchronizedList(new ArrayList<>());
+        when(purchasedCarRepository.save(any(PurchasedCar.class))).thenAnswer(invocation -> {
+            PurchasedCar purchase = invocation.getArgument(0);
+            soldCarIds.add(purchase.getCar().getId());
+            return purchase;
+        });
+
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(64)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                PurchasedCarDto attempt = new PurchasedCarDto(1, 2, 1 + i % cars, LocalDate.of(2024, 5, 20));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        purchasedCarDaoService.createPurchasedCar(attempt);
+                    } catch (CarAlreadySoldException e) {
+                        conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(cars, soldCarIds.size());
+        assertEquals(cars, new HashSet<>(soldCarIds).size());
+        assertEquals(attempts - cars, conflicts.get());
     }
 
     @Test
     void testGetAllPurchasedCars() {
-        when(purchasedCarRepository.findAll()).thenReturn(Arrays.asList(purchasedCar));
+        when(purchasedCarRepository.findAllAsDto()).thenReturn(Arrays.asList(purchasedCarResponse));
 
         var result = purchasedCarDaoService.getAllPurchasedCars();
 
@@ -100,7 +301,7 @@ public class PurchasedCarDaoServiceTest {
     }
     @Test
     void testGetPurchasedCarById() {
-        when(purchasedCarRepository.findById(1)).thenReturn(Optional.of(purchasedCar));
+        when(purchasedCarRepository.findAsDtoById(1)).thenReturn(Optional.of(purchasedCarResponse));
 
         PurchasedCarResponseDto response = purchasedCarDaoService.getPurchasedCarById(1);
 
@@ -120,19 +321,138 @@ public class PurchasedCarDaoServiceTest {
 
         assertEquals(1, response.getId());
         verify(purchasedCarRepository).save(any(PurchasedCar.class));
+        verify(salesRollupDaoService).apply(List.of(sale), List.of(sale));
+        verify(eventPublisher).publishEvent(PurchasesChangedEvent.of(new PurchaseChange(
+                PurchaseChange.Type.UPDATED, 1, 1, 2, 3, LocalDate.of(2024, 5, 20), 15000.0)));
+    }
+
+    @Test
+    void testUpdatePurchasedCar_OtherCar_MovesSale() {
+        Car other = new Car();
+        other.setId(4);
+        other.setMake("Seat");
+        other.setPrice(21000.0);
+        when(purchasedCarRepository.findById(1)).thenReturn(Optional.of(purchasedCar));
+        when(buyerRepository.findById(1)).thenReturn(Optional.of(buyer));
+        when(sellerRepository.findById(2)).thenReturn(Optional.of(seller));
+        when(carRepository.findById(4)).thenReturn(Optional.of(other));
+        when(purchasedCarRepository.save(any(PurchasedCar.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        when(carRepository.claimAvailable(4)).thenReturn(1);
+        when(carSaleRepository.claim(4)).thenReturn(1);
+        car.setSeller(seller);
+        car.setIsAvailable(false);
+
+        PurchasedCarResponseDto response = purchasedCarDaoService.updatePurchasedCar(1, new PurchasedCarDto(1, 2, 4, LocalDate.of(2024, 6, 1)));
+
+        verify(salesRollupDaoService).apply(
+                List.of(new SalesRollupDaoService.Sale(2, "Seat", LocalDate.of(2024, 6, 1), 21000.0)), List.of(sale));
+        // the new car is sold like a checkout sells it
+        verify(carHoldRepository).findByCarId(4);
+        verify(carHoldRepository).deleteByCarId(4);
+        verify(outboxDaoService).append(OutboxEventType.CAR_SOLD, 4, response);
+        verify(eventPublisher).publishEvent(new CarPurchasedEvent(4));
+        // and the old one goes back on the market
+        CarDto relisted = new CarDto(3, "Kia", null, 0, 15000.0, true, 2);
+        verify(carSaleRepository).release(3);
+        assertTrue(car.getIsAvailable());
+        verify(outboxDaoService).append(OutboxEventType.CAR_UPDATED, 3, relisted);
+        verify(eventPublisher).publishEvent(CarChangedEvent.saved(relisted));
+    }
+
+    @Test
+    void testUpdatePurchasedCar_OtherCarHeldByAnotherBuyer_IsRejected() {
+        Car other = new Car();
+        other.setId(4);
+        when(purchasedCarRepository.findById(1)).thenReturn(Optional.of(purchasedCar));
+        when(buyerRepository.findById(1)).thenReturn(Optional.of(buyer));
+        when(sellerRepository.findById(2)).thenReturn(Optional.of(seller));
+        when(carRepository.findById(4)).thenReturn(Optional.of(other));
+        when(carHoldRepository.findByCarId(4)).thenReturn(Optional.of(
+                new CarHold(9, 4, 42, Instant.now(), Instant.now().plusSeconds(600))));
+
+        assertThrows(CarOnHoldException.class,
+                () -> purchasedCarDaoService.updatePurchasedCar(1, new PurchasedCarDto(1, 2, 4, LocalDate.of(2024, 6, 1))));
+        verify(carRepository, never()).claimAvailable(any());
+        verify(carSaleRepository, never()).release(any());
+        verifyNoInteractions(outboxDaoService, eventPublisher);
+    }
+
+    @Test
+    void testUpdatePurchasedCar_SameCar_PublishesNoCarEvents() {
+        when(purchasedCarRepository.findById(1)).thenReturn(Optional.of(purchasedCar));
+        when(buyerRepository.findById(1)).thenReturn(Optional.of(buyer));
+        when(sellerRepository.findById(2)).thenReturn(Optional.of(seller));
+        when(carRepository.findById(3)).thenReturn(Optional.of(car));
+        when(purchasedCarRepository.save(any(PurchasedCar.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        purchasedCarDaoService.updatePurchasedCar(1, new PurchasedCarDto(1, 2, 3, LocalDate.of(2024, 6, 1)));
+
+        verify(carRepository, never()).claimAvailable(any());
+        verify(carSaleRepository, never()).release(any());
+        verifyNoInteractions(outboxDaoService);
+        verify(eventPublisher, never()).publishEvent(any(CarPurchasedEvent.class));
+        verify(eventPublisher, never()).publishEvent(any(CarChangedEvent.class));
+    }
+
+    @Test
+    void testUpdatePurchasedCar_OtherCarAlreadySold_IsConflict() {
+        Car other = new Car();
+        other.setId(4);
+        when(purchasedCarRepository.findById(1)).thenReturn(Optional.of(purchasedCar));
+        when(buyerRepository.findById(1)).thenReturn(Optional.of(buyer));
+        when(sellerRepository.findById(2)).thenReturn(Optional.of(seller));
+        when(carRepository.findById(4)).thenReturn(Optional.of(other));
+        when(carRepository.claimAvailable(4)).thenReturn(0);
+        when(carRepository.existsById(4)).thenReturn(true);
+
+        assertThrows(CarAlreadySoldException.class,
+                () -> purchasedCarDaoService.updatePurchasedCar(1, new PurchasedCarDto(1, 2, 4, LocalDate.of(2024, 6, 1))));
+        verify(purchasedCarRepository, never()).save(any());
+        verify(carSaleRepository, never()).release(any());
+        assertEquals(3, purchasedCar.getCar().getId());
+    }
+
+    @Test
+    void testUpdatePurchasedCar_RenamedListing_KeepsSaleMake() {
+        car.setMake("Hyundai");
+        when(purchasedCarRepository.findById(1)).thenReturn(Optional.of(purchasedCar));
+        when(buyerRepository.findById(1)).thenReturn(Optional.of(buyer));
+        when(sellerRepository.findById(2)).thenReturn(Optional.of(seller));
+        when(carRepository.findById(3)).thenReturn(Optional.of(car));
+        when(purchasedCarRepository.save(any(PurchasedCar.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        purchasedCarDaoService.updatePurchasedCar(1, new PurchasedCarDto(1, 2, 3, LocalDate.of(2024, 7, 1)));
+
+        // the sale moves by date only; it stays under the make the car had when it was sold
+        verify(salesRollupDaoService).apply(
+                List.of(new SalesRollupDaoService.Sale(2, "Kia", LocalDate.of(2024, 7, 1), 15000.0)), List.of(sale));
+        assertEquals("Kia", purchasedCar.getSaleMake());
     }
 
     @Test
     void testDeletePurchasedCar() {
         when(purchasedCarRepository.findById(1)).thenReturn(Optional.of(purchasedCar));
 
+        car.setSeller(seller);
+        car.setIsAvailable(false);
+
         purchasedCarDaoService.deletePurchasedCar(1);
 
         verify(purchasedCarRepository).delete(purchasedCar);
+        // the car is back on the market and every index hears about it
+        CarDto relisted = new CarDto(3, "Kia", null, 0, 15000.0, true, 2);
+        verify(carSaleRepository).release(3);
+        assertTrue(car.getIsAvailable());
+        verify(outboxDaoService).append(OutboxEventType.CAR_UPDATED, 3, relisted);
+        verify(eventPublisher).publishEvent(CarChangedEvent.saved(relisted));
+        verify(salesRollupDaoService).apply(List.of(), List.of(sale));
+        verify(eventPublisher).publishEvent(PurchasesChangedEvent.of(new PurchaseChange(
+                PurchaseChange.Type.DELETED, 1, 1, 2, 3, LocalDate.of(2024, 5, 20), 15000.0)));
     }
     @Test
     void testGetPurchasedCarsByBuyerId() {
-        when(purchasedCarRepository.findByBuyerId(1)).thenReturn(Arrays.asList(purchasedCar));
+        when(purchasedCarRepository.findAsDtoByBuyerId(1)).thenReturn(Arrays.asList(purchasedCarResponse));
 
         var result = purchasedCarDaoService.getPurchasedCarsByBuyerId(1);
 
@@ -141,7 +461,7 @@ public class PurchasedCarDaoServiceTest {
     }
     @Test
     void testGetPurchasedCarsBySellerId() {
-        when(purchasedCarRepository.findBySellerId(2)).thenReturn(Arrays.asList(purchasedCar));
+        when(purchasedCarRepository.findAsDtoBySellerId(2)).thenReturn(Arrays.asList(purchasedCarResponse));
 
         var result = purchasedCarDaoService.getPurchasedCarsBySellerId(2);
          assertEquals(1, result.size());
@@ -150,7 +470,7 @@ public class PurchasedCarDaoServiceTest {
 
     @Test
     void testGetPurchasedCarsByCarId() {
-        when(purchasedCarRepository.findByCarId(3)).thenReturn(Arrays.asList(purchasedCar));
+        when(purchasedCarRepository.findAsDtoByCarId(3)).thenReturn(Arrays.asList(purchasedCarResponse));
 
           var result = purchasedCarDaoService.getPurchasedCarsByCarId(3);
 
@@ -160,7 +480,7 @@ public class PurchasedCarDaoServiceTest {
 
     @Test
     void testGetPurchasedCarById_NotFound() {
-        when(purchasedCarRepository.findById(100)).thenReturn(Optional.empty());
+        when(purchasedCarRepository.findAsDtoById(100)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class,
                 () -> purchasedCarDaoService.getPurchasedCarById(100));
@@ -173,4 +493,54 @@ public class PurchasedCarDaoServiceTest {
         assertThrows(ResourceNotFoundException.class,
                 () -> purchasedCarDaoService.deletePurchasedCar(200));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testReadsUseProjectionsInsteadOfEntities() {
+        when(purchasedCarRepository.findAllAsDto()).thenReturn(Arrays.asList(purchasedCarResponse));
+        when(purchasedCarRepository.findAsDtoById(1)).thenReturn(Optional.of(purchasedCarResponse));
+
+        purchasedCarDaoService.getAllPurchasedCars();
+        purchasedCarDaoService.getPurchasedCarById(1);
+
+        verify(purchasedCarRepository, never()).findAll();
+        verify(purchasedCarRepository, never()).findById(any());
+        verifyNoInteractions(buyerRepository, sellerRepository, carRepository);
+    }
+
+    @Test
+    void testGetPurchasedCarsBetween_PagesByDateAndId() {
+        LocalDate from = LocalDate.of(2026, 7, 1);
+        LocalDate to = LocalDate.of(2026, 9, 30);
+        PurchasedCarResponseDto first = new PurchasedCarResponseDto(7, 1, 2, 3, LocalDate.of(2026, 7, 4));
+        PurchasedCarResponseDto second = new PurchasedCarResponseDto(4, 1, 2, 5, LocalDate.of(2026, 8, 9));
+        PurchasedCarResponseDto third = new PurchasedCarResponseDto(9, 1, 2, 6, LocalDate.of(2026, 8, 9));
+        when(purchasedCarRepository.findAsDtoByPurchaseDateBetween(from, to, from, Integer.MIN_VALUE, PageRequest.ofSize(3)))
+                .thenReturn(List.of(first, second, third));
+        when(purchasedCarRepository.findAsDtoByPurchaseDateBetween(from, to, LocalDate.of(2026, 8, 9), 4, PageRequest.ofSize(3)))
+                .thenReturn(List.of(third));
+
+        PurchasedCarPageDto page = purchasedCarDaoService.getPurchasedCarsBetween(from, to, null, 2);
+
+        assertEquals(List.of(first, second), page.getContent());
+        assertTrue(page.isHasNext());
+
+        PurchasedCarPageDto next = purchasedCarDaoService.getPurchasedCarsBetween(from, to, page.getNextCursor(), 2);
+
+        assertEquals(List.of(third), next.getContent());
+        assertFalse(next.isHasNext());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void testGetPurchasedCarsBetween_InvalidRequests() {
+        LocalDate from = LocalDate.of(2026, 7, 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> purchasedCarDaoService.getPurchasedCarsBetween(from, from.minusDays(1), null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> purchasedCarDaoService.getPurchasedCarsBetween(from, from, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> purchasedCarDaoService.getPurchasedCarsBetween(from, from, "not-a-cursor", null));
+        verifyNoInteractions(purchasedCarRepository);
+    }
+}
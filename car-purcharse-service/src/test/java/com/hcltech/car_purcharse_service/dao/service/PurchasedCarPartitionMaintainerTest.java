@@ -0,0 +1,126 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PurchasedCarPartitionMaintainerTest {
+
+    private static final String EXISTS = "select to_regclass(?) is not null";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PurchasedCarPartitionMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        maintainer = new PurchasedCarPartitionMaintainer(jdbcTemplate, transactionManager, true, 2, Duration.ofHours(6),
+                Clock.fixed(Instant.parse("2026-11-18T12:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("partitions should be created for the current month and the months ahead that lack one")
+    void ensurePartitions_createsMissingMonths() {
+        when(jdbcTemplate.queryForObject(PurchasedCarPartitionMaintainer.IS_PARTITIONED, Boolean.class)).thenReturn(true);
+        when(jdbcTemplate.queryForObject(EXISTS, Boolean.class, "purchased_cars_y2026m11")).thenReturn(true);
+        when(jdbcTemplate.queryForObject(EXISTS, Boolean.class, "purchased_cars_y2026m12")).thenReturn(false);
+        when(jdbcTemplate.queryForObject(EXISTS, Boolean.class, "purchased_cars_y2027m01")).thenReturn(false);
+        when(jdbcTemplate.queryForObject(eq(PurchasedCarPartitionMaintainer.DEFAULT_HOLDS_MONTH), eq(Boolean.class), any(), any()))
+                .thenReturn(false);
+
+        assertThat(maintainer.ensurePartitions()).isEqualTo(2);
+
+        verify(jdbcTemplate).execute("create table if not exists purchased_cars_y2026m12 partition of purchased_cars "
+                + "for values from ('2026-12-01') to ('2027-01-01')");
+        verify(jdbcTemplate).execute("create table if not exists purchased_cars_y2027m01 partition of purchased_cars "
+                + "for values from ('2027-01-01') to ('2027-02-01')");
+        verify(jdbcTemplate, times(2)).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("a table that has not been converted yet should be left alone")
+    void ensurePartitions_plainTable() {
+        when(jdbcTemplate.queryForObject(PurchasedCarPartitionMaintainer.IS_PARTITIONED, Boolean.class)).thenReturn(false);
+
+        assertThat(maintainer.ensurePartitions()).isZero();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("a month that fails should not stop the months after it")
+    void ensurePartitions_failureIsPerMonth() {
+        when(jdbcTemplate.queryForObject(PurchasedCarPartitionMaintainer.IS_PARTITIONED, Boolean.class)).thenReturn(true);
+        when(jdbcTemplate.queryForObject(eq(EXISTS), eq(Boolean.class), anyString())).thenReturn(false);
+        doThrow(new DataAccessResourceFailureException("lock timeout"))
+                .when(jdbcTemplate).execute(PurchasedCarPartitionMaintainer.createPartition(LocalDate.of(2026, 11, 1)));
+
+        assertThat(maintainer.ensurePartitions()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("a future-dated purchase in the default partition should be moved into its month's new partition")
+    void ensurePartitions_movesFutureDatedPurchaseOutOfDefault() {
+        when(jdbcTemplate.queryForObject(PurchasedCarPartitionMaintainer.IS_PARTITIONED, Boolean.class)).thenReturn(true);
+        when(jdbcTemplate.queryForObject(EXISTS, Boolean.class, "purchased_cars_y2026m11")).thenReturn(true);
+        when(jdbcTemplate.queryForObject(EXISTS, Boolean.class, "purchased_cars_y2026m12")).thenReturn(true);
+        when(jdbcTemplate.queryForObject(EXISTS, Boolean.class, "purchased_cars_y2027m01")).thenReturn(false);
+        // a purchase dated 2027-01-15 was written before January had a partition
+        when(jdbcTemplate.queryForObject(PurchasedCarPartitionMaintainer.DEFAULT_HOLDS_MONTH, Boolean.class,
+                LocalDate.of(2027, 1, 1), LocalDate.of(2027, 2, 1))).thenReturn(true);
+
+        assertThat(maintainer.ensurePartitions()).isEqualTo(1);
+
+        InOrder inOrder = inOrder(transactionManager, jdbcTemplate);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(jdbcTemplate).execute("lock table purchased_cars_default in exclusive mode");
+        inOrder.verify(jdbcTemplate).execute("create table purchased_cars_y2027m01 (like purchased_cars)");
+        inOrder.verify(jdbcTemplate).execute("with moved as (delete from purchased_cars_default where purchase_date >= "
+                + "'2027-01-01' and purchase_date < '2027-02-01' returning *) insert into purchased_cars_y2027m01 select * from moved");
+        inOrder.verify(jdbcTemplate).execute("alter table purchased_cars attach partition purchased_cars_y2027m01 "
+                + "for values from ('2027-01-01') to ('2027-02-01')");
+        inOrder.verify(transactionManager).commit(any());
+        verify(jdbcTemplate, never()).execute(PurchasedCarPartitionMaintainer.createPartition(LocalDate.of(2027, 1, 1)));
+    }
+
+    @Test
+    @DisplayName("a failed move should roll back and leave the purchases in the default partition for the next run")
+    void ensurePartitions_failedMoveRollsBack() {
+        when(jdbcTemplate.queryForObject(PurchasedCarPartitionMaintainer.IS_PARTITIONED, Boolean.class)).thenReturn(true);
+        when(jdbcTemplate.queryForObject(eq(EXISTS), eq(Boolean.class), anyString())).thenReturn(true);
+        when(jdbcTemplate.queryForObject(EXISTS, Boolean.class, "purchased_cars_y2026m11")).thenReturn(false);
+        when(jdbcTemplate.queryForObject(PurchasedCarPartitionMaintainer.DEFAULT_HOLDS_MONTH, Boolean.class,
+                LocalDate.of(2026, 11, 1), LocalDate.of(2026, 12, 1))).thenReturn(true);
+        doThrow(new DataAccessResourceFailureException("lock timeout"))
+                .when(jdbcTemplate).execute("lock table purchased_cars_default in exclusive mode");
+
+        assertThat(maintainer.ensurePartitions()).isZero();
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+}
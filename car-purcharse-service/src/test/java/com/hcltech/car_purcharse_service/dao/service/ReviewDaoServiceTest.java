@@ -5,6 +5,8 @@ package com.hcltech.car_purcharse_service.dao.service;
 
 
 import com.hcltech.car_purcharse_service.dto.ReviewDto;
+import com.hcltech.car_purcharse_service.event.OutboxEventType;
+import com.hcltech.car_purcharse_service.event.ReviewChangedEvent;
 import com.hcltech.car_purcharse_service.model.Review;
 import com.hcltech.car_purcharse_service.model.Buyer; // Needed for Review entity
 import com.hcltech.car_purcharse_service.model.Car;   // Needed for Review entity
@@ -18,6 +20,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
 import java.util.List;
@@ -41,6 +44,12 @@ public class ReviewDaoServiceTest {
     @Mock // Mocking CarRepository as Review has a ManyToOne relationship with Car
     private CarRepository carRepository;
 
+    @Mock
+    private OutboxDaoService outboxDaoService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ReviewDaoService reviewService; // Assuming you have a ReviewService class
 
@@ -102,6 +111,8 @@ public class ReviewDaoServiceTest {
         verify(buyerRepository, times(1)).findById(testBuyer.getId());
         verify(carRepository, times(1)).findById(testCar.getId());
         verify(reviewRepository, times(1)).save(any(Review.class));
+        verify(outboxDaoService).append(OutboxEventType.REVIEW_POSTED, 1, createdReviewDto);
+        verify(eventPublisher, times(1)).publishEvent(new ReviewChangedEvent(testCar.getId()));
     }
 
     @Test
@@ -155,6 +166,17 @@ public class ReviewDaoServiceTest {
         verify(reviewRepository, times(1)).findById(99);
     }
 
+    @Test
+    @DisplayName("Should retrieve a car's reviews through the DTO projection")
+    void shouldGetReviewsByCarId() {
+        when(reviewRepository.findAsDtoByCarId(testCar.getId())).thenReturn(List.of(reviewDto));
+
+        List<ReviewDto> reviews = reviewService.getReviewsByCarId(testCar.getId());
+
+        assertThat(reviews).containsExactly(reviewDto);
+        verify(reviewRepository, never()).findByCarId(any());
+    }
+
     @Test
     @DisplayName("Should retrieve all reviews")
     void shouldGetAllReviews() {
@@ -197,24 +219,26 @@ public class ReviewDaoServiceTest {
     @Test
     @DisplayName("Should delete a review successfully")
     void shouldDeleteReviewSuccessfully() {
-        when(reviewRepository.existsById(1)).thenReturn(true);
-        doNothing().when(reviewRepository).deleteById(1);
+        when(reviewRepository.findById(1)).thenReturn(Optional.of(review));
+        doNothing().when(reviewRepository).delete(review);
 
         reviewService.deleteReview(1);
 
-        verify(reviewRepository, times(1)).existsById(1);
-        verify(reviewRepository, times(1)).deleteById(1);
+        verify(reviewRepository, times(1)).findById(1);
+        verify(reviewRepository, times(1)).delete(review);
+        verify(eventPublisher, times(1)).publishEvent(new ReviewChangedEvent(testCar.getId()));
     }
 
     @Test
     @DisplayName("Should throw RuntimeException when deleting non-existent review")
     void shouldThrowExceptionWhenDeletingNonExistentReview() {
-        when(reviewRepository.existsById(anyInt())).thenReturn(false);
+        when(reviewRepository.findById(anyInt())).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> reviewService.deleteReview(99));
 
-        verify(reviewRepository, times(1)).existsById(99);
-        verify(reviewRepository, never()).deleteById(anyInt()); // Should not attempt delete
+        verify(reviewRepository, times(1)).findById(99);
+        verify(reviewRepository, never()).delete(any(Review.class)); // Should not attempt delete
+        verifyNoInteractions(eventPublisher);
     }
 
     // You might also add tests for methods like getReviewsByCarId, getReviewsByBuyerId if they exist in your service
@@ -0,0 +1,100 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import com.hcltech.car_purcharse_service.repository.MakeMonthlySalesRepository;
+import com.hcltech.car_purcharse_service.repository.SellerDailySalesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupDaoServiceTest {
+
+    private static final LocalDate SEP_3 = LocalDate.of(2026, 9, 3);
+
+    private static final LocalDate SEP_20 = LocalDate.of(2026, 9, 20);
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SellerDailySalesRepository sellerDailySalesRepository;
+
+    @Mock
+    private MakeMonthlySalesRepository makeMonthlySalesRepository;
+
+    private SalesRollupDaoService salesRollupDaoService;
+
+    @BeforeEach
+    void setUp() {
+        salesRollupDaoService = new SalesRollupDaoService(jdbcTemplate, sellerDailySalesRepository, makeMonthlySalesRepository);
+    }
+
+    @Test
+    @DisplayName("deltas should be merged per rollup row and upserted in key order")
+    void apply_mergesAndOrdersDeltas() {
+        salesRollupDaoService.apply(List.of(
+                        new SalesRollupDaoService.Sale(7, "Seat", SEP_20, 21000.0),
+                        new SalesRollupDaoService.Sale(2, "Kia ", SEP_3, 9000.0),
+                        new SalesRollupDaoService.Sale(2, "Kia", SEP_3, 15000.5)),
+                List.of(new SalesRollupDaoService.Sale(2, "Kia", SEP_20, 9000.0)));
+
+        ArgumentCaptor<SqlParameterSource[]> sellerRows = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(contains("seller_daily_sales"), sellerRows.capture());
+        assertThat(Arrays.asList(sellerRows.getValue()))
+                .extracting(row -> row.getValue("sellerId"), row -> row.getValue("day"), row -> row.getValue("count"), row -> row.getValue("revenue"))
+                .containsExactly(
+                        tuple(2, Date.valueOf(SEP_3), 2L, 2_400_050L),
+                        tuple(2, Date.valueOf(SEP_20), -1L, -900_000L),
+                        tuple(7, Date.valueOf(SEP_20), 1L, 2_100_000L));
+
+        ArgumentCaptor<SqlParameterSource[]> makeRows = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(contains("make_monthly_sales"), makeRows.capture());
+        assertThat(Arrays.asList(makeRows.getValue()))
+                .extracting(row -> row.getValue("make"), row -> row.getValue("month"), row -> row.getValue("count"), row -> row.getValue("revenue"))
+                .containsExactly(
+                        tuple("Kia", Date.valueOf(LocalDate.of(2026, 9, 1)), 1L, 1_500_050L),
+                        tuple("Seat", Date.valueOf(LocalDate.of(2026, 9, 1)), 1L, 2_100_000L));
+    }
+
+    @Test
+    @DisplayName("an update that leaves the sale where it was, or a sale without a date, should write nothing")
+    void apply_noNetChange() {
+        SalesRollupDaoService.Sale sale = new SalesRollupDaoService.Sale(2, "Kia", SEP_3, 9000.0);
+
+        salesRollupDaoService.apply(List.of(sale), List.of(sale));
+        salesRollupDaoService.apply(List.of(new SalesRollupDaoService.Sale(2, "Kia", null, 9000.0)), List.of());
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(SqlParameterSource[].class));
+    }
+
+    @Test
+    @DisplayName("a sale without make or price should still count for its seller")
+    void apply_partialSale() {
+        salesRollupDaoService.apply(List.of(new SalesRollupDaoService.Sale(2, null, SEP_3, null)), List.of());
+
+        ArgumentCaptor<SqlParameterSource[]> rows = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getValue()).singleElement().satisfies(row -> {
+            assertThat(row.getValue("count")).isEqualTo(1L);
+            assertThat(row.getValue("revenue")).isEqualTo(0L);
+        });
+    }
+}
@@ -0,0 +1,108 @@
+package com.hcltech.car_purcharse_service.dao.service;
+
+import com.hcltech.car_purcharse_service.event.SellerChangedEvent;
+import com.hcltech.car_purcharse_service.model.Seller;
+import com.hcltech.car_purcharse_service.repository.SellerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SellerReferenceResolverTest {
+
+    @Mock
+    private SellerRepository sellerRepository;
+
+    private SellerReferenceResolver resolver;
+
+    private Seller seller1;
+    private Seller seller2;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new SellerReferenceResolver(sellerRepository, 100, Duration.ofMinutes(10));
+        seller1 = new Seller(1, "Seller A", "111", "a@example.com");
+        seller2 = new Seller(2, "Seller B", "222", "b@example.com");
+    }
+
+    @Test
+    @DisplayName("resolve should load an unknown seller once and reference it afterwards")
+    void resolve_knownSeller_usesReference() {
+        Seller reference = new Seller();
+        when(sellerRepository.findById(1)).thenReturn(Optional.of(seller1));
+        when(sellerRepository.getReferenceById(1)).thenReturn(reference);
+
+        assertSame(seller1, resolver.resolve(1));
+        assertSame(reference, resolver.resolve(1));
+        assertSame(reference, resolver.resolve(1));
+
+        verify(sellerRepository, times(1)).findById(1);
+        verify(sellerRepository, times(2)).getReferenceById(1);
+    }
+
+    @Test
+    @DisplayName("resolve should return null for a null or missing seller and not remember the missing id")
+    void resolve_missingSeller_returnsNull() {
+        when(sellerRepository.findById(99)).thenReturn(Optional.empty());
+
+        assertNull(resolver.resolve(null));
+        assertNull(resolver.resolve(99));
+        assertNull(resolver.resolve(99));
+
+        verify(sellerRepository, times(2)).findById(99);
+        verify(sellerRepository, never()).getReferenceById(any());
+    }
+
+    @Test
+    @DisplayName("resolveAll should load only the unknown distinct ids with one findAllById call")
+    void resolveAll_loadsUnknownIdsInOneQuery() {
+        Seller reference = new Seller();
+        when(sellerRepository.findById(1)).thenReturn(Optional.of(seller1));
+        when(sellerRepository.getReferenceById(1)).thenReturn(reference);
+        when(sellerRepository.findAllById(List.of(2, 99))).thenReturn(List.of(seller2));
+        resolver.resolve(1);
+
+        Map<Integer, Seller> sellers = resolver.resolveAll(Arrays.asList(1, 2, null, 2, 99, 1));
+
+        assertEquals(Map.of(1, reference, 2, seller2), sellers);
+        verify(sellerRepository, times(1)).findAllById(List.of(2, 99));
+    }
+
+    @Test
+    @DisplayName("resolveAll should not query when every seller is already known")
+    void resolveAll_allKnown_noQuery() {
+        when(sellerRepository.findAllById(List.of(1, 2))).thenReturn(List.of(seller1, seller2));
+        resolver.resolveAll(List.of(1, 2));
+
+        resolver.resolveAll(List.of(2, 1));
+
+        verify(sellerRepository, times(1)).findAllById(any());
+        verify(sellerRepository, times(1)).getReferenceById(1);
+        verify(sellerRepository, times(1)).getReferenceById(2);
+    }
+
+    @Test
+    @DisplayName("a seller change should make the next resolve load the seller again")
+    void onSellerChanged_forgetsSeller() {
+        when(sellerRepository.findById(1)).thenReturn(Optional.of(seller1));
+        resolver.resolve(1);
+
+        resolver.onSellerChanged(new SellerChangedEvent(1));
+        when(sellerRepository.findById(1)).thenReturn(Optional.empty());
+
+        assertNull(resolver.resolve(1));
+        verify(sellerRepository, never()).getReferenceById(any());
+    }
+}
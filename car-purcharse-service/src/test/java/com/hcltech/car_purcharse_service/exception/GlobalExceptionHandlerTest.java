@@ -81,4 +81,44 @@ class GlobalExceptionHandlerTest {
         assertNotNull(response.getBody());
         assertTrue(response.getBody().isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("handleIllegalArgument should return BAD_REQUEST with the exception message")
+    void handleIllegalArgument_returnsBadRequest() {
+        ResponseEntity<String> response = globalExceptionHandler.handleIllegalArgument(
+                new IllegalArgumentException("Invalid cursor"), mock(WebRequest.class));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid cursor", response.getBody());
+    }
+
+    @Test
+    @DisplayName("handleCarAlreadySold should return CONFLICT with the exception message")
+    void handleCarAlreadySold_returnsConflict() {
+        ResponseEntity<String> response = globalExceptionHandler.handleCarAlreadySold(
+                new CarAlreadySoldException("Car with ID 3 is no longer available"), mock(WebRequest.class));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Car with ID 3 is no longer available", response.getBody());
+    }
+
+    @Test
+    @DisplayName("handleCarOnHold should return CONFLICT with the exception message")
+    void handleCarOnHold_returnsConflict() {
+        ResponseEntity<String> response = globalExceptionHandler.handleCarOnHold(
+                new CarOnHoldException("Car with ID 3 is already on hold"), mock(WebRequest.class));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Car with ID 3 is already on hold", response.getBody());
+    }
+
+    @Test
+    @DisplayName("handleHoldNotOwned should return FORBIDDEN with the exception message")
+    void handleHoldNotOwned_returnsForbidden() {
+        ResponseEntity<String> response = globalExceptionHandler.handleHoldNotOwned(
+                new HoldNotOwnedException("The hold on car 3 belongs to another buyer"), mock(WebRequest.class));
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        assertEquals("The hold on car 3 belongs to another buyer", response.getBody());
+    }
+}
@@ -0,0 +1,155 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.hcltech.car_purcharse_service.dao.service.ReviewDaoService;
+import com.hcltech.car_purcharse_service.dto.CarDetailDto;
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.dto.CarImageDto;
+import com.hcltech.car_purcharse_service.dto.ReviewDto;
+import com.hcltech.car_purcharse_service.dto.ReviewSummaryDto;
+import com.hcltech.car_purcharse_service.dto.SellerDto;
+import com.hcltech.car_purcharse_service.dto.SellerSummaryDto;
+import com.hcltech.car_purcharse_service.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CarDetailServiceTest {
+
+    private static final Duration BRANCH_TIMEOUT = Duration.ofMillis(300);
+
+    @Mock
+    private CarService carService;
+
+    @Mock
+    private CarImageService carImageService;
+
+    @Mock
+    private ReviewDaoService reviewDaoService;
+
+    @Mock
+    private SellerService sellerService;
+
+    private CarDetailService carDetailService;
+
+    private final CarDto car = new CarDto(1, "Toyota", "Corolla", 2020, 15000.0, true, 7);
+    private final SellerDto seller = new SellerDto(7, "Ann", "ann@example.com", "5551234567", "secret-password");
+    private final SellerSummaryDto sellerSummary = new SellerSummaryDto(7, "Ann", "ann@example.com", "5551234567");
+    private final List<CarImageDto> images = List.of(new CarImageDto(3, "pub-3", "http://img/3", 1));
+    private final List<ReviewDto> reviews = List.of(
+            new ReviewDto(1, "4", "Smooth ride", 11, 1),
+            new ReviewDto(2, "5", "Like new", 12, 1),
+            new ReviewDto(3, "great", "No complaints", 13, 1));
+
+    @BeforeEach
+    void setUp() {
+        carDetailService = new CarDetailService(carService, carImageService, reviewDaoService, sellerService, BRANCH_TIMEOUT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        carDetailService.close();
+    }
+
+    @Test
+    @DisplayName("getDetail should combine every branch, summarize the seller and the numeric ratings")
+    void getDetail_allBranchesSucceed() {
+        when(carService.getOneById(1)).thenReturn(car);
+        when(sellerService.findSellerById(7)).thenReturn(seller);
+        when(carImageService.getAllImageByCar(1)).thenReturn(images);
+        when(reviewDaoService.getReviewsByCarId(1)).thenReturn(reviews);
+
+        CarDetailDto detail = carDetailService.getDetail(1);
+
+        assertEquals(car, detail.getCar());
+        assertEquals(sellerSummary, detail.getSeller());
+        assertEquals(images, detail.getImages());
+        assertEquals(reviews, detail.getReviews());
+        assertEquals(new ReviewSummaryDto(3, 2, 4.5), detail.getReviewSummary());
+        assertTrue(detail.getUnavailable().isEmpty());
+    }
+
+    @Test
+    @DisplayName("the branches should run concurrently, so the call takes as long as the slowest one")
+    void getDetail_branchesRunConcurrently() {
+        // each branch waits until all three independent branches have started
+        CountDownLatch started = new CountDownLatch(3);
+        when(carService.getOneById(1)).thenAnswer(invocation -> awaitOthers(started, car));
+        when(carImageService.getAllImageByCar(1)).thenAnswer(invocation -> awaitOthers(started, images));
+        when(reviewDaoService.getReviewsByCarId(1)).thenAnswer(invocation -> awaitOthers(started, reviews));
+        when(sellerService.findSellerById(7)).thenReturn(seller);
+
+        CarDetailDto detail = carDetailService.getDetail(1);
+
+        assertTrue(detail.getUnavailable().isEmpty());
+        assertEquals(sellerSummary, detail.getSeller());
+    }
+
+    @Test
+    @DisplayName("a slow branch should be dropped after its timeout and the rest returned")
+    void getDetail_slowBranch_returnsPartialResult() {
+        when(carService.getOneById(1)).thenReturn(car);
+        when(sellerService.findSellerById(7)).thenReturn(seller);
+        when(carImageService.getAllImageByCar(1)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return images;
+        });
+        when(reviewDaoService.getReviewsByCarId(1)).thenReturn(reviews);
+
+        long start = System.nanoTime();
+        CarDetailDto detail = carDetailService.getDetail(1);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(List.of(CarDetailService.IMAGES), detail.getUnavailable());
+        assertNull(detail.getImages());
+        assertEquals(car, detail.getCar());
+        assertEquals(reviews, detail.getReviews());
+        assertTrue(elapsedMillis < 2_000, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("a failing branch should be reported as unavailable")
+    void getDetail_failingBranch_isUnavailable() {
+        when(carService.getOneById(1)).thenReturn(car);
+        when(sellerService.findSellerById(7)).thenThrow(new RuntimeException("The Seller is not found"));
+        when(carImageService.getAllImageByCar(1)).thenReturn(images);
+        when(reviewDaoService.getReviewsByCarId(1)).thenThrow(new RuntimeException("database down"));
+
+        CarDetailDto detail = carDetailService.getDetail(1);
+
+        assertEquals(List.of(CarDetailService.SELLER, CarDetailService.REVIEWS), detail.getUnavailable());
+        assertNull(detail.getReviewSummary());
+        assertEquals(images, detail.getImages());
+    }
+
+    @Test
+    @DisplayName("a missing car should be a not-found error")
+    void getDetail_missingCar_throws() {
+        when(carService.getOneById(99)).thenReturn(null);
+        lenient().when(carImageService.getAllImageByCar(99)).thenReturn(List.of());
+        lenient().when(reviewDaoService.getReviewsByCarId(99)).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> carDetailService.getDetail(99));
+        verifyNoInteractions(sellerService);
+    }
+
+    private static <T> T awaitOthers(CountDownLatch started, T result) throws InterruptedException {
+        started.countDown();
+        if (!started.await(BRANCH_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("branches did not run concurrently");
+        }
+        return result;
+    }
+}
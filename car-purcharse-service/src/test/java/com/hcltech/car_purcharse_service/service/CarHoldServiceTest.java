@@ -0,0 +1,242 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.hcltech.car_purcharse_service.dao.service.CarHoldDaoService;
+import com.hcltech.car_purcharse_service.dto.CarHoldDto;
+import com.hcltech.car_purcharse_service.event.CarChangedEvent;
+import com.hcltech.car_purcharse_service.event.CarHoldChangedEvent;
+import com.hcltech.car_purcharse_service.event.CarPurchasedEvent;
+import com.hcltech.car_purcharse_service.event.CarsPurchasedEvent;
+import com.hcltech.car_purcharse_service.exception.HoldNotOwnedException;
+import com.hcltech.car_purcharse_service.exception.ResourceNotFoundException;
+import com.hcltech.car_purcharse_service.model.CarHold;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CarHoldServiceTest {
+
+    private static final Duration HOLD = Duration.ofMinutes(15);
+    private static final Instant START = Instant.parse("2025-03-01T10:00:00Z");
+
+    private static final Duration REFRESH = Duration.ofSeconds(5);
+
+    @Mock
+    private CarHoldDaoService carHoldDaoService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final MutableClock clock = new MutableClock(START);
+
+    private CarHoldService carHoldService;
+
+    @BeforeEach
+    void setUp() {
+        carHoldService = new CarHoldService(carHoldDaoService, eventPublisher, HOLD, Duration.ofSeconds(1), REFRESH, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        carHoldService.close();
+    }
+
+    @Test
+    @DisplayName("placeHold should store the hold for the configured duration and schedule its expiry")
+    void placeHold_tracksHold() {
+        when(carHoldDaoService.create(1, 7, START, START.plus(HOLD))).thenReturn(hold(10, 1, 7, START.plus(HOLD)));
+
+        CarHoldDto placed = carHoldService.placeHold(1, new CarHoldDto(null, null, 7, null));
+
+        assertEquals(new CarHoldDto(10, 1, 7, START.plus(HOLD)), placed);
+        assertTrue(carHoldService.isScheduled(1));
+        verify(eventPublisher).publishEvent(new CarHoldChangedEvent(1));
+    }
+
+    @Test
+    @DisplayName("getHold should read the table, so a hold placed by another instance is visible")
+    void getHold_readsTable() {
+        when(carHoldDaoService.findLive(1, START)).thenReturn(Optional.of(hold(10, 1, 7, START.plus(HOLD))));
+        when(carHoldDaoService.findLive(2, START)).thenReturn(Optional.empty());
+
+        assertEquals(new CarHoldDto(10, 1, 7, START.plus(HOLD)), carHoldService.getHold(1));
+        assertFalse(carHoldService.isScheduled(1));
+        assertThrows(ResourceNotFoundException.class, () -> carHoldService.getHold(2));
+    }
+
+    @Test
+    @DisplayName("heldCarIds should follow local holds from memory without reading the table")
+    void heldCarIds_followsLocalHolds() {
+        when(carHoldDaoService.create(1, 7, START, START.plus(HOLD))).thenReturn(hold(10, 1, 7, START.plus(HOLD)));
+        carHoldService.placeHold(1, new CarHoldDto(null, null, 7, null));
+
+        assertEquals(Set.of(1), carHoldService.heldCarIds());
+
+        clock.set(START.plus(HOLD));
+        // past its time, the hold no longer counts even before it is swept
+        assertEquals(Set.of(), carHoldService.heldCarIds());
+        carHoldService.expireDue();
+        clock.set(START);
+        assertEquals(Set.of(), carHoldService.heldCarIds());
+        verify(carHoldDaoService, never()).findLiveHolds(any());
+    }
+
+    @Test
+    @DisplayName("a refresh should pick up holds from other instances and drop ended ones, keeping local holds")
+    void refreshHeld_reloadsFromTable() {
+        when(carHoldDaoService.create(1, 7, START, START.plus(HOLD))).thenReturn(hold(10, 1, 7, START.plus(HOLD)));
+        carHoldService.placeHold(1, new CarHoldDto(null, null, 7, null));
+        when(carHoldDaoService.findLiveHolds(START))
+                .thenReturn(List.of(hold(11, 2, 8, START.plus(HOLD)), hold(12, 3, 8, START.plus(HOLD))))
+                .thenReturn(List.of(hold(11, 2, 8, START.plus(HOLD))))
+                .thenThrow(new RuntimeException("database down"));
+
+        carHoldService.refreshHeld();
+        assertEquals(Set.of(1, 2, 3), carHoldService.heldCarIds());
+
+        carHoldService.refreshHeld();
+        assertEquals(Set.of(1, 2), carHoldService.heldCarIds());
+
+        carHoldService.refreshHeld();
+        assertEquals(Set.of(1, 2), carHoldService.heldCarIds());
+    }
+
+    @Test
+    @DisplayName("placeHold should require a buyer")
+    void placeHold_withoutBuyer_throws() {
+        assertThrows(IllegalArgumentException.class, () -> carHoldService.placeHold(1, new CarHoldDto()));
+        verifyNoInteractions(carHoldDaoService);
+    }
+
+    @Test
+    @DisplayName("a hold should expire on the first tick at or after its deadline and delete its row")
+    void expireDue_expiresOnDeadline() {
+        when(carHoldDaoService.create(any(), any(), any(), any())).thenReturn(hold(10, 1, 7, START.plus(HOLD)));
+        carHoldService.placeHold(1, new CarHoldDto(null, null, 7, null));
+
+        clock.set(START.plus(HOLD).minusSeconds(1));
+        carHoldService.expireDue();
+        assertTrue(carHoldService.isScheduled(1));
+
+        clock.set(START.plus(HOLD));
+        carHoldService.expireDue();
+        assertFalse(carHoldService.isScheduled(1));
+        verify(carHoldDaoService).deleteExpired(10, START.plus(HOLD));
+        verify(eventPublisher, times(2)).publishEvent(new CarHoldChangedEvent(1));
+    }
+
+    @Test
+    @DisplayName("start should restore holds from the table, expiring those that ran out while down")
+    void start_restoresHolds() {
+        when(carHoldDaoService.findAll()).thenReturn(List.of(
+                hold(10, 1, 7, START.minusSeconds(30)),
+                hold(11, 2, 8, START.plus(Duration.ofMinutes(5)))));
+
+        carHoldService.start();
+        assertTrue(carHoldService.isScheduled(1));
+        assertTrue(carHoldService.isScheduled(2));
+
+        clock.set(START.plusSeconds(1));
+        carHoldService.expireDue();
+
+        assertFalse(carHoldService.isScheduled(1));
+        assertTrue(carHoldService.isScheduled(2));
+        verify(carHoldDaoService).deleteExpired(10, START.plusSeconds(1));
+    }
+
+    @Test
+    @DisplayName("releaseHold should only let the holding buyer release the car")
+    void releaseHold_checksBuyer() {
+        when(carHoldDaoService.create(any(), any(), any(), any())).thenReturn(hold(10, 1, 7, START.plus(HOLD)));
+        carHoldService.placeHold(1, new CarHoldDto(null, null, 7, null));
+        when(carHoldDaoService.findLive(1, START))
+                .thenReturn(Optional.of(hold(10, 1, 7, START.plus(HOLD))), Optional.of(hold(10, 1, 7, START.plus(HOLD))),
+                        Optional.empty());
+
+        assertThrows(HoldNotOwnedException.class, () -> carHoldService.releaseHold(1, 8));
+        verify(carHoldDaoService, never()).deleteByCarId(any());
+        carHoldService.releaseHold(1, 7);
+
+        assertFalse(carHoldService.isScheduled(1));
+        assertEquals(Set.of(), carHoldService.heldCarIds());
+        verify(carHoldDaoService).deleteByCarId(1);
+        assertThrows(ResourceNotFoundException.class, () -> carHoldService.releaseHold(1, 7));
+
+        // the cancelled timer must not fire later
+        clock.set(START.plus(HOLD));
+        carHoldService.expireDue();
+        verify(carHoldDaoService, never()).deleteExpired(any(), any());
+    }
+
+    @Test
+    @DisplayName("a purchase, a batch purchase or a deleted car should end the hold")
+    void purchaseAndDelete_endHold() {
+        when(carHoldDaoService.create(eq(1), any(), any(), any())).thenReturn(hold(10, 1, 7, START.plus(HOLD)));
+        when(carHoldDaoService.create(eq(2), any(), any(), any())).thenReturn(hold(11, 2, 7, START.plus(HOLD)));
+        when(carHoldDaoService.create(eq(3), any(), any(), any())).thenReturn(hold(12, 3, 7, START.plus(HOLD)));
+        carHoldService.placeHold(1, new CarHoldDto(null, null, 7, null));
+        carHoldService.placeHold(2, new CarHoldDto(null, null, 7, null));
+        carHoldService.placeHold(3, new CarHoldDto(null, null, 7, null));
+
+        carHoldService.onCarPurchased(new CarPurchasedEvent(1));
+        carHoldService.onCarsPurchased(new CarsPurchasedEvent(List.of(3, 4)));
+        carHoldService.onCarChanged(CarChangedEvent.deleted(2));
+
+        assertFalse(carHoldService.isScheduled(1));
+        assertFalse(carHoldService.isScheduled(2));
+        assertFalse(carHoldService.isScheduled(3));
+        assertEquals(Set.of(), carHoldService.heldCarIds());
+        verify(carHoldDaoService, never()).deleteByCarId(1);
+        verify(carHoldDaoService).deleteByCarId(2);
+    }
+
+    private static CarHold hold(Integer id, Integer carId, Integer buyerId, Instant expiresAt) {
+        return new CarHold(id, carId, buyerId, expiresAt.minus(HOLD), expiresAt);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hcltech.car_purcharse_service.dao.service.CarImportDaoService;
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.dto.CarImportErrorDto;
+import com.hcltech.car_purcharse_service.dto.CarImportResultDto;
+import com.hcltech.car_purcharse_service.event.CarsImportedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CarImportServiceTest {
+
+    @Mock
+    private CarImportDaoService carImportDaoService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private CarImportService carImportService;
+
+    // cars the mocked COPY received, in order
+    private final List<CarDto> copied = new ArrayList<>();
+
+    // lines of the copied rows whose seller the mocked merge does not find
+    private final List<Long> unknownSellerLines = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        carImportService = new CarImportService(carImportDaoService, objectMapper, eventPublisher);
+        lenient().when(carImportDaoService.copyCars(any(), anyInt())).thenAnswer(invocation -> {
+            Iterator<CarImportDaoService.ImportRow> rows = invocation.getArgument(0);
+            List<CarImportErrorDto> unknown = new ArrayList<>();
+            rows.forEachRemaining(row -> {
+                if (row.car().getSellerId() == 9) {
+                    unknownSellerLines.add(row.line());
+                    unknown.add(new CarImportErrorDto(row.line(), "Seller not found with ID: 9"));
+                } else {
+                    copied.add(row.car());
+                }
+            });
+            return new CarImportDaoService.ImportResult(copied.size(), unknown.size(), unknown);
+        });
+    }
+
+    @Test
+    @DisplayName("CSV import should copy valid rows and report invalid ones together with those of unknown sellers")
+    void importCars_csv() {
+        String csv = """
+                make,model,year,price,isAvailable,sellerId
+                Ford,"Focus, ST",2018,8000,true,1
+                Kia,Rio,abc,9000,true,1
+
+                ,Polo,2019,9500,true,1
+                Seat,Ibiza,2020,11000,false,9
+                Skoda,Fabia,2019,8500,,1
+                """;
+
+        CarImportResultDto result = carImportService.importCars(stream(csv), ExportFormat.CSV);
+
+        assertEquals(5, result.getTotalRows());
+        assertEquals(2, result.getImportedRows());
+        assertEquals(3, result.getRejectedRows());
+        assertEquals(List.of(
+                new CarImportErrorDto(3, "year is not a number: abc"),
+                new CarImportErrorDto(5, "make is required"),
+                new CarImportErrorDto(6, "Seller not found with ID: 9")), result.getErrors());
+        assertEquals(List.of("Focus, ST", "Fabia"), copied.stream().map(CarDto::getModel).toList());
+        assertTrue(copied.get(1).getIsAvailable());
+        assertEquals(List.of(6L), unknownSellerLines);
+        verify(carImportDaoService).copyCars(any(), eq(CarImportService.MAX_REPORTED_ERRORS));
+        verify(eventPublisher).publishEvent(new CarsImportedEvent(2));
+    }
+
+    @Test
+    @DisplayName("NDJSON import should reject malformed lines and missing fields")
+    void importCars_ndjson() {
+        String ndjson = """
+                {"make":"Toyota","model":"RAV4","year":2021,"price":28000.0,"sellerId":2}
+                {"make":"Toyota","model":
+                {"make":"Toyota","model":"Yaris","price":15000.0,"sellerId":2}
+                """;
+
+        CarImportResultDto result = carImportService.importCars(stream(ndjson), ExportFormat.NDJSON);
+
+        assertEquals(1, result.getImportedRows());
+        assertEquals(2, result.getRejectedRows());
+        assertEquals(2, result.getErrors().get(0).getLine());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Malformed JSON"));
+        assertTrue(result.getErrors().get(1).getMessage().startsWith("year must be between"));
+    }
+
+    @Test
+    @DisplayName("CSV without a required column should fail the whole import")
+    void importCars_missingHeaderColumn() {
+        assertThrows(IllegalArgumentException.class,
+                () -> carImportService.importCars(stream("make,model,year\nFord,Ka,2015\n"), ExportFormat.CSV));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("splitCsv should honour quotes and doubled quote escapes")
+    void splitCsv_quotedFields() {
+        assertEquals(List.of("a", "b,c", "say \"hi\"", ""), CarImportService.splitCsv("a,\"b,c\",\"say \"\"hi\"\"\","));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,107 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.hcltech.car_purcharse_service.dao.service.CarPriceHistoryDaoService;
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.event.CarChangedEvent;
+import com.hcltech.car_purcharse_service.model.CarPriceHistoryChunk;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CarPriceHistoryServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T10:15:30.123456Z");
+
+    @Mock
+    private CarPriceHistoryDaoService carPriceHistoryDaoService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CarPriceHistoryService carPriceHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        carPriceHistoryService = new CarPriceHistoryService(carPriceHistoryDaoService, transactionManager,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("saved cars should be recorded at the time the write took, not the time the listener runs; deletes record nothing")
+    void onCarChanged_recordsSavedCars() {
+        CarDto car = new CarDto(1, "Toyota", "Corolla", 2020, 15000.0, true, 7);
+        Instant writtenAt = NOW.minusSeconds(5).truncatedTo(ChronoUnit.MILLIS);
+
+        carPriceHistoryService.onCarChanged(new CarChangedEvent(List.of(car), List.of(), writtenAt));
+        carPriceHistoryService.onCarChanged(CarChangedEvent.deleted(2));
+
+        verify(carPriceHistoryDaoService).recordPrices(List.of(car), writtenAt);
+        verifyNoMoreInteractions(carPriceHistoryDaoService);
+    }
+
+    @Test
+    @DisplayName("a write that loses a race for the latest chunk should be retried in a new transaction")
+    void onCarChanged_retriesConflicts() {
+        CarDto car = new CarDto(1, "Toyota", "Corolla", 2020, 15000.0, true, 7);
+        Instant changedAt = Instant.parse("2025-03-01T10:15:30.123Z");
+        doThrow(new ObjectOptimisticLockingFailureException(CarPriceHistoryChunk.class, 4))
+                .doThrow(new DataIntegrityViolationException("uk_price_history_car_latest"))
+                .doNothing()
+                .when(carPriceHistoryDaoService).recordPrices(List.of(car), changedAt);
+
+        carPriceHistoryService.onCarChanged(new CarChangedEvent(List.of(car), List.of(), changedAt));
+
+        verify(carPriceHistoryDaoService, times(3)).recordPrices(List.of(car), changedAt);
+        verify(transactionManager, times(3)).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("a write that keeps colliding should give up after the last attempt")
+    void onCarChanged_givesUp() {
+        CarDto car = new CarDto(1, "Toyota", "Corolla", 2020, 15000.0, true, 7);
+        doThrow(new ObjectOptimisticLockingFailureException(CarPriceHistoryChunk.class, 4))
+                .when(carPriceHistoryDaoService).recordPrices(any(), any());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> carPriceHistoryService.onCarChanged(CarChangedEvent.saved(car)));
+        verify(carPriceHistoryDaoService, times(CarPriceHistoryService.MAX_ATTEMPTS)).recordPrices(any(), any());
+    }
+
+    @Test
+    @DisplayName("an open range should default to the whole history up to now")
+    void getHistory_openRange() {
+        carPriceHistoryService.getHistory(1, null, null);
+
+        verify(carPriceHistoryDaoService).getHistory(1, Instant.EPOCH, NOW);
+    }
+
+    @Test
+    @DisplayName("a range whose start is after its end should be rejected")
+    void getHistory_invertedRange_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> carPriceHistoryService.getHistory(1, NOW, NOW.minusSeconds(1)));
+        verifyNoInteractions(carPriceHistoryDaoService);
+    }
+}
@@ -1,6 +1,22 @@
 package com.hcltech.car_purcharse_service.service;
+import com.hcltech.car_purcharse_service.dao.index.AvailableCarsSnapshot;
+import com.hcltech.car_purcharse_service.dao.index.CarFacetIndex;
+import com.hcltech.car_purcharse_service.dao.index.CarRangeIndex;
+import com.hcltech.car_purcharse_service.dao.index.CarSearchIndex;
+import com.hcltech.car_purcharse_service.dao.index.CarSimilarityIndex;
+import com.hcltech.car_purcharse_service.dao.index.CarSuggestIndex;
+import com.hcltech.car_purcharse_service.dao.index.SellerInventoryCache;
 import com.hcltech.car_purcharse_service.dao.service.CarDaoService;
+import com.hcltech.car_purcharse_service.dao.service.SellerReferenceResolver;
+import com.hcltech.car_purcharse_service.dto.CarBulkUpdateDto;
+import com.hcltech.car_purcharse_service.dto.CarBulkUpdateResultDto;
 import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.dto.CarFacetSearchDto;
+import com.hcltech.car_purcharse_service.dto.CarPageDto;
+import com.hcltech.car_purcharse_service.event.CarChangedEvent;
+import com.hcltech.car_purcharse_service.event.OutboxEventType;
+import com.hcltech.car_purcharse_service.dao.service.OutboxDaoService;
+import com.hcltech.car_purcharse_service.exception.ResourceNotFoundException;
 import com.hcltech.car_purcharse_service.model.Car;
 import com.hcltech.car_purcharse_service.model.Seller;
 import com.hcltech.car_purcharse_service.repository.SellerRepository;
@@ -8,13 +24,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,7 +56,38 @@ class CarServiceTest {
     @Mock
     private CarImageService carImageService; // Although not used in service methods, it's in the constructor
 
-    @InjectMocks
+    @Mock
+    private CarFacetIndex carFacetIndex;
+
+    @Mock
+    private CarRangeIndex carRangeIndex;
+
+    @Mock
+    private CarSearchIndex carSearchIndex;
+
+    @Mock
+    private CarSuggestIndex carSuggestIndex;
+
+    @Mock
+    private CarSimilarityIndex carSimilarityIndex;
+
+    @Mock
+    private AvailableCarsSnapshot availableCarsSnapshot;
+
+    @Mock
+    private CarHoldService carHoldService;
+
+    @Spy
+    private SellerInventoryCache sellerInventoryCache = new SellerInventoryCache(100, Duration.ofMinutes(10));
+
+    @Mock
+    private OutboxDaoService outboxDaoService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SellerReferenceResolver sellerReferenceResolver;
+
     private CarService carService;
 
     // Helper method to create a Car object
@@ -68,23 +124,29 @@ class CarServiceTest {
         return seller;
     }
 
+    private List<CarDto> dtos(Car... cars) {
+        return carService.toDto(Arrays.asList(cars));
+    }
+
     @BeforeEach
     void setUp() {
-        // No specific setup needed here for @Mock and @InjectMocks due to @ExtendWith(MockitoExtension.class)
-        // If you were manually initializing mocks, you'd do it here.
+        sellerReferenceResolver = new SellerReferenceResolver(sellerRepository, 100, Duration.ofMinutes(10));
+        carService = new CarService(carDaoService, sellerReferenceResolver, carImageService, carFacetIndex,
+                carRangeIndex, carSearchIndex, carSuggestIndex, carSimilarityIndex, availableCarsSnapshot, carHoldService,
+                sellerInventoryCache, outboxDaoService, eventPublisher);
     }
 
     // --- getAll() Tests ---
     @Test
     @DisplayName("getAll should return an empty list when no cars are found")
     void getAll_noCarsFound_returnsEmptyList() {
-        when(carDaoService.getAll()).thenReturn(Collections.emptyList());
+        when(carDaoService.getAllAsDto()).thenReturn(Collections.emptyList());
 
         List<CarDto> result = carService.getAll();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(carDaoService, times(1)).getAll();
+        verify(carDaoService, times(1)).getAllAsDto();
     }
 
     @Test
@@ -97,7 +159,7 @@ class CarServiceTest {
         Car car2 = createCar(2, "Honda", "Civic", 2019, 20000.0, false, seller2);
         Car car3 = createCar(3, "Ford", "Mustang", 2021, 35000.0, true, null); // Car without seller
 
-        when(carDaoService.getAll()).thenReturn(Arrays.asList(car1, car2, car3));
+        when(carDaoService.getAllAsDto()).thenReturn(dtos(car1, car2, car3));
 
         List<CarDto> result = carService.getAll();
 
@@ -134,7 +196,7 @@ class CarServiceTest {
         assertTrue(dto3.getIsAvailable());
         assertNull(dto3.getSellerId());
 
-        verify(carDaoService, times(1)).getAll();
+        verify(carDaoService, times(1)).getAllAsDto();
     }
 
     // --- getOneById() Tests ---
@@ -203,6 +265,7 @@ class CarServiceTest {
         assertEquals(1, result.getSellerId());
 
         verify(sellerRepository, times(1)).findById(1);
+        verify(outboxDaoService).append(OutboxEventType.CAR_LISTED, 10, result);
 
         // Corrected verify statement:
         verify(carDaoService, times(1)).create(argThat(car ->
@@ -392,6 +455,7 @@ class CarServiceTest {
 
         assertEquals("Delete Successful", result); // This assertion is for CarService's return value
         verify(carDaoService, times(1)).delete(carIdToDelete);
+        verify(outboxDaoService).append(OutboxEventType.CAR_DELETED, carIdToDelete, Map.of("id", carIdToDelete));
     }
 
 
@@ -400,13 +464,13 @@ class CarServiceTest {
     @Test
     @DisplayName("getAvailableCars should return empty list when no available cars are found")
     void getAvailableCars_noAvailableCars_returnsEmptyList() {
-        when(carDaoService.getAvailableCars()).thenReturn(Collections.emptyList());
+        when(carDaoService.getAvailableCarsAsDto()).thenReturn(Collections.emptyList());
 
         List<CarDto> result = carService.getAvailableCars();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(carDaoService, times(1)).getAvailableCars();
+        verify(carDaoService, times(1)).getAvailableCarsAsDto();
     }
 
     @Test
@@ -417,7 +481,7 @@ class CarServiceTest {
         Car car2 = createCar(2, "Honda", "Civic", 2019, 20000.0, false, null); // Unavailable car
         Car car3 = createCar(3, "Ford", "Mustang", 2021, 35000.0, true, seller);
 
-        when(carDaoService.getAvailableCars()).thenReturn(Arrays.asList(car1, car3)); // Only return available ones from DAO
+        when(carDaoService.getAvailableCarsAsDto()).thenReturn(dtos(car1, car3)); // Only return available ones from DAO
 
         List<CarDto> result = carService.getAvailableCars();
 
@@ -426,7 +490,34 @@ class CarServiceTest {
         assertTrue(result.stream().allMatch(CarDto::getIsAvailable)); // Ensure all are available
         assertEquals(1, result.get(0).getId());
         assertEquals(3, result.get(1).getId());
-        verify(carDaoService, times(1)).getAvailableCars();
+        verify(carDaoService, times(1)).getAvailableCarsAsDto();
+    }
+
+    @Test
+    @DisplayName("getAvailableCars should serve the in-memory snapshot once it is loaded")
+    void getAvailableCars_snapshotLoaded_doesNotHitDatabase() {
+        AvailableCarsSnapshot snapshot = new AvailableCarsSnapshot();
+        snapshot.rebuild(List.of(
+                new CarDto(1, "Toyota", "Camry", 2020, 25000.0, true, 1),
+                new CarDto(2, "Honda", "Civic", 2019, 20000.0, false, 1)));
+        when(availableCarsSnapshot.isLoaded()).thenReturn(true);
+        when(availableCarsSnapshot.get()).thenReturn(snapshot.get());
+
+        List<CarDto> result = carService.getAvailableCars();
+
+        assertEquals(List.of(1), result.stream().map(CarDto::getId).toList());
+        verify(carDaoService, never()).getAvailableCarsAsDto();
+    }
+
+    @Test
+    @DisplayName("getAvailableCars should leave out cars that are on hold")
+    void getAvailableCars_excludesHeldCars() {
+        CarDto held = new CarDto(1, "Toyota", "Camry", 2020, 25000.0, true, 1);
+        CarDto free = new CarDto(2, "Honda", "Civic", 2019, 20000.0, true, 1);
+        when(carDaoService.getAvailableCarsAsDto()).thenReturn(List.of(held, free));
+        when(carHoldService.heldCarIds()).thenReturn(Set.of(1));
+
+        assertEquals(List.of(free), carService.getAvailableCars());
     }
 
     // --- getCarsBySeller() Tests ---
@@ -434,13 +525,13 @@ class CarServiceTest {
     @DisplayName("getCarsBySeller should return empty list when seller has no cars")
     void getCarsBySeller_sellerHasNoCars_returnsEmptyList() {
         Integer sellerId = 1;
-        when(carDaoService.getCarsBySeller(sellerId)).thenReturn(Collections.emptyList());
+        when(carDaoService.getCarsBySellerAsDto(sellerId)).thenReturn(Collections.emptyList());
 
         List<CarDto> result = carService.getCarsBySeller(sellerId);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(carDaoService, times(1)).getCarsBySeller(sellerId);
+        verify(carDaoService, times(1)).getCarsBySellerAsDto(sellerId);
     }
 
     @Test
@@ -450,7 +541,7 @@ class CarServiceTest {
         Car car1 = createCar(101, "Toyota", "Corolla", 2018, 18000.0, true, seller);
         Car car2 = createCar(102, "Honda", "Accord", 2020, 28000.0, true, seller);
 
-        when(carDaoService.getCarsBySeller(1)).thenReturn(Arrays.asList(car1, car2));
+        when(carDaoService.getCarsBySellerAsDto(1)).thenReturn(dtos(car1, car2));
 
         List<CarDto> result = carService.getCarsBySeller(1);
 
@@ -459,7 +550,7 @@ class CarServiceTest {
         assertTrue(result.stream().allMatch(dto -> dto.getSellerId().equals(1)));
         assertEquals(101, result.get(0).getId());
         assertEquals(102, result.get(1).getId());
-        verify(carDaoService, times(1)).getCarsBySeller(1);
+        verify(carDaoService, times(1)).getCarsBySellerAsDto(1);
     }
 
     @Test
@@ -467,13 +558,32 @@ class CarServiceTest {
     void getCarsBySeller_nonExistentSellerId_returnsEmptyList() {
         Integer nonExistentSellerId = 99;
         // Assuming DAO returns an empty list if seller not found or has no cars
-        when(carDaoService.getCarsBySeller(nonExistentSellerId)).thenReturn(Collections.emptyList());
+        when(carDaoService.getCarsBySellerAsDto(nonExistentSellerId)).thenReturn(Collections.emptyList());
 
         List<CarDto> result = carService.getCarsBySeller(nonExistentSellerId);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(carDaoService, times(1)).getCarsBySeller(nonExistentSellerId);
+        verify(carDaoService, times(1)).getCarsBySellerAsDto(nonExistentSellerId);
+    }
+
+    @Test
+    @DisplayName("getCarsBySeller should serve repeat calls from the cache until the seller's car changes")
+    void getCarsBySeller_cachedUntilInvalidated() {
+        Seller seller = createSeller(1, "Seller A");
+        Car car = createCar(101, "Toyota", "Corolla", 2018, 18000.0, true, seller);
+        when(carDaoService.getCarsBySellerAsDto(1)).thenReturn(dtos(car));
+
+        carService.getCarsBySeller(1);
+        carService.getCarsBySeller(1);
+        verify(carDaoService, times(1)).getCarsBySellerAsDto(1);
+
+        sellerInventoryCache.onCarSaved(new CarDto(101, "Toyota", "Corolla", 2018, 17000.0, true, 1));
+        carService.getCarsBySeller(1);
+
+        verify(carDaoService, times(2)).getCarsBySellerAsDto(1);
+        assertEquals(1, carService.getSellerInventoryCacheStats().getHitCount());
+        assertEquals(2, carService.getSellerInventoryCacheStats().getMissCount());
     }
 
     // --- toDto(Car car) Tests (indirectly tested by other methods, but good to have direct tests for helpers) ---
@@ -565,6 +675,21 @@ class CarServiceTest {
         verify(sellerRepository, times(1)).findById(nonExistentSellerId);
     }
 
+    @Test
+    @DisplayName("toEntity(CarDto) should reference a seller already known to exist without loading it again")
+    void toEntity_knownSeller_usesReference() {
+        Seller seller = createSeller(1, "Test Seller");
+        Seller reference = createSeller(1, null);
+        when(sellerRepository.findById(1)).thenReturn(Optional.of(seller));
+        when(sellerRepository.getReferenceById(1)).thenReturn(reference);
+
+        carService.toEntity(createCarDto(1, "Audi", "Q5", 2021, 48000.0, true, 1));
+        Car car = carService.toEntity(createCarDto(2, "Audi", "Q7", 2022, 68000.0, true, 1));
+
+        assertSame(reference, car.getSeller());
+        verify(sellerRepository, times(1)).findById(1);
+    }
+
     @Test
     @DisplayName("toEntity(CarDto) should return null for null CarDto input")
     void toEntity_nullCarDto_returnsNull() {
@@ -572,4 +697,238 @@ class CarServiceTest {
         assertNull(car);
         verifyNoInteractions(sellerRepository);
     }
-}
\ No newline at end of file
+
+    // --- getPage() Tests ---
+    @Test
+    @DisplayName("getPage should return the first page with a cursor when more rows exist")
+    void getPage_firstPage_returnsContentAndCursor() {
+        Seller seller = createSeller(1, "Seller A");
+        Car car1 = createCar(1, "Toyota", "Camry", 2020, 18000.0, true, seller);
+        Car car2 = createCar(2, "Honda", "Civic", 2019, 21000.0, true, seller);
+        Window<Car> window = Window.from(List.of(car1, car2), index -> ScrollPosition.keyset(), true);
+
+        when(carDaoService.getPage(any(ScrollPosition.class), any(Sort.class), any(Limit.class), eq(false))).thenReturn(window);
+
+        CarPageDto page = carService.getPage("price", "asc", null, 2, false);
+
+        assertEquals(2, page.getSize());
+        assertTrue(page.isHasNext());
+        assertNotNull(page.getNextCursor());
+        verify(carDaoService).getPage(eq(ScrollPosition.keyset()),
+                eq(Sort.by(Sort.Direction.ASC, "price").and(Sort.by(Sort.Direction.ASC, "id"))),
+                eq(Limit.of(2)), eq(false));
+    }
+
+    @Test
+    @DisplayName("getPage should seek from the position encoded in the cursor")
+    void getPage_withCursor_seeksAfterLastRow() {
+        Car last = createCar(7, "Ford", "Focus", 2018, 15500.0, true, null);
+        when(carDaoService.getPage(any(ScrollPosition.class), any(Sort.class), any(Limit.class), anyBoolean()))
+                .thenReturn(Window.from(List.of(last), index -> ScrollPosition.keyset(), true))
+                .thenReturn(Window.from(Collections.emptyList(), index -> ScrollPosition.keyset(), false));
+
+        String cursor = carService.getPage("price", "asc", null, 1, true).getNextCursor();
+        CarPageDto next = carService.getPage("price", "asc", cursor, 1, true);
+
+        assertTrue(next.getContent().isEmpty());
+        assertFalse(next.isHasNext());
+        assertNull(next.getNextCursor());
+        verify(carDaoService).getPage(argThat(position -> position instanceof KeysetScrollPosition keyset
+                        && keyset.getKeys().equals(Map.of("price", 15500.0, "id", 7))),
+                any(Sort.class), eq(Limit.of(1)), eq(true));
+    }
+
+    @Test
+    @DisplayName("getPage should cap the page size at MAX_PAGE_SIZE")
+    void getPage_sizeAboveCap_isClamped() {
+        when(carDaoService.getPage(any(ScrollPosition.class), any(Sort.class), any(Limit.class), anyBoolean()))
+                .thenReturn(Window.from(Collections.emptyList(), index -> ScrollPosition.keyset(), false));
+
+        carService.getPage("id", "asc", null, 10_000, false);
+
+        verify(carDaoService).getPage(any(ScrollPosition.class), eq(Sort.by(Sort.Direction.ASC, "id")),
+                eq(Limit.of(CarService.MAX_PAGE_SIZE)), eq(false));
+    }
+
+    @Test
+    @DisplayName("getPage should reject a cursor issued for a different sort order")
+    void getPage_cursorForOtherSort_throwsIllegalArgumentException() {
+        Car last = createCar(3, "Kia", "Rio", 2021, 12000.0, true, null);
+        when(carDaoService.getPage(any(ScrollPosition.class), any(Sort.class), any(Limit.class), anyBoolean()))
+                .thenReturn(Window.from(List.of(last), index -> ScrollPosition.keyset(), true));
+
+        String cursor = carService.getPage("year", "desc", null, 1, false).getNextCursor();
+
+        assertThrows(IllegalArgumentException.class, () -> carService.getPage("price", "desc", cursor, 1, false));
+        assertThrows(IllegalArgumentException.class, () -> carService.getPage("year", "desc", "not-a-cursor", 1, false));
+        assertThrows(IllegalArgumentException.class, () -> carService.getPage("color", "asc", null, 1, false));
+    }
+
+    // --- change events ---
+    @Test
+    @DisplayName("create, update and delete should publish CarChangedEvents for the car indexes")
+    void writes_publishCarChangedEvents() {
+        Seller seller = createSeller(1, "Seller A");
+        Car saved = createCar(5, "Mazda", "3", 2022, 21000.0, true, seller);
+        when(sellerRepository.findById(1)).thenReturn(Optional.of(seller));
+        when(carDaoService.create(any(Car.class))).thenReturn(saved);
+        when(carDaoService.update(any(Car.class))).thenReturn(saved);
+
+        CarDto created = carService.create(createCarDto(null, "Mazda", "3", 2022, 21000.0, true, 1));
+        carService.update(createCarDto(5, "Mazda", "3", 2022, 21000.0, true, 1));
+        carService.delete(5);
+
+        verify(eventPublisher, times(2)).publishEvent(CarChangedEvent.saved(created));
+        verify(eventPublisher).publishEvent(CarChangedEvent.deleted(5));
+    }
+
+    // --- facetSearch() Tests ---
+    @Test
+    @DisplayName("facetSearch should pass only non-blank filters to the index and hydrate matches in id order")
+    void facetSearch_filtersAndHydratesMatches() {
+        Car car3 = createCar(3, "Toyota", "Corolla", 2019, 14000.0, true, null);
+        Car car9 = createCar(9, "Toyota", "Yaris", 2018, 11000.0, true, null);
+        Map<String, Map<String, Integer>> counts = Map.of(CarFacetIndex.MAKE, Map.of("Toyota", 2));
+        when(carFacetIndex.search(anyMap(), eq(CarService.DEFAULT_PAGE_SIZE)))
+                .thenReturn(new CarFacetIndex.FacetResult(2, List.of(3, 9), counts));
+        when(carDaoService.getByIdsAsDto(List.of(3, 9))).thenReturn(dtos(car9, car3));
+
+        CarFacetSearchDto result = carService.facetSearch("Toyota", " ", null, "10000-15000", true, null);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(List.of(3, 9), result.getCars().stream().map(CarDto::getId).toList());
+        assertEquals(counts, result.getFacets());
+        verify(carFacetIndex).search(Map.of(CarFacetIndex.MAKE, "Toyota",
+                CarFacetIndex.PRICE_BAND, "10000-15000",
+                CarFacetIndex.AVAILABLE, "true"), CarService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    @DisplayName("facetSearch should skip the database when nothing matches")
+    void facetSearch_noMatches_doesNotHitDatabase() {
+        when(carFacetIndex.search(anyMap(), anyInt())).thenReturn(new CarFacetIndex.FacetResult(0, List.of(), Map.of()));
+
+        CarFacetSearchDto result = carService.facetSearch("Lada", null, null, null, null, 10);
+
+        assertEquals(0, result.getTotal());
+        assertTrue(result.getCars().isEmpty());
+        verify(carDaoService, never()).getByIdsAsDto(anyList());
+    }
+
+    // --- search() Tests ---
+    @Test
+    @DisplayName("search should open unbounded ranges and return cars in index order")
+    void search_returnsCarsInIndexOrder() {
+        Car cheap = createCar(8, "Skoda", "Fabia", 2019, 8500.0, true, null);
+        Car pricier = createCar(2, "Seat", "Ibiza", 2020, 11000.0, true, null);
+        when(carRangeIndex.search(8000.0, 12000.0, 2018, Integer.MAX_VALUE, CarRangeIndex.SortOrder.PRICE_ASC, 5))
+                .thenReturn(new int[]{8, 2});
+        when(carDaoService.getByIdsAsDto(List.of(8, 2))).thenReturn(dtos(pricier, cheap));
+
+        List<CarDto> result = carService.search(8000.0, 12000.0, 2018, null, "price_asc", 5);
+
+        assertEquals(List.of(8, 2), result.stream().map(CarDto::getId).toList());
+    }
+
+    @Test
+    @DisplayName("search should reject unknown sort orders")
+    void search_unknownSort_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> carService.search(null, null, null, null, "mileage", 5));
+        verifyNoInteractions(carRangeIndex);
+    }
+
+    // --- textSearch() Tests ---
+    @Test
+    @DisplayName("textSearch should return cars in relevance order from the search index")
+    void textSearch_returnsCarsInRelevanceOrder() {
+        Car golf = createCar(4, "Volkswagen", "Golf", 2019, 14000.0, true, null);
+        Car polo = createCar(9, "Volkswagen", "Polo", 2021, 12000.0, true, null);
+        when(carSearchIndex.search("volkswagon golf", true, 20)).thenReturn(List.of(4, 9));
+        when(carDaoService.getByIdsAsDto(List.of(4, 9))).thenReturn(dtos(polo, golf));
+
+        List<CarDto> result = carService.textSearch("volkswagon golf", true, null);
+
+        assertEquals(List.of(4, 9), result.stream().map(CarDto::getId).toList());
+    }
+
+    @Test
+    @DisplayName("textSearch should reject a blank query")
+    void textSearch_blankQuery_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> carService.textSearch("  ", false, 5));
+        verifyNoInteractions(carSearchIndex);
+    }
+
+    // --- suggest() Tests ---
+    @Test
+    @DisplayName("suggest should ask the index for everything it keeps unless a size is given")
+    void suggest_passesLimitToIndex() {
+        when(carSuggestIndex.suggest("toy", Integer.MAX_VALUE)).thenReturn(List.of("Toyota", "Toyota Corolla"));
+        when(carSuggestIndex.suggest("toy", 1)).thenReturn(List.of("Toyota"));
+
+        assertEquals(List.of("Toyota", "Toyota Corolla"), carService.suggest("toy", null));
+        assertEquals(List.of("Toyota"), carService.suggest("toy", 1));
+        verifyNoInteractions(carDaoService);
+    }
+
+    // --- similar() Tests ---
+    @Test
+    @DisplayName("similar should rank with the index and hydrate the cars in its order")
+    void similar_hydratesInIndexOrder() {
+        CarDto reference = new CarDto(1, "Toyota", "Corolla", 2020, 15000.0, true, 7);
+        CarDto first = new CarDto(3, "Toyota", "Corolla", 2021, 15500.0, true, 8);
+        CarDto second = new CarDto(2, "Toyota", "Camry", 2020, 16000.0, true, 7);
+        when(carDaoService.getByIdsAsDto(List.of(1))).thenReturn(List.of(reference));
+        when(carSimilarityIndex.similar(reference, CarService.DEFAULT_SIMILAR_COUNT)).thenReturn(new int[]{3, 2});
+        when(carDaoService.getByIdsAsDto(List.of(3, 2))).thenReturn(List.of(second, first));
+
+        assertEquals(List.of(first, second), carService.similar(1, null));
+    }
+
+    @Test
+    @DisplayName("similar should be a not-found error for an unknown car")
+    void similar_unknownCar_throws() {
+        when(carDaoService.getByIdsAsDto(List.of(99))).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> carService.similar(99, 5));
+        verifyNoInteractions(carSimilarityIndex);
+    }
+
+    // --- bulkUpdate() Tests ---
+    @Test
+    @DisplayName("bulkUpdate should turn a percentage into a factor and publish only the cars it changed, once")
+    void bulkUpdate_percentage_publishesChangedCars() {
+        Seller seller = createSeller(1, "Seller A");
+        Car car = createCar(101, "Toyota", "Corolla", 2019, 16200.0, true, seller);
+        CarBulkUpdateDto change = new CarBulkUpdateDto(null, null, 2019, 2019, null, null, null, -10.0, null, null);
+        when(carDaoService.bulkUpdateBySeller(1, change, 0.9, 0.0)).thenReturn(List.of(101));
+        when(carDaoService.getByIdsAsDto(List.of(101))).thenReturn(dtos(car));
+
+        CarBulkUpdateResultDto result = carService.bulkUpdate(1, change);
+
+        assertEquals(1, result.getUpdatedCount());
+        verify(carDaoService, never()).getCarsBySellerAsDto(any());
+        verify(eventPublisher, times(1)).publishEvent(new CarChangedEvent(List.of(carService.toDto(car)), List.of()));
+        verify(outboxDaoService).appendAll(eq(OutboxEventType.CAR_UPDATED), eq(List.of(carService.toDto(car))), any());
+    }
+
+    @Test
+    @DisplayName("bulkUpdate should not publish anything when no car matched")
+    void bulkUpdate_noMatches_noEvent() {
+        CarBulkUpdateDto change = new CarBulkUpdateDto(null, null, null, null, null, null, null, null, -500.0, false);
+        when(carDaoService.bulkUpdateBySeller(1, change, 1.0, -500.0)).thenReturn(List.of());
+
+        assertEquals(0, carService.bulkUpdate(1, change).getUpdatedCount());
+        verifyNoInteractions(eventPublisher, outboxDaoService);
+    }
+
+    @Test
+    @DisplayName("bulkUpdate should reject missing, conflicting or impossible operations")
+    void bulkUpdate_invalidOperations() {
+        assertThrows(IllegalArgumentException.class, () -> carService.bulkUpdate(1, new CarBulkUpdateDto()));
+        assertThrows(IllegalArgumentException.class, () -> carService.bulkUpdate(1,
+                new CarBulkUpdateDto(null, null, null, null, null, null, null, -10.0, -500.0, null)));
+        assertThrows(IllegalArgumentException.class, () -> carService.bulkUpdate(1,
+                new CarBulkUpdateDto(null, null, null, null, null, null, null, -100.0, null, null)));
+        verify(carDaoService, never()).bulkUpdateBySeller(any(), any(), anyDouble(), anyDouble());
+    }
+}
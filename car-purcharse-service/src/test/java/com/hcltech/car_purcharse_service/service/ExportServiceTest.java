@@ -0,0 +1,114 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hcltech.car_purcharse_service.dao.service.CarDaoService;
+import com.hcltech.car_purcharse_service.dao.service.CarPriceHistoryDaoService;
+import com.hcltech.car_purcharse_service.dao.service.PurchasedCarDaoService;
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.dto.PricePointDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    @Mock
+    private CarDaoService carDaoService;
+
+    @Mock
+    private PurchasedCarDaoService purchasedCarDaoService;
+
+    @Mock
+    private CarPriceHistoryDaoService carPriceHistoryDaoService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new ExportService(carDaoService, purchasedCarDaoService, carPriceHistoryDaoService, transactionManager, objectMapper);
+    }
+
+    @Test
+    @DisplayName("CSV export should write a header, escape values and leave nulls empty")
+    void exportCars_csv() throws Exception {
+        when(carDaoService.streamAll()).thenReturn(Stream.of(
+                new CarDto(1, "Ford", "Focus, ST", 2018, 8000.0, true, 3),
+                new CarDto(2, "Kia", "Rio \"GT\"", 2020, null, false, null)));
+
+        String csv = write(exportService.exportCars(ExportFormat.CSV));
+
+        assertEquals("id,make,model,year,price,isAvailable,sellerId\n"
+                + "1,Ford,\"Focus, ST\",2018,8000.0,true,3\n"
+                + "2,Kia,\"Rio \"\"GT\"\"\",2020,,false,\n", csv);
+    }
+
+    @Test
+    @DisplayName("NDJSON export should write one object per line inside a read-only transaction and close the cursor")
+    void exportPurchasedCars_ndjson() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(purchasedCarDaoService.streamAllPurchasedCars()).thenReturn(Stream.of(
+                new PurchasedCarResponseDto(1, 10, 20, 30, LocalDate.of(2024, 5, 20)),
+                new PurchasedCarResponseDto(2, 11, 21, 31, null)).onClose(() -> closed.set(true)));
+
+        String ndjson = write(exportService.exportPurchasedCars(ExportFormat.NDJSON));
+
+        assertEquals("{\"id\":1,\"buyerId\":10,\"sellerId\":20,\"carId\":30,\"purchaseDate\":\"2024-05-20\"}\n"
+                + "{\"id\":2,\"buyerId\":11,\"sellerId\":21,\"carId\":31,\"purchaseDate\":null}\n", ndjson);
+        assertTrue(closed.get());
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("price history CSV export should write one line per recorded price change")
+    void exportPriceHistory_csv() throws Exception {
+        when(carPriceHistoryDaoService.streamAll()).thenReturn(Stream.of(
+                new PricePointDto(1, Instant.parse("2025-01-01T00:00:00Z"), 15000.0),
+                new PricePointDto(1, Instant.parse("2025-01-02T12:30:00Z"), 14500.5)));
+
+        String csv = write(exportService.exportPriceHistory(ExportFormat.CSV));
+
+        assertEquals("carId,changedAt,price\n"
+                + "1,2025-01-01T00:00:00Z,15000.0\n"
+                + "1,2025-01-02T12:30:00Z,14500.5\n", csv);
+    }
+
+    @Test
+    @DisplayName("ExportFormat.from should reject unknown formats")
+    void exportFormat_unknown() {
+        assertEquals(ExportFormat.CSV, ExportFormat.from("CSV"));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.from("xml"));
+    }
+
+    private String write(StreamingResponseBody body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
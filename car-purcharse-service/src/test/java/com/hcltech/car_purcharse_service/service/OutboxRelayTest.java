@@ -0,0 +1,97 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.hcltech.car_purcharse_service.dao.service.OutboxDaoService;
+import com.hcltech.car_purcharse_service.event.OutboxEventType;
+import com.hcltech.car_purcharse_service.model.OutboxEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxDaoService outboxDaoService;
+
+    @Mock
+    private OutboxSink broker;
+
+    @Mock
+    private OutboxSink analytics;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxDaoService, List.of(broker, analytics), transactionManager, 2, Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("a batch should reach every sink before it is deleted, and full batches should be drained until empty")
+    void drain_deliversThenDeletes() {
+        List<OutboxEvent> first = List.of(event(1), event(2));
+        List<OutboxEvent> second = List.of(event(3));
+        when(outboxDaoService.claimOldest(2)).thenReturn(first, second);
+
+        outboxRelay.drain();
+
+        InOrder order = inOrder(broker, analytics, outboxDaoService);
+        order.verify(broker).deliver(first);
+        order.verify(analytics).deliver(first);
+        order.verify(outboxDaoService).delete(List.of(1L, 2L));
+        order.verify(broker).deliver(second);
+        order.verify(analytics).deliver(second);
+        order.verify(outboxDaoService).delete(List.of(3L));
+        verify(outboxDaoService, times(2)).claimOldest(2);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("a failing sink should roll the batch back so it is delivered again on the next poll")
+    void drain_sinkFailure_keepsBatch() {
+        List<OutboxEvent> batch = List.of(event(1), event(2));
+        when(outboxDaoService.claimOldest(2)).thenReturn(batch);
+        doThrow(new IllegalStateException("broker unavailable")).doNothing().when(analytics).deliver(batch);
+
+        outboxRelay.drain();
+
+        verify(outboxDaoService, never()).delete(any());
+        verify(transactionManager).rollback(any());
+
+        when(outboxDaoService.claimOldest(2)).thenReturn(batch, List.of());
+        outboxRelay.drain();
+
+        verify(broker, times(2)).deliver(batch);
+        verify(outboxDaoService).delete(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("an empty outbox should not call the sinks")
+    void relayBatch_empty() {
+        when(outboxDaoService.claimOldest(2)).thenReturn(List.of());
+
+        assertThat(outboxRelay.relayBatch()).isZero();
+
+        verifyNoInteractions(broker, analytics);
+    }
+
+    private static OutboxEvent event(long id) {
+        return new OutboxEvent(id, OutboxEventType.CAR_SOLD, (int) id, "{\"carId\":" + id + "}", Instant.EPOCH);
+    }
+}
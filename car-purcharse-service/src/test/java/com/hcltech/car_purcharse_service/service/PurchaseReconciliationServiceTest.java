@@ -0,0 +1,100 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.hcltech.car_purcharse_service.dao.journal.PurchaseJournal;
+import com.hcltech.car_purcharse_service.dao.service.PurchasedCarDaoService;
+import com.hcltech.car_purcharse_service.dto.PurchaseReconciliationDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarResponseDto;
+import com.hcltech.car_purcharse_service.event.PurchaseChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PurchaseReconciliationServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 10, 1);
+
+    @Mock
+    private PurchaseJournal purchaseJournal;
+
+    @Mock
+    private PurchasedCarDaoService purchasedCarDaoService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PurchaseReconciliationService purchaseReconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        purchaseReconciliationService = new PurchaseReconciliationService(purchaseJournal, purchasedCarDaoService,
+                transactionManager);
+    }
+
+    @Test
+    @DisplayName("reconciliation should compare each purchase's last journal entry with its row")
+    @SuppressWarnings("unchecked")
+    void reconcile_reportsDifferences() {
+        List<PurchaseChange> changes = List.of(
+                new PurchaseChange(PurchaseChange.Type.CREATED, 1, 1, 2, 10, DATE, 9000.0),
+                new PurchaseChange(PurchaseChange.Type.CREATED, 2, 1, 2, 11, DATE, 9000.0),
+                new PurchaseChange(PurchaseChange.Type.UPDATED, 2, 3, 2, 11, DATE, 9000.0),   // buyer changed
+                new PurchaseChange(PurchaseChange.Type.CREATED, 3, 1, 2, 12, DATE, 9000.0),
+                new PurchaseChange(PurchaseChange.Type.CREATED, 4, 1, 2, 13, DATE, 9000.0),
+                new PurchaseChange(PurchaseChange.Type.DELETED, 4, 1, 2, 13, DATE, 9000.0),
+                new PurchaseChange(PurchaseChange.Type.CREATED, 5, 1, 2, 14, DATE, 9000.0));
+        when(purchaseJournal.replay(any())).thenAnswer(invocation -> {
+            Consumer<PurchaseJournal.Entry> visitor = invocation.getArgument(0);
+            for (int i = 0; i < changes.size(); i++) {
+                visitor.accept(new PurchaseJournal.Entry(i + 1, 0, changes.get(i)));
+            }
+            return new PurchaseJournal.ReplayStats(changes.size(), 1, 1);
+        });
+        when(purchasedCarDaoService.streamAllPurchasedCars()).thenReturn(Stream.of(
+                new PurchasedCarResponseDto(1, 1, 2, 10, DATE),
+                new PurchasedCarResponseDto(2, 3, 2, 11, DATE),
+                new PurchasedCarResponseDto(3, 1, 2, 12, DATE.plusDays(1)),  // date differs
+                new PurchasedCarResponseDto(4, 1, 2, 13, DATE),              // journaled as deleted
+                new PurchasedCarResponseDto(6, 1, 2, 15, DATE)));            // sold before journaling
+
+        PurchaseReconciliationDto result = purchaseReconciliationService.reconcile();
+
+        assertThat(result.getJournalEntries()).isEqualTo(7);
+        assertThat(result.getCorruptEntries()).isEqualTo(1);
+        assertThat(result.getDatabasePurchases()).isEqualTo(5);
+        assertThat(result.getMissingFromJournal()).containsExactly(4, 6);
+        assertThat(result.getMissingFromJournalCount()).isEqualTo(2);
+        assertThat(result.getMissingFromDatabase()).containsExactly(5);
+        assertThat(result.getMismatched()).containsExactly(3);
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    @DisplayName("the reported ids should be capped while the counts stay exact")
+    void reconcile_capsIds() {
+        when(purchaseJournal.replay(any())).thenReturn(new PurchaseJournal.ReplayStats(0, 0, 1));
+        int purchases = PurchaseReconciliationService.MAX_IDS + 5;
+        when(purchasedCarDaoService.streamAllPurchasedCars()).thenReturn(Stream.iterate(purchases, id -> id - 1)
+                .limit(purchases).map(id -> new PurchasedCarResponseDto(id, 1, 2, id, DATE)));
+
+        PurchaseReconciliationDto result = purchaseReconciliationService.reconcile();
+
+        assertThat(result.getMissingFromJournalCount()).isEqualTo(purchases);
+        assertThat(result.getMissingFromJournal()).hasSize(PurchaseReconciliationService.MAX_IDS).startsWith(1, 2, 3);
+    }
+}
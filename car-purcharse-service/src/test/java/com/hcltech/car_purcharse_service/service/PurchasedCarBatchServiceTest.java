@@ -0,0 +1,98 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hcltech.car_purcharse_service.dao.service.PurchasedCarBatchDaoService;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarBatchItemDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarBatchResultDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PurchasedCarBatchServiceTest {
+
+    @Mock
+    private PurchasedCarBatchDaoService purchasedCarBatchDaoService;
+
+    private PurchasedCarBatchService purchasedCarBatchService;
+
+    @BeforeEach
+    void setUp() {
+        purchasedCarBatchService = new PurchasedCarBatchService(purchasedCarBatchDaoService,
+                new ObjectMapper().findAndRegisterModules(), 3);
+    }
+
+    @Test
+    @DisplayName("a JSON array should be parsed into purchases and the per-item results counted")
+    void createPurchasedCars_jsonArray() {
+        when(purchasedCarBatchDaoService.createPurchasedCars(List.of(
+                new PurchasedCarDto(1, 5, 10, LocalDate.of(2026, 10, 17)),
+                new PurchasedCarDto(2, 5, 11, null))))
+                .thenReturn(List.of(new PurchasedCarBatchItemDto(0, 10, 100, null),
+                        new PurchasedCarBatchItemDto(1, 11, null, "Car with ID 11 is no longer available")));
+
+        PurchasedCarBatchResultDto result = purchasedCarBatchService.createPurchasedCars(body(
+                "[{\"buyerId\":1,\"sellerId\":5,\"carId\":10,\"purchaseDate\":\"2026-10-17\"},"
+                        + "{\"buyerId\":2,\"sellerId\":5,\"carId\":11}]"));
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getItems()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("newline-delimited JSON should be accepted as well")
+    void createPurchasedCars_ndjson() {
+        when(purchasedCarBatchDaoService.createPurchasedCars(any()))
+                .thenReturn(List.of(new PurchasedCarBatchItemDto(0, 10, 100, null),
+                        new PurchasedCarBatchItemDto(1, 11, 101, null)));
+
+        PurchasedCarBatchResultDto result = purchasedCarBatchService.createPurchasedCars(body(
+                "{\"buyerId\":1,\"sellerId\":5,\"carId\":10}\n{\"buyerId\":1,\"sellerId\":5,\"carId\":11}\n"));
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        verify(purchasedCarBatchDaoService).createPurchasedCars(List.of(
+                new PurchasedCarDto(1, 5, 10, null), new PurchasedCarDto(1, 5, 11, null)));
+    }
+
+    @Test
+    @DisplayName("an empty batch should not reach the database")
+    void createPurchasedCars_empty() {
+        PurchasedCarBatchResultDto result = purchasedCarBatchService.createPurchasedCars(body("[]"));
+
+        assertThat(result.getTotal()).isZero();
+        verifyNoInteractions(purchasedCarBatchDaoService);
+    }
+
+    @Test
+    @DisplayName("malformed JSON or an oversized batch should be rejected before anything is written")
+    void createPurchasedCars_rejectedWhole() {
+        assertThatThrownBy(() -> purchasedCarBatchService.createPurchasedCars(body("[{\"buyerId\":1,")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Malformed JSON");
+        assertThatThrownBy(() -> purchasedCarBatchService.createPurchasedCars(body("[{},{},{},{}]")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("A batch may hold at most 3 purchases");
+        verifyNoInteractions(purchasedCarBatchDaoService);
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,104 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.hcltech.car_purcharse_service.dao.service.CarDaoService;
+import com.hcltech.car_purcharse_service.dto.BuyerSummaryDto;
+import com.hcltech.car_purcharse_service.dto.CarDto;
+import com.hcltech.car_purcharse_service.dto.PurchasedCarResponseDto;
+import com.hcltech.car_purcharse_service.dto.SellerSummaryDto;
+import com.hcltech.car_purcharse_service.model.Buyer;
+import com.hcltech.car_purcharse_service.model.Seller;
+import com.hcltech.car_purcharse_service.repository.BuyerRepository;
+import com.hcltech.car_purcharse_service.repository.SellerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PurchasedCarExpansionServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 10, 1);
+
+    @Mock
+    private BuyerRepository buyerRepository;
+
+    @Mock
+    private SellerRepository sellerRepository;
+
+    @Mock
+    private CarDaoService carDaoService;
+
+    private PurchasedCarExpansionService purchasedCarExpansionService;
+
+    @BeforeEach
+    void setUp() {
+        purchasedCarExpansionService = new PurchasedCarExpansionService(buyerRepository, sellerRepository,
+                carDaoService, new ModelMapper());
+    }
+
+    @Test
+    @DisplayName("expand should load each requested kind once for the whole page, by its distinct ids")
+    void expand_loadsEachKindOnce() {
+        List<PurchasedCarResponseDto> page = List.of(
+                new PurchasedCarResponseDto(1, 7, 3, 10, DATE),
+                new PurchasedCarResponseDto(2, 7, 3, 11, DATE),
+                new PurchasedCarResponseDto(3, 8, 3, 12, DATE));
+        when(buyerRepository.findAllById(List.of(7, 8))).thenReturn(List.of(
+                new Buyer(7, "Jane", "Doe", "jane@example.com", "5550100"),
+                new Buyer(8, "John", "Roe", "john@example.com", "5550101")));
+        when(sellerRepository.findAllById(List.of(3))).thenReturn(List.of(new Seller(3, "Dealer", "5550199", "dealer@example.com")));
+        when(carDaoService.getByIdsAsDto(List.of(10, 11, 12))).thenReturn(List.of(
+                new CarDto(10, "Kia", "Rio", 2020, 9000.0, false, 3),
+                new CarDto(11, "Kia", "Ceed", 2021, 15000.0, false, 3)));    // car 12 has since been deleted
+
+        purchasedCarExpansionService.expand(page, EnumSet.allOf(PurchaseExpansion.class));
+
+        assertThat(page).extracting(purchase -> purchase.getBuyer().getFirstName()).containsExactly("Jane", "Jane", "John");
+        assertThat(page).extracting(purchase -> purchase.getSeller().getName()).containsOnly("Dealer");
+        assertThat(page.get(0).getBuyer()).isEqualTo(new BuyerSummaryDto(7, "Jane", "Doe", "jane@example.com", "5550100"));
+        assertThat(page.get(0).getSeller()).isEqualTo(new SellerSummaryDto(3, "Dealer", "dealer@example.com", "5550199"));
+        assertThat(page.get(1).getCar().getModel()).isEqualTo("Ceed");
+        assertThat(page.get(2).getCar()).isNull();
+        verify(buyerRepository, times(1)).findAllById(any());
+        verify(sellerRepository, times(1)).findAllById(any());
+        verify(carDaoService, times(1)).getByIdsAsDto(any());
+    }
+
+    @Test
+    @DisplayName("only the requested kinds should be loaded, and nothing for no expansion or an empty page")
+    void expand_onlyRequested() {
+        List<PurchasedCarResponseDto> page = List.of(new PurchasedCarResponseDto(1, 7, 3, 10, DATE));
+        when(sellerRepository.findAllById(List.of(3))).thenReturn(List.of());
+
+        purchasedCarExpansionService.expand(page, EnumSet.of(PurchaseExpansion.SELLER));
+        purchasedCarExpansionService.expand(page, Set.of());
+        purchasedCarExpansionService.expand(List.of(), EnumSet.allOf(PurchaseExpansion.class));
+
+        assertThat(page.get(0).getBuyer()).isNull();
+        verifyNoInteractions(buyerRepository, carDaoService);
+        verify(sellerRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("parse should accept comma-separated and repeated values, case-insensitively, and reject unknown ones")
+    void parse() {
+        assertThat(PurchaseExpansion.parse(List.of("Buyer, car", "seller"))).containsExactlyInAnyOrder(PurchaseExpansion.values());
+        assertThat(PurchaseExpansion.parse(null)).isEmpty();
+        assertThatThrownBy(() -> PurchaseExpansion.parse(List.of("buyer,reviews")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("reviews");
+    }
+}
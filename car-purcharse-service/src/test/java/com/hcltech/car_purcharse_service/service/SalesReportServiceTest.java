@@ -0,0 +1,83 @@
+package com.hcltech.car_purcharse_service.service;
+
+import com.hcltech.car_purcharse_service.dao.service.SalesRollupDaoService;
+import com.hcltech.car_purcharse_service.dto.MakeSalesDto;
+import com.hcltech.car_purcharse_service.dto.SellerSalesDto;
+import com.hcltech.car_purcharse_service.model.MakeMonthlySales;
+import com.hcltech.car_purcharse_service.model.SellerDailySales;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesReportServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+    @Mock
+    private SalesRollupDaoService salesRollupDaoService;
+
+    private SalesReportService salesReportService;
+
+    @BeforeEach
+    void setUp() {
+        salesReportService = new SalesReportService(salesRollupDaoService,
+                Clock.fixed(Instant.parse("2026-10-18T12:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("seller sales should sum the daily rollup rows of the range and leave out emptied days")
+    void getSellerSales_sumsDays() {
+        LocalDate from = LocalDate.of(2026, 9, 1);
+        LocalDate to = LocalDate.of(2026, 9, 30);
+        when(salesRollupDaoService.getSellerDays(2, from, to)).thenReturn(List.of(
+                new SellerDailySales(1, 2, LocalDate.of(2026, 9, 3), 2, 3_000_000),
+                new SellerDailySales(2, 2, LocalDate.of(2026, 9, 4), 0, 0),          // its only sale was deleted
+                new SellerDailySales(3, 2, LocalDate.of(2026, 9, 20), 1, 1_250_050)));
+
+        SellerSalesDto sales = salesReportService.getSellerSales(2, from, to);
+
+        assertThat(sales.getSalesCount()).isEqualTo(3);
+        assertThat(sales.getRevenue()).isEqualTo(42500.5);
+        assertThat(sales.getDays()).extracting(day -> day.getPeriod().getDayOfMonth()).containsExactly(3, 20);
+    }
+
+    @Test
+    @DisplayName("a missing range should default to the last 30 days, and a reversed one should be rejected")
+    void getSellerSales_range() {
+        SellerSalesDto sales = salesReportService.getSellerSales(2, null, null);
+
+        assertThat(sales.getFrom()).isEqualTo(TODAY.minusDays(29));
+        assertThat(sales.getTo()).isEqualTo(TODAY);
+        verify(salesRollupDaoService).getSellerDays(2, TODAY.minusDays(29), TODAY);
+        assertThatThrownBy(() -> salesReportService.getSellerSales(2, TODAY, TODAY.minusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("make sales should widen the range to whole months and rank makes by revenue")
+    void getMakeSales_sumsMonths() {
+        when(salesRollupDaoService.getMakeMonths(LocalDate.of(2026, 8, 1), LocalDate.of(2026, 10, 1))).thenReturn(List.of(
+                new MakeMonthlySales(1, "Kia", LocalDate.of(2026, 8, 1), 2, 2_000_000),
+                new MakeMonthlySales(2, "Seat", LocalDate.of(2026, 8, 1), 1, 2_100_000),
+                new MakeMonthlySales(3, "Kia", LocalDate.of(2026, 9, 1), 1, 1_500_000),
+                new MakeMonthlySales(4, "Ford", LocalDate.of(2026, 9, 1), 0, 0)));
+
+        List<MakeSalesDto> makes = salesReportService.getMakeSales(LocalDate.of(2026, 8, 15), LocalDate.of(2026, 10, 2));
+
+        assertThat(makes).containsExactly(new MakeSalesDto("Kia", 3, 35000.0), new MakeSalesDto("Seat", 1, 21000.0));
+    }
+}
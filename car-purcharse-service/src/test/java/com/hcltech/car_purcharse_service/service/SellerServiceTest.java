@@ -3,6 +3,7 @@ package com.hcltech.car_purcharse_service.service;
 import com.hcltech.car_purcharse_service.dao.service.SellerDaoService;
 import com.hcltech.car_purcharse_service.dao.service.UserDaoService;
 import com.hcltech.car_purcharse_service.dto.SellerDto;
+import com.hcltech.car_purcharse_service.event.SellerChangedEvent;
 import com.hcltech.car_purcharse_service.model.Seller;
 import com.hcltech.car_purcharse_service.model.User;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +14,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.Arrays;
@@ -34,6 +36,9 @@ class SellerServiceTest {
     @Mock
     private UserDaoService userDaoService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SellerService sellerService;
 
@@ -92,6 +97,7 @@ class SellerServiceTest {
 
         verify(userDaoService, times(1)).createUser(sellerDto.getEmail(), sellerDto.getPassword(), "SELLER");
         verify(sellerDaoService, times(1)).saveSeller(seller);
+        verify(eventPublisher, times(1)).publishEvent(new SellerChangedEvent(1));
         verify(modelMapper, times(1)).map(sellerDto, Seller.class);
         verify(modelMapper, times(1)).map(seller, SellerDto.class);
     }
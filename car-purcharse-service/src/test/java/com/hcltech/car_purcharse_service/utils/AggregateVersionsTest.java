@@ -0,0 +1,56 @@
+package com.hcltech.car_purcharse_service.utils;
+
+import com.hcltech.car_purcharse_service.dao.service.AggregateVersionDaoService;
+import com.hcltech.car_purcharse_service.event.CarChangedEvent;
+import com.hcltech.car_purcharse_service.event.CarHoldChangedEvent;
+import com.hcltech.car_purcharse_service.event.CarPurchasedEvent;
+import com.hcltech.car_purcharse_service.event.ReviewChangedEvent;
+import com.hcltech.car_purcharse_service.event.SellerChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AggregateVersionsTest {
+
+    @Mock
+    private AggregateVersionDaoService aggregateVersionDaoService;
+
+    private AggregateVersions aggregateVersions;
+
+    @BeforeEach
+    void setUp() {
+        aggregateVersions = new AggregateVersions(aggregateVersionDaoService);
+    }
+
+    @Test
+    @DisplayName("etag should be a strong tag built from the stored version")
+    void etag_readsStoredVersion() {
+        when(aggregateVersionDaoService.current("car")).thenReturn(1760788800000L, 1760788800001L);
+
+        assertThat(aggregateVersions.etag(AggregateVersions.Aggregate.CAR)).isEqualTo("\"car-1760788800000\"");
+        assertThat(aggregateVersions.etag(AggregateVersions.Aggregate.CAR)).isEqualTo("\"car-1760788800001\"");
+    }
+
+    @Test
+    @DisplayName("each event should only raise the version of its own aggregate")
+    void events_bumpOnlyTheirAggregate() {
+        aggregateVersions.onCarChanged(CarChangedEvent.deleted(1));
+        aggregateVersions.onCarPurchased(new CarPurchasedEvent(2));
+        aggregateVersions.onCarHoldChanged(new CarHoldChangedEvent(3));
+        aggregateVersions.onReviewChanged(new ReviewChangedEvent(2));
+
+        verify(aggregateVersionDaoService, times(3)).bump("car");
+        verify(aggregateVersionDaoService).bump("review");
+        verify(aggregateVersionDaoService, never()).bump("seller");
+
+        aggregateVersions.onSellerChanged(new SellerChangedEvent(3));
+        verify(aggregateVersionDaoService).bump("seller");
+    }
+}
@@ -0,0 +1,32 @@
+package com.hcltech.car_purcharse_service.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorUtilsTest {
+
+    @Test
+    @DisplayName("encode and decode should round-trip all parts")
+    void encodeDecode_roundTrip() {
+        String token = CursorUtils.encode("price", "ASC", "15500.0", "7");
+
+        assertFalse(token.contains("|"));
+        assertArrayEquals(new String[]{"price", "ASC", "15500.0", "7"}, CursorUtils.decode(token, 4));
+    }
+
+    @Test
+    @DisplayName("decode should reject tokens that are not valid Base64")
+    void decode_invalidBase64_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> CursorUtils.decode("%%%", 4));
+    }
+
+    @Test
+    @DisplayName("decode should reject tokens with an unexpected number of parts")
+    void decode_wrongPartCount_throwsIllegalArgumentException() {
+        String token = CursorUtils.encode("id", "ASC", "3");
+
+        assertThrows(IllegalArgumentException.class, () -> CursorUtils.decode(token, 4));
+    }
+}
@@ -0,0 +1,108 @@
+package com.hcltech.car_purcharse_service.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 1_000;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    @DisplayName("items should fire on the tick of their deadline, not before")
+    void advance_firesAtDeadline() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, START);
+        wheel.schedule("soon", START + 5 * TICK);
+        wheel.schedule("later", START + 15 * 60 * TICK);
+
+        assertEquals(List.of(), wheel.advance(START + 4 * TICK));
+        assertEquals(List.of("soon"), wheel.advance(START + 5 * TICK));
+        assertEquals(List.of(), wheel.advance(START + 15 * 60 * TICK - 1));
+        assertEquals(List.of("later"), wheel.advance(START + 15 * 60 * TICK));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("a cancelled item should never fire and cannot be cancelled twice")
+    void cancel_removesItem() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, START);
+        HierarchicalTimingWheel.Timeout<String> timeout = wheel.schedule("held", START + 90 * TICK);
+
+        assertTrue(wheel.cancel(timeout));
+        assertFalse(wheel.cancel(timeout));
+        assertEquals(List.of(), wheel.advance(START + 100 * TICK));
+    }
+
+    @Test
+    @DisplayName("a deadline in the past should fire on the next tick")
+    void schedule_pastDeadline_firesNextTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, START);
+        wheel.schedule("overdue", START - 60 * TICK);
+
+        assertEquals(List.of("overdue"), wheel.advance(START + TICK));
+    }
+
+    @Test
+    @DisplayName("random deadlines across every level should each fire exactly once on their own tick")
+    void advance_randomDeadlines_matchReference() {
+        Random random = new Random(7);
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK, START);
+        Map<Integer, Long> deadlineTicks = new HashMap<>();
+        List<HierarchicalTimingWheel.Timeout<Integer>> timeouts = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            // spread over seconds, hours and weeks so every level and cascade is exercised
+            long delay = switch (i % 3) {
+                case 0 -> random.nextInt(120);
+                case 1 -> random.nextInt(4 * 3600);
+                default -> random.nextInt(21 * 24 * 3600);
+            };
+            deadlineTicks.put(i, START / TICK + Math.max(1, delay));
+            timeouts.add(wheel.schedule(i, START + delay * TICK));
+        }
+        for (int i = 0; i < 5_000; i += 10) {
+            wheel.cancel(timeouts.get(i));
+            deadlineTicks.remove(i);
+        }
+
+        Map<Integer, Long> fired = new HashMap<>();
+        long now = START;
+        while (wheel.size() > 0) {
+            now += TICK * (1 + random.nextInt(3000));
+            long tick = now / TICK;
+            for (Integer item : wheel.advance(now)) {
+                assertNull(fired.put(item, tick), "fired twice: " + item);
+                assertTrue(deadlineTicks.get(item) <= tick, "fired early: " + item);
+            }
+        }
+
+        assertEquals(deadlineTicks.keySet(), fired.keySet());
+    }
+
+    @Test
+    @DisplayName("advancing tick by tick should fire each item exactly on its deadline tick")
+    void advance_tickByTick_exact() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, START);
+        long[] delays = {1, 63, 64, 65, 4095, 4096, 4097, 262_143, 262_144, 262_145};
+        for (long delay : delays) {
+            wheel.schedule(delay, START + delay * TICK);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long tick = 1; tick <= 262_145; tick++) {
+            for (Long delay : wheel.advance(START + tick * TICK)) {
+                assertEquals(tick, delay);
+                fired.add(delay);
+            }
+        }
+
+        assertEquals(delays.length, fired.size());
+    }
+}
@@ -0,0 +1,50 @@
+package com.hcltech.car_purcharse_service.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceSeriesCodecTest {
+
+    @Test
+    @DisplayName("appended points should decode back in order, including price drops")
+    void appendDecode_roundTrip() {
+        long[][] points = {{1_700_000_000_000L, 1_550_000}, {1_700_000_060_000L, 1_499_999}, {1_700_086_400_000L, 1_600_000}};
+        byte[] data = new byte[0];
+        long previousMillis = 0;
+        long previousCents = 0;
+        for (long[] point : points) {
+            data = PriceSeriesCodec.append(data, previousMillis, previousCents, point[0], point[1]);
+            previousMillis = point[0];
+            previousCents = point[1];
+        }
+
+        List<long[]> decoded = new ArrayList<>();
+        PriceSeriesCodec.decode(data, (millis, cents) -> decoded.add(new long[]{millis, cents}));
+
+        assertEquals(points.length, decoded.size());
+        for (int i = 0; i < points.length; i++) {
+            assertArrayEquals(points[i], decoded.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("a small change should cost only a few bytes after the first point")
+    void append_deltasAreCompact() {
+        byte[] first = PriceSeriesCodec.append(new byte[0], 0, 0, 1_700_000_000_000L, 1_550_000);
+        byte[] second = PriceSeriesCodec.append(first, 1_700_000_000_000L, 1_550_000, 1_700_003_600_000L, 1_540_000);
+
+        assertTrue(second.length - first.length <= 8, "second point took " + (second.length - first.length) + " bytes");
+    }
+
+    @Test
+    @DisplayName("prices should convert to whole cents and back")
+    void cents_roundTrip() {
+        assertEquals(1_999_999, PriceSeriesCodec.toCents(19999.99));
+        assertEquals(19999.99, PriceSeriesCodec.fromCents(1_999_999));
+    }
+}